@@ -1,18 +1,210 @@
 package com.boostphysioclinic;
 
+import com.boostphysioclinic.api.ClinicHttpServer;
+import com.boostphysioclinic.archive.AppointmentArchive;
+import com.boostphysioclinic.events.DomainEventLog;
+import com.boostphysioclinic.jfr.ClinicEvents;
+import com.boostphysioclinic.metrics.MetricsFileDumper;
+import com.boostphysioclinic.metrics.MetricsRegistry;
+import com.boostphysioclinic.presentation.BatchCommandRunner;
 import com.boostphysioclinic.presentation.HomeScreenController;
-import com.boostphysioclinic.services.TimeTableService;
+import com.boostphysioclinic.services.ArchiveService;
+import com.boostphysioclinic.services.ClinicRouter;
+import com.boostphysioclinic.services.ReportCache;
+import com.boostphysioclinic.services.ServiceContainer;
+import com.boostphysioclinic.storage.InMemoryPatientStore;
+import com.boostphysioclinic.storage.MappedPatientStore;
+import com.boostphysioclinic.util.IdGenerator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 
 
 /**
+ * Starts the clinic as a console application, or with {@code --http [port]} as an HTTP API or with
+ * {@code --batch [file]} as a batch command runner. Optional features are switched on with
+ * {@code -Dboostphysio.*} system properties, described on the methods that read them.
+ * <p>
+ * Start the JVM with {@code --add-modules jdk.incubator.vector} to let reports use the vector aggregation kernel:
+ * {@code java --add-modules jdk.incubator.vector -cp target/classes com.boostphysioclinic.BoostPhysioClinic}.
+ * Without it, or with {@code -Dboostphysio.vectorAggregation=false}, the scalar kernel is used instead and the
+ * results are the same.
+ * </p>
+ *
  * @author Chukwudalu Ibuodinma
  */
 public class BoostPhysioClinic {
+    private static final int DEFAULT_HTTP_PORT = 8080;
+
+    public static void main(String[] args) throws IOException {
+        configureIdGenerator();
+        ClinicEvents.register();
+
+        if (args.length > 0 && args[0].equals("--http")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_HTTP_PORT;
+            startHttpServer(port);
+            return;
+        }
 
-    public static void main(String[] args) {
-        TimeTableService timeTableService = new TimeTableService();
-        timeTableService.generateSampleData();
-        new HomeScreenController();
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args.length > 1 ? args[1] : "-");
+            return;
+        }
+
+        try (MappedPatientStore patientStore = openPatientStore()) {
+            ServiceContainer services = createContainer(patientStore);
+            services.getTimeTableService().generateSampleData();
+            try (MetricsFileDumper dumper = startMetricsDump(services.getMetrics());
+                 DomainEventLog eventLog = startEventLog(services)) {
+                new HomeScreenController(services).run();
+            }
+        }
+    }
+
+    /**
+     * Starts the HTTP API with a single clinic, {@code main}, populated with the sample data.
+     *
+     * @param port the port to listen on
+     * @throws IOException if the server cannot be started
+     */
+    private static void startHttpServer(int port) throws IOException {
+        ClinicRouter router = new ClinicRouter(IdGenerator::getDefault);
+        router.addClinic("main");
+        router.route("main", services -> {
+            services.getTimeTableService().generateSampleData();
+            return null;
+        }).join();
+
+        ClinicHttpServer server = new ClinicHttpServer(router, new InetSocketAddress(port));
+        server.start();
+        System.out.println("Boost Physio Clinic API listening on http://localhost:" + server.getPort() + "/clinics");
+    }
+
+    /**
+     * Runs the commands in the given file, or standard input for {@code -}, against a container populated
+     * only by the commands themselves. Results and statistics go to standard output.
+     *
+     * @param source the command file, or {@code -} for standard input
+     * @throws IOException if the commands cannot be read
+     */
+    private static void runBatch(String source) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        try (BufferedReader in = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(source), StandardCharsets.UTF_8);
+             MappedPatientStore patientStore = openPatientStore()) {
+            ServiceContainer services = createContainer(patientStore);
+            try (MetricsFileDumper dumper = startMetricsDump(services.getMetrics());
+                 DomainEventLog eventLog = startEventLog(services)) {
+                new BatchCommandRunner(services, out).run(in);
+            }
+        }
+    }
+
+    /**
+     * Enables leased, node-aware IDs when a lease file is given with {@code -Dboostphysio.idLeaseFile=<path>}.
+     * The node id defaults to 0 and can be set with {@code -Dboostphysio.nodeId=<id>}.
+     */
+    private static void configureIdGenerator() {
+        String leaseFile = System.getProperty("boostphysio.idLeaseFile");
+        if (leaseFile != null && !leaseFile.isBlank()) {
+            int nodeId = Integer.getInteger("boostphysio.nodeId", 0);
+            IdGenerator.configure(nodeId, Path.of(leaseFile));
+        }
     }
-}
 
+    /**
+     * Opens the persistent patient store given with {@code -Dboostphysio.patientStore=<path>}, caching
+     * {@code -Dboostphysio.patientCacheSize=<n>} patients as objects. The store needs leased IDs, so that patients
+     * added after a restart are not given the IDs of stored ones.
+     *
+     * @return the store, or {@code null} if patients are kept in memory
+     * @throws IOException if the store cannot be opened
+     */
+    private static MappedPatientStore openPatientStore() throws IOException {
+        String storeFile = System.getProperty("boostphysio.patientStore");
+        if (storeFile == null || storeFile.isBlank()) {
+            return null;
+        }
+        String leaseFile = System.getProperty("boostphysio.idLeaseFile");
+        if (leaseFile == null || leaseFile.isBlank()) {
+            throw new IllegalStateException("-Dboostphysio.patientStore requires -Dboostphysio.idLeaseFile");
+        }
+        int cacheSize = Integer.getInteger("boostphysio.patientCacheSize", MappedPatientStore.DEFAULT_CACHE_SIZE);
+        return MappedPatientStore.open(Path.of(storeFile), cacheSize);
+    }
+
+    /**
+     * Opens the appointment archive given with {@code -Dboostphysio.archiveDir=<dir>}.
+     *
+     * @return the archive, or {@code null} if every appointment stays live
+     * @throws IOException if the archive cannot be opened
+     */
+    private static AppointmentArchive openArchive() throws IOException {
+        String archiveDir = System.getProperty("boostphysio.archiveDir");
+        return archiveDir == null || archiveDir.isBlank() ? null : AppointmentArchive.open(Path.of(archiveDir));
+    }
+
+    /**
+     * Creates the container for the console and batch modes. Finished appointments are archived once they are
+     * {@code -Dboostphysio.archiveHorizonDays=<days>} days old, 90 by default, and up to
+     * {@code -Dboostphysio.reportCacheSize=<n>} reports are cached, 64 by default or none when 0.
+     *
+     * @param patientStore the persistent patient store, or {@code null} to keep patients in memory
+     * @return the container
+     * @throws IOException if the appointment archive cannot be opened
+     */
+    private static ServiceContainer createContainer(MappedPatientStore patientStore) throws IOException {
+        int horizonDays = Integer.getInteger("boostphysio.archiveHorizonDays", ArchiveService.DEFAULT_HORIZON_DAYS);
+        int reportCacheSize = Integer.getInteger("boostphysio.reportCacheSize", ReportCache.DEFAULT_CAPACITY);
+        return new ServiceContainer(IdGenerator.getDefault(), createMetrics(),
+                patientStore == null ? new InMemoryPatientStore() : patientStore, openArchive(), horizonDays,
+                reportCacheSize);
+    }
+
+    /**
+     * Creates a metrics registry when a metrics file is given with {@code -Dboostphysio.metricsFile=<path>}.
+     *
+     * @return the registry, or {@code null} if metrics are not enabled
+     */
+    private static MetricsRegistry createMetrics() {
+        String metricsFile = System.getProperty("boostphysio.metricsFile");
+        return metricsFile == null || metricsFile.isBlank() ? null : new MetricsRegistry();
+    }
+
+    /**
+     * Starts writing the metrics to the file given with {@code -Dboostphysio.metricsFile=<path>} every
+     * {@code -Dboostphysio.metricsIntervalSeconds=<seconds>} seconds, 60 by default.
+     *
+     * @param metrics the registry to write, or {@code null} if metrics are not enabled
+     * @return the dumper, or {@code null} if metrics are not enabled
+     */
+    private static MetricsFileDumper startMetricsDump(MetricsRegistry metrics) {
+        if (metrics == null) {
+            return null;
+        }
+        Duration interval = Duration.ofSeconds(Integer.getInteger("boostphysio.metricsIntervalSeconds", 60));
+        return metrics.startDumping(Path.of(System.getProperty("boostphysio.metricsFile")), interval);
+    }
+
+    /**
+     * Starts appending the container's domain events to the file given with {@code -Dboostphysio.eventLog=<path>}.
+     *
+     * @param services the container whose events to log
+     * @return the log, or {@code null} if events are not logged
+     * @throws IOException if the log file cannot be opened
+     */
+    private static DomainEventLog startEventLog(ServiceContainer services) throws IOException {
+        String eventLog = System.getProperty("boostphysio.eventLog");
+        return eventLog == null || eventLog.isBlank() ? null : DomainEventLog.start(services.getEventBus(), Path.of(eventLog));
+    }
+}
@@ -0,0 +1,41 @@
+package com.boostphysioclinic.analytics;
+
+/**
+ * Counting reductions over the primitive columns of an appointment table.
+ * <p>
+ * Every method reads the first {@code size} elements of its arrays. Status bytes are
+ * {@link com.boostphysioclinic.model.BookingStatus#ordinal()} values. Use {@link AggregationKernels#best()}
+ * to get the fastest implementation the running JVM supports.
+ * </p>
+ */
+public interface AggregationKernel {
+
+    /**
+     * Counts the rows that belong to the given physiotherapist and have the given status.
+     *
+     * @param physiotherapistIds the physiotherapist ID of each row
+     * @param statuses           the status of each row
+     * @param size               the number of rows
+     * @param physiotherapistId  the physiotherapist to count
+     * @param status             the status to count
+     * @return the number of matching rows
+     */
+    int countMatching(int[] physiotherapistIds, byte[] statuses, int size, int physiotherapistId, byte status);
+
+    /**
+     * Counts the rows in each status.
+     *
+     * @param statuses    the status of each row
+     * @param size        the number of rows
+     * @param statusCount the number of distinct statuses
+     * @return an array indexed by status holding the number of rows in each
+     */
+    int[] countByStatus(byte[] statuses, int size, int statusCount);
+
+    /**
+     * Returns a short name for the implementation, for logs and metrics.
+     *
+     * @return the name
+     */
+    String getName();
+}
@@ -0,0 +1,52 @@
+package com.boostphysioclinic.analytics;
+
+/**
+ * Chooses the {@link AggregationKernel} for the running JVM.
+ * <p>
+ * The vector kernel is used when the JVM was started with {@code --add-modules jdk.incubator.vector} and the
+ * hardware's vectors are wide enough; otherwise the scalar kernel is. Start the JVM with
+ * {@code -Dboostphysio.vectorAggregation=false} to use the scalar kernel regardless.
+ * </p>
+ */
+public final class AggregationKernels {
+    private static final AggregationKernel SCALAR = new ScalarAggregationKernel();
+    private static final AggregationKernel BEST = load();
+
+    private AggregationKernels() {
+    }
+
+    /**
+     * Returns the fastest kernel the running JVM supports.
+     *
+     * @return the vector kernel if it can be used, otherwise the scalar kernel
+     */
+    public static AggregationKernel best() {
+        return BEST;
+    }
+
+    /**
+     * Returns the kernel written as plain loops, which every JVM supports.
+     *
+     * @return the scalar kernel
+     */
+    public static AggregationKernel scalar() {
+        return SCALAR;
+    }
+
+    private static AggregationKernel load() {
+        if (!Boolean.parseBoolean(System.getProperty("boostphysio.vectorAggregation", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            // Loaded by name so that this class never links against the incubator module when it is absent
+            Class<?> vectorKernel = Class.forName("com.boostphysioclinic.analytics.VectorAggregationKernel");
+            if (!(boolean) vectorKernel.getDeclaredMethod("isSupported").invoke(null)) {
+                return SCALAR;
+            }
+            return (AggregationKernel) vectorKernel.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+}
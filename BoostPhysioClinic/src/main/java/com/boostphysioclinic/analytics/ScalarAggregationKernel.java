@@ -0,0 +1,31 @@
+package com.boostphysioclinic.analytics;
+
+/**
+ * An {@link AggregationKernel} written as plain loops, which the JIT compiler may still unroll and
+ * auto-vectorize. It runs on every JVM and is the reference the vector kernel is tested against.
+ */
+final class ScalarAggregationKernel implements AggregationKernel {
+
+    @Override
+    public int countMatching(int[] physiotherapistIds, byte[] statuses, int size, int physiotherapistId, byte status) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += (physiotherapistIds[i] == physiotherapistId & statuses[i] == status) ? 1 : 0;
+        }
+        return count;
+    }
+
+    @Override
+    public int[] countByStatus(byte[] statuses, int size, int statusCount) {
+        int[] counts = new int[statusCount];
+        for (int i = 0; i < size; i++) {
+            counts[statuses[i]]++;
+        }
+        return counts;
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,77 @@
+package com.boostphysioclinic.analytics;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * An {@link AggregationKernel} using the incubating Vector API, which compiles each loop to SIMD compare
+ * and mask-count instructions.
+ * <p>
+ * {@link #countMatching} compares physiotherapist IDs a full integer vector at a time and the matching statuses
+ * with a byte vector of the same number of lanes, so the two masks can be combined directly. That needs integer
+ * vectors of at least eight lanes, so a byte vector of at least 64 bits; on narrower hardware
+ * {@link AggregationKernels} uses the scalar kernel instead. Rows left over after the last full vector are
+ * counted with a scalar loop.
+ * </p>
+ * <p>
+ * This class is only loaded reflectively, when the {@code jdk.incubator.vector} module is present.
+ * </p>
+ */
+final class VectorAggregationKernel implements AggregationKernel {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final int MIN_LANES = 8;
+    private static final VectorSpecies<Byte> STATUS_BYTES = INTS.length() >= MIN_LANES
+            ? VectorSpecies.of(byte.class, VectorShape.forBitSize(INTS.length() * Byte.SIZE))
+            : null;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+
+    /**
+     * Tells whether the hardware's vectors are wide enough for this kernel.
+     *
+     * @return {@code true} if the kernel can be used
+     */
+    static boolean isSupported() {
+        return STATUS_BYTES != null;
+    }
+
+    @Override
+    public int countMatching(int[] physiotherapistIds, byte[] statuses, int size, int physiotherapistId, byte status) {
+        int count = 0;
+        int i = 0;
+        int bound = INTS.loopBound(size);
+        for (; i < bound; i += INTS.length()) {
+            VectorMask<Integer> physio = IntVector.fromArray(INTS, physiotherapistIds, i).eq(physiotherapistId);
+            VectorMask<Integer> matching = ByteVector.fromArray(STATUS_BYTES, statuses, i).eq(status).cast(INTS);
+            count += physio.and(matching).trueCount();
+        }
+        for (; i < size; i++) {
+            count += (physiotherapistIds[i] == physiotherapistId & statuses[i] == status) ? 1 : 0;
+        }
+        return count;
+    }
+
+    @Override
+    public int[] countByStatus(byte[] statuses, int size, int statusCount) {
+        int[] counts = new int[statusCount];
+        int i = 0;
+        int bound = BYTES.loopBound(size);
+        for (; i < bound; i += BYTES.length()) {
+            ByteVector block = ByteVector.fromArray(BYTES, statuses, i);
+            for (int status = 0; status < statusCount; status++) {
+                counts[status] += block.eq((byte) status).trueCount();
+            }
+        }
+        for (; i < size; i++) {
+            counts[statuses[i]]++;
+        }
+        return counts;
+    }
+
+    @Override
+    public String getName() {
+        return "vector-" + INTS.vectorBitSize();
+    }
+}
@@ -0,0 +1,39 @@
+package com.boostphysioclinic.api;
+
+/**
+ * Signals that an API request cannot be completed. The status and error code are sent back to the client.
+ */
+class ApiException extends RuntimeException {
+    private final int status;
+    private final String error;
+
+    /**
+     * Creates an exception for the given HTTP status and error code.
+     *
+     * @param status the HTTP status code to respond with
+     * @param error  the error code sent to the client, e.g. an error enum name
+     */
+    ApiException(int status, String error) {
+        super(error, null, false, false);
+        this.status = status;
+        this.error = error;
+    }
+
+    /**
+     * Gets the HTTP status code to respond with.
+     *
+     * @return the status code
+     */
+    int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the error code sent to the client.
+     *
+     * @return the error code
+     */
+    String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,563 @@
+package com.boostphysioclinic.api;
+
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.report.AppointmentReport;
+import com.boostphysioclinic.model.report.PhysiotherapistReport;
+import com.boostphysioclinic.model.report.TreatmentReport;
+import com.boostphysioclinic.services.AppointmentService;
+import com.boostphysioclinic.services.ClinicRouter;
+import com.boostphysioclinic.services.ClinicShard;
+import com.boostphysioclinic.services.PatientService;
+import com.boostphysioclinic.services.PhysiotherapistService;
+import com.boostphysioclinic.services.ServiceContainer;
+import com.boostphysioclinic.services.SlotQuery;
+import com.boostphysioclinic.util.ClinicTime;
+import com.boostphysioclinic.util.Result;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Handles all requests below {@code /clinics}.
+ * <p>
+ * Parameters are read from the query string and, for {@code POST} requests, from a form-encoded body.
+ * Times use the ISO-8601 local date-time format, e.g. {@code 2025-01-06T09:00}. Endpoints:
+ * </p>
+ * <pre>
+ * GET    /clinics
+ * POST   /clinics/{clinic}/patients                          fullName, address, telephone
+ * GET    /clinics/{clinic}/patients/{id}
+ * DELETE /clinics/{clinic}/patients/{id}
+ * GET    /clinics/{clinic}/physiotherapists                  [name | expertise]
+ * GET    /clinics/{clinic}/physiotherapists/{id}/availability [from], [to]
+ * POST   /clinics/{clinic}/appointments                      patientId, physiotherapistId, time
+ * GET    /clinics/{clinic}/appointments/{id}
+ * POST   /clinics/{clinic}/appointments/{id}/cancel
+ * POST   /clinics/{clinic}/appointments/{id}/rebook
+ * POST   /clinics/{clinic}/appointments/{id}/attend
+ * GET    /clinics/{clinic}/reports/appointments              [physiotherapistId | from, to]
+ * GET    /clinics/{clinic}/reports/physiotherapists
+ * GET    /clinics/{clinic}/reports/treatments
+ * </pre>
+ * <p>
+ * Service operations run on the clinic's lane and return immutable views of the data, which are then written
+ * out on the request thread so slow clients never hold up a clinic. Failures are returned as
+ * {@code {"error": "..."}} using the service's error enum name where there is one.
+ * </p>
+ */
+class ClinicApiHandler implements HttpHandler {
+    private final ClinicRouter router;
+
+    /**
+     * Creates a handler serving the clinics of the given router.
+     *
+     * @param router the router holding the clinics
+     */
+    ClinicApiHandler(ClinicRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            List<String> path = splitPath(exchange.getRequestURI().getRawPath());
+            Map<String, String> params = readParams(exchange);
+            route(exchange, method, path, params);
+        } catch (ApiException e) {
+            sendError(exchange, e.getStatus(), e.getError());
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "INTERNAL_ERROR");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, List<String> path, Map<String, String> params)
+            throws IOException {
+        // path.get(0) is always "clinics"
+        if (path.size() == 1) {
+            requireMethod(method, "GET");
+            List<String> clinicIds = new ArrayList<>(router.getClinicIds());
+            send(exchange, 200, json -> {
+                json.beginArray();
+                for (String clinicId : clinicIds) {
+                    json.value(clinicId);
+                }
+                json.endArray();
+            });
+            return;
+        }
+
+        ClinicShard shard = router.getShard(path.get(1));
+        if (shard == null) {
+            throw new ApiException(404, "CLINIC_NOT_FOUND");
+        }
+
+        String resource = path.size() > 2 ? path.get(2) : "";
+        switch (resource) {
+            case "patients" -> handlePatients(exchange, shard, method, path, params);
+            case "physiotherapists" -> handlePhysiotherapists(exchange, shard, method, path, params);
+            case "appointments" -> handleAppointments(exchange, shard, method, path, params);
+            case "reports" -> handleReports(exchange, shard, method, path, params);
+            default -> throw new ApiException(404, "NOT_FOUND");
+        }
+    }
+
+    private void handlePatients(HttpExchange exchange, ClinicShard shard, String method, List<String> path,
+                                Map<String, String> params) throws IOException {
+        if (path.size() == 3) {
+            requireMethod(method, "POST");
+            String fullName = requireParam(params, "fullName");
+            String address = requireParam(params, "address");
+            String telephone = requireParam(params, "telephone");
+
+            PatientView patient = call(shard, services -> {
+                var result = services.getPatientService().addPatient(fullName, address, telephone);
+                if (result.isError()) {
+                    throw new ApiException(result.getError() == PatientService.Error.PATIENT_EXISTS
+                            ? 409 : 400, result.getError().name());
+                }
+                return PatientView.of(result.getData());
+            });
+            send(exchange, 201, patient::write);
+            return;
+        }
+
+        if (path.size() != 4) {
+            throw new ApiException(404, "NOT_FOUND");
+        }
+        int patientId = parseId(path.get(3));
+
+        switch (method) {
+            case "GET" -> {
+                PatientView patient = call(shard, services -> {
+                    Patient found = services.getPatientService().getPatientById(patientId);
+                    if (found == null) {
+                        throw new ApiException(404, "PATIENT_NOT_FOUND");
+                    }
+                    return PatientView.of(found);
+                });
+                send(exchange, 200, patient::write);
+            }
+            case "DELETE" -> {
+                boolean deleted = call(shard, services -> services.getPatientService().deletePatient(patientId));
+                if (!deleted) {
+                    throw new ApiException(404, "PATIENT_NOT_FOUND");
+                }
+                send(exchange, 200, json -> json.beginObject().name("deleted").value(true).endObject());
+            }
+            default -> throw new ApiException(405, "METHOD_NOT_ALLOWED");
+        }
+    }
+
+    private void handlePhysiotherapists(HttpExchange exchange, ClinicShard shard, String method, List<String> path,
+                                        Map<String, String> params) throws IOException {
+        requireMethod(method, "GET");
+
+        if (path.size() == 3) {
+            String name = params.get("name");
+            String expertise = params.get("expertise");
+            List<PhysiotherapistView> physiotherapists = call(shard, services -> {
+                PhysiotherapistService service = services.getPhysiotherapistService();
+                List<Physiotherapist> found;
+                if (name != null) {
+                    found = service.getPhysiotherapistsByName(name);
+                } else if (expertise != null) {
+                    found = service.getPhysiotherapistsByExpertise(expertise);
+                } else {
+                    found = service.getAllPhysiotherapists();
+                }
+                List<PhysiotherapistView> views = new ArrayList<>(found.size());
+                for (Physiotherapist physiotherapist : found) {
+                    views.add(PhysiotherapistView.of(physiotherapist));
+                }
+                return views;
+            });
+            send(exchange, 200, json -> {
+                json.beginArray();
+                for (PhysiotherapistView physiotherapist : physiotherapists) {
+                    physiotherapist.write(json);
+                }
+                json.endArray();
+            });
+            return;
+        }
+
+        if (path.size() != 5 || !path.get(4).equals("availability")) {
+            throw new ApiException(404, "NOT_FOUND");
+        }
+
+        int physiotherapistId = parseId(path.get(3));
+        int from = params.containsKey("from") ? parseTime(params.get("from")) : Integer.MIN_VALUE;
+        int to = params.containsKey("to") ? parseTime(params.get("to")) : Integer.MAX_VALUE;
+
+        List<SlotView> slots = call(shard, services -> {
+            Physiotherapist physiotherapist = services.getPhysiotherapistService()
+                    .getPhysiotherapistById(physiotherapistId);
+            if (physiotherapist == null) {
+                throw new ApiException(404, "PHYSIOTHERAPIST_NOT_FOUND");
+            }
+            List<SlotView> free = new ArrayList<>();
+            for (TimetableSlot slot : services.getPhysiotherapistService()
+                    .findSlots(physiotherapist, SlotQuery.available().between(from, to), Integer.MAX_VALUE)) {
+                free.add(SlotView.of(slot));
+            }
+            return free;
+        });
+        send(exchange, 200, json -> {
+            json.beginArray();
+            for (SlotView slot : slots) {
+                slot.write(json);
+            }
+            json.endArray();
+        });
+    }
+
+    private void handleAppointments(HttpExchange exchange, ClinicShard shard, String method, List<String> path,
+                                    Map<String, String> params) throws IOException {
+        if (path.size() == 3) {
+            requireMethod(method, "POST");
+            int patientId = parseId(requireParam(params, "patientId"));
+            int physiotherapistId = parseId(requireParam(params, "physiotherapistId"));
+            int time = parseTime(requireParam(params, "time"));
+
+            AppointmentView appointment = call(shard, services -> {
+                Patient patient = services.getPatientService().getPatientById(patientId);
+                if (patient == null) {
+                    throw new ApiException(404, "PATIENT_NOT_FOUND");
+                }
+                PhysiotherapistService physiotherapistService = services.getPhysiotherapistService();
+                Physiotherapist physiotherapist = physiotherapistService.getPhysiotherapistById(physiotherapistId);
+                if (physiotherapist == null) {
+                    throw new ApiException(404, "PHYSIOTHERAPIST_NOT_FOUND");
+                }
+                TimetableSlot slot = physiotherapistService.getSlot(physiotherapist, time);
+                if (slot == null) {
+                    throw new ApiException(404, "TIMETABLE_SLOT_NOT_FOUND");
+                }
+
+                AppointmentService appointmentService = services.getAppointmentService();
+                var result = appointmentService.bookAppointmentId(patient, slot);
+                if (result.isError()) {
+                    throw new ApiException(409, result.getError().name());
+                }
+                return AppointmentView.of(appointmentService.getAppointmentById(result.getData()).getData());
+            });
+            send(exchange, 201, appointment::write);
+            return;
+        }
+
+        int appointmentId = parseId(path.get(3));
+
+        if (path.size() == 4) {
+            requireMethod(method, "GET");
+            send(exchange, 200, call(shard, services -> findAppointment(services, appointmentId))::write);
+            return;
+        }
+
+        if (path.size() != 5) {
+            throw new ApiException(404, "NOT_FOUND");
+        }
+        requireMethod(method, "POST");
+
+        String action = path.get(4);
+        AppointmentView appointment = call(shard, services -> {
+            AppointmentService appointmentService = services.getAppointmentService();
+            Result<?, ? extends Enum<?>> result = switch (action) {
+                case "cancel" -> appointmentService.cancelAppointment(appointmentId);
+                case "rebook" -> appointmentService.rebookAppointment(appointmentId);
+                case "attend" -> appointmentService.attendAppointment(appointmentId);
+                default -> throw new ApiException(404, "NOT_FOUND");
+            };
+            if (result.isError()) {
+                String error = result.getError().name();
+                throw new ApiException(error.equals("APPOINTMENT_NOT_FOUND") ? 404 : 409, error);
+            }
+            return findAppointment(services, appointmentId);
+        });
+        send(exchange, 200, appointment::write);
+    }
+
+    private void handleReports(HttpExchange exchange, ClinicShard shard, String method, List<String> path,
+                               Map<String, String> params) throws IOException {
+        requireMethod(method, "GET");
+        String report = path.size() == 4 ? path.get(3) : "";
+
+        switch (report) {
+            case "appointments" -> {
+                String physiotherapistParam = params.get("physiotherapistId");
+                Integer physiotherapistId = physiotherapistParam == null ? null : parseId(physiotherapistParam);
+                boolean period = params.containsKey("from") || params.containsKey("to");
+                int from = params.containsKey("from") ? parseTime(params.get("from")) : Integer.MIN_VALUE;
+                int to = params.containsKey("to") ? parseTime(params.get("to")) : Integer.MAX_VALUE;
+                List<AppointmentReport> rows = call(shard, services -> {
+                    if (physiotherapistId == null) {
+                        return period
+                                ? services.getReportGenerator().generateAppointmentReportForPeriod(from, to)
+                                : services.getReportGenerator().generateAllAppointmentReport();
+                    }
+                    Physiotherapist physiotherapist = services.getPhysiotherapistService()
+                            .getPhysiotherapistById(physiotherapistId);
+                    if (physiotherapist == null) {
+                        throw new ApiException(404, "PHYSIOTHERAPIST_NOT_FOUND");
+                    }
+                    return services.getReportGenerator().generateAppointmentReportForPhysiotherapist(physiotherapist);
+                });
+                send(exchange, 200, json -> {
+                    json.beginArray();
+                    for (AppointmentReport row : rows) {
+                        json.beginObject()
+                                .name("physiotherapistName").value(row.getPhysiotherapistName())
+                                .name("treatmentName").value(row.getTreatmentName())
+                                .name("patientName").value(row.getPatientName())
+                                .name("time").value(row.getTime())
+                                .name("status").value(row.getAppointmentStatus())
+                                .endObject();
+                    }
+                    json.endArray();
+                });
+            }
+            case "physiotherapists" -> {
+                List<PhysiotherapistReport> rows = call(shard,
+                        services -> services.getReportGenerator().generatePhysiotherapistReport());
+                send(exchange, 200, json -> {
+                    json.beginArray();
+                    for (PhysiotherapistReport row : rows) {
+                        json.beginObject()
+                                .name("physiotherapistName").value(row.getPhysiotherapistName())
+                                .name("attendedAppointments").value(row.getAttendedAppointments())
+                                .endObject();
+                    }
+                    json.endArray();
+                });
+            }
+            case "treatments" -> {
+                List<TreatmentReport> rows = call(shard,
+                        services -> services.getReportGenerator().generateTreatmentReport());
+                send(exchange, 200, json -> {
+                    json.beginArray();
+                    for (TreatmentReport row : rows) {
+                        json.beginObject()
+                                .name("treatmentName").value(row.getTreatmentName())
+                                .name("expertise").value(row.getExpertise())
+                                .name("appointments").value(row.getAppointments())
+                                .endObject();
+                    }
+                    json.endArray();
+                });
+            }
+            default -> throw new ApiException(404, "NOT_FOUND");
+        }
+    }
+
+    private static AppointmentView findAppointment(ServiceContainer services, int appointmentId) {
+        var result = services.getAppointmentService().getAppointmentById(appointmentId);
+        if (result.isError()) {
+            throw new ApiException(404, result.getError().name());
+        }
+        return AppointmentView.of(result.getData());
+    }
+
+    /**
+     * Runs an operation on the clinic's lane and waits for it, unwrapping any {@link ApiException} it throws.
+     */
+    private static <T> T call(ClinicShard shard, Function<ServiceContainer, T> operation) {
+        try {
+            return shard.submit(operation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a JSON response. The body is written to a buffer before the headers are sent, so a body that fails
+     * leaves the exchange untouched and {@link #handle} can still answer with an error status.
+     */
+    private static void send(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        JsonWriter json = new JsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8));
+        body.write(json);
+        json.flush();
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, buffer.size());
+        buffer.writeTo(exchange.getResponseBody());
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String error) throws IOException {
+        send(exchange, status, json -> json.beginObject().name("error").value(error).endObject());
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new ApiException(405, "METHOD_NOT_ALLOWED");
+        }
+    }
+
+    private static String requireParam(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new ApiException(400, "MISSING_PARAMETER_" + name);
+        }
+        return value;
+    }
+
+    private static int parseId(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "INVALID_ID");
+        }
+    }
+
+    private static int parseTime(String value) {
+        try {
+            return ClinicTime.toEpochMinute(LocalDateTime.parse(value.trim()));
+        } catch (DateTimeParseException | ArithmeticException e) {
+            throw new ApiException(400, "INVALID_TIME");
+        }
+    }
+
+    private static List<String> splitPath(String rawPath) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : rawPath.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+            }
+        }
+        return segments;
+    }
+
+    private static Map<String, String> readParams(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+
+        if (exchange.getRequestMethod().equals("POST")) {
+            try (InputStream body = exchange.getRequestBody()) {
+                parseForm(new String(body.readAllBytes(), StandardCharsets.UTF_8), params);
+            }
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> params) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Writes a response body.
+     */
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    private record PatientView(int id, String fullName, String address, String tel, List<Integer> appointments) {
+        static PatientView of(Patient patient) {
+            return new PatientView(patient.getId(), patient.getFullName(), patient.getAddress(), patient.getTel(),
+                    List.copyOf(patient.getAppointments()));
+        }
+
+        void write(JsonWriter json) throws IOException {
+            json.beginObject()
+                    .name("id").value(id)
+                    .name("fullName").value(fullName)
+                    .name("address").value(address)
+                    .name("tel").value(tel)
+                    .name("appointments").beginArray();
+            for (int appointmentId : appointments) {
+                json.value(appointmentId);
+            }
+            json.endArray().endObject();
+        }
+    }
+
+    private record PhysiotherapistView(int id, String fullName, String tel, List<String> expertise) {
+        static PhysiotherapistView of(Physiotherapist physiotherapist) {
+            return new PhysiotherapistView(physiotherapist.getId(), physiotherapist.getFullName(),
+                    physiotherapist.getTel(), List.copyOf(physiotherapist.getExpertise()));
+        }
+
+        void write(JsonWriter json) throws IOException {
+            json.beginObject()
+                    .name("id").value(id)
+                    .name("fullName").value(fullName)
+                    .name("tel").value(tel)
+                    .name("expertise").beginArray();
+            for (String e : expertise) {
+                json.value(e);
+            }
+            json.endArray().endObject();
+        }
+    }
+
+    private record SlotView(int physiotherapistId, String treatment, String expertise, int epochMinute) {
+        static SlotView of(TimetableSlot slot) {
+            return new SlotView(slot.getPhysiotherapist().getId(), slot.getTreatment().getName(),
+                    slot.getTreatment().getExpertise(), slot.getEpochMinute());
+        }
+
+        void write(JsonWriter json) throws IOException {
+            json.beginObject()
+                    .name("physiotherapistId").value(physiotherapistId)
+                    .name("treatment").value(treatment)
+                    .name("expertise").value(expertise)
+                    .name("time").value(ClinicTime.toLocalDateTime(epochMinute).toString())
+                    .endObject();
+        }
+    }
+
+    private record AppointmentView(int id, String status, int patientId, String patientName,
+                                   int physiotherapistId, String physiotherapistName, String treatment,
+                                   int epochMinute) {
+        static AppointmentView of(Appointment appointment) {
+            TimetableSlot slot = appointment.getSlot();
+            return new AppointmentView(appointment.getAppointmentId(), appointment.getBookingStatus().name(),
+                    appointment.getPatient().getId(), appointment.getPatient().getFullName(),
+                    slot.getPhysiotherapist().getId(), slot.getPhysiotherapist().getFullName(),
+                    slot.getTreatment().getName(), slot.getEpochMinute());
+        }
+
+        void write(JsonWriter json) throws IOException {
+            json.beginObject()
+                    .name("id").value(id)
+                    .name("status").value(status)
+                    .name("patientId").value(patientId)
+                    .name("patientName").value(patientName)
+                    .name("physiotherapistId").value(physiotherapistId)
+                    .name("physiotherapistName").value(physiotherapistName)
+                    .name("treatment").value(treatment)
+                    .name("time").value(ClinicTime.toLocalDateTime(epochMinute).toString())
+                    .endObject();
+        }
+    }
+}
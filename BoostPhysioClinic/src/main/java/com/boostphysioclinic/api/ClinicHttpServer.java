@@ -0,0 +1,64 @@
+package com.boostphysioclinic.api;
+
+import com.boostphysioclinic.services.ClinicRouter;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An embedded HTTP server exposing the clinic services as a JSON API.
+ * <p>
+ * Every request runs on its own virtual thread, so thousands of concurrent requests only cost a few
+ * platform threads. Requests are handed to the {@link ClinicRouter}, which runs them on the lane of the
+ * clinic they address; the virtual thread simply waits for the result and then writes the JSON response.
+ * See {@link ClinicApiHandler} for the available endpoints.
+ * </p>
+ */
+public class ClinicHttpServer implements AutoCloseable {
+    private static final int BACKLOG = 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server for the given clinics. The server does not accept requests until {@link #start()} is called.
+     *
+     * @param router  the router holding the clinics to expose
+     * @param address the address to listen on; use port 0 to pick any free port
+     * @throws IOException if the server cannot be bound to the address
+     */
+    public ClinicHttpServer(ClinicRouter router, InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, BACKLOG);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/clinics", new ClinicApiHandler(router));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the port number
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server immediately and releases its threads.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+}
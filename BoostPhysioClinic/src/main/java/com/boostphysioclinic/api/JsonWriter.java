@@ -0,0 +1,221 @@
+package com.boostphysioclinic.api;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A minimal streaming JSON writer. Values are written straight to the underlying {@link Writer} as they are
+ * added, so large responses such as reports are never built up in memory first.
+ * <p>
+ * The writer keeps track of nesting and inserts commas and colons itself; callers only describe the structure:
+ * </p>
+ * <pre>
+ * json.beginObject().name("id").value(10000).name("name").value("John Doe").endObject();
+ * </pre>
+ */
+public class JsonWriter {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+
+    /** Whether the innermost open object or array already contains an element, one bit per nesting level */
+    private long hasElements;
+    private int depth;
+    private boolean afterName;
+
+    /**
+     * Creates a writer that writes JSON to the given writer.
+     *
+     * @param out the writer to write to; callers should pass a buffered writer
+     */
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Starts a new object.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        out.write('{');
+        push();
+        return this;
+    }
+
+    /**
+     * Ends the current object.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter endObject() throws IOException {
+        pop();
+        out.write('}');
+        return this;
+    }
+
+    /**
+     * Starts a new array.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        out.write('[');
+        push();
+        return this;
+    }
+
+    /**
+     * Ends the current array.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter endArray() throws IOException {
+        pop();
+        out.write(']');
+        return this;
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     *
+     * @param name the member name
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter name(String name) throws IOException {
+        separate();
+        writeString(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or {@code null} if the value is null.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    /**
+     * Writes a number value.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Writes a {@code null} value.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        out.write("null");
+        return this;
+    }
+
+    /**
+     * Flushes the underlying writer.
+     *
+     * @throws IOException if flushing fails
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+        } else {
+            separate();
+        }
+    }
+
+    private void separate() throws IOException {
+        if (depth == 0) {
+            return;
+        }
+        long bit = 1L << (depth - 1);
+        if ((hasElements & bit) != 0) {
+            out.write(',');
+        } else {
+            hasElements |= bit;
+        }
+    }
+
+    private void push() {
+        if (depth == Long.SIZE) {
+            throw new IllegalStateException("JSON nested too deeply");
+        }
+        depth++;
+        hasElements &= ~(1L << (depth - 1));
+    }
+
+    private void pop() {
+        if (depth == 0) {
+            throw new IllegalStateException("No open object or array");
+        }
+        depth--;
+    }
+
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            out.write(value, start, i - start);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    out.write("\\u00");
+                    out.write(HEX[c >> 4]);
+                    out.write(HEX[c & 0xF]);
+                }
+            }
+            start = i + 1;
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
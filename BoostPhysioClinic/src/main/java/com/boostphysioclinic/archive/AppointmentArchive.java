@@ -0,0 +1,172 @@
+package com.boostphysioclinic.archive;
+
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.util.SnapshotList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The cold tier for appointments: a directory of {@link ArchiveSegment} files, one for each time appointments
+ * were archived, together with report counts summed over every segment.
+ * <p>
+ * Reports that only need counts read the sums kept in memory and never open a segment; reports that list
+ * appointments read the rows of every segment. Segments already in the directory are picked up when the archive
+ * is opened.
+ * </p>
+ * <p>
+ * Like the services, an archive is changed by one thread at a time. Any thread may read its segments.
+ * </p>
+ */
+public class AppointmentArchive {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".bpa";
+
+    private final Path directory;
+    private final SnapshotList<ArchiveSegment> segments = new SnapshotList<>();
+    private final Map<String, Integer> attendedByPhysiotherapist = new HashMap<>();
+    private final Map<TreatmentKey, Integer> notCancelledByTreatment = new HashMap<>();
+    private int archivedCount;
+    private int nextSegmentNumber;
+
+    private AppointmentArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens the archive in the given directory, creating the directory if it does not exist.
+     *
+     * @param directory the directory holding the segment files
+     * @return the open archive
+     * @throws IOException if the directory or one of its segments cannot be read
+     */
+    public static AppointmentArchive open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        AppointmentArchive archive = new AppointmentArchive(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(AppointmentArchive::isSegmentFile).sorted().toList();
+        }
+        for (Path file : files) {
+            archive.addSegment(ArchiveSegment.open(file));
+            String name = file.getFileName().toString();
+            int number = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            archive.nextSegmentNumber = Math.max(archive.nextSegmentNumber, number + 1);
+        }
+        return archive;
+    }
+
+    /**
+     * Writes the given appointments to a new segment.
+     *
+     * @param appointments the appointments to archive; must not be empty
+     * @return the new segment
+     * @throws IOException if the segment cannot be written
+     */
+    public ArchiveSegment append(List<Appointment> appointments) throws IOException {
+        Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, nextSegmentNumber, SEGMENT_SUFFIX));
+        ArchiveSegment segment = ArchiveSegment.write(file, appointments);
+        nextSegmentNumber++;
+        addSegment(segment);
+        return segment;
+    }
+
+    /**
+     * Returns the segments of the archive, oldest first.
+     *
+     * @return a read-only list of segments
+     */
+    public List<ArchiveSegment> getSegments() {
+        return segments.snapshot();
+    }
+
+    /**
+     * Returns the number of appointments in every segment.
+     *
+     * @return the number of archived appointments
+     */
+    public int getArchivedCount() {
+        return archivedCount;
+    }
+
+    /**
+     * Returns the number of archived appointments a physiotherapist attended. Physiotherapists are matched by
+     * full name, so the count still applies after a restart gives them new IDs.
+     *
+     * @param physiotherapist the physiotherapist
+     * @return the count, which is 0 for physiotherapists with nothing archived
+     */
+    public int getAttendedCount(Physiotherapist physiotherapist) {
+        return attendedByPhysiotherapist.getOrDefault(physiotherapist.getFullName(), 0);
+    }
+
+    /**
+     * Returns the number of archived appointments for a treatment that were not cancelled. Treatments are matched
+     * by {@link TreatmentKey}, so the count still applies when the catalogue is registered in another order.
+     *
+     * @param treatment the treatment
+     * @return the count, which is 0 for treatments with nothing archived
+     */
+    public int getNotCancelledCount(Treatment treatment) {
+        return notCancelledByTreatment.getOrDefault(TreatmentKey.of(treatment), 0);
+    }
+
+    /**
+     * Returns the number of archived attended appointments for every physiotherapist with any.
+     *
+     * @return a read-only map from physiotherapist full name to count
+     */
+    public Map<String, Integer> getAttendedByPhysiotherapist() {
+        return Collections.unmodifiableMap(attendedByPhysiotherapist);
+    }
+
+    /**
+     * Returns the number of archived appointments that were not cancelled for every treatment with any.
+     *
+     * @return a read-only map from treatment to count
+     */
+    public Map<TreatmentKey, Integer> getNotCancelledByTreatment() {
+        return Collections.unmodifiableMap(notCancelledByTreatment);
+    }
+
+    /**
+     * Reads every archived appointment, oldest segment first.
+     *
+     * @return the archived appointments
+     * @throws UncheckedIOException if a segment cannot be read
+     */
+    public List<ArchivedAppointment> readAll() {
+        List<ArchivedAppointment> rows = new ArrayList<>(archivedCount);
+        for (ArchiveSegment segment : segments.snapshot()) {
+            try {
+                rows.addAll(segment.readRows());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read archive segment " + segment.getPath(), e);
+            }
+        }
+        return rows;
+    }
+
+    private void addSegment(ArchiveSegment segment) {
+        segment.getAttendedByPhysiotherapist().forEach((id, count) -> attendedByPhysiotherapist.merge(id, count, Integer::sum));
+        segment.getNotCancelledByTreatment().forEach((id, count) -> notCancelledByTreatment.merge(id, count, Integer::sum));
+        archivedCount += segment.getRowCount();
+        segments.add(segment);
+    }
+
+    private static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)
+                && name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()).matches("\\d+");
+    }
+}
@@ -0,0 +1,387 @@
+package com.boostphysioclinic.archive;
+
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.BookingStatus;
+import com.boostphysioclinic.model.TimetableSlot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * One immutable file of archived appointments.
+ * <p>
+ * The file starts with an uncompressed header holding the number of rows, their time range and the segment's
+ * pre-aggregated report counts: attended appointments per physiotherapist and appointments that were not cancelled
+ * per treatment. Opening a segment reads only the header, so reports can use those counts without touching the rows.
+ * The counts are keyed by physiotherapist name and by {@link TreatmentKey}, not by ID, because physiotherapist
+ * IDs and catalogue ids are assigned afresh each time the application starts.
+ * </p>
+ * <p>
+ * The rows follow, deflate-compressed and stored column by column in order of appointment time: times and
+ * appointment IDs as variable-length deltas, statuses as one byte each, and physiotherapists, treatments and
+ * patients as references into per-segment dictionaries of IDs and names. Keeping each column together lets
+ * the compressor exploit how little consecutive values differ.
+ * </p>
+ */
+public final class ArchiveSegment {
+    private static final int MAGIC = 0x42504131; // "BPA1"
+    private static final int VERSION = 2;
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private final Path path;
+    private final int rowCount;
+    private final int fromEpochMinute;
+    private final int toEpochMinute;
+    private final Map<String, Integer> attendedByPhysiotherapist;
+    private final Map<TreatmentKey, Integer> notCancelledByTreatment;
+
+    private ArchiveSegment(Path path, int rowCount, int fromEpochMinute, int toEpochMinute,
+                           Map<String, Integer> attendedByPhysiotherapist,
+                           Map<TreatmentKey, Integer> notCancelledByTreatment) {
+        this.path = path;
+        this.rowCount = rowCount;
+        this.fromEpochMinute = fromEpochMinute;
+        this.toEpochMinute = toEpochMinute;
+        this.attendedByPhysiotherapist = Collections.unmodifiableMap(attendedByPhysiotherapist);
+        this.notCancelledByTreatment = Collections.unmodifiableMap(notCancelledByTreatment);
+    }
+
+    /**
+     * Writes the given appointments to a new segment file. The file is written under a temporary name and
+     * moved into place, so a segment file is either complete or absent.
+     *
+     * @param path         the segment file to create
+     * @param appointments the appointments to archive; must not be empty
+     * @return the written segment
+     * @throws IOException if the file cannot be written
+     */
+    static ArchiveSegment write(Path path, List<Appointment> appointments) throws IOException {
+        if (appointments.isEmpty()) {
+            throw new IllegalArgumentException("A segment needs at least one appointment");
+        }
+        List<Appointment> rows = new ArrayList<>(appointments);
+        rows.sort(Comparator.comparingInt(Appointment::getEpochMinute).thenComparingInt(Appointment::getAppointmentId));
+
+        Map<String, Integer> attended = new HashMap<>();
+        Map<TreatmentKey, Integer> notCancelled = new HashMap<>();
+        Dictionary physiotherapists = new Dictionary();
+        Dictionary treatments = new Dictionary();
+        Dictionary patients = new Dictionary();
+        int[] physiotherapistRefs = new int[rows.size()];
+        int[] treatmentRefs = new int[rows.size()];
+        int[] patientRefs = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Appointment appointment = rows.get(i);
+            TimetableSlot slot = appointment.getSlot();
+            int physiotherapistId = slot.getPhysiotherapist().getId();
+            int treatmentId = slot.getTreatment().getId();
+            if (appointment.getBookingStatus() == BookingStatus.Attended) {
+                attended.merge(slot.getPhysiotherapist().getFullName(), 1, Integer::sum);
+            }
+            if (appointment.getBookingStatus() != BookingStatus.Cancelled) {
+                notCancelled.merge(TreatmentKey.of(slot.getTreatment()), 1, Integer::sum);
+            }
+            physiotherapistRefs[i] = physiotherapists.ref(physiotherapistId, slot.getPhysiotherapist().getFullName());
+            treatmentRefs[i] = treatments.ref(treatmentId, slot.getTreatment().getName());
+            patientRefs[i] = patients.ref(appointment.getPatient().getId(), appointment.getPatient().getFullName());
+        }
+        ArchiveSegment segment = new ArchiveSegment(path, rows.size(), rows.get(0).getEpochMinute(),
+                rows.get(rows.size() - 1).getEpochMinute(), attended, notCancelled);
+
+        Path tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream file = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            segment.writeHeader(new DataOutputStream(file));
+
+            DeflaterOutputStream deflater = new DeflaterOutputStream(file);
+            DataOutputStream body = new DataOutputStream(new BufferedOutputStream(deflater, 1 << 16));
+            physiotherapists.writeTo(body);
+            treatments.writeTo(body);
+            patients.writeTo(body);
+            int previousTime = 0;
+            for (Appointment appointment : rows) {
+                writeVarint(body, zigzag(appointment.getEpochMinute() - previousTime));
+                previousTime = appointment.getEpochMinute();
+            }
+            int previousId = 0;
+            for (Appointment appointment : rows) {
+                writeVarint(body, zigzag(appointment.getAppointmentId() - previousId));
+                previousId = appointment.getAppointmentId();
+            }
+            for (Appointment appointment : rows) {
+                body.writeByte(appointment.getBookingStatus().ordinal());
+            }
+            for (int ref : physiotherapistRefs) {
+                writeVarint(body, ref);
+            }
+            for (int ref : treatmentRefs) {
+                writeVarint(body, ref);
+            }
+            for (int ref : patientRefs) {
+                writeVarint(body, ref);
+            }
+            body.flush();
+            deflater.finish();
+            file.flush();
+            channel.force(true);
+        }
+        Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return segment;
+    }
+
+    /**
+     * Opens an existing segment file, reading only its header.
+     *
+     * @param path the segment file
+     * @return the segment
+     * @throws IOException if the file cannot be read or is not an archive segment
+     */
+    static ArchiveSegment open(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return readHeader(path, in);
+        }
+    }
+
+    /**
+     * Reads every archived appointment in the segment, in order of appointment time.
+     *
+     * @return the archived appointments
+     * @throws IOException if the file cannot be read
+     */
+    public List<ArchivedAppointment> readRows() throws IOException {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+            readHeader(path, new DataInputStream(file));
+            DataInputStream body = new DataInputStream(new BufferedInputStream(new InflaterInputStream(file), 1 << 16));
+            Dictionary physiotherapists = Dictionary.readFrom(body);
+            Dictionary treatments = Dictionary.readFrom(body);
+            Dictionary patients = Dictionary.readFrom(body);
+
+            int[] times = new int[rowCount];
+            int previous = 0;
+            for (int i = 0; i < rowCount; i++) {
+                previous += unzigzag(readVarint(body));
+                times[i] = previous;
+            }
+            int[] ids = new int[rowCount];
+            previous = 0;
+            for (int i = 0; i < rowCount; i++) {
+                previous += unzigzag(readVarint(body));
+                ids[i] = previous;
+            }
+            byte[] statuses = new byte[rowCount];
+            body.readFully(statuses);
+            int[] physiotherapistRefs = readRefs(body, rowCount);
+            int[] treatmentRefs = readRefs(body, rowCount);
+            int[] patientRefs = readRefs(body, rowCount);
+
+            List<ArchivedAppointment> rows = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                rows.add(new ArchivedAppointment(ids[i], times[i], STATUSES[statuses[i]],
+                        physiotherapists.ids.get(physiotherapistRefs[i]), physiotherapists.names.get(physiotherapistRefs[i]),
+                        treatments.ids.get(treatmentRefs[i]), treatments.names.get(treatmentRefs[i]),
+                        patients.ids.get(patientRefs[i]), patients.names.get(patientRefs[i])));
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Returns the segment file.
+     *
+     * @return the path of the file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the number of appointments in the segment.
+     *
+     * @return the row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the time of the earliest appointment in the segment.
+     *
+     * @return the epoch minute of the first row
+     */
+    public int getFromEpochMinute() {
+        return fromEpochMinute;
+    }
+
+    /**
+     * Returns the time of the latest appointment in the segment.
+     *
+     * @return the epoch minute of the last row
+     */
+    public int getToEpochMinute() {
+        return toEpochMinute;
+    }
+
+    /**
+     * Returns the number of attended appointments in the segment for each physiotherapist.
+     *
+     * @return a read-only map from physiotherapist full name to count
+     */
+    public Map<String, Integer> getAttendedByPhysiotherapist() {
+        return attendedByPhysiotherapist;
+    }
+
+    /**
+     * Returns the number of appointments in the segment that were not cancelled, for each treatment.
+     *
+     * @return a read-only map from treatment to count
+     */
+    public Map<TreatmentKey, Integer> getNotCancelledByTreatment() {
+        return notCancelledByTreatment;
+    }
+
+    private void writeHeader(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(rowCount);
+        out.writeInt(fromEpochMinute);
+        out.writeInt(toEpochMinute);
+        out.writeInt(attendedByPhysiotherapist.size());
+        for (Map.Entry<String, Integer> entry : attendedByPhysiotherapist.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+        out.writeInt(notCancelledByTreatment.size());
+        for (Map.Entry<TreatmentKey, Integer> entry : notCancelledByTreatment.entrySet()) {
+            out.writeUTF(entry.getKey().name());
+            out.writeBoolean(entry.getKey().expertise() != null);
+            if (entry.getKey().expertise() != null) {
+                out.writeUTF(entry.getKey().expertise());
+            }
+            out.writeInt(entry.getValue());
+        }
+    }
+
+    private static ArchiveSegment readHeader(Path path, DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an archive segment: " + path);
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported archive segment version " + version + ": " + path);
+        }
+        int rowCount = in.readInt();
+        int fromEpochMinute = in.readInt();
+        int toEpochMinute = in.readInt();
+
+        Map<String, Integer> attended = new HashMap<>();
+        int physiotherapists = in.readInt();
+        for (int i = 0; i < physiotherapists; i++) {
+            attended.put(in.readUTF(), in.readInt());
+        }
+        Map<TreatmentKey, Integer> notCancelled = new HashMap<>();
+        int treatments = in.readInt();
+        for (int i = 0; i < treatments; i++) {
+            String name = in.readUTF();
+            String expertise = in.readBoolean() ? in.readUTF() : null;
+            notCancelled.put(new TreatmentKey(name, expertise), in.readInt());
+        }
+        return new ArchiveSegment(path, rowCount, fromEpochMinute, toEpochMinute, attended, notCancelled);
+    }
+
+    private static int[] readRefs(DataInput in, int count) throws IOException {
+        int[] refs = new int[count];
+        for (int i = 0; i < count; i++) {
+            refs[i] = readVarint(in);
+        }
+        return refs;
+    }
+
+    private static void writeVarint(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * The distinct (ID, name) pairs of one column, each referred to by its position.
+     */
+    private static final class Dictionary {
+        private final Map<Entry, Integer> refs = new LinkedHashMap<>();
+        private final List<Integer> ids = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+
+        int ref(int id, String name) {
+            return refs.computeIfAbsent(new Entry(id, name), entry -> {
+                ids.add(id);
+                names.add(name);
+                return ids.size() - 1;
+            });
+        }
+
+        void writeTo(DataOutput out) throws IOException {
+            writeVarint(out, ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                out.writeInt(ids.get(i));
+                out.writeUTF(names.get(i));
+            }
+        }
+
+        static Dictionary readFrom(DataInput in) throws IOException {
+            Dictionary dictionary = new Dictionary();
+            int size = readVarint(in);
+            for (int i = 0; i < size; i++) {
+                dictionary.ids.add(in.readInt());
+                dictionary.names.add(in.readUTF());
+            }
+            return dictionary;
+        }
+
+        private record Entry(int id, String name) {
+        }
+    }
+}
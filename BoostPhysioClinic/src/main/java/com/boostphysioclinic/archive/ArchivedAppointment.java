@@ -0,0 +1,23 @@
+package com.boostphysioclinic.archive;
+
+import com.boostphysioclinic.model.BookingStatus;
+
+/**
+ * An appointment read back from an {@link ArchiveSegment}. It holds the names as they were when the appointment
+ * was archived, so it can still be reported after the patient or physiotherapist is gone.
+ *
+ * @param appointmentId       the appointment ID
+ * @param epochMinute         the time of the appointment in minutes since the clinic epoch
+ * @param status              the final status of the appointment, {@code Attended} or {@code Cancelled}
+ * @param physiotherapistId   the ID of the physiotherapist
+ * @param physiotherapistName the full name of the physiotherapist
+ * @param treatmentId         the catalogue id of the treatment
+ * @param treatmentName       the name of the treatment
+ * @param patientId           the ID of the patient
+ * @param patientName         the full name of the patient
+ */
+public record ArchivedAppointment(int appointmentId, int epochMinute, BookingStatus status,
+                                  int physiotherapistId, String physiotherapistName,
+                                  int treatmentId, String treatmentName,
+                                  int patientId, String patientName) {
+}
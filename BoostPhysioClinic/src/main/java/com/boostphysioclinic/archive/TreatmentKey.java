@@ -0,0 +1,23 @@
+package com.boostphysioclinic.archive;
+
+import com.boostphysioclinic.model.Treatment;
+
+/**
+ * Identifies a treatment in the archive by its name and expertise, which stay the same across restarts,
+ * unlike its catalogue id, which depends on the order treatments are registered in.
+ *
+ * @param name      the treatment name
+ * @param expertise the area of expertise, or {@code null} for treatments without one
+ */
+public record TreatmentKey(String name, String expertise) {
+
+    /**
+     * Returns the key of a treatment.
+     *
+     * @param treatment the treatment
+     * @return the key
+     */
+    public static TreatmentKey of(Treatment treatment) {
+        return new TreatmentKey(treatment.getName(), treatment.getExpertise());
+    }
+}
@@ -0,0 +1,84 @@
+package com.boostphysioclinic.events;
+
+/**
+ * One entry of a {@link DomainEventBus} ring buffer.
+ * <p>
+ * Entries are created once with the buffer and overwritten as it wraps, so publishing allocates nothing.
+ * A handler may only read an entry during its {@link DomainEventHandler#onEvent} call, and must copy
+ * anything it wants to keep. IDs that do not apply to an event type are 0.
+ * </p>
+ */
+public final class DomainEvent {
+    private DomainEventType type;
+    private int appointmentId;
+    private int patientId;
+    private int physiotherapistId;
+    private int epochMinute;
+
+    DomainEvent() {
+    }
+
+    void set(DomainEventType type, int appointmentId, int patientId, int physiotherapistId, int epochMinute) {
+        this.type = type;
+        this.appointmentId = appointmentId;
+        this.patientId = patientId;
+        this.physiotherapistId = physiotherapistId;
+        this.epochMinute = epochMinute;
+    }
+
+    /**
+     * Returns what changed.
+     *
+     * @return the event type
+     */
+    public DomainEventType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the ID of the appointment that changed.
+     *
+     * @return the appointment ID, or 0
+     */
+    public int getAppointmentId() {
+        return appointmentId;
+    }
+
+    /**
+     * Returns the ID of the patient involved.
+     *
+     * @return the patient ID, or 0
+     */
+    public int getPatientId() {
+        return patientId;
+    }
+
+    /**
+     * Returns the ID of the physiotherapist involved.
+     *
+     * @return the physiotherapist ID, or 0
+     */
+    public int getPhysiotherapistId() {
+        return physiotherapistId;
+    }
+
+    /**
+     * Returns the start time of the slot involved, in minutes since the clinic epoch.
+     *
+     * @return the slot start time, or 0
+     */
+    public int getEpochMinute() {
+        return epochMinute;
+    }
+
+    @Override
+    public String toString() {
+        return "DomainEvent{" +
+                "type=" + type +
+                ", appointmentId=" + appointmentId +
+                ", patientId=" + patientId +
+                ", physiotherapistId=" + physiotherapistId +
+                ", epochMinute=" + epochMinute +
+                '}';
+    }
+}
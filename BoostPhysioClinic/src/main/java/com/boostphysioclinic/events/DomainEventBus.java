@@ -0,0 +1,219 @@
+package com.boostphysioclinic.events;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An in-process stream of domain state changes, built as a single-writer ring buffer with any number of
+ * consumers, in the style of the LMAX Disruptor.
+ * <p>
+ * The services of one {@code ServiceContainer} publish every change on the thread that makes it. Publishing
+ * overwrites a preallocated {@link DomainEvent} and advances a cursor with a release store, so it never locks
+ * or allocates. Each consumer runs on its own daemon thread, reads everything up to the cursor in one batch and
+ * then records how far it got. The publisher only waits when the buffer is full, that is when the slowest
+ * consumer is a whole buffer behind; with no consumers it never waits.
+ * </p>
+ * <p>
+ * Only one thread may publish at a time, which holds for the services because each container is used by a
+ * single thread. Consumers should be added before publishing starts; a consumer added later only sees
+ * events published after it was added.
+ * </p>
+ * <p>
+ * A consumer whose handler throws an {@link Error} stops and is dropped, so it no longer holds the publisher back.
+ * Once the bus is closed, consumers stop at the last event published before closing, and later events are
+ * overwritten without waiting for anyone.
+ * </p>
+ */
+public class DomainEventBus implements AutoCloseable {
+    /** The capacity used by {@code ServiceContainer} */
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 100_000;
+
+    private final DomainEvent[] entries;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private volatile Consumer[] consumers = new Consumer[0];
+    private volatile boolean running = true;
+    private volatile long closedAt = Long.MAX_VALUE;
+
+    // Only touched by the publishing thread
+    private long nextSequence;
+    private long cachedMinimumConsumed = -1;
+
+    /**
+     * Creates a bus with room for the given number of unconsumed events.
+     *
+     * @param capacity the size of the ring buffer; must be a power of two
+     * @throws IllegalArgumentException if the capacity is not a positive power of two
+     */
+    public DomainEventBus(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        entries = new DomainEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new DomainEvent();
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Publishes an event to every consumer.
+     *
+     * @param type              what changed
+     * @param appointmentId     the appointment that changed, or 0
+     * @param patientId         the patient involved, or 0
+     * @param physiotherapistId the physiotherapist involved, or 0
+     * @param epochMinute       the start time of the slot involved, or 0
+     */
+    public void publish(DomainEventType type, int appointmentId, int patientId, int physiotherapistId, int epochMinute) {
+        long sequence = nextSequence;
+        long wrapPoint = sequence - entries.length;
+        if (wrapPoint > cachedMinimumConsumed) {
+            long minimum;
+            int tries = 0;
+            // Consumers of a closed bus finish at closedAt and drop out, so this loop ends once they have
+            while (wrapPoint > (minimum = minimumConsumed(sequence - 1))) {
+                tries = idle(tries);
+            }
+            cachedMinimumConsumed = minimum;
+        }
+
+        entries[(int) (sequence & mask)].set(type, appointmentId, patientId, physiotherapistId, epochMinute);
+        nextSequence = sequence + 1;
+        cursor.lazySet(sequence);
+    }
+
+    /**
+     * Starts a consumer on its own daemon thread. It receives every event published from now on.
+     *
+     * @param name    the consumer's name, used for its thread
+     * @param handler the handler to call for each event
+     * @throws IllegalStateException if the bus has been closed
+     */
+    public synchronized void addConsumer(String name, DomainEventHandler handler) {
+        if (!running) {
+            throw new IllegalStateException("The event bus is closed");
+        }
+        Consumer consumer = new Consumer(handler, cursor.get());
+        Consumer[] updated = Arrays.copyOf(consumers, consumers.length + 1);
+        updated[updated.length - 1] = consumer;
+        consumers = updated;
+
+        Thread thread = new Thread(consumer, "domain-events-" + name);
+        thread.setDaemon(true);
+        consumer.thread = thread;
+        thread.start();
+    }
+
+    /**
+     * Returns the sequence of the last published event.
+     *
+     * @return the last published sequence, or -1 if nothing has been published
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Stops accepting consumers, lets every consumer handle the events already published and waits for
+     * their threads to finish. Events published afterwards are not delivered.
+     *
+     * @throws InterruptedException if interrupted while waiting for a consumer
+     */
+    @Override
+    public void close() throws InterruptedException {
+        synchronized (this) {
+            if (running) {
+                closedAt = cursor.get();
+                running = false;
+            }
+        }
+        for (Consumer consumer : consumers) {
+            consumer.thread.join();
+        }
+    }
+
+    private synchronized void removeConsumer(Consumer consumer) {
+        Consumer[] current = consumers;
+        Consumer[] updated = new Consumer[current.length - 1];
+        int i = 0;
+        for (Consumer c : current) {
+            if (c != consumer) {
+                updated[i++] = c;
+            }
+        }
+        consumers = updated;
+    }
+
+    private long minimumConsumed(long published) {
+        long minimum = published;
+        for (Consumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.consumed.get());
+        }
+        return minimum;
+    }
+
+    private static int idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            return tries;
+        }
+        return tries + 1;
+    }
+
+    private final class Consumer implements Runnable {
+        private final DomainEventHandler handler;
+        private final AtomicLong consumed;
+        private Thread thread;
+
+        Consumer(DomainEventHandler handler, long startAfter) {
+            this.handler = handler;
+            this.consumed = new AtomicLong(startAfter);
+        }
+
+        @Override
+        public void run() {
+            try {
+                consume();
+            } finally {
+                removeConsumer(this);
+            }
+        }
+
+        private void consume() {
+            long next = consumed.get() + 1;
+            int tries = 0;
+            while (true) {
+                long available = Math.min(cursor.get(), closedAt);
+                if (available < next) {
+                    if (!running && Math.min(cursor.get(), closedAt) < next) {
+                        return;
+                    }
+                    tries = idle(tries);
+                    continue;
+                }
+
+                for (long sequence = next; sequence <= available; sequence++) {
+                    try {
+                        handler.onEvent(entries[(int) (sequence & mask)], sequence, sequence == available);
+                    } catch (RuntimeException e) {
+                        // One bad event must not stop the consumer or, through a full buffer, the publisher
+                        System.err.println("Domain event handler failed at sequence " + sequence + ": " + e);
+                    }
+                }
+                consumed.lazySet(available);
+                next = available + 1;
+                tries = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.boostphysioclinic.events;
+
+/**
+ * Consumes the events published on a {@link DomainEventBus}, on the consumer's own thread.
+ */
+@FunctionalInterface
+public interface DomainEventHandler {
+
+    /**
+     * Handles one event. Events arrive in the order they were published, in batches of whatever was
+     * available when the consumer last caught up, so a handler can buffer work and flush it at the end of a batch.
+     *
+     * @param event      the event; only valid until this method returns
+     * @param sequence   the position of the event in the stream, starting at 0
+     * @param endOfBatch whether this is the last event available for now
+     */
+    void onEvent(DomainEvent event, long sequence, boolean endOfBatch);
+}
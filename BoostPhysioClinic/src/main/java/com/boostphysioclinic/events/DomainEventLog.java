@@ -0,0 +1,79 @@
+package com.boostphysioclinic.events;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends every event published on a {@link DomainEventBus} to a text file, as an audit trail of bookings and
+ * personnel changes.
+ * <p>
+ * The log is a consumer of the bus, so the file is written on the consumer's thread and a slow disk never holds
+ * up a booking until the buffer fills. Each line holds the sequence, type, appointment ID, patient ID,
+ * physiotherapist ID and epoch minute of one event, separated by tabs. Lines are buffered and flushed at the
+ * end of each batch.
+ * </p>
+ * <p>
+ * Closing the log closes the bus, after its consumers have handled everything already published, and then
+ * the file.
+ * </p>
+ */
+public final class DomainEventLog implements DomainEventHandler, AutoCloseable {
+    private final DomainEventBus bus;
+    private final Writer out;
+
+    private DomainEventLog(DomainEventBus bus, Writer out) {
+        this.bus = bus;
+        this.out = out;
+    }
+
+    /**
+     * Starts logging the events of a bus to the given file, appending to it if it exists.
+     *
+     * @param bus  the bus to log
+     * @param file the log file
+     * @return the running log
+     * @throws IOException if the file cannot be opened
+     */
+    public static DomainEventLog start(DomainEventBus bus, Path file) throws IOException {
+        Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        DomainEventLog log = new DomainEventLog(bus, out);
+        bus.addConsumer("log", log);
+        return log;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        try {
+            out.write(sequence + "\t" + event.getType() + "\t" + event.getAppointmentId() + "\t"
+                    + event.getPatientId() + "\t" + event.getPhysiotherapistId() + "\t" + event.getEpochMinute()
+                    + System.lineSeparator());
+            if (endOfBatch) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the domain event log", e);
+        }
+    }
+
+    /**
+     * Closes the bus, waits for the log to catch up and closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            bus.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.boostphysioclinic.events;
+
+/**
+ * The kinds of state change published on a {@link DomainEventBus}.
+ */
+public enum DomainEventType {
+    APPOINTMENT_BOOKED,
+    APPOINTMENT_CANCELLED,
+    APPOINTMENT_REBOOKED,
+    APPOINTMENT_ATTENDED,
+    PATIENT_ADDED,
+    PATIENT_DELETED,
+    PHYSIOTHERAPIST_ADDED,
+    SLOT_ADDED
+}
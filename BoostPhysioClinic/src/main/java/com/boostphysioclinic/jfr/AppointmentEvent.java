@@ -0,0 +1,73 @@
+package com.boostphysioclinic.jfr;
+
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.TimetableSlot;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of the Flight Recorder events for one step in an appointment's life.
+ * <p>
+ * When the event type is enabled (see {@link ClinicEvents}), the service calls {@link #begin()} before doing
+ * the work and {@link #commit(int, Patient, TimetableSlot, Enum)} after it. The fields are only filled in when
+ * the call is over the recording's threshold.
+ * </p>
+ */
+@Category({"Boost Physio Clinic", "Appointments"})
+@StackTrace(false)
+public abstract class AppointmentEvent extends Event {
+    /** The outcome recorded for a successful call */
+    public static final String OK = "OK";
+
+    @Label("Appointment ID")
+    @Description("0 if the call failed before an appointment existed")
+    int appointmentId;
+
+    @Label("Patient ID")
+    int patientId;
+
+    @Label("Physiotherapist ID")
+    int physiotherapistId;
+
+    @Label("Outcome")
+    @Description("OK, or the name of the error the service returned")
+    String outcome;
+
+    /**
+     * Fills in the event and commits it, if it should be recorded.
+     *
+     * @param appointmentId the ID of the appointment, or 0 if there is none
+     * @param patient       the patient, or {@code null} if unknown
+     * @param slot          the slot of the appointment, or {@code null} if unknown
+     * @param error         the error the service returned, or {@code null} on success
+     */
+    public void commit(int appointmentId, Patient patient, TimetableSlot slot, Enum<?> error) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.appointmentId = appointmentId;
+        this.patientId = patient == null ? 0 : patient.getId();
+        this.physiotherapistId = slot == null ? 0 : slot.getPhysiotherapist().getId();
+        this.outcome = error == null ? OK : error.name();
+        commit();
+    }
+
+    /**
+     * Fills in the event from an existing appointment and commits it, if it should be recorded.
+     *
+     * @param appointmentId the ID the caller asked for
+     * @param appointment   the appointment with that ID, or {@code null} if it was not found
+     * @param error         the error the service returned, or {@code null} on success
+     */
+    public void commit(int appointmentId, Appointment appointment, Enum<?> error) {
+        if (appointment == null) {
+            commit(appointmentId, null, null, error);
+        } else {
+            commit(appointmentId, appointment.getPatient(), appointment.getSlot(), error);
+        }
+    }
+}
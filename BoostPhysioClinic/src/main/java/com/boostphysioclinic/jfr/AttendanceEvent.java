@@ -0,0 +1,14 @@
+package com.boostphysioclinic.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for an appointment being marked as attended.
+ */
+@Name("com.boostphysioclinic.Attendance")
+@Label("Attendance")
+@Description("An appointment being marked as attended")
+public final class AttendanceEvent extends AppointmentEvent {
+}
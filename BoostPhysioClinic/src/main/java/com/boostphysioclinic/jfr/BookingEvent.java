@@ -0,0 +1,14 @@
+package com.boostphysioclinic.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a patient booking a timetable slot.
+ */
+@Name("com.boostphysioclinic.Booking")
+@Label("Booking")
+@Description("A patient booking a timetable slot")
+public final class BookingEvent extends AppointmentEvent {
+}
@@ -0,0 +1,14 @@
+package com.boostphysioclinic.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for an appointment being cancelled.
+ */
+@Name("com.boostphysioclinic.Cancellation")
+@Label("Cancellation")
+@Description("An appointment being cancelled")
+public final class CancellationEvent extends AppointmentEvent {
+}
@@ -0,0 +1,53 @@
+package com.boostphysioclinic.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+
+import java.util.List;
+
+/**
+ * Lists the application's Flight Recorder events and registers them up front, so they can be enabled in a
+ * recording settings file or JDK Mission Control before the first booking is made.
+ * <p>
+ * The appointment and patient services check the {@link EventType} of an event before creating it, since they
+ * sit on the booking hot path. When no recording has the event enabled, that check is a single field read and
+ * the call neither allocates nor reads the clock.
+ * </p>
+ */
+public final class ClinicEvents {
+    /** The type of {@link BookingEvent} */
+    public static final EventType BOOKING = EventType.getEventType(BookingEvent.class);
+    /** The type of {@link CancellationEvent} */
+    public static final EventType CANCELLATION = EventType.getEventType(CancellationEvent.class);
+    /** The type of {@link RebookingEvent} */
+    public static final EventType REBOOKING = EventType.getEventType(RebookingEvent.class);
+    /** The type of {@link AttendanceEvent} */
+    public static final EventType ATTENDANCE = EventType.getEventType(AttendanceEvent.class);
+    /** The type of {@link PatientRegistrationEvent} */
+    public static final EventType PATIENT_REGISTRATION = EventType.getEventType(PatientRegistrationEvent.class);
+    /** The type of {@link ReportGenerationEvent} */
+    public static final EventType REPORT_GENERATION = EventType.getEventType(ReportGenerationEvent.class);
+
+    /** Every event type the application emits */
+    public static final List<Class<? extends Event>> TYPES = List.of(
+            BookingEvent.class,
+            CancellationEvent.class,
+            RebookingEvent.class,
+            AttendanceEvent.class,
+            PatientRegistrationEvent.class,
+            ReportGenerationEvent.class);
+
+    private ClinicEvents() {
+    }
+
+    /**
+     * Registers every event type with the Flight Recorder. Registering an event that is already registered
+     * does nothing.
+     */
+    public static void register() {
+        for (Class<? extends Event> type : TYPES) {
+            FlightRecorder.register(type);
+        }
+    }
+}
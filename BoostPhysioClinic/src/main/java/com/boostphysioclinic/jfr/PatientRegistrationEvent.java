@@ -0,0 +1,42 @@
+package com.boostphysioclinic.jfr;
+
+import com.boostphysioclinic.model.Patient;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a patient being registered.
+ */
+@Name("com.boostphysioclinic.PatientRegistration")
+@Label("Patient Registration")
+@Description("A new patient being added")
+@Category({"Boost Physio Clinic", "Patients"})
+@StackTrace(false)
+public final class PatientRegistrationEvent extends Event {
+    @Label("Patient ID")
+    @Description("0 if the patient was not added")
+    int patientId;
+
+    @Label("Outcome")
+    @Description("OK, or the name of the error the service returned")
+    String outcome;
+
+    /**
+     * Fills in the event and commits it, if it should be recorded.
+     *
+     * @param patient the registered patient, or {@code null} if registration failed
+     * @param error   the error the service returned, or {@code null} on success
+     */
+    public void commit(Patient patient, Enum<?> error) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.patientId = patient == null ? 0 : patient.getId();
+        this.outcome = error == null ? AppointmentEvent.OK : error.name();
+        commit();
+    }
+}
@@ -0,0 +1,14 @@
+package com.boostphysioclinic.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a cancelled appointment being booked again.
+ */
+@Name("com.boostphysioclinic.Rebooking")
+@Label("Rebooking")
+@Description("A cancelled appointment being booked again")
+public final class RebookingEvent extends AppointmentEvent {
+}
@@ -0,0 +1,46 @@
+package com.boostphysioclinic.jfr;
+
+import com.boostphysioclinic.model.Physiotherapist;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a report being generated.
+ */
+@Name("com.boostphysioclinic.ReportGeneration")
+@Label("Report Generation")
+@Description("A report being generated")
+@Category({"Boost Physio Clinic", "Reports"})
+@StackTrace(false)
+public final class ReportGenerationEvent extends Event {
+    @Label("Report")
+    String report;
+
+    @Label("Physiotherapist ID")
+    @Description("The physiotherapist the report was limited to, or 0 for the whole clinic")
+    int physiotherapistId;
+
+    @Label("Rows")
+    int rows;
+
+    /**
+     * Fills in the event and commits it, if it should be recorded.
+     *
+     * @param report          the name of the report
+     * @param physiotherapist the physiotherapist the report was limited to, or {@code null}
+     * @param rows            the number of rows in the report
+     */
+    public void commit(String report, Physiotherapist physiotherapist, int rows) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.report = report;
+        this.physiotherapistId = physiotherapist == null ? 0 : physiotherapist.getId();
+        this.rows = rows;
+        commit();
+    }
+}
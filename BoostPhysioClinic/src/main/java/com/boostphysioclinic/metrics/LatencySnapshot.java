@@ -0,0 +1,86 @@
+package com.boostphysioclinic.metrics;
+
+/**
+ * An immutable copy of a {@link LatencyHistogram}'s counts, with the statistics derived from them.
+ */
+public final class LatencySnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    LatencySnapshot(long[] counts, long totalNanos, long maxNanos) {
+        this.counts = counts;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+
+        long sum = 0;
+        for (long c : counts) {
+            sum += c;
+        }
+        this.count = sum;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded values.
+     *
+     * @return the total in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the maximum in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * Returns the value below which the given percentage of recorded values fall. The result is the upper end
+     * of the bucket holding that value, so it may overstate it by up to 12.5%, but never exceeds the maximum.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the percentile in nanoseconds, or 0 if nothing was recorded
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.bucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+}
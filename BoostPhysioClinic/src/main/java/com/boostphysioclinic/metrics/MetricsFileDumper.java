@@ -0,0 +1,79 @@
+package com.boostphysioclinic.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a {@link MetricsRegistry} to a local file at a fixed interval. Each write goes to a temporary file
+ * that then replaces the target, so readers never see a half-written table. Closing the dumper stops the
+ * schedule and writes the file one last time.
+ */
+public final class MetricsFileDumper implements AutoCloseable {
+    private final MetricsRegistry registry;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+
+    MetricsFileDumper(MetricsRegistry registry, Path file, Duration period) {
+        this.registry = registry;
+        this.file = file.toAbsolutePath();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long periodMillis = Math.max(1, period.toMillis());
+        scheduler.scheduleAtFixedRate(this::dumpQuietly, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the current metrics to the file now.
+     *
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public void dump() {
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                out.write("# " + LocalDateTime.now() + System.lineSeparator());
+                registry.writeTo(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write metrics to " + file, e);
+        }
+    }
+
+    /**
+     * Stops the periodic writes and writes the file a final time.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dump();
+    }
+
+    private void dumpQuietly() {
+        try {
+            dump();
+        } catch (UncheckedIOException e) {
+            // A failed write must not cancel the schedule; the next one may succeed
+            System.err.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.boostphysioclinic.metrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link OperationTimer}s of one application, keyed by operation name.
+ * <p>
+ * Timers are looked up once, when the instrumented services are created, and then used directly, so the
+ * registry is not touched on the hot path apart from the enabled flag. Recording can be switched off at any
+ * time with {@link #setEnabled(boolean)}; a disabled timer costs one volatile read per call.
+ * </p>
+ */
+public class MetricsRegistry {
+    private final Map<String, OperationTimer> timers = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+
+    /**
+     * Returns the timer for the given operation, creating it on first use.
+     *
+     * @param name the operation name, e.g. {@code AppointmentService.bookAppointment}
+     * @return the timer for the operation
+     */
+    public OperationTimer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new OperationTimer(n, this));
+    }
+
+    /**
+     * Returns whether timers are recording.
+     *
+     * @return {@code true} if recording is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches recording on or off for every timer in the registry.
+     *
+     * @param enabled whether timers should record
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns a snapshot of every timer, sorted by operation name.
+     *
+     * @return a read-only map from operation name to its latency snapshot
+     */
+    public Map<String, LatencySnapshot> snapshot() {
+        Map<String, LatencySnapshot> snapshot = new TreeMap<>();
+        for (OperationTimer timer : timers.values()) {
+            snapshot.put(timer.getName(), timer.snapshot());
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Clears the values recorded by every timer.
+     */
+    public void reset() {
+        for (OperationTimer timer : timers.values()) {
+            timer.reset();
+        }
+    }
+
+    /**
+     * Writes a snapshot of every timer that has recorded a call as a table, one operation per line,
+     * with latencies in microseconds.
+     *
+     * @param out where to write the table
+     * @throws IOException if writing fails
+     */
+    public void writeTo(Appendable out) throws IOException {
+        out.append(String.format("%-60s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "mean_us", "p50_us", "p99_us", "p999_us", "max_us"));
+        for (Map.Entry<String, LatencySnapshot> entry : snapshot().entrySet()) {
+            LatencySnapshot latency = entry.getValue();
+            if (latency.getCount() == 0) {
+                continue;
+            }
+            out.append(String.format("%-60s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    entry.getKey(), latency.getCount(),
+                    latency.getMeanNanos() / 1000.0,
+                    latency.getPercentileNanos(50) / 1000.0,
+                    latency.getPercentileNanos(99) / 1000.0,
+                    latency.getPercentileNanos(99.9) / 1000.0,
+                    latency.getMaxNanos() / 1000.0));
+        }
+    }
+
+    /**
+     * Starts writing the table from {@link #writeTo(Appendable)} to a file at a fixed interval,
+     * on a daemon thread, replacing the file each time.
+     *
+     * @param file   the file to write
+     * @param period the time between writes
+     * @return the dumper, which must be closed to stop writing
+     */
+    public MetricsFileDumper startDumping(Path file, Duration period) {
+        return new MetricsFileDumper(this, file, period);
+    }
+}
@@ -0,0 +1,69 @@
+package com.boostphysioclinic.metrics;
+
+/**
+ * Counts the calls to one operation and records how long they take.
+ * <pre>
+ * long start = timer.start();
+ * try {
+ *     return doOperation();
+ * } finally {
+ *     timer.stop(start);
+ * }
+ * </pre>
+ * While the owning {@link MetricsRegistry} is disabled, {@link #start()} does not read the clock and
+ * {@link #stop(long)} records nothing.
+ */
+public final class OperationTimer {
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    private final String name;
+    private final MetricsRegistry registry;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    OperationTimer(String name, MetricsRegistry registry) {
+        this.name = name;
+        this.registry = registry;
+    }
+
+    /**
+     * Returns the name of the timed operation.
+     *
+     * @return the operation name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Marks the start of a call.
+     *
+     * @return the value to pass to {@link #stop(long)} when the call ends
+     */
+    public long start() {
+        return registry.isEnabled() ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Marks the end of a call and records its latency.
+     *
+     * @param start the value returned by {@link #start()} for the call
+     */
+    public void stop(long start) {
+        if (start != DISABLED) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the calls recorded so far.
+     *
+     * @return the snapshot
+     */
+    public LatencySnapshot snapshot() {
+        return histogram.snapshot();
+    }
+
+    void reset() {
+        histogram.reset();
+    }
+}
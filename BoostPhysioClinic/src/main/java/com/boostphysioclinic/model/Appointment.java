@@ -68,4 +68,13 @@ public class Appointment {
     public TimetableSlot getSlot() {
         return slot;
     }
+
+    /**
+     * Gets the time of this appointment in minutes since the clinic epoch.
+     *
+     * @return the epoch minute of the appointment's timetable slot
+     */
+    public int getEpochMinute() {
+        return slot.getEpochMinute();
+    }
 }
@@ -1,7 +1,12 @@
 package com.boostphysioclinic.model;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents a Physiotherapist, a type of Personnel, with specific expertise
@@ -10,6 +15,11 @@ import java.util.List;
 public class Physiotherapist extends Personnel {
     private final List<String> expertise;
     private final List<TimetableSlot> timetable = new ArrayList<>();
+    private final List<TimetableSlot> timetableView = Collections.unmodifiableList(timetable);
+    // Bit i is set while timetable slot i is free (neither booked nor blocked), so free slots can be found without visiting booked ones
+    private final BitSet freeSlots = new BitSet();
+    // The same index split by treatment, so a search for some treatments skips the free slots of the others
+    private final Map<Treatment, BitSet> freeSlotsByTreatment = new HashMap<>();
 
     /**
      * Constructs a Physiotherapist with the specified details.
@@ -37,10 +47,110 @@ public class Physiotherapist extends Personnel {
     /**
      * Returns the timetable of the physiotherapist.
      *
-     * @return A list of timetable slots assigned to the physiotherapist.
+     * @return A read-only list of timetable slots assigned to the physiotherapist, in order of start time.
      */
     public List<TimetableSlot> getTimetable() {
-        return timetable;
+        return timetableView;
+    }
+
+    /**
+     * Adds a slot to the timetable, keeping the timetable in order of start time.
+     * Slots with the same start time keep the order in which they were added.
+     *
+     * @param slot The slot to add.
+     */
+    public void addSlot(TimetableSlot slot) {
+        int index = indexOfFirstSlotAfter(slot.getEpochMinute());
+        timetable.add(index, slot);
+        for (int i = timetable.size() - 1; i > index; i--) {
+            freeSlots.set(i, freeSlots.get(i - 1));
+        }
+        freeSlots.set(index, slot.isAvailable());
+
+        for (BitSet treatmentSlots : freeSlotsByTreatment.values()) {
+            int i = treatmentSlots.previousSetBit(timetable.size());
+            for (; i >= index; i = treatmentSlots.previousSetBit(i - 1)) {
+                treatmentSlots.clear(i);
+                treatmentSlots.set(i + 1);
+            }
+        }
+        freeSlotsByTreatment.computeIfAbsent(slot.getTreatment(), t -> new BitSet()).set(index, slot.isAvailable());
+    }
+
+    /**
+     * Returns the position in the timetable of the first free slot at or after the given position.
+     *
+     * @param fromIndex The timetable position to start from.
+     * @return The index of the next free slot, or -1 if no later slot is free.
+     */
+    public int nextFreeSlotIndex(int fromIndex) {
+        int index = freeSlots.nextSetBit(fromIndex);
+        return index < timetable.size() ? index : -1;
+    }
+
+    /**
+     * Returns the position in the timetable of the first free slot of a treatment at or after the given position.
+     *
+     * @param fromIndex The timetable position to start from.
+     * @param treatment The treatment of the slot.
+     * @return The index of the next free slot of that treatment, or -1 if no later slot of it is free.
+     */
+    public int nextFreeSlotIndex(int fromIndex, Treatment treatment) {
+        BitSet treatmentSlots = freeSlotsByTreatment.get(treatment);
+        int index = treatmentSlots == null ? -1 : treatmentSlots.nextSetBit(fromIndex);
+        return index < timetable.size() ? index : -1;
+    }
+
+    /**
+     * Returns the treatments of the slots in the timetable.
+     *
+     * @return A read-only set of the treatments offered in the timetable.
+     */
+    public Set<Treatment> getTimetableTreatments() {
+        return Collections.unmodifiableSet(freeSlotsByTreatment.keySet());
+    }
+
+    /**
+     * Updates the free-slot index after a slot in this timetable is booked, released, blocked or unblocked.
+     *
+     * @param slot The slot whose booking state changed.
+     */
+    void slotAvailabilityChanged(TimetableSlot slot) {
+        for (int i = indexOfFirstSlotFrom(slot.getEpochMinute()); i < timetable.size(); i++) {
+            TimetableSlot candidate = timetable.get(i);
+            if (candidate == slot) {
+                freeSlots.set(i, slot.isAvailable());
+                freeSlotsByTreatment.get(slot.getTreatment()).set(i, slot.isAvailable());
+                return;
+            }
+            if (candidate.getEpochMinute() != slot.getEpochMinute()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the position in the timetable of the first slot starting at or after the given time.
+     *
+     * @param epochMinute The time in minutes since the clinic epoch.
+     * @return The index of the first such slot, or the timetable size if every slot starts earlier.
+     */
+    public int indexOfFirstSlotFrom(int epochMinute) {
+        int low = 0;
+        int high = timetable.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timetable.get(mid).getEpochMinute() < epochMinute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int indexOfFirstSlotAfter(int epochMinute) {
+        return epochMinute == Integer.MAX_VALUE ? timetable.size() : indexOfFirstSlotFrom(epochMinute + 1);
     }
 
     @Override
@@ -1,17 +1,24 @@
 package com.boostphysioclinic.model;
 
+import com.boostphysioclinic.util.ClinicTime;
+
 import java.time.LocalDateTime;
 
 /**
  * Represents a slot in a timetable for physiotherapy treatment.
  * Contains information about the assigned physiotherapist, treatment,
- * scheduled time, and whether the slot has been booked.
+ * scheduled time, and whether the slot has been booked or blocked.
+ * <p>
+ * The scheduled time is held as minutes since the clinic epoch (see {@link ClinicTime}),
+ * so comparing or sorting slots by time only involves integer operations.
+ * </p>
  */
 public class TimetableSlot {
     private Physiotherapist physiotherapist;
     private Treatment treatment;
-    private LocalDateTime dateTime;
+    private final int epochMinute;
     private boolean isBooked;
+    private boolean isBlocked;
 
     /**
      * Constructs a new {@code TimetableSlot} with the specified physiotherapist,
@@ -19,12 +26,24 @@ public class TimetableSlot {
      *
      * @param physio     the physiotherapist assigned to this slot
      * @param treatment  the treatment scheduled in this slot
-     * @param dateTime   the date and time of the slot
+     * @param dateTime   the date and time of the slot, truncated to the minute
      */
     public TimetableSlot(Physiotherapist physio, Treatment treatment, LocalDateTime dateTime) {
+        this(physio, treatment, ClinicTime.toEpochMinute(dateTime));
+    }
+
+    /**
+     * Constructs a new {@code TimetableSlot} with the specified physiotherapist,
+     * treatment, and time in minutes since the clinic epoch. The slot is initially marked as unbooked.
+     *
+     * @param physio      the physiotherapist assigned to this slot
+     * @param treatment   the treatment scheduled in this slot
+     * @param epochMinute the time of the slot in minutes since the clinic epoch
+     */
+    public TimetableSlot(Physiotherapist physio, Treatment treatment, int epochMinute) {
         this.physiotherapist = physio;
         this.treatment = treatment;
-        this.dateTime = dateTime;
+        this.epochMinute = epochMinute;
         this.isBooked = false;
     }
 
@@ -52,7 +71,16 @@ public class TimetableSlot {
      * @return the slot's date and time
      */
     public LocalDateTime getDateTime() {
-        return dateTime;
+        return ClinicTime.toLocalDateTime(epochMinute);
+    }
+
+    /**
+     * Returns the time of this timetable slot in minutes since the clinic epoch.
+     *
+     * @return the slot's epoch minute
+     */
+    public int getEpochMinute() {
+        return epochMinute;
     }
 
     /**
@@ -65,12 +93,46 @@ public class TimetableSlot {
     }
 
     /**
-     * Sets the booking status of this slot.
+     * Sets the booking status of this slot and updates its physiotherapist's free-slot index.
      *
      * @param booked {@code true} to mark the slot as booked, {@code false} to unmark it
      */
     public void setBooked(boolean booked) {
         isBooked = booked;
+        if (physiotherapist != null) {
+            physiotherapist.slotAvailabilityChanged(this);
+        }
+    }
+
+    /**
+     * Indicates whether this slot has been taken out of use, for example because the physiotherapist is absent.
+     * A blocked slot cannot be booked, but an appointment already in it is not affected.
+     *
+     * @return {@code true} if the slot is blocked; {@code false} otherwise
+     */
+    public boolean isBlocked() {
+        return isBlocked;
+    }
+
+    /**
+     * Blocks or unblocks this slot and updates its physiotherapist's free-slot index.
+     *
+     * @param blocked {@code true} to take the slot out of use, {@code false} to make it bookable again
+     */
+    public void setBlocked(boolean blocked) {
+        isBlocked = blocked;
+        if (physiotherapist != null) {
+            physiotherapist.slotAvailabilityChanged(this);
+        }
+    }
+
+    /**
+     * Indicates whether this slot can be booked.
+     *
+     * @return {@code true} if the slot is neither booked nor blocked
+     */
+    public boolean isAvailable() {
+        return !isBooked && !isBlocked;
     }
 
     /**
@@ -82,7 +144,7 @@ public class TimetableSlot {
     public String toString() {
         return "\nTimetableSlot{" +
                 "treatment=" + treatment +
-                ", dateTime=" + dateTime +
+                ", dateTime=" + getDateTime() +
                 ", isBooked=" + isBooked +
                 '}';
     }
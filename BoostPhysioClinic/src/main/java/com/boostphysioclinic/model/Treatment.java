@@ -4,17 +4,55 @@ package com.boostphysioclinic.model;
 /**
  * Represents a type of treatment that can be scheduled in a timetable slot.
  * Each treatment has a name describing the procedure or therapy.
+ * <p>
+ * Treatments created through the {@code TreatmentCatalogue} are shared between every slot
+ * that offers them and carry a small, stable id that can be used to index per-treatment arrays.
+ * </p>
  */
 public class Treatment {
-    private String name;
+    /** Id given to treatments that were not created through the treatment catalogue */
+    public static final int UNREGISTERED_ID = -1;
+
+    /** Length of a treatment session when none is specified */
+    public static final int DEFAULT_DURATION_MINUTES = 60;
+
+    private final int id;
+    private final String name;
+    private final String expertise;
+    private final int durationMinutes;
 
     /**
      * Constructs a new {@code Treatment} with the specified name.
+     * The treatment is not registered in any catalogue.
      *
      * @param name the name of the treatment
      */
     public Treatment(String name) {
+        this(UNREGISTERED_ID, name, null, DEFAULT_DURATION_MINUTES);
+    }
+
+    /**
+     * Constructs a new {@code Treatment} with all of its catalogue details.
+     *
+     * @param id              the catalogue id of the treatment
+     * @param name            the name of the treatment
+     * @param expertise       the area of expertise the treatment belongs to
+     * @param durationMinutes the length of a session in minutes
+     */
+    public Treatment(int id, String name, String expertise, int durationMinutes) {
+        this.id = id;
         this.name = name;
+        this.expertise = expertise;
+        this.durationMinutes = durationMinutes;
+    }
+
+    /**
+     * Returns the catalogue id of the treatment.
+     *
+     * @return the treatment id, or {@link #UNREGISTERED_ID} if the treatment is not catalogued
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -26,6 +64,24 @@ public class Treatment {
         return name;
     }
 
+    /**
+     * Returns the area of expertise the treatment belongs to.
+     *
+     * @return the expertise, or {@code null} if the treatment is not catalogued
+     */
+    public String getExpertise() {
+        return expertise;
+    }
+
+    /**
+     * Returns the length of a session of this treatment.
+     *
+     * @return the duration in minutes
+     */
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
     /**
      * Returns the string representation of the treatment.
      *
@@ -36,4 +92,3 @@ public class Treatment {
         return getName();
     }
 }
-
@@ -0,0 +1,164 @@
+package com.boostphysioclinic.model;
+
+/**
+ * Represents a patient's place on the waitlist: interest in any free slot that starts inside a time window,
+ * optionally with a particular physiotherapist or within an area of expertise.
+ */
+public class WaitlistEntry {
+    /** The appointment ID of an entry that has not been given a slot yet */
+    public static final int NOT_ASSIGNED = -1;
+
+    private final int id;
+    private final Patient patient;
+    private final Physiotherapist physiotherapist;
+    private final String expertise;
+    private final String expertiseFilter;
+    private final int fromEpochMinute;
+    private final int toEpochMinute;
+    private final int priority;
+    private int appointmentId = NOT_ASSIGNED;
+
+    /**
+     * Creates a waitlist entry.
+     *
+     * @param id              the waitlist entry ID
+     * @param patient         the waiting patient
+     * @param physiotherapist the physiotherapist the patient wants to see, or {@code null} for any
+     * @param expertise       the area of expertise the patient needs, or {@code null} for any
+     * @param fromEpochMinute the earliest slot start time the patient accepts, in minutes since the clinic epoch
+     * @param toEpochMinute   the slot start time the patient needs an appointment before
+     * @param priority        the priority of the entry; higher priorities are served first
+     */
+    public WaitlistEntry(int id, Patient patient, Physiotherapist physiotherapist, String expertise,
+                         int fromEpochMinute, int toEpochMinute, int priority) {
+        this.id = id;
+        this.patient = patient;
+        this.physiotherapist = physiotherapist;
+        this.expertise = expertise;
+        this.expertiseFilter = expertise == null ? null : expertise.toLowerCase();
+        this.fromEpochMinute = fromEpochMinute;
+        this.toEpochMinute = toEpochMinute;
+        this.priority = priority;
+    }
+
+    /**
+     * Returns the waitlist entry ID.
+     *
+     * @return the entry ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the waiting patient.
+     *
+     * @return the patient
+     */
+    public Patient getPatient() {
+        return patient;
+    }
+
+    /**
+     * Returns the physiotherapist the patient wants to see.
+     *
+     * @return the physiotherapist, or {@code null} if any physiotherapist will do
+     */
+    public Physiotherapist getPhysiotherapist() {
+        return physiotherapist;
+    }
+
+    /**
+     * Returns the area of expertise the patient needs.
+     *
+     * @return the expertise, or {@code null} if any expertise will do
+     */
+    public String getExpertise() {
+        return expertise;
+    }
+
+    /**
+     * Returns the earliest slot start time the patient accepts.
+     *
+     * @return the start of the window in minutes since the clinic epoch
+     */
+    public int getFromEpochMinute() {
+        return fromEpochMinute;
+    }
+
+    /**
+     * Returns the slot start time the patient needs an appointment before.
+     *
+     * @return the exclusive end of the window in minutes since the clinic epoch
+     */
+    public int getToEpochMinute() {
+        return toEpochMinute;
+    }
+
+    /**
+     * Returns the priority of the entry. Higher priorities are served first.
+     *
+     * @return the priority
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Returns the appointment booked for this entry.
+     *
+     * @return the appointment ID, or {@link #NOT_ASSIGNED} if the patient is still waiting
+     */
+    public int getAppointmentId() {
+        return appointmentId;
+    }
+
+    /**
+     * Records the appointment booked for this entry.
+     *
+     * @param appointmentId the ID of the booked appointment
+     */
+    public void setAppointmentId(int appointmentId) {
+        this.appointmentId = appointmentId;
+    }
+
+    /**
+     * Returns whether the patient has been given an appointment from the waitlist.
+     *
+     * @return {@code true} if an appointment has been booked for this entry
+     */
+    public boolean isAssigned() {
+        return appointmentId != NOT_ASSIGNED;
+    }
+
+    /**
+     * Checks whether a slot satisfies this entry's physiotherapist, expertise and time window.
+     * The expertise is matched against the slot's treatment, or against the physiotherapist's areas of expertise
+     * for treatments that are not catalogued under one. The slot's booking state is not checked.
+     *
+     * @param slot the slot to check
+     * @return {@code true} if the patient would accept the slot
+     */
+    public boolean accepts(TimetableSlot slot) {
+        int start = slot.getEpochMinute();
+        if (start < fromEpochMinute || start >= toEpochMinute) {
+            return false;
+        }
+        if (physiotherapist != null && slot.getPhysiotherapist() != physiotherapist) {
+            return false;
+        }
+        if (expertiseFilter == null) {
+            return true;
+        }
+        String treatmentExpertise = slot.getTreatment().getExpertise();
+        if (treatmentExpertise != null) {
+            return treatmentExpertise.toLowerCase().contains(expertiseFilter);
+        }
+        for (String e : slot.getPhysiotherapist().getExpertise()) {
+            if (e.toLowerCase().contains(expertiseFilter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,56 @@
+package com.boostphysioclinic.model.report;
+
+/**
+ * Represents a report summarizing how many appointments were made for a specific treatment.
+ */
+public class TreatmentReport {
+
+    /** The name of the treatment */
+    private final String treatmentName;
+
+    /** The area of expertise the treatment belongs to */
+    private final String expertise;
+
+    /** The number of appointments made for the treatment, excluding cancelled ones */
+    private final int appointments;
+
+    /**
+     * Constructs a TreatmentReport with the given treatment details and appointment count.
+     *
+     * @param treatmentName the name of the treatment
+     * @param expertise the area of expertise the treatment belongs to
+     * @param appointments the number of appointments made for the treatment
+     */
+    public TreatmentReport(String treatmentName, String expertise, int appointments) {
+        this.treatmentName = treatmentName;
+        this.expertise = expertise;
+        this.appointments = appointments;
+    }
+
+    /**
+     * Gets the name of the treatment.
+     *
+     * @return the treatment name
+     */
+    public String getTreatmentName() {
+        return treatmentName;
+    }
+
+    /**
+     * Gets the area of expertise the treatment belongs to.
+     *
+     * @return the expertise
+     */
+    public String getExpertise() {
+        return expertise;
+    }
+
+    /**
+     * Gets the number of appointments made for the treatment.
+     *
+     * @return the number of appointments
+     */
+    public int getAppointments() {
+        return appointments;
+    }
+}
@@ -2,19 +2,54 @@ package com.boostphysioclinic.presentation;
 
 import com.boostphysioclinic.util.Result;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Scanner;
 import java.util.function.Function;
 
+/**
+ * A {@link ConsoleView} that reads from an input stream and writes to an output stream.
+ * <p>
+ * All output goes through one buffered writer that is flushed only when the view is about to wait for
+ * input, so a large report reaches the terminal in a few large writes rather than one per line.
+ * </p>
+ */
 public class BasicConsoleView implements ConsoleView {
-    private Scanner sc = new Scanner(System.in);
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private final Scanner sc;
+    private final PrintWriter out;
+
+    /**
+     * Creates a view reading from standard input and writing to standard output.
+     */
+    public BasicConsoleView() {
+        this(System.in, System.out);
+    }
+
+    /**
+     * Creates a view reading from and writing to the given streams.
+     *
+     * @param in  the stream to read user input from
+     * @param out the stream to write output to, in its own charset
+     */
+    public BasicConsoleView(InputStream in, PrintStream out) {
+        this.sc = new Scanner(in);
+        this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, out.charset()), OUTPUT_BUFFER_SIZE), false);
+    }
 
     @Override
     public void showMessage(String message, MessageType messageType) {
         switch (messageType) {
-            case INFO -> System.out.println(message);
-            case WARNING -> System.out.println("[WARNING]: " + message);
-            case ERROR -> System.out.println("[ERROR]: " + message);
+            case INFO -> out.println(message);
+            case WARNING -> out.append("[WARNING]: ").println(message);
+            case ERROR -> out.append("[ERROR]: ").println(message);
         }
     }
 
@@ -28,16 +63,30 @@ public class BasicConsoleView implements ConsoleView {
             }
 
             showMessage(result.getError(), MessageType.ERROR);
-            return promptInput(message, validator);
         }
     }
 
+    @Override
+    public <T> void showTable(TableRenderer<T> table, List<T> rows) {
+        try {
+            table.render(rows, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // PrintWriter records errors rather than throwing
+        }
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+    }
+
     private void showMessage(String message) {
-        System.out.println(message);
+        out.println(message);
     }
 
     private String prompt(String prompt) {
-        System.out.println("\n" + prompt + ": ");
+        out.append('\n').append(prompt).println(": ");
+        out.flush();
         return sc.nextLine();
     }
 
@@ -48,11 +97,12 @@ public class BasicConsoleView implements ConsoleView {
         if (title != null && !title.isEmpty()) showMessage(title);
 
         for (int i = 0; i < menuItems.size(); i++) {
-            System.out.printf("%d. %s%n", i + 1, menuItems.get(i));
+            out.print(i + 1);
+            out.append(". ").println(menuItems.get(i));
         }
 
         if (includeExit) {
-            System.out.println("0. Exit");
+            out.println("0. Exit");
         }
 
         return promptInput("Select option (" + (includeExit ? 0 : 1) + "-" + menuItems.size() + ")", input -> {
@@ -0,0 +1,399 @@
+package com.boostphysioclinic.presentation;
+
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.report.AppointmentReport;
+import com.boostphysioclinic.model.report.PhysiotherapistReport;
+import com.boostphysioclinic.model.report.TreatmentReport;
+import com.boostphysioclinic.services.AbsenceService;
+import com.boostphysioclinic.services.AppointmentService;
+import com.boostphysioclinic.services.ArchiveService;
+import com.boostphysioclinic.services.PatientService;
+import com.boostphysioclinic.services.PhysiotherapistService;
+import com.boostphysioclinic.services.ReportGenerator;
+import com.boostphysioclinic.services.ServiceContainer;
+import com.boostphysioclinic.services.WaitlistService;
+import com.boostphysioclinic.util.ClinicTime;
+import com.boostphysioclinic.util.Result;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Runs a stream of commands against the services without any prompts, for replaying recorded traffic
+ * and automating routine jobs.
+ * <p>
+ * Each line holds one command with its arguments separated by {@code |}. Blank lines and lines starting
+ * with {@code #} are ignored. Times use the ISO-8601 local date-time format, e.g. {@code 2025-01-06T09:00}.
+ * </p>
+ * <pre>
+ * sample-data
+ * add-patient|fullName|address|telephone
+ * delete-patient|patientId
+ * book|patientId|physiotherapistId|time
+ * cancel|appointmentId
+ * rebook|appointmentId
+ * attend|appointmentId
+ * waitlist|patientId|[physiotherapistId]|[expertise]|from|to|priority
+ * absence|physiotherapistId|from|to
+ * archive|now
+ * report|appointments|physiotherapists|treatments
+ * </pre>
+ * <p>
+ * Every command writes one {@code OK} or {@code ERR} line, followed by the rows of a report, to a writer
+ * that is only flushed when the run finishes. The timing statistics are written after the last command.
+ * A command that fails unexpectedly, such as a report whose archive segment cannot be read, is reported as
+ * {@code ERR <command> INTERNAL_ERROR} and the run carries on with the next line.
+ * </p>
+ */
+public class BatchCommandRunner {
+    private final ServiceContainer services;
+    private final PatientService patientService;
+    private final PhysiotherapistService physiotherapistService;
+    private final AppointmentService appointmentService;
+    private final ReportGenerator reportGenerator;
+    private final WaitlistService waitlistService;
+    private final AbsenceService absenceService;
+    private final ArchiveService archiveService;
+    private final Writer out;
+
+    /**
+     * Creates a runner that executes commands against the given services.
+     *
+     * @param services the services to run the commands against
+     * @param out      the writer to write command results and statistics to; should be buffered
+     */
+    public BatchCommandRunner(ServiceContainer services, Writer out) {
+        this.services = services;
+        this.patientService = services.getPatientService();
+        this.physiotherapistService = services.getPhysiotherapistService();
+        this.appointmentService = services.getAppointmentService();
+        this.reportGenerator = services.getReportGenerator();
+        this.waitlistService = services.getWaitlistService();
+        this.absenceService = services.getAbsenceService();
+        this.archiveService = services.getArchiveService();
+        this.out = out;
+    }
+
+    /**
+     * Runs every command read from the given reader, then writes the statistics and flushes the output.
+     *
+     * @param in the reader to read commands from
+     * @return the statistics for the run
+     * @throws IOException if reading commands or writing results fails
+     */
+    public BatchStats run(BufferedReader in) throws IOException {
+        BatchStats stats = new BatchStats();
+        long start = System.nanoTime();
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] args = line.split("\\|", -1);
+            Command command = Command.fromName(args[0].trim());
+            long commandStart = System.nanoTime();
+            boolean succeeded;
+            if (command == null) {
+                out.write("ERR unknown-command ");
+                out.write(args[0].trim());
+                out.write('\n');
+                succeeded = false;
+            } else {
+                try {
+                    succeeded = execute(command, args);
+                } catch (RuntimeException e) {
+                    succeeded = error(command, "INTERNAL_ERROR");
+                }
+            }
+            stats.record(command, succeeded, System.nanoTime() - commandStart);
+        }
+
+        stats.finish(System.nanoTime() - start);
+        stats.writeTo(out);
+        out.flush();
+        return stats;
+    }
+
+    private boolean execute(Command command, String[] args) throws IOException {
+        if (args.length != command.argumentCount + 1) {
+            return error(command, "WRONG_NUMBER_OF_ARGUMENTS");
+        }
+
+        return switch (command) {
+            case SAMPLE_DATA -> {
+                services.getTimeTableService().generateSampleData();
+                yield ok(command, "");
+            }
+            case ADD_PATIENT -> addPatient(args);
+            case DELETE_PATIENT -> {
+                Integer id = parseId(args[1]);
+                if (id == null) {
+                    yield error(command, "INVALID_ID");
+                }
+                yield patientService.deletePatient(id) ? ok(command, args[1].trim()) : error(command, "PATIENT_NOT_FOUND");
+            }
+            case BOOK -> book(args);
+            case CANCEL, REBOOK, ATTEND -> changeAppointment(command, args[1]);
+            case WAITLIST -> joinWaitlist(args);
+            case ABSENCE -> recordAbsence(args);
+            case ARCHIVE -> archive(args);
+            case REPORT -> report(args[1].trim());
+        };
+    }
+
+    private boolean addPatient(String[] args) throws IOException {
+        Result<Patient, PatientService.Error> result = patientService.addPatient(args[1].trim(), args[2].trim(), args[3].trim());
+        if (result.isError()) {
+            return error(Command.ADD_PATIENT, result.getError().name());
+        }
+        return ok(Command.ADD_PATIENT, Integer.toString(result.getData().getId()));
+    }
+
+    private boolean book(String[] args) throws IOException {
+        Integer patientId = parseId(args[1]);
+        Integer physiotherapistId = parseId(args[2]);
+        if (patientId == null || physiotherapistId == null) {
+            return error(Command.BOOK, "INVALID_ID");
+        }
+
+        int time;
+        try {
+            time = ClinicTime.toEpochMinute(LocalDateTime.parse(args[3].trim()));
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return error(Command.BOOK, "INVALID_TIME");
+        }
+
+        Patient patient = patientService.getPatientById(patientId);
+        if (patient == null) {
+            return error(Command.BOOK, "PATIENT_NOT_FOUND");
+        }
+        Physiotherapist physiotherapist = physiotherapistService.getPhysiotherapistById(physiotherapistId);
+        if (physiotherapist == null) {
+            return error(Command.BOOK, "PHYSIOTHERAPIST_NOT_FOUND");
+        }
+        TimetableSlot slot = physiotherapistService.getSlot(physiotherapist, time);
+        if (slot == null) {
+            return error(Command.BOOK, "TIMETABLE_SLOT_NOT_FOUND");
+        }
+
+        var result = appointmentService.bookAppointmentId(patient, slot);
+        if (result.isError()) {
+            return error(Command.BOOK, result.getError().name());
+        }
+        return ok(Command.BOOK, Integer.toString(result.getData()));
+    }
+
+    private boolean joinWaitlist(String[] args) throws IOException {
+        Integer patientId = parseId(args[1]);
+        Integer physiotherapistId = args[2].isBlank() ? null : parseId(args[2]);
+        Integer priority = parseId(args[6]);
+        if (patientId == null || (!args[2].isBlank() && physiotherapistId == null) || priority == null) {
+            return error(Command.WAITLIST, "INVALID_ID");
+        }
+
+        int from;
+        int to;
+        try {
+            from = ClinicTime.toEpochMinute(LocalDateTime.parse(args[4].trim()));
+            to = ClinicTime.toEpochMinute(LocalDateTime.parse(args[5].trim()));
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return error(Command.WAITLIST, "INVALID_TIME");
+        }
+
+        Physiotherapist physiotherapist = null;
+        if (physiotherapistId != null) {
+            physiotherapist = physiotherapistService.getPhysiotherapistById(physiotherapistId);
+            if (physiotherapist == null) {
+                return error(Command.WAITLIST, "PHYSIOTHERAPIST_NOT_FOUND");
+            }
+        }
+
+        var result = waitlistService.join(patientService.getPatientById(patientId), physiotherapist, args[3],
+                from, to, priority);
+        if (result.isError()) {
+            return error(Command.WAITLIST, result.getError().name());
+        }
+        return ok(Command.WAITLIST, Integer.toString(result.getData().getId()));
+    }
+
+    private boolean recordAbsence(String[] args) throws IOException {
+        Integer physiotherapistId = parseId(args[1]);
+        if (physiotherapistId == null) {
+            return error(Command.ABSENCE, "INVALID_ID");
+        }
+
+        int from;
+        int to;
+        try {
+            from = ClinicTime.toEpochMinute(LocalDateTime.parse(args[2].trim()));
+            to = ClinicTime.toEpochMinute(LocalDateTime.parse(args[3].trim()));
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return error(Command.ABSENCE, "INVALID_TIME");
+        }
+
+        var result = absenceService.recordAbsence(physiotherapistService.getPhysiotherapistById(physiotherapistId), from, to);
+        if (result.isError()) {
+            return error(Command.ABSENCE, result.getError().name());
+        }
+        return ok(Command.ABSENCE, "moved=" + result.getData().moved().size()
+                + " unplaced=" + result.getData().unplaced().size());
+    }
+
+    private boolean archive(String[] args) throws IOException {
+        if (archiveService == null) {
+            return error(Command.ARCHIVE, "ARCHIVE_NOT_CONFIGURED");
+        }
+
+        int now;
+        try {
+            now = ClinicTime.toEpochMinute(LocalDateTime.parse(args[1].trim()));
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return error(Command.ARCHIVE, "INVALID_TIME");
+        }
+
+        var result = archiveService.archive(now);
+        if (result.isError()) {
+            return error(Command.ARCHIVE, result.getError().name());
+        }
+        return ok(Command.ARCHIVE, "archived=" + result.getData().getRowCount()
+                + " segment=" + result.getData().getPath().getFileName());
+    }
+
+    private boolean changeAppointment(Command command, String idArgument) throws IOException {
+        Integer appointmentId = parseId(idArgument);
+        if (appointmentId == null) {
+            return error(command, "INVALID_ID");
+        }
+
+        Result<?, ? extends Enum<?>> result = switch (command) {
+            case CANCEL -> appointmentService.cancelAppointment(appointmentId);
+            case REBOOK -> appointmentService.rebookAppointment(appointmentId);
+            default -> appointmentService.attendAppointment(appointmentId);
+        };
+        if (result.isError()) {
+            return error(command, result.getError().name());
+        }
+        return ok(command, Integer.toString(appointmentId));
+    }
+
+    private boolean report(String type) throws IOException {
+        switch (type) {
+            case "appointments" -> {
+                List<AppointmentReport> reports = reportGenerator.generateAllAppointmentReport();
+                ok(Command.REPORT, type + " " + reports.size());
+                for (AppointmentReport r : reports) {
+                    writeRow(r.getPhysiotherapistName(), r.getTreatmentName(), r.getPatientName(),
+                            r.getTime(), r.getAppointmentStatus());
+                }
+            }
+            case "physiotherapists" -> {
+                List<PhysiotherapistReport> reports = reportGenerator.generatePhysiotherapistReport();
+                ok(Command.REPORT, type + " " + reports.size());
+                for (PhysiotherapistReport r : reports) {
+                    writeRow(r.getPhysiotherapistName(), Integer.toString(r.getAttendedAppointments()));
+                }
+            }
+            case "treatments" -> {
+                List<TreatmentReport> reports = reportGenerator.generateTreatmentReport();
+                ok(Command.REPORT, type + " " + reports.size());
+                for (TreatmentReport r : reports) {
+                    writeRow(r.getTreatmentName(), r.getExpertise(), Integer.toString(r.getAppointments()));
+                }
+            }
+            default -> {
+                return error(Command.REPORT, "UNKNOWN_REPORT");
+            }
+        }
+        return true;
+    }
+
+    private void writeRow(String... columns) throws IOException {
+        out.write("  ");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                out.write('\t');
+            }
+            out.write(columns[i]);
+        }
+        out.write('\n');
+    }
+
+    private boolean ok(Command command, String detail) throws IOException {
+        out.write("OK ");
+        out.write(command.commandName);
+        if (!detail.isEmpty()) {
+            out.write(' ');
+            out.write(detail);
+        }
+        out.write('\n');
+        return true;
+    }
+
+    private boolean error(Command command, String error) throws IOException {
+        out.write("ERR ");
+        out.write(command.commandName);
+        out.write(' ');
+        out.write(error);
+        out.write('\n');
+        return false;
+    }
+
+    private static Integer parseId(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The commands understood by the runner.
+     */
+    public enum Command {
+        SAMPLE_DATA("sample-data", 0),
+        ADD_PATIENT("add-patient", 3),
+        DELETE_PATIENT("delete-patient", 1),
+        BOOK("book", 3),
+        CANCEL("cancel", 1),
+        REBOOK("rebook", 1),
+        ATTEND("attend", 1),
+        WAITLIST("waitlist", 6),
+        ABSENCE("absence", 3),
+        ARCHIVE("archive", 1),
+        REPORT("report", 1);
+
+        private final String commandName;
+        private final int argumentCount;
+
+        Command(String commandName, int argumentCount) {
+            this.commandName = commandName;
+            this.argumentCount = argumentCount;
+        }
+
+        /**
+         * Returns the name of the command as written in a command stream.
+         *
+         * @return the command name
+         */
+        public String getCommandName() {
+            return commandName;
+        }
+
+        private static Command fromName(String name) {
+            for (Command command : values()) {
+                if (command.commandName.equals(name)) {
+                    return command;
+                }
+            }
+            return null;
+        }
+    }
+}
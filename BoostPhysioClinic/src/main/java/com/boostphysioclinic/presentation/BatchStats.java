@@ -0,0 +1,120 @@
+package com.boostphysioclinic.presentation;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Timing and throughput statistics for a run of the {@link BatchCommandRunner}.
+ * Counters are kept per {@link BatchCommandRunner.Command}, with lines naming an unknown command
+ * counted separately.
+ */
+public class BatchStats {
+    private static final BatchCommandRunner.Command[] COMMANDS = BatchCommandRunner.Command.values();
+
+    private final int[] counts = new int[COMMANDS.length];
+    private final int[] failures = new int[COMMANDS.length];
+    private final long[] nanos = new long[COMMANDS.length];
+    private int unknownCommands;
+    private long elapsedNanos;
+
+    void record(BatchCommandRunner.Command command, boolean succeeded, long durationNanos) {
+        if (command == null) {
+            unknownCommands++;
+            return;
+        }
+        int index = command.ordinal();
+        counts[index]++;
+        nanos[index] += durationNanos;
+        if (!succeeded) {
+            failures[index]++;
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of commands run, including lines naming an unknown command.
+     *
+     * @return the total number of commands
+     */
+    public int getCommands() {
+        int total = unknownCommands;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of commands that failed, including lines naming an unknown command.
+     *
+     * @return the total number of failed commands
+     */
+    public int getFailures() {
+        int total = unknownCommands;
+        for (int failure : failures) {
+            total += failure;
+        }
+        return total;
+    }
+
+    /**
+     * Returns how many times the given command was run.
+     *
+     * @param command the command
+     * @return the number of times it was run
+     */
+    public int getCount(BatchCommandRunner.Command command) {
+        return counts[command.ordinal()];
+    }
+
+    /**
+     * Returns how many times the given command failed.
+     *
+     * @param command the command
+     * @return the number of times it failed
+     */
+    public int getFailures(BatchCommandRunner.Command command) {
+        return failures[command.ordinal()];
+    }
+
+    /**
+     * Returns the wall-clock time of the whole run, including reading commands and writing results.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of commands run per second of wall-clock time.
+     *
+     * @return the throughput in commands per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getCommands() * 1e9 / elapsedNanos;
+    }
+
+    void writeTo(Writer out) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        builder.append("# ----- Batch statistics -----\n");
+        builder.append(String.format("# %-16s %10s %10s %14s%n", "command", "count", "failed", "mean (us)"));
+        for (BatchCommandRunner.Command command : COMMANDS) {
+            int index = command.ordinal();
+            if (counts[index] == 0) {
+                continue;
+            }
+            builder.append(String.format("# %-16s %10d %10d %14.2f%n", command.getCommandName(),
+                    counts[index], failures[index], nanos[index] / 1_000.0 / counts[index]));
+        }
+        if (unknownCommands > 0) {
+            builder.append(String.format("# %-16s %10d %10d%n", "unknown", unknownCommands, unknownCommands));
+        }
+        builder.append(String.format("# total %d commands, %d failed, in %.3f ms (%.0f commands/s)%n",
+                getCommands(), getFailures(), elapsedNanos / 1_000_000.0, getThroughput()));
+        out.write(builder.toString());
+    }
+}
@@ -16,5 +16,22 @@ public interface ConsoleView {
 
     int showMenu(List<String> menuItems, String title, boolean includeExit);
 
+    /**
+     * Shows the given rows as a table. Views that write to a stream should override this to render
+     * the table straight to it rather than through an intermediate string.
+     *
+     * @param table the renderer describing the table's columns
+     * @param rows  the rows to show
+     * @param <T>   the type of row
+     */
+    default <T> void showTable(TableRenderer<T> table, List<T> rows) {
+        showMessage(table.render(rows), MessageType.INFO);
+    }
 
+    /**
+     * Writes out anything the view has buffered. Views flush before every prompt, so this only needs
+     * calling once nothing more will be read, for example when the application exits.
+     */
+    default void flush() {
+    }
 }
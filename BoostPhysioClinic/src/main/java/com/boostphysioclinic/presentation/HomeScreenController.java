@@ -6,29 +6,79 @@ import com.boostphysioclinic.model.Physiotherapist;
 import com.boostphysioclinic.model.TimetableSlot;
 import com.boostphysioclinic.model.report.AppointmentReport;
 import com.boostphysioclinic.model.report.PhysiotherapistReport;
+import com.boostphysioclinic.model.report.TreatmentReport;
 import com.boostphysioclinic.services.*;
+import com.boostphysioclinic.util.IntResult;
 import com.boostphysioclinic.util.Result;
 import com.boostphysioclinic.util.TimeFormatter;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static com.boostphysioclinic.presentation.ConsoleView.MessageType.*;
 
 public class HomeScreenController {
-    private final ConsoleView view = new BasicConsoleView();
+    private final ConsoleView view;
     private final PatientService patientService;
     private final AppointmentService appointmentService;
     private final PhysiotherapistService physiotherapistService;
     private final ReportGenerator reportGenerator;
+    private final RankingService rankingService;
+    private final SlotPicker slotPicker;
+
+    private final TableRenderer<PhysiotherapistReport> physiotherapistTable = new TableRenderer<PhysiotherapistReport>()
+            .column("Physiotherapist Name", 24, PhysiotherapistReport::getPhysiotherapistName)
+            .intColumn("Appointments", 13, PhysiotherapistReport::getAttendedAppointments);
+    private final TableRenderer<TreatmentReport> treatmentTable = new TableRenderer<TreatmentReport>()
+            .column("Treatment", 30, TreatmentReport::getTreatmentName)
+            .column("Expertise", 25, TreatmentReport::getExpertise)
+            .intColumn("Appointments", 13, TreatmentReport::getAppointments);
+    private final TableRenderer<AppointmentReport> appointmentTable = new TableRenderer<AppointmentReport>()
+            .column("Physio Name", 16, AppointmentReport::getPhysiotherapistName)
+            .column("Treatment", 18, AppointmentReport::getTreatmentName)
+            .column("Patient Name", 18, AppointmentReport::getPatientName)
+            .column("Time", 16, AppointmentReport::getTime)
+            .column("Status", 9, AppointmentReport::getAppointmentStatus);
+
+
+    /**
+     * The screens the controller can navigate between. Every screen handler returns the next screen to show,
+     * and {@link #run()} loops over them, so navigating never grows the call stack.
+     */
+    enum Screen {
+        MAIN_MENU,
+        ADD_PATIENT,
+        DELETE_PATIENT,
+        BOOK_APPOINTMENT,
+        MANAGE_BOOKING,
+        ATTEND_TREATMENT,
+        APPOINTMENT_REPORT,
+        PHYSIOTHERAPIST_REPORT,
+        TREATMENT_REPORT,
+        RETURN_TO_MAIN_MENU_OR_EXIT,
+        EXIT
+    }
 
+    public HomeScreenController(ServiceContainer services) {
+        this(services, new BasicConsoleView());
+    }
 
-    public HomeScreenController() {
-        patientService = ServiceLocator.getPatientService();
-        appointmentService = ServiceLocator.getAppointmentService();
-        physiotherapistService = ServiceLocator.getPhysiotherapistService();
-        reportGenerator = new ReportGenerator(physiotherapistService, appointmentService);
+    public HomeScreenController(ServiceContainer services, ConsoleView view) {
+        this.view = view;
+        patientService = services.getPatientService();
+        appointmentService = services.getAppointmentService();
+        physiotherapistService = services.getPhysiotherapistService();
+        reportGenerator = services.getReportGenerator();
+        rankingService = services.getRankingService();
+        slotPicker = new SlotPicker(view, physiotherapistService);
+    }
 
+    /**
+     * Shows the application header and runs the menu until the user chooses to exit.
+     */
+    public void run() {
         String appHeader = """
                 
                 +-----------------------------------+
@@ -38,10 +88,32 @@ public class HomeScreenController {
 
         view.showMessage(appHeader, INFO);
 
-        showMainMenuOptions();
+        Screen screen = Screen.MAIN_MENU;
+        while (screen != Screen.EXIT) {
+            screen = show(screen);
+        }
+
+        exitSystem();
+        view.flush();
+    }
+
+    private Screen show(Screen screen) {
+        return switch (screen) {
+            case MAIN_MENU -> showMainMenuOptions();
+            case ADD_PATIENT -> onAddPatient();
+            case DELETE_PATIENT -> onDeletePatient();
+            case BOOK_APPOINTMENT -> onBookAppointment();
+            case MANAGE_BOOKING -> onManageBooking();
+            case ATTEND_TREATMENT -> onAttendTreatment();
+            case APPOINTMENT_REPORT -> onPrintAppointmentReport();
+            case PHYSIOTHERAPIST_REPORT -> onPrintPhysiotherapistReport();
+            case TREATMENT_REPORT -> onPrintTreatmentReport();
+            case RETURN_TO_MAIN_MENU_OR_EXIT -> showReturnToMainMenuOrExit();
+            case EXIT -> Screen.EXIT;
+        };
     }
 
-    private void showMainMenuOptions() {
+    private Screen showMainMenuOptions() {
         List<String> options = List.of(
                 "Add Patient",
                 "Delete Patient",
@@ -49,7 +121,8 @@ public class HomeScreenController {
                 "Change/Manage a Booking",
                 "Attend a treatment appointment",
                 "Print Appointment report",
-                "Print Physiotherapists report");
+                "Print Physiotherapists report",
+                "Print Treatments report");
 
         int selectedOptionIndex = view.showMenu(options, "Main menu", true);
 
@@ -58,21 +131,20 @@ public class HomeScreenController {
             view.showMessage("\n----- * " + options.get(selectedOptionIndex) + " * -----\n", INFO);
         }
 
-        switch (selectedOptionIndex) {
-            case 0 -> onAddPatient();
-            case 1 -> onDeletePatient();
-            case 2 -> onBookAppointment();
-            case 3 -> onManageBooking();
-            case 4 -> onAttendTreatment();
-            case 5 -> onPrintAppointmentReport();
-            case 6 -> onPrintPhysiotherapistReport();
-            default -> {
-                exitSystem();
-            }
-        }
+        return switch (selectedOptionIndex) {
+            case 0 -> Screen.ADD_PATIENT;
+            case 1 -> Screen.DELETE_PATIENT;
+            case 2 -> Screen.BOOK_APPOINTMENT;
+            case 3 -> Screen.MANAGE_BOOKING;
+            case 4 -> Screen.ATTEND_TREATMENT;
+            case 5 -> Screen.APPOINTMENT_REPORT;
+            case 6 -> Screen.PHYSIOTHERAPIST_REPORT;
+            case 7 -> Screen.TREATMENT_REPORT;
+            default -> Screen.EXIT;
+        };
     }
 
-    private void onAddPatient() {
+    private Screen onAddPatient() {
         view.showMessage("Please provide the patient's details", INFO);
 
         String patientName = view.promptInput("Patient's Full Name", userInput -> {
@@ -106,7 +178,7 @@ public class HomeScreenController {
         if (result.isSuccess()) {
             Patient newPatient = result.getData();
             prettyPrintPatientConfirmation(newPatient);
-            showReturnToMainMenuOrExit();
+            return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
         } else {
             var error = result.getError();
 
@@ -120,12 +192,12 @@ public class HomeScreenController {
                 default -> view.showMessage("An unexpected error occurred. Please try again", ERROR);
             }
 
-            showReturnToMainMenuOrExit();
+            return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
         }
 
     }
 
-    private void onDeletePatient() {
+    private Screen onDeletePatient() {
         int patientID = view.promptInput("Please provide the patient id", userInput -> {
             try {
                 int id = Integer.parseInt(userInput);
@@ -146,10 +218,10 @@ public class HomeScreenController {
 
         view.showMessage(isDeleted ? successMsg : "Patient not found", isDeleted ? INFO : ERROR);
 
-        showReturnToMainMenuOrExit();
+        return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
     }
 
-    private void onAttendTreatment() {
+    private Screen onAttendTreatment() {
         int appointmentID = view.promptInput("Please provide the Appointment id", userInput -> {
             try {
                 int id = Integer.parseInt(userInput.trim());
@@ -186,10 +258,10 @@ public class HomeScreenController {
             }
         }
 
-        showReturnToMainMenuOrExit();
+        return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
     }
 
-    private void onBookAppointment() {
+    private Screen onBookAppointment() {
         int patientID = view.promptInput("Please provide the patient id", userInput -> {
             try {
                 int id = Integer.parseInt(userInput.trim());
@@ -208,14 +280,11 @@ public class HomeScreenController {
                     List.of("Try a different ID", "Return to Main Menu"),
                     "Pick an option", true);
 
-            if (option == 0) {
-                onBookAppointment();
-            } else if (option == 1) {
-                showMainMenuOptions();
-            } else {
-                exitSystem();
-            }
-            return;
+            return switch (option) {
+                case 0 -> Screen.BOOK_APPOINTMENT;
+                case 1 -> Screen.MAIN_MENU;
+                default -> Screen.EXIT;
+            };
         }
 
 
@@ -248,65 +317,46 @@ public class HomeScreenController {
             }
 
             default -> {
-                exitSystem();
-                return;
+                return Screen.EXIT;
             }
         }
 
         if (physiotherapists == null) {
             view.showMessage("An unexpected error occurred", ERROR);
-            showReturnToMainMenuOrExit();
-            return;
+            return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
         }
 
         if (physiotherapists.isEmpty()) {
             view.showMessage("No physiotherapists found", WARNING);
-            showReturnToMainMenuOrExit();
-            return;
+            return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
         }
 
 
         Physiotherapist selectedPhysiotherapist = promptUserToSelectPhysiotherapist(physiotherapists);
+        if (selectedPhysiotherapist == null) {
+            return Screen.EXIT;
+        }
 
+        TimetableSlot selectedTimeSlot = slotPicker.pick(selectedPhysiotherapist);
+        if (selectedTimeSlot == null) {
+            return Screen.EXIT;
+        }
 
-        TimetableSlot selectedTimeSlot = promptUserToSelectTimeSlot(selectedPhysiotherapist.getTimetable());
-
-        Result<Integer, AppointmentService.BookingError> result = appointmentService.bookAppointment(patient, selectedTimeSlot);
+        IntResult<AppointmentService.BookingError> result = appointmentService.bookAppointmentId(patient, selectedTimeSlot);
 
         if (result.isSuccess()) {
             int appointmentID = result.getData();
             prettyPrintAppointmentDetails(appointmentID, selectedPhysiotherapist);
         } else {
             switch (result.getError()) {
-                case TIMETABLE_SLOT_ALREADY_BOOKED ->
+                case TIMETABLE_SLOT_ALREADY_BOOKED, TIMETABLE_SLOT_UNAVAILABLE ->
                         view.showMessage("This timetable slot is not available for booking", ERROR);
                 case PATIENT_HAS_EXISTING_APPOINTMENT_FOR_THE_SAME_TIME_SLOT ->
                         view.showMessage("Booking failed. This patient already has a booking for this time slot.", ERROR);
             }
         }
 
-        showReturnToMainMenuOrExit();
-    }
-
-    private TimetableSlot promptUserToSelectTimeSlot(List<TimetableSlot> timetable) {
-        List<String> options = new ArrayList<>();
-
-
-        for (TimetableSlot slot : timetable) {
-            StringBuilder builder = new StringBuilder();
-            builder.append("Treatment: ").append(slot.getTreatment().toString())
-                    .append(" | Date: ").append(TimeFormatter.formatTime(slot.getDateTime()))
-                    .append(" | Availability: ").append(slot.isBooked() ? "Booked" : "Available");
-            options.add(builder.toString());
-        }
-        int selectedIndex = view.showMenu(options, "Select a time slot", true);
-
-        if (selectedIndex == -1) {
-            exitSystem();
-            return null;
-        }
-
-        return timetable.get(selectedIndex);
+        return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
     }
 
     private Physiotherapist promptUserToSelectPhysiotherapist(List<Physiotherapist> physiotherapists) {
@@ -329,7 +379,6 @@ public class HomeScreenController {
         int selectedIndex = view.showMenu(options, "Choose a physiotherapist", true);
 
         if (selectedIndex == -1) {
-            exitSystem();
             return null;
         }
 
@@ -364,7 +413,7 @@ public class HomeScreenController {
         builder.append("+-------------------------------------------------+\n");
         builder.append(String.format("| Physiotherapist: %-30s |\n", physiotherapist.getFullName()));
         builder.append(String.format("| Treatment: %-36s |\n", slot.getTreatment().toString()));
-        builder.append(String.format("| Date & Time: %-33s |\n", TimeFormatter.formatTime(slot.getDateTime())));
+        builder.append(String.format("| Date & Time: %-33s |\n", TimeFormatter.formatEpochMinute(slot.getEpochMinute())));
         builder.append("+-------------------------------------------------+\n");
         builder.append("| Please arrive 10 minutes early for your session |\n");
         builder.append("+-------------------------------------------------+\n");
@@ -372,14 +421,13 @@ public class HomeScreenController {
         view.showMessage(builder.toString(), INFO);
     }
 
-    private void onManageBooking() {
+    private Screen onManageBooking() {
         List<String> options = List.of("Cancel Appointment", "Rebook Appointment", "Main menu");
 
         int selectedOptionIndex = view.showMenu(options, "Manage Appointment", true);
 
         if (selectedOptionIndex == 2) {
-            showReturnToMainMenuOrExit();
-            return;
+            return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
         }
 
         if (selectedOptionIndex == 0 || selectedOptionIndex == 1) {
@@ -392,18 +440,18 @@ public class HomeScreenController {
                 }
             });
             if (selectedOptionIndex == 0) {
-                cancelAppointment(appointmentID);
+                return cancelAppointment(appointmentID);
             } else {
-                rebookAppointment(appointmentID);
+                return rebookAppointment(appointmentID);
             }
 
         } else {
-            exitSystem();
+            return Screen.EXIT;
         }
 
     }
 
-    private void rebookAppointment(int appointmentID) {
+    private Screen rebookAppointment(int appointmentID) {
         var result = appointmentService.rebookAppointment(appointmentID);
 
         if (result.isSuccess()) {
@@ -420,10 +468,10 @@ public class HomeScreenController {
             }
         }
 
-        showReturnToMainMenuOrExit();
+        return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
     }
 
-    private void cancelAppointment(int appointmentID) {
+    private Screen cancelAppointment(int appointmentID) {
         var result = appointmentService.cancelAppointment(appointmentID);
 
         if (result.isSuccess()) {
@@ -440,45 +488,56 @@ public class HomeScreenController {
             }
         }
 
-        showReturnToMainMenuOrExit();
+        return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
     }
 
-    private void onPrintPhysiotherapistReport() {
-        List<PhysiotherapistReport> report = reportGenerator.generatePhysiotherapistReport();
+    private Screen onPrintPhysiotherapistReport() {
+        List<Physiotherapist> physiotherapists = physiotherapistService.getAllPhysiotherapists();
 
-        // Sort in descending order of attended appointments
-        report.sort((a, b) -> Integer.compare(b.getAttendedAppointments(), a.getAttendedAppointments()));
+        // The ranking is already in descending order of attended appointments; physiotherapists
+        // with none follow in their usual order
+        List<PhysiotherapistReport> report = new ArrayList<>(physiotherapists.size());
+        Set<Integer> ranked = new HashSet<>();
+        for (Ranked<Physiotherapist> entry : rankingService.topPhysiotherapistsByAttended(physiotherapists.size())) {
+            report.add(new PhysiotherapistReport(entry.item().getFullName(), entry.count()));
+            ranked.add(entry.item().getId());
+        }
+        for (Physiotherapist physiotherapist : physiotherapists) {
+            if (!ranked.contains(physiotherapist.getId())) {
+                report.add(new PhysiotherapistReport(physiotherapist.getFullName(), 0));
+            }
+        }
 
         if (report.isEmpty()) {
             view.showMessage("No physiotherapist activity to report.", INFO);
-            showReturnToMainMenuOrExit();
-            return;
+            return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
         }
 
-        StringBuilder builder = new StringBuilder();
-        builder.append("+-------------------------------------------+\n");
-        builder.append("| Physiotherapist Name     | Appointments   |\n");
-        builder.append("+-------------------------------------------+\n");
+        view.showTable(physiotherapistTable, report);
 
-        for (PhysiotherapistReport r : report) {
-            builder.append(String.format("| %-24s | %-13d |\n", r.getPhysiotherapistName(), r.getAttendedAppointments()));
-        }
+        return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
+    }
 
-        builder.append("+-------------------------------------------+\n");
+    private Screen onPrintTreatmentReport() {
+        List<TreatmentReport> report = reportGenerator.generateTreatmentReport();
 
-        view.showMessage(builder.toString(), INFO);
+        if (report.isEmpty()) {
+            view.showMessage("No treatments to report.", INFO);
+            return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
+        }
 
-        showReturnToMainMenuOrExit();
-    }
+        view.showTable(treatmentTable, report);
 
+        return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
+    }
 
-    private void onPrintAppointmentReport() {
+    private Screen onPrintAppointmentReport() {
         int index = view.showMenu(List.of("Display report for all appointments", "By Physiotherapist"), "How would you like to view the report?", true);
 
         if (index == 0) {
             List<AppointmentReport> reports = reportGenerator.generateAllAppointmentReport();
             displayAppointmentReport(reports);
-            showReturnToMainMenuOrExit();
+            return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
         } else if (index == 1) {
             String name = view.promptInput("Please enter the name of the physiotherapist", userInput -> {
                 if (userInput.isEmpty()) {
@@ -491,17 +550,19 @@ public class HomeScreenController {
 
             if (physiotherapistsByName.isEmpty()) {
                 view.showMessage("No physiotherapists found", WARNING);
-                showReturnToMainMenuOrExit();
-                return;
+                return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
             }
 
             Physiotherapist selectedPhysiotherapist = promptUserToSelectPhysiotherapist(physiotherapistsByName);
+            if (selectedPhysiotherapist == null) {
+                return Screen.EXIT;
+            }
 
             List<AppointmentReport> reports = reportGenerator.generateAppointmentReportForPhysiotherapist(selectedPhysiotherapist);
             displayAppointmentReport(reports);
-            showReturnToMainMenuOrExit();
+            return Screen.RETURN_TO_MAIN_MENU_OR_EXIT;
         } else {
-            exitSystem();
+            return Screen.EXIT;
         }
     }
 
@@ -511,28 +572,7 @@ public class HomeScreenController {
             return;
         }
 
-        StringBuilder builder = new StringBuilder();
-        builder.append("+--------------------------------------------------------------------------------------+\n");
-        builder.append("| Physio Name      | Treatment         | Patient Name      | Time            | Status   |\n");
-        builder.append("+--------------------------------------------------------------------------------------+\n");
-
-        for (AppointmentReport report : reports) {
-            builder.append(String.format("| %-16s", truncate(report.getPhysiotherapistName(), 16)))
-                    .append(String.format("| %-18s", truncate(report.getTreatmentName(), 18)))
-                    .append(String.format("| %-18s", truncate(report.getPatientName(), 18)))
-                    .append(String.format("| %-16s", truncate(report.getTime(), 16)))
-                    .append(String.format("| %-9s", truncate(report.getAppointmentStatus(), 9)))
-                    .append("|\n");
-        }
-
-        builder.append("+--------------------------------------------------------------------------------------+\n");
-
-        view.showMessage(builder.toString(), INFO);
-    }
-
-    // Helper to truncate long values and avoid breaking formatting
-    private String truncate(String value, int maxLength) {
-        return value.length() > maxLength ? value.substring(0, maxLength - 3) + "..." : value;
+        view.showTable(appointmentTable, reports);
     }
 
 
@@ -571,18 +611,13 @@ public class HomeScreenController {
                 .toString();
     }
 
-    private void showReturnToMainMenuOrExit() {
+    private Screen showReturnToMainMenuOrExit() {
         int option = view.showMenu(List.of("Return to Main Menu"), "Please select an option", true);
-        if (option == 0) {
-            showMainMenuOptions();
-        } else {
-            exitSystem();
-        }
+        return option == 0 ? Screen.MAIN_MENU : Screen.EXIT;
     }
 
     private void exitSystem() {
         view.showMessage("Exiting system...", INFO);
         view.showMessage("System Exited!", INFO);
-        System.exit(0);
     }
 }
@@ -0,0 +1,160 @@
+package com.boostphysioclinic.presentation;
+
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.services.PhysiotherapistService;
+import com.boostphysioclinic.services.SlotQuery;
+import com.boostphysioclinic.util.ClinicTime;
+import com.boostphysioclinic.util.Result;
+import com.boostphysioclinic.util.TimeFormatter;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.boostphysioclinic.presentation.ConsoleView.MessageType.*;
+
+/**
+ * Lets the user pick a slot from a physiotherapist's timetable one page at a time.
+ * <p>
+ * Only free slots are listed by default, and the list can be narrowed to a date range or a treatment.
+ * Each page is fetched with {@link PhysiotherapistService#findSlots} when it is shown, so only the slots on
+ * screen are ever looked at or formatted, however long the timetable is.
+ * </p>
+ */
+class SlotPicker {
+    static final int PAGE_SIZE = 10;
+
+    private static final Comparator<Treatment> TREATMENT_ORDER = Comparator.comparing(Treatment::getName)
+            .thenComparing(Treatment::getExpertise, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ConsoleView view;
+    private final PhysiotherapistService physiotherapistService;
+
+    /**
+     * Creates a picker that prompts through the given view.
+     *
+     * @param view                   the view to show pages and read choices with
+     * @param physiotherapistService the service to query for slots
+     */
+    SlotPicker(ConsoleView view, PhysiotherapistService physiotherapistService) {
+        this.view = view;
+        this.physiotherapistService = physiotherapistService;
+    }
+
+    /**
+     * Pages through the physiotherapist's timetable until the user picks a slot or exits.
+     *
+     * @param physiotherapist the physiotherapist whose timetable to show
+     * @return the selected slot, or {@code null} if the user chose to exit
+     */
+    TimetableSlot pick(Physiotherapist physiotherapist) {
+        SlotQuery filter = SlotQuery.available();
+        // The slot each earlier page continued after, with null for the first page
+        List<TimetableSlot> previousPageAfters = new ArrayList<>();
+        TimetableSlot pageAfter = null;
+
+        while (true) {
+            List<TimetableSlot> page = pageAfter == null
+                    ? physiotherapistService.findSlots(physiotherapist, filter, PAGE_SIZE + 1)
+                    : physiotherapistService.findSlotsAfter(physiotherapist, filter, pageAfter, PAGE_SIZE + 1);
+            boolean hasNextPage = page.size() > PAGE_SIZE;
+            if (hasNextPage) {
+                page = page.subList(0, PAGE_SIZE);
+            }
+
+            if (page.isEmpty()) {
+                view.showMessage("No slots match the current filters", WARNING);
+            }
+
+            List<String> options = new ArrayList<>(page.size() + 5);
+            for (TimetableSlot slot : page) {
+                options.add("Treatment: " + slot.getTreatment()
+                        + " | Date: " + TimeFormatter.formatEpochMinute(slot.getEpochMinute())
+                        + " | Availability: " + (slot.isBooked() ? "Booked" : slot.isBlocked() ? "Unavailable" : "Available"));
+            }
+
+            int nextPage = hasNextPage ? addOption(options, "Next page") : -2;
+            int previousPage = previousPageAfters.isEmpty() ? -2 : addOption(options, "Previous page");
+            int dateRange = addOption(options, "Filter by date range");
+            int treatment = addOption(options, "Filter by treatment");
+            int booked = addOption(options, filter.includeBooked() ? "Show free slots only" : "Show booked slots too");
+            int clear = addOption(options, "Clear filters");
+
+            int selectedIndex = view.showMenu(options, "Select a time slot (page " + (previousPageAfters.size() + 1) + ")", true);
+
+            if (selectedIndex == -1) {
+                return null;
+            }
+            if (selectedIndex < page.size()) {
+                return page.get(selectedIndex);
+            }
+
+            if (selectedIndex == nextPage) {
+                previousPageAfters.add(pageAfter);
+                pageAfter = page.get(page.size() - 1);
+                continue;
+            }
+            if (selectedIndex == previousPage) {
+                pageAfter = previousPageAfters.remove(previousPageAfters.size() - 1);
+                continue;
+            }
+
+            if (selectedIndex == dateRange) {
+                filter = promptDateRange(filter);
+            } else if (selectedIndex == treatment) {
+                filter = filter.withTreatment(promptTreatment(physiotherapist));
+            } else if (selectedIndex == booked) {
+                filter = filter.withBooked(!filter.includeBooked());
+            } else if (selectedIndex == clear) {
+                filter = SlotQuery.available();
+            }
+            previousPageAfters.clear();
+            pageAfter = null;
+        }
+    }
+
+    private SlotQuery promptDateRange(SlotQuery filter) {
+        LocalDate from = view.promptInput("From date (yyyy-MM-dd)", SlotPicker::parseDate);
+        LocalDate to = view.promptInput("To date, inclusive (yyyy-MM-dd)", userInput -> {
+            Result<LocalDate, String> date = parseDate(userInput);
+            if (date.isSuccess() && date.getData().isBefore(from)) {
+                return Result.error("The end date cannot be before " + from);
+            }
+            return date;
+        });
+
+        return filter.between(ClinicTime.toEpochMinute(from.atStartOfDay()),
+                ClinicTime.toEpochMinute(to.plusDays(1).atStartOfDay()));
+    }
+
+    private Treatment promptTreatment(Physiotherapist physiotherapist) {
+        List<Treatment> treatments = new ArrayList<>(physiotherapist.getTimetableTreatments());
+        treatments.sort(TREATMENT_ORDER);
+
+        List<String> options = new ArrayList<>(treatments.size() + 1);
+        for (Treatment treatment : treatments) {
+            options.add(treatment.getName());
+        }
+        options.add("Any treatment");
+
+        int selectedIndex = view.showMenu(options, "Choose a treatment", false);
+        return selectedIndex < treatments.size() ? treatments.get(selectedIndex) : null;
+    }
+
+    private static Result<LocalDate, String> parseDate(String userInput) {
+        try {
+            return Result.success(LocalDate.parse(userInput.trim()));
+        } catch (DateTimeParseException e) {
+            return Result.error("Please enter a date like 2025-01-06");
+        }
+    }
+
+    private static int addOption(List<String> options, String option) {
+        options.add(option);
+        return options.size() - 1;
+    }
+}
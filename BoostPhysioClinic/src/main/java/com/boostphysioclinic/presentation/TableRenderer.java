@@ -0,0 +1,144 @@
+package com.boostphysioclinic.presentation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Renders rows as a fixed-width text table, streaming them to an {@link Appendable} without {@code String.format}.
+ * <p>
+ * Cells are padded with spaces and values longer than their column are cut short with {@code ...}.
+ * Rows are appended to one scratch buffer that is handed to the output in chunks of about 8 KiB, so a
+ * table of thousands of rows reaches the output in a handful of writes and creates no string per cell.
+ * The borders are built once per renderer. Column widths are limited to 256 characters.
+ * </p>
+ *
+ * @param <T> the type of row rendered by the table
+ */
+public class TableRenderer<T> {
+    private static final String PADDING = " ".repeat(256);
+    private static final int CHUNK_SIZE = 8192;
+
+    private final List<Column<T>> columns = new ArrayList<>();
+    private String border;
+
+    /**
+     * Adds a text column.
+     *
+     * @param header the column header
+     * @param width  the width of the column in characters, excluding the cell padding
+     * @param value  extracts the cell value from a row
+     * @return this renderer
+     */
+    public TableRenderer<T> column(String header, int width, Function<T, String> value) {
+        columns.add(new Column<>(header, width, value, null));
+        border = null;
+        return this;
+    }
+
+    /**
+     * Adds a whole-number column.
+     *
+     * @param header the column header
+     * @param width  the width of the column in characters, excluding the cell padding
+     * @param value  extracts the cell value from a row
+     * @return this renderer
+     */
+    public TableRenderer<T> intColumn(String header, int width, ToIntFunction<T> value) {
+        columns.add(new Column<>(header, width, null, value));
+        border = null;
+        return this;
+    }
+
+    /**
+     * Renders the header and all rows to the given output.
+     *
+     * @param rows the rows to render
+     * @param out  the output to write the table to
+     * @throws IOException if writing to the output fails
+     */
+    public void render(Iterable<? extends T> rows, Appendable out) throws IOException {
+        String border = border();
+        StringBuilder buffer = new StringBuilder(CHUNK_SIZE + 256);
+        buffer.append(border).append('|');
+        for (Column<T> column : columns) {
+            writeCell(buffer, column.header, column.width);
+        }
+        buffer.append('\n').append(border);
+
+        for (T row : rows) {
+            buffer.append('|');
+            for (Column<T> column : columns) {
+                if (column.intValue != null) {
+                    writeInt(buffer, column.intValue.applyAsInt(row), column.width);
+                } else {
+                    writeCell(buffer, column.value.apply(row), column.width);
+                }
+            }
+            buffer.append('\n');
+
+            if (buffer.length() >= CHUNK_SIZE) {
+                out.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+
+        buffer.append(border);
+        out.append(buffer);
+    }
+
+    /**
+     * Renders the header and all rows to a string.
+     *
+     * @param rows the rows to render
+     * @return the rendered table
+     */
+    public String render(Iterable<? extends T> rows) {
+        StringBuilder builder = new StringBuilder();
+        try {
+            render(rows, builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return builder.toString();
+    }
+
+    private String border() {
+        if (border == null) {
+            StringBuilder builder = new StringBuilder("+");
+            for (Column<T> column : columns) {
+                builder.append("-".repeat(column.width + 2)).append('+');
+            }
+            border = builder.append('\n').toString();
+        }
+        return border;
+    }
+
+    private static void writeCell(StringBuilder buffer, String value, int width) {
+        if (value == null) {
+            value = "";
+        }
+        buffer.append(' ');
+        if (value.length() > width) {
+            buffer.append(value, 0, Math.max(0, width - 3)).append("...", 0, Math.min(3, width));
+        } else {
+            buffer.append(value).append(PADDING, 0, Math.min(width - value.length(), PADDING.length()));
+        }
+        buffer.append(" |");
+    }
+
+    private static void writeInt(StringBuilder buffer, int value, int width) {
+        buffer.append(' ');
+        int start = buffer.length();
+        buffer.append(value);
+        int length = buffer.length() - start;
+        buffer.append(PADDING, 0, Math.max(0, Math.min(width - length, PADDING.length())));
+        buffer.append(" |");
+    }
+
+    private record Column<T>(String header, int width, Function<T, String> value, ToIntFunction<T> intValue) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.util.ClinicTime;
+import com.boostphysioclinic.util.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service class for physiotherapist absences. Recording an absence blocks the physiotherapist's slots
+ * for the period, cancels the appointments in them and moves each patient to another free slot.
+ * <p>
+ * Alternative slots are searched for every affected appointment in parallel with
+ * {@link PhysiotherapistService#findEarliestSlots}; the search only reads the timetables, so it is safe while
+ * nothing else changes them. Bookings are then made one by one in order of the original appointment time.
+ * When another patient has already taken all of an appointment's candidates, its search is repeated against
+ * the updated timetables, so two patients are never given the same slot.
+ * </p>
+ */
+public class AbsenceService {
+    /** How far after the original appointment time alternative slots are searched for, in days */
+    public static final int SEARCH_HORIZON_DAYS = 14;
+
+    private static final int CANDIDATES_PER_APPOINTMENT = 8;
+
+    private final PhysiotherapistService physiotherapistService;
+    private final AppointmentService appointmentService;
+
+    /**
+     * Creates an absence service working on the given services.
+     *
+     * @param physiotherapistService the service holding the timetables
+     * @param appointmentService     the service to cancel and book appointments with
+     */
+    public AbsenceService(PhysiotherapistService physiotherapistService, AppointmentService appointmentService) {
+        this.physiotherapistService = physiotherapistService;
+        this.appointmentService = appointmentService;
+    }
+
+    /**
+     * Records that a physiotherapist is absent and moves their booked patients.
+     * Slots of the absent physiotherapist are blocked for the period so they cannot be booked again,
+     * including by the waitlist. Patients are moved to the earliest free slot within
+     * {@link #SEARCH_HORIZON_DAYS} days of their original time with the same treatment, or failing that,
+     * any slot whose physiotherapist and treatment share the treatment's area of expertise.
+     *
+     * @param physiotherapist the absent physiotherapist
+     * @param fromEpochMinute the start of the absence, in minutes since the clinic epoch
+     * @param toEpochMinute   the end of the absence (exclusive)
+     * @return a {@link Result} containing an {@link AbsenceSummary} of moved and unplaceable patients,
+     * otherwise an error result with the {@link AbsenceError} reason for failure
+     */
+    public Result<AbsenceSummary, AbsenceError> recordAbsence(Physiotherapist physiotherapist,
+                                                              int fromEpochMinute, int toEpochMinute) {
+        if (physiotherapist == null) {
+            return Result.error(AbsenceError.PHYSIOTHERAPIST_NOT_FOUND);
+        }
+        if (toEpochMinute <= fromEpochMinute) {
+            return Result.error(AbsenceError.INVALID_TIME_WINDOW);
+        }
+
+        List<TimetableSlot> slots = physiotherapistService.findSlots(physiotherapist,
+                SlotQuery.available().between(fromEpochMinute, toEpochMinute).withBooked(true), Integer.MAX_VALUE);
+        for (TimetableSlot slot : slots) {
+            slot.setBlocked(true);
+        }
+
+        List<Appointment> affected = appointmentService.getBookedAppointments(physiotherapist, fromEpochMinute, toEpochMinute);
+        for (Appointment appointment : affected) {
+            appointmentService.cancelAppointment(appointment.getAppointmentId());
+        }
+
+        List<List<TimetableSlot>> candidates = affected.parallelStream()
+                .map(appointment -> findAlternatives(appointment, CANDIDATES_PER_APPOINTMENT))
+                .toList();
+
+        List<AbsenceSummary.Move> moved = new ArrayList<>();
+        List<Appointment> unplaced = new ArrayList<>();
+        for (int i = 0; i < affected.size(); i++) {
+            Appointment original = affected.get(i);
+            Appointment rebooked = bookFirstAvailable(original, candidates.get(i));
+            if (rebooked == null) {
+                // Earlier patients took every candidate: search again now that they are booked
+                rebooked = bookFirstAvailable(original, findAlternatives(original, CANDIDATES_PER_APPOINTMENT * 4));
+            }
+
+            if (rebooked == null) {
+                unplaced.add(original);
+            } else {
+                moved.add(new AbsenceSummary.Move(original, rebooked));
+            }
+        }
+
+        return Result.success(new AbsenceSummary(slots.size(), moved, unplaced));
+    }
+
+    private List<TimetableSlot> findAlternatives(Appointment appointment, int limit) {
+        TimetableSlot original = appointment.getSlot();
+        Treatment treatment = original.getTreatment();
+        int start = original.getEpochMinute();
+        SlotQuery window = SlotQuery.available().between(start, start + SEARCH_HORIZON_DAYS * ClinicTime.MINUTES_PER_DAY);
+
+        List<TimetableSlot> alternatives = new ArrayList<>(
+                physiotherapistService.findEarliestSlots(null, window.withTreatment(treatment), limit));
+        if (alternatives.size() < limit && treatment.getExpertise() != null) {
+            for (TimetableSlot slot : physiotherapistService.findEarliestSlots(treatment.getExpertise(), window, limit)) {
+                if (slot.getTreatment() != treatment) {
+                    alternatives.add(slot);
+                }
+            }
+        }
+        return alternatives;
+    }
+
+    private Appointment bookFirstAvailable(Appointment original, List<TimetableSlot> candidates) {
+        for (TimetableSlot slot : candidates) {
+            var result = appointmentService.bookAppointmentId(original.getPatient(), slot);
+            if (result.isSuccess()) {
+                return appointmentService.getAppointmentById(result.getData()).getData();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Enum representing possible errors when recording an absence.
+     */
+    public enum AbsenceError {
+        PHYSIOTHERAPIST_NOT_FOUND,
+        INVALID_TIME_WINDOW
+    }
+}
@@ -0,0 +1,24 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.model.Appointment;
+
+import java.util.List;
+
+/**
+ * The outcome of {@link AbsenceService#recordAbsence}.
+ *
+ * @param blockedSlots the number of the absent physiotherapist's slots that were blocked
+ * @param moved        the patients who were given a new appointment
+ * @param unplaced     the cancelled appointments for which no alternative slot could be found
+ */
+public record AbsenceSummary(int blockedSlots, List<Move> moved, List<Appointment> unplaced) {
+
+    /**
+     * A patient moved from a cancelled appointment to a new one.
+     *
+     * @param cancelled the appointment cancelled because of the absence
+     * @param rebooked  the new appointment booked for the same patient
+     */
+    public record Move(Appointment cancelled, Appointment rebooked) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.BookingStatus;
+
+/**
+ * Receives notifications from an {@link AppointmentService} after its appointments change.
+ * Listeners are called on the thread that made the change, after the change is complete,
+ * and may book or change other appointments themselves.
+ */
+public interface AppointmentListener {
+
+    /**
+     * Called after a new appointment has been booked.
+     *
+     * @param appointment the new appointment
+     */
+    default void onBooked(Appointment appointment) {
+    }
+
+    /**
+     * Called after an existing appointment is attended, cancelled or rebooked.
+     *
+     * @param appointment    the appointment, already showing its new status
+     * @param previousStatus the status the appointment had before the change
+     */
+    default void onStatusChanged(Appointment appointment, BookingStatus previousStatus) {
+    }
+}
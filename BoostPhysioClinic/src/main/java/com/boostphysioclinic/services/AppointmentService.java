@@ -1,22 +1,69 @@
 package com.boostphysioclinic.services;
 
+import com.boostphysioclinic.events.DomainEventBus;
+import com.boostphysioclinic.events.DomainEventType;
+import com.boostphysioclinic.jfr.AttendanceEvent;
+import com.boostphysioclinic.jfr.BookingEvent;
+import com.boostphysioclinic.jfr.CancellationEvent;
+import com.boostphysioclinic.jfr.ClinicEvents;
+import com.boostphysioclinic.jfr.RebookingEvent;
 import com.boostphysioclinic.model.Appointment;
 import com.boostphysioclinic.model.BookingStatus;
 import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
 import com.boostphysioclinic.model.TimetableSlot;
 import com.boostphysioclinic.util.IdGenerator;
+import com.boostphysioclinic.util.IntResult;
 import com.boostphysioclinic.util.Result;
+import com.boostphysioclinic.util.SnapshotList;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Service class for managing appointments.
  * Provides methods to book, retrieve, attend, and cancel appointments.
+ * Booking, cancelling, rebooking and attending each emit a Flight Recorder event with the outcome and,
+ * when they succeed, publish a {@link DomainEventType} on the service's {@link DomainEventBus}.
+ * Every appointment is also kept as a row of the service's {@link AppointmentTable}, for reports and analytics.
  */
 public class AppointmentService {
-    private final List<Appointment> appointments = new ArrayList<>();
+    private final SnapshotList<Appointment> appointments = new SnapshotList<>();
+    private final AppointmentTable table = new AppointmentTable();
+    private final List<AppointmentListener> listeners = new ArrayList<>();
+    private final IdGenerator idGenerator;
+    private final DomainEventBus eventBus;
+
+    /**
+     * Creates an appointment service that takes appointment IDs from the default {@link IdGenerator}.
+     */
+    public AppointmentService() {
+        this(IdGenerator.getDefault());
+    }
+
+    /**
+     * Creates an appointment service that takes appointment IDs from the given generator.
+     *
+     * @param idGenerator the generator for new appointment IDs
+     */
+    public AppointmentService(IdGenerator idGenerator) {
+        this(idGenerator, null);
+    }
+
+    /**
+     * Creates an appointment service that takes appointment IDs from the given generator and publishes
+     * every booking state change on the given bus.
+     *
+     * @param idGenerator the generator for new appointment IDs
+     * @param eventBus    the bus to publish changes on, or {@code null} to publish nothing
+     */
+    public AppointmentService(IdGenerator idGenerator, DomainEventBus eventBus) {
+        this.idGenerator = idGenerator;
+        this.eventBus = eventBus;
+    }
 
     /**
      * Books an appointment for a patient in the specified time slot.
@@ -27,23 +74,91 @@ public class AppointmentService {
      * otherwise an error result with the {@link BookingError} reason for failure
      */
     public Result<Integer, BookingError> bookAppointment(Patient patient, TimetableSlot slot) {
+        BookingEvent event = beginBookingEvent();
+        BookingError error = checkBooking(patient, slot);
+        int appointmentId = error == null ? book(patient, slot) : 0;
+        commitBookingEvent(event, appointmentId, patient, slot, error);
+        return error == null ? Result.success(appointmentId) : Result.error(error);
+    }
+
+    /**
+     * Books an appointment for a patient in the specified time slot without boxing the new appointment ID.
+     * Failed bookings return a shared result and allocate nothing.
+     *
+     * @param patient the patient for whom the booking is being made
+     * @param slot    the available timetable slot for the appointment
+     * @return an {@link IntResult} containing the appointment ID if successful,
+     * otherwise an error result with the {@link BookingError} reason for failure
+     */
+    public IntResult<BookingError> bookAppointmentId(Patient patient, TimetableSlot slot) {
+        BookingEvent event = beginBookingEvent();
+        BookingError error = checkBooking(patient, slot);
+        int appointmentId = error == null ? book(patient, slot) : 0;
+        commitBookingEvent(event, appointmentId, patient, slot, error);
+        return error == null ? IntResult.success(appointmentId) : IntResult.error(error);
+    }
+
+    private static BookingEvent beginBookingEvent() {
+        if (!ClinicEvents.BOOKING.isEnabled()) {
+            return null;
+        }
+        BookingEvent event = new BookingEvent();
+        event.begin();
+        return event;
+    }
+
+    private static void commitBookingEvent(BookingEvent event, int appointmentId, Patient patient,
+                                           TimetableSlot slot, BookingError error) {
+        if (event != null) {
+            event.commit(appointmentId, patient, slot, error);
+        }
+    }
+
+    /**
+     * Returns why the slot cannot be booked for the patient, or {@code null} if it can.
+     */
+    private BookingError checkBooking(Patient patient, TimetableSlot slot) {
         if (slot.isBooked()) {
-            return Result.error(BookingError.TIMETABLE_SLOT_ALREADY_BOOKED);
+            return BookingError.TIMETABLE_SLOT_ALREADY_BOOKED;
+        }
+
+        if (slot.isBlocked()) {
+            return BookingError.TIMETABLE_SLOT_UNAVAILABLE;
         }
 
-        boolean hasAppointAtSameTimeSlot = hasAppointAtSameTimeSlot(patient, slot.getDateTime());
+        boolean hasAppointAtSameTimeSlot = hasAppointAtSameTimeSlot(patient, slot.getEpochMinute());
 
 
         if (hasAppointAtSameTimeSlot) {
-            return Result.error(BookingError.PATIENT_HAS_EXISTING_APPOINTMENT_FOR_THE_SAME_TIME_SLOT);
+            return BookingError.PATIENT_HAS_EXISTING_APPOINTMENT_FOR_THE_SAME_TIME_SLOT;
         }
+        return null;
+    }
 
-        var appointmentID = IdGenerator.generateAppointmentId();
+    /**
+     * Books a slot that {@link #checkBooking} accepted and returns the new appointment ID.
+     */
+    private int book(Patient patient, TimetableSlot slot) {
+        var appointmentID = idGenerator.nextAppointmentId();
         Appointment appointment = new Appointment(appointmentID, patient, slot);
         slot.setBooked(true);
         patient.addAppointment(appointmentID);
         appointments.add(appointment);
-        return Result.success(appointmentID);
+        table.append(appointment);
+        publish(DomainEventType.APPOINTMENT_BOOKED, appointment);
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onBooked(appointment);
+        }
+        return appointmentID;
+    }
+
+    /**
+     * Registers a listener to be told about new appointments and status changes.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(AppointmentListener listener) {
+        listeners.add(listener);
     }
 
     /**
@@ -54,10 +169,7 @@ public class AppointmentService {
      * otherwise an error result with {@link AppointmentError#APPOINTMENT_NOT_FOUND}
      */
     public Result<Appointment, AppointmentError> getAppointmentById(int id) {
-        Appointment appointment = appointments.stream()
-                .filter(a -> a.getAppointmentId() == id)
-                .findFirst()
-                .orElse(null);
+        Appointment appointment = findAppointment(id);
 
         if (appointment == null) {
             return Result.error(AppointmentError.APPOINTMENT_NOT_FOUND);
@@ -73,14 +185,22 @@ public class AppointmentService {
      * @return a {@link Result} indicating success or an error with the relevant {@link AppointmentError}
      */
     public Result<Object, AppointmentError> attendAppointment(int appointmentId) {
-        var result = getAppointmentById(appointmentId);
+        if (!ClinicEvents.ATTENDANCE.isEnabled()) {
+            return attend(findAppointment(appointmentId));
+        }
+        AttendanceEvent event = new AttendanceEvent();
+        event.begin();
+        Appointment appointment = findAppointment(appointmentId);
+        Result<Object, AppointmentError> result = attend(appointment);
+        event.commit(appointmentId, appointment, result.isError() ? result.getError() : null);
+        return result;
+    }
 
-        if (result.isError()) {
+    private Result<Object, AppointmentError> attend(Appointment appointment) {
+        if (appointment == null) {
             return Result.error(AppointmentError.APPOINTMENT_NOT_FOUND);
         }
 
-        Appointment appointment = result.getData();
-
         if (appointment.getBookingStatus() == BookingStatus.Attended) {
             return Result.error(AppointmentError.APPOINTMENT_ALREADY_ATTENDED);
         }
@@ -91,7 +211,8 @@ public class AppointmentService {
 
         // Mark appointment as attended
         appointment.setBookingStatus(BookingStatus.Attended);
-        return Result.success(Result.NO_VALUE);
+        statusChanged(appointment, BookingStatus.Booked);
+        return Result.success();
     }
 
     /**
@@ -101,14 +222,22 @@ public class AppointmentService {
      * @return a {@link Result} indicating success or an error with the relevant {@link AppointmentError}
      */
     public Result<Object, AppointmentError> cancelAppointment(int appointmentId) {
-        var result = getAppointmentById(appointmentId);
+        if (!ClinicEvents.CANCELLATION.isEnabled()) {
+            return cancel(findAppointment(appointmentId));
+        }
+        CancellationEvent event = new CancellationEvent();
+        event.begin();
+        Appointment appointment = findAppointment(appointmentId);
+        Result<Object, AppointmentError> result = cancel(appointment);
+        event.commit(appointmentId, appointment, result.isError() ? result.getError() : null);
+        return result;
+    }
 
-        if (result.isError()) {
+    private Result<Object, AppointmentError> cancel(Appointment appointment) {
+        if (appointment == null) {
             return Result.error(AppointmentError.APPOINTMENT_NOT_FOUND);
         }
 
-        Appointment appointment = result.getData();
-
         if (appointment.getBookingStatus() == BookingStatus.Cancelled) {
             return Result.error(AppointmentError.APPOINTMENT_CANCELLED);
         }
@@ -120,26 +249,36 @@ public class AppointmentService {
         // Cancel appointment
         appointment.setBookingStatus(BookingStatus.Cancelled);
         appointment.getSlot().setBooked(false);
-        return Result.success(Result.NO_VALUE);
+        statusChanged(appointment, BookingStatus.Booked);
+        return Result.success();
     }
 
     public Result<Integer, RebookAppointmentError> rebookAppointment(int appointmentId) {
-        var result = getAppointmentById(appointmentId);
-        if (result.isError()) {
-            return Result.error(RebookAppointmentError.APPOINTMENT_NOT_FOUND);
+        if (!ClinicEvents.REBOOKING.isEnabled()) {
+            return rebook(findAppointment(appointmentId));
         }
+        RebookingEvent event = new RebookingEvent();
+        event.begin();
+        Appointment appointment = findAppointment(appointmentId);
+        Result<Integer, RebookAppointmentError> result = rebook(appointment);
+        event.commit(appointmentId, appointment, result.isError() ? result.getError() : null);
+        return result;
+    }
 
-        Appointment appointment = result.getData();
+    private Result<Integer, RebookAppointmentError> rebook(Appointment appointment) {
+        if (appointment == null) {
+            return Result.error(RebookAppointmentError.APPOINTMENT_NOT_FOUND);
+        }
 
         if (appointment.getBookingStatus() != BookingStatus.Cancelled) {
             return Result.error(RebookAppointmentError.APPOINTMENT_NOT_CANCELLED);
         }
 
-        if (appointment.getSlot().isBooked()) {
+        if (!appointment.getSlot().isAvailable()) {
             return Result.error(RebookAppointmentError.APPOINTMENT_SLOT_NO_LONGER_AVAILABLE);
         }
 
-        boolean hasAppointAtSameTimeSlot = hasAppointAtSameTimeSlot(appointment.getPatient(), appointment.getSlot().getDateTime());
+        boolean hasAppointAtSameTimeSlot = hasAppointAtSameTimeSlot(appointment.getPatient(), appointment.getSlot().getEpochMinute());
         if (hasAppointAtSameTimeSlot) {
             return Result.error(RebookAppointmentError.PATIENT_HAS_ANOTHER_APPOINTMENT_AT_SAME_TIME);
         }
@@ -148,29 +287,112 @@ public class AppointmentService {
         // rebook succeeds
         appointment.setBookingStatus(BookingStatus.Booked);
         appointment.getSlot().setBooked(true);
+        statusChanged(appointment, BookingStatus.Cancelled);
         return Result.success(appointment.getAppointmentId());
     }
 
     /**
-     * Returns the list of all booked appointments.
+     * Returns a physiotherapist's appointments that are still booked and start within the given range.
      *
-     * @return a list of {@link Appointment} objects
+     * @param physiotherapist the physiotherapist whose appointments to return
+     * @param fromEpochMinute the earliest start time to include, in minutes since the clinic epoch
+     * @param toEpochMinute   the start time to stop before
+     * @return the booked appointments, in order of start time
+     */
+    public List<Appointment> getBookedAppointments(Physiotherapist physiotherapist, int fromEpochMinute, int toEpochMinute) {
+        List<Appointment> booked = new ArrayList<>();
+        List<Appointment> snapshot = appointments.snapshot();
+        for (int i = 0; i < snapshot.size(); i++) {
+            Appointment appointment = snapshot.get(i);
+            int start = appointment.getEpochMinute();
+            if (appointment.getBookingStatus() == BookingStatus.Booked
+                    && appointment.getSlot().getPhysiotherapist() == physiotherapist
+                    && start >= fromEpochMinute && start < toEpochMinute) {
+                booked.add(appointment);
+            }
+        }
+        booked.sort(Comparator.comparingInt(Appointment::getEpochMinute));
+        return booked;
+    }
+
+    /**
+     * Returns every appointment ever booked, as an immutable snapshot that later bookings do not affect.
+     * Taking the snapshot copies nothing, so reports can read a consistent point in time cheaply.
+     * The appointments themselves are live objects whose booking status can still change.
+     *
+     * @return a read-only list of {@link Appointment} objects
      */
     public List<Appointment> getAppointments() {
-        return appointments;
+        return appointments.snapshot();
     }
 
-    private boolean hasAppointAtSameTimeSlot(Patient patient, LocalDateTime time) {
-        boolean hasAppointAtSameTimeSlot = false;
+    /**
+     * Removes appointments from the live store once they have been archived. Their IDs stay on the patients,
+     * but can no longer be looked up here. No listener is told, because no booking changes.
+     *
+     * @param filter the predicate selecting the appointments to remove
+     * @return {@code true} if any appointment was removed
+     */
+    boolean removeAppointments(Predicate<Appointment> filter) {
+        List<Appointment> removed = new ArrayList<>();
+        for (Appointment appointment : appointments.snapshot()) {
+            if (filter.test(appointment)) {
+                removed.add(appointment);
+            }
+        }
+        if (removed.isEmpty()) {
+            return false;
+        }
+
+        int[] removedIds = new int[removed.size()];
+        for (int i = 0; i < removedIds.length; i++) {
+            removedIds[i] = removed.get(i).getAppointmentId();
+        }
+        Arrays.sort(removedIds);
+        appointments.removeIf(appointment -> Arrays.binarySearch(removedIds, appointment.getAppointmentId()) >= 0);
+        table.removeAll(removedIds);
+        return true;
+    }
+
+    /**
+     * Returns the columnar copy of the appointments, for scans that only need IDs, times and statuses.
+     *
+     * @return the service's {@link AppointmentTable}
+     */
+    public AppointmentTable getAppointmentTable() {
+        return table;
+    }
 
-        for (Integer existingAppointmentId : patient.getAppointments()) {
-            var result = getAppointmentById(existingAppointmentId);
-            if (result.isSuccess()) {
-                var existingAppointment = result.getData();
+    private void statusChanged(Appointment appointment, BookingStatus previousStatus) {
+        table.updateStatus(appointment);
+        publish(switch (appointment.getBookingStatus()) {
+            case Booked -> DomainEventType.APPOINTMENT_REBOOKED;
+            case Cancelled -> DomainEventType.APPOINTMENT_CANCELLED;
+            case Attended -> DomainEventType.APPOINTMENT_ATTENDED;
+        }, appointment);
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onStatusChanged(appointment, previousStatus);
+        }
+    }
+
+    private void publish(DomainEventType type, Appointment appointment) {
+        if (eventBus != null) {
+            TimetableSlot slot = appointment.getSlot();
+            eventBus.publish(type, appointment.getAppointmentId(), appointment.getPatient().getId(),
+                    slot.getPhysiotherapist().getId(), slot.getEpochMinute());
+        }
+    }
 
+    private boolean hasAppointAtSameTimeSlot(Patient patient, int epochMinute) {
+        boolean hasAppointAtSameTimeSlot = false;
+
+        List<Integer> patientAppointments = patient.getAppointments();
+        for (int i = 0; i < patientAppointments.size(); i++) {
+            var existingAppointment = findAppointment(patientAppointments.get(i));
+            if (existingAppointment != null) {
                 if (existingAppointment.getBookingStatus() == BookingStatus.Cancelled) continue; // appointment is cancelled, not need to compare the time
 
-                if (existingAppointment.getSlot().getDateTime().isEqual(time)) {
+                if (existingAppointment.getSlot().getEpochMinute() == epochMinute) {
                     hasAppointAtSameTimeSlot = true;
                     break;
                 }
@@ -180,6 +402,17 @@ public class AppointmentService {
         return hasAppointAtSameTimeSlot;
     }
 
+    private Appointment findAppointment(int id) {
+        List<Appointment> snapshot = appointments.snapshot();
+        for (int i = 0; i < snapshot.size(); i++) {
+            Appointment appointment = snapshot.get(i);
+            if (appointment.getAppointmentId() == id) {
+                return appointment;
+            }
+        }
+        return null;
+    }
+
     /**
      * Enum representing possible errors when handling appointments.
      */
@@ -195,6 +428,7 @@ public class AppointmentService {
      */
     public enum BookingError {
         TIMETABLE_SLOT_ALREADY_BOOKED,
+        TIMETABLE_SLOT_UNAVAILABLE,
         PATIENT_HAS_EXISTING_APPOINTMENT_FOR_THE_SAME_TIME_SLOT
     }
 
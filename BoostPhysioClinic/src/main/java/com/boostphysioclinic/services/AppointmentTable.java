@@ -0,0 +1,219 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.analytics.AggregationKernel;
+import com.boostphysioclinic.analytics.AggregationKernels;
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.BookingStatus;
+import com.boostphysioclinic.model.TimetableSlot;
+
+import java.util.Arrays;
+
+/**
+ * A columnar copy of the appointments held by an {@link AppointmentService}, for reports and analytics.
+ * <p>
+ * Each appointment is one row spread over parallel primitive arrays: appointment ID, physiotherapist ID,
+ * patient ID, treatment id, epoch minute and status. A scan that only needs two of those reads two dense arrays
+ * front to back instead of following four references from every {@link Appointment}, which keeps it in the CPU
+ * cache and lets the JIT compiler unroll and vectorize the loop. The counts by physiotherapist and by status
+ * run on the {@link AggregationKernels#best() best} {@link AggregationKernel} for the JVM.
+ * </p>
+ * <p>
+ * The appointment service appends a row when it books an appointment, updates the status when it changes and
+ * removes rows when appointments are archived. Like {@code SnapshotList}, the table has one writer and publishes
+ * an immutable {@link Columns} view after every change, so any thread can scan a consistent set of rows;
+ * only the statuses of rows already published are updated in place.
+ * </p>
+ */
+public final class AppointmentTable {
+    /** Status byte of a booked appointment */
+    public static final byte BOOKED = (byte) BookingStatus.Booked.ordinal();
+    /** Status byte of a cancelled appointment */
+    public static final byte CANCELLED = (byte) BookingStatus.Cancelled.ordinal();
+    /** Status byte of an attended appointment */
+    public static final byte ATTENDED = (byte) BookingStatus.Attended.ordinal();
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int STATUS_COUNT = BookingStatus.values().length;
+    private static final AggregationKernel KERNEL = AggregationKernels.best();
+
+    private int[] appointmentIds = new int[INITIAL_CAPACITY];
+    private int[] physiotherapistIds = new int[INITIAL_CAPACITY];
+    private int[] patientIds = new int[INITIAL_CAPACITY];
+    private int[] treatmentIds = new int[INITIAL_CAPACITY];
+    private int[] epochMinutes = new int[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private int size;
+    private boolean idsAscending = true;
+    private volatile Columns current = publishColumns();
+
+    /**
+     * Returns the rows as they are now. Later appends and removals do not affect the returned view,
+     * but the statuses of its rows can still change.
+     *
+     * @return the current columns
+     */
+    public Columns columns() {
+        return current;
+    }
+
+    /**
+     * Returns the number of attended appointments of a physiotherapist.
+     *
+     * @param physiotherapistId the physiotherapist ID
+     * @return the count
+     */
+    public int countAttended(int physiotherapistId) {
+        Columns columns = current;
+        return KERNEL.countMatching(columns.physiotherapistIds(), columns.statuses(), columns.size(),
+                physiotherapistId, ATTENDED);
+    }
+
+    /**
+     * Counts the appointments that were not cancelled for each treatment id below the given limit.
+     * Rows for other treatment ids, including unregistered treatments, are ignored.
+     *
+     * @param treatmentCount the number of treatment ids to count, from 0
+     * @return an array indexed by treatment id holding the count of each treatment
+     */
+    public int[] countNotCancelledByTreatment(int treatmentCount) {
+        Columns columns = current;
+        int[] treatments = columns.treatmentIds();
+        byte[] status = columns.statuses();
+        int[] counts = new int[treatmentCount];
+        for (int i = 0; i < columns.size(); i++) {
+            int treatmentId = treatments[i];
+            if (status[i] != CANCELLED && treatmentId >= 0 && treatmentId < treatmentCount) {
+                counts[treatmentId]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the appointments in each status.
+     *
+     * @return an array indexed by {@link BookingStatus#ordinal()} holding the count of each status
+     */
+    public int[] countByStatus() {
+        Columns columns = current;
+        return KERNEL.countByStatus(columns.statuses(), columns.size(), STATUS_COUNT);
+    }
+
+    /**
+     * Appends a row for a newly booked appointment.
+     *
+     * @param appointment the appointment
+     */
+    void append(Appointment appointment) {
+        if (size == appointmentIds.length) {
+            int capacity = size * 2;
+            appointmentIds = Arrays.copyOf(appointmentIds, capacity);
+            physiotherapistIds = Arrays.copyOf(physiotherapistIds, capacity);
+            patientIds = Arrays.copyOf(patientIds, capacity);
+            treatmentIds = Arrays.copyOf(treatmentIds, capacity);
+            epochMinutes = Arrays.copyOf(epochMinutes, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+
+        TimetableSlot slot = appointment.getSlot();
+        if (size > 0 && appointment.getAppointmentId() <= appointmentIds[size - 1]) {
+            idsAscending = false;
+        }
+        appointmentIds[size] = appointment.getAppointmentId();
+        physiotherapistIds[size] = slot.getPhysiotherapist().getId();
+        patientIds[size] = appointment.getPatient().getId();
+        treatmentIds[size] = slot.getTreatment().getId();
+        epochMinutes[size] = slot.getEpochMinute();
+        statuses[size] = (byte) appointment.getBookingStatus().ordinal();
+        size++;
+        current = publishColumns();
+    }
+
+    /**
+     * Records an appointment's new status.
+     *
+     * @param appointment the appointment, already showing its new status
+     */
+    void updateStatus(Appointment appointment) {
+        int row = rowOf(appointment.getAppointmentId());
+        if (row >= 0) {
+            statuses[row] = (byte) appointment.getBookingStatus().ordinal();
+        }
+    }
+
+    /**
+     * Removes the rows of the given appointments. The remaining rows are copied into new arrays,
+     * so views already published are not affected.
+     *
+     * @param sortedAppointmentIds the IDs of the appointments to remove, in ascending order
+     */
+    void removeAll(int[] sortedAppointmentIds) {
+        int capacity = Math.max(INITIAL_CAPACITY, appointmentIds.length);
+        int[] keptAppointmentIds = new int[capacity];
+        int[] keptPhysiotherapistIds = new int[capacity];
+        int[] keptPatientIds = new int[capacity];
+        int[] keptTreatmentIds = new int[capacity];
+        int[] keptEpochMinutes = new int[capacity];
+        byte[] keptStatuses = new byte[capacity];
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (Arrays.binarySearch(sortedAppointmentIds, appointmentIds[i]) < 0) {
+                keptAppointmentIds[kept] = appointmentIds[i];
+                keptPhysiotherapistIds[kept] = physiotherapistIds[i];
+                keptPatientIds[kept] = patientIds[i];
+                keptTreatmentIds[kept] = treatmentIds[i];
+                keptEpochMinutes[kept] = epochMinutes[i];
+                keptStatuses[kept] = statuses[i];
+                kept++;
+            }
+        }
+        if (kept == size) {
+            return;
+        }
+
+        appointmentIds = keptAppointmentIds;
+        physiotherapistIds = keptPhysiotherapistIds;
+        patientIds = keptPatientIds;
+        treatmentIds = keptTreatmentIds;
+        epochMinutes = keptEpochMinutes;
+        statuses = keptStatuses;
+        size = kept;
+        current = publishColumns();
+    }
+
+    /**
+     * Finds the row of an appointment, by binary search while appointment IDs have only ever been increasing.
+     */
+    private int rowOf(int appointmentId) {
+        if (idsAscending) {
+            int row = Arrays.binarySearch(appointmentIds, 0, size, appointmentId);
+            return row >= 0 ? row : -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (appointmentIds[i] == appointmentId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Columns publishColumns() {
+        return new Columns(size, appointmentIds, physiotherapistIds, patientIds, treatmentIds, epochMinutes, statuses);
+    }
+
+    /**
+     * An immutable view of the rows of an {@link AppointmentTable}. The arrays may be longer than {@code size};
+     * only the first {@code size} elements are rows. They are shared with the table and must not be modified.
+     *
+     * @param size               the number of rows
+     * @param appointmentIds     the appointment ID of each row
+     * @param physiotherapistIds the physiotherapist ID of each row
+     * @param patientIds         the patient ID of each row
+     * @param treatmentIds       the treatment id of each row
+     * @param epochMinutes       the time of each row in minutes since the clinic epoch
+     * @param statuses           the {@link BookingStatus#ordinal()} of each row
+     */
+    public record Columns(int size, int[] appointmentIds, int[] physiotherapistIds, int[] patientIds,
+                          int[] treatmentIds, int[] epochMinutes, byte[] statuses) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.archive.AppointmentArchive;
+import com.boostphysioclinic.archive.ArchiveSegment;
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.BookingStatus;
+import com.boostphysioclinic.util.ClinicTime;
+import com.boostphysioclinic.util.Result;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service class for moving old appointments out of the live {@link AppointmentService} into an
+ * {@link AppointmentArchive}, so that scans of live appointments only pay for active and recent ones.
+ * <p>
+ * An appointment is archived once it is attended or cancelled and started more than the archive horizon
+ * before the given time. Archived appointments can no longer be looked up, cancelled or rebooked;
+ * the {@link ReportGenerator} merges them back into its reports.
+ * </p>
+ */
+public class ArchiveService {
+    /** How old a finished appointment must be before it is archived, in days, when no horizon is given */
+    public static final int DEFAULT_HORIZON_DAYS = 90;
+
+    private final AppointmentService appointmentService;
+    private final AppointmentArchive archive;
+    private final int horizonDays;
+
+    /**
+     * Creates an archive service moving appointments from the given service into the given archive.
+     *
+     * @param appointmentService the service holding live appointments
+     * @param archive            the archive to move appointments into
+     * @param horizonDays        how old a finished appointment must be before it is archived, in days
+     */
+    public ArchiveService(AppointmentService appointmentService, AppointmentArchive archive, int horizonDays) {
+        if (horizonDays < 0) {
+            throw new IllegalArgumentException("Archive horizon must not be negative: " + horizonDays);
+        }
+        this.appointmentService = appointmentService;
+        this.archive = archive;
+        this.horizonDays = horizonDays;
+    }
+
+    /**
+     * Archives every attended or cancelled appointment that started more than the horizon before the given time.
+     * The appointments are written to a new segment before they are removed from the live store, so a failed write
+     * loses nothing.
+     *
+     * @param nowEpochMinute the current time, in minutes since the clinic epoch
+     * @return a {@link Result} containing the new {@link ArchiveSegment},
+     * otherwise an error result with the {@link ArchiveError} reason for failure
+     */
+    public Result<ArchiveSegment, ArchiveError> archive(int nowEpochMinute) {
+        int cutoff = nowEpochMinute - horizonDays * ClinicTime.MINUTES_PER_DAY;
+        List<Appointment> finished = new ArrayList<>();
+        for (Appointment appointment : appointmentService.getAppointments()) {
+            if (appointment.getBookingStatus() != BookingStatus.Booked && appointment.getEpochMinute() < cutoff) {
+                finished.add(appointment);
+            }
+        }
+        if (finished.isEmpty()) {
+            return Result.error(ArchiveError.NOTHING_TO_ARCHIVE);
+        }
+
+        ArchiveSegment segment;
+        try {
+            segment = archive.append(finished);
+        } catch (IOException e) {
+            System.err.println("Could not archive appointments: " + e.getMessage());
+            return Result.error(ArchiveError.WRITE_FAILED);
+        }
+
+        Set<Appointment> archived = Collections.newSetFromMap(new IdentityHashMap<>());
+        archived.addAll(finished);
+        appointmentService.removeAppointments(archived::contains);
+        return Result.success(segment);
+    }
+
+    /**
+     * Returns the archive appointments are moved into.
+     *
+     * @return the {@code AppointmentArchive}
+     */
+    public AppointmentArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Returns how old a finished appointment must be before it is archived.
+     *
+     * @return the horizon in days
+     */
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    /**
+     * Enumeration of possible errors when archiving appointments.
+     */
+    public enum ArchiveError {
+        NOTHING_TO_ARCHIVE,
+        WRITE_FAILED
+    }
+}
@@ -0,0 +1,155 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.model.report.PhysiotherapistReport;
+import com.boostphysioclinic.model.report.TreatmentReport;
+import com.boostphysioclinic.util.IdGenerator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Routes operations to the {@link ClinicShard} of the clinic they belong to.
+ * <p>
+ * Each clinic added to the router gets its own services and ID space. Operations for different clinics run
+ * on different lanes and never wait for each other. Cross-clinic reports are computed by running the same
+ * report on every shard in parallel and merging the results.
+ * </p>
+ */
+public class ClinicRouter implements AutoCloseable {
+    private final Map<String, ClinicShard> shards = new ConcurrentHashMap<>();
+    private final Supplier<IdGenerator> idGeneratorFactory;
+
+    /**
+     * Creates a router whose clinics each keep an independent, in-memory ID space.
+     */
+    public ClinicRouter() {
+        this(IdGenerator::inMemory);
+    }
+
+    /**
+     * Creates a router that asks the given factory for the ID generator of each new clinic.
+     *
+     * @param idGeneratorFactory supplies a separate {@link IdGenerator} for every clinic
+     */
+    public ClinicRouter(Supplier<IdGenerator> idGeneratorFactory) {
+        this.idGeneratorFactory = idGeneratorFactory;
+    }
+
+    /**
+     * Adds a clinic with an empty set of services.
+     *
+     * @param clinicId the id of the clinic
+     * @return the new clinic's shard
+     * @throws IllegalArgumentException if a clinic with this id already exists
+     */
+    public ClinicShard addClinic(String clinicId) {
+        ClinicShard shard = new ClinicShard(clinicId, new ServiceContainer(idGeneratorFactory.get()));
+        if (shards.putIfAbsent(clinicId, shard) != null) {
+            shard.shutdown();
+            throw new IllegalArgumentException("Clinic already exists: " + clinicId);
+        }
+        return shard;
+    }
+
+    /**
+     * Retrieves a clinic's shard.
+     *
+     * @param clinicId the id of the clinic
+     * @return the {@link ClinicShard}, or null if the clinic does not exist
+     */
+    public ClinicShard getShard(String clinicId) {
+        return shards.get(clinicId);
+    }
+
+    /**
+     * Returns the ids of all clinics.
+     *
+     * @return an unmodifiable set of clinic ids
+     */
+    public Set<String> getClinicIds() {
+        return Set.copyOf(shards.keySet());
+    }
+
+    /**
+     * Runs an operation against the services of the given clinic on that clinic's lane.
+     *
+     * @param clinicId  the id of the clinic
+     * @param operation the operation to run
+     * @param <T>       the type of the operation's result
+     * @return a future completed with the operation's result
+     * @throws IllegalArgumentException if the clinic does not exist
+     */
+    public <T> CompletableFuture<T> route(String clinicId, Function<ServiceContainer, T> operation) {
+        ClinicShard shard = shards.get(clinicId);
+        if (shard == null) {
+            throw new IllegalArgumentException("Unknown clinic: " + clinicId);
+        }
+        return shard.submit(operation);
+    }
+
+    /**
+     * Runs an operation on every clinic in parallel, each on its own lane.
+     *
+     * @param operation the operation to run against each clinic's services
+     * @param <T>       the type of the operation's result
+     * @return a future completed with each clinic's result keyed by clinic id
+     */
+    public <T> CompletableFuture<Map<String, T>> routeToAll(Function<ServiceContainer, T> operation) {
+        Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        for (ClinicShard shard : shards.values()) {
+            futures.put(shard.getClinicId(), shard.submit(operation));
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<String, T> results = new LinkedHashMap<>();
+                    futures.forEach((clinicId, future) -> results.put(clinicId, future.join()));
+                    return results;
+                });
+    }
+
+    /**
+     * Generates the physiotherapist report of every clinic in parallel.
+     *
+     * @return a future completed with each clinic's physiotherapist report keyed by clinic id
+     */
+    public CompletableFuture<Map<String, List<PhysiotherapistReport>>> generatePhysiotherapistReports() {
+        return routeToAll(services -> services.getReportGenerator().generatePhysiotherapistReport());
+    }
+
+    /**
+     * Generates a treatment report across all clinics. Each clinic counts its own appointments in parallel,
+     * then the counts of treatments with the same name and expertise are added together.
+     *
+     * @return a future completed with the combined treatment report
+     */
+    public CompletableFuture<List<TreatmentReport>> generateTreatmentReport() {
+        return routeToAll(services -> services.getReportGenerator().generateTreatmentReport())
+                .thenApply(reportsByClinic -> {
+                    Map<String, TreatmentReport> merged = new LinkedHashMap<>();
+                    for (List<TreatmentReport> reports : reportsByClinic.values()) {
+                        for (TreatmentReport report : reports) {
+                            merged.merge(report.getExpertise() + '\u0000' + report.getTreatmentName(), report,
+                                    (a, b) -> new TreatmentReport(a.getTreatmentName(), a.getExpertise(),
+                                            a.getAppointments() + b.getAppointments()));
+                        }
+                    }
+                    return new ArrayList<>(merged.values());
+                });
+    }
+
+    /**
+     * Stops all clinic lanes. Operations already queued still run.
+     */
+    @Override
+    public void close() {
+        shards.values().forEach(ClinicShard::shutdown);
+    }
+}
@@ -0,0 +1,63 @@
+package com.boostphysioclinic.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * One clinic's partition of the system: its own {@link ServiceContainer} (patients, physiotherapists,
+ * timetables, appointments and ID space) and its own single-threaded executor lane.
+ * <p>
+ * All operations for the clinic run one after another on its lane, so the services never see concurrent
+ * access and a busy clinic only queues up work behind itself, never behind other clinics.
+ * </p>
+ */
+public class ClinicShard {
+    private final String clinicId;
+    private final ServiceContainer services;
+    private final ExecutorService lane;
+
+    /**
+     * Creates a shard for a clinic.
+     *
+     * @param clinicId the id of the clinic
+     * @param services the clinic's services
+     */
+    ClinicShard(String clinicId, ServiceContainer services) {
+        this.clinicId = clinicId;
+        this.services = services;
+        this.lane = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "clinic-" + clinicId);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs an operation against this clinic's services on the clinic's lane.
+     *
+     * @param operation the operation to run
+     * @param <T>       the type of the operation's result
+     * @return a future completed with the operation's result, or exceptionally if the operation throws
+     */
+    public <T> CompletableFuture<T> submit(Function<ServiceContainer, T> operation) {
+        return CompletableFuture.supplyAsync(() -> operation.apply(services), lane);
+    }
+
+    /**
+     * Returns the id of the clinic.
+     *
+     * @return the clinic id
+     */
+    public String getClinicId() {
+        return clinicId;
+    }
+
+    /**
+     * Stops accepting new operations. Operations already queued still run.
+     */
+    void shutdown() {
+        lane.shutdown();
+    }
+}
@@ -0,0 +1,133 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.events.DomainEventBus;
+import com.boostphysioclinic.metrics.MetricsRegistry;
+import com.boostphysioclinic.metrics.OperationTimer;
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.util.IdGenerator;
+import com.boostphysioclinic.util.IntResult;
+import com.boostphysioclinic.util.Result;
+
+import java.util.List;
+
+/**
+ * An {@link AppointmentService} that times every public method with an {@link OperationTimer}
+ * named {@code AppointmentService.<method>}. {@code getAppointmentTable} only returns a field, so it is not timed.
+ */
+final class InstrumentedAppointmentService extends AppointmentService {
+    private final OperationTimer bookAppointmentTimer;
+    private final OperationTimer bookAppointmentIdTimer;
+    private final OperationTimer addListenerTimer;
+    private final OperationTimer getAppointmentByIdTimer;
+    private final OperationTimer attendAppointmentTimer;
+    private final OperationTimer cancelAppointmentTimer;
+    private final OperationTimer rebookAppointmentTimer;
+    private final OperationTimer getBookedAppointmentsTimer;
+    private final OperationTimer getAppointmentsTimer;
+
+    InstrumentedAppointmentService(IdGenerator idGenerator, DomainEventBus eventBus, MetricsRegistry metrics) {
+        super(idGenerator, eventBus);
+        bookAppointmentTimer = metrics.timer("AppointmentService.bookAppointment");
+        bookAppointmentIdTimer = metrics.timer("AppointmentService.bookAppointmentId");
+        addListenerTimer = metrics.timer("AppointmentService.addListener");
+        getAppointmentByIdTimer = metrics.timer("AppointmentService.getAppointmentById");
+        attendAppointmentTimer = metrics.timer("AppointmentService.attendAppointment");
+        cancelAppointmentTimer = metrics.timer("AppointmentService.cancelAppointment");
+        rebookAppointmentTimer = metrics.timer("AppointmentService.rebookAppointment");
+        getBookedAppointmentsTimer = metrics.timer("AppointmentService.getBookedAppointments");
+        getAppointmentsTimer = metrics.timer("AppointmentService.getAppointments");
+    }
+
+    @Override
+    public Result<Integer, BookingError> bookAppointment(Patient patient, TimetableSlot slot) {
+        long start = bookAppointmentTimer.start();
+        try {
+            return super.bookAppointment(patient, slot);
+        } finally {
+            bookAppointmentTimer.stop(start);
+        }
+    }
+
+    @Override
+    public IntResult<BookingError> bookAppointmentId(Patient patient, TimetableSlot slot) {
+        long start = bookAppointmentIdTimer.start();
+        try {
+            return super.bookAppointmentId(patient, slot);
+        } finally {
+            bookAppointmentIdTimer.stop(start);
+        }
+    }
+
+    @Override
+    public void addListener(AppointmentListener listener) {
+        long start = addListenerTimer.start();
+        try {
+            super.addListener(listener);
+        } finally {
+            addListenerTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Result<Appointment, AppointmentError> getAppointmentById(int id) {
+        long start = getAppointmentByIdTimer.start();
+        try {
+            return super.getAppointmentById(id);
+        } finally {
+            getAppointmentByIdTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Result<Object, AppointmentError> attendAppointment(int appointmentId) {
+        long start = attendAppointmentTimer.start();
+        try {
+            return super.attendAppointment(appointmentId);
+        } finally {
+            attendAppointmentTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Result<Object, AppointmentError> cancelAppointment(int appointmentId) {
+        long start = cancelAppointmentTimer.start();
+        try {
+            return super.cancelAppointment(appointmentId);
+        } finally {
+            cancelAppointmentTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Result<Integer, RebookAppointmentError> rebookAppointment(int appointmentId) {
+        long start = rebookAppointmentTimer.start();
+        try {
+            return super.rebookAppointment(appointmentId);
+        } finally {
+            rebookAppointmentTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Appointment> getBookedAppointments(Physiotherapist physiotherapist, int fromEpochMinute, int toEpochMinute) {
+        long start = getBookedAppointmentsTimer.start();
+        try {
+            return super.getBookedAppointments(physiotherapist, fromEpochMinute, toEpochMinute);
+        } finally {
+            getBookedAppointmentsTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Appointment> getAppointments() {
+        long start = getAppointmentsTimer.start();
+        try {
+            return super.getAppointments();
+        } finally {
+            getAppointmentsTimer.stop(start);
+        }
+    }
+}
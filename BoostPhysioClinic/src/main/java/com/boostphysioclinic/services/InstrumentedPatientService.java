@@ -0,0 +1,84 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.events.DomainEventBus;
+import com.boostphysioclinic.metrics.MetricsRegistry;
+import com.boostphysioclinic.metrics.OperationTimer;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.storage.PatientStore;
+import com.boostphysioclinic.util.IdGenerator;
+import com.boostphysioclinic.util.Result;
+
+import java.util.List;
+
+/**
+ * A {@link PatientService} that times every public method with an {@link OperationTimer}
+ * named {@code PatientService.<method>}. The {@code onBooked} listener callback is not timed on its own;
+ * its time is part of the {@code AppointmentService} booking that calls it.
+ */
+final class InstrumentedPatientService extends PatientService {
+    private final OperationTimer addPatientTimer;
+    private final OperationTimer deletePatientTimer;
+    private final OperationTimer getPatientByIdTimer;
+    private final OperationTimer getPatientsListTimer;
+    private final OperationTimer getValidatorTimer;
+
+    InstrumentedPatientService(IdGenerator idGenerator, DomainEventBus eventBus, PatientStore store,
+                               MetricsRegistry metrics) {
+        super(idGenerator, eventBus, store);
+        addPatientTimer = metrics.timer("PatientService.addPatient");
+        deletePatientTimer = metrics.timer("PatientService.deletePatient");
+        getPatientByIdTimer = metrics.timer("PatientService.getPatientById");
+        getPatientsListTimer = metrics.timer("PatientService.getPatientsList");
+        getValidatorTimer = metrics.timer("PatientService.getValidator");
+    }
+
+    @Override
+    public Result<Patient, Error> addPatient(String fullName, String address, String telephone) {
+        long start = addPatientTimer.start();
+        try {
+            return super.addPatient(fullName, address, telephone);
+        } finally {
+            addPatientTimer.stop(start);
+        }
+    }
+
+    @Override
+    public boolean deletePatient(int id) {
+        long start = deletePatientTimer.start();
+        try {
+            return super.deletePatient(id);
+        } finally {
+            deletePatientTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Patient getPatientById(int id) {
+        long start = getPatientByIdTimer.start();
+        try {
+            return super.getPatientById(id);
+        } finally {
+            getPatientByIdTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Patient> getPatientsList() {
+        long start = getPatientsListTimer.start();
+        try {
+            return super.getPatientsList();
+        } finally {
+            getPatientsListTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Validator getValidator() {
+        long start = getValidatorTimer.start();
+        try {
+            return super.getValidator();
+        } finally {
+            getValidatorTimer.stop(start);
+        }
+    }
+}
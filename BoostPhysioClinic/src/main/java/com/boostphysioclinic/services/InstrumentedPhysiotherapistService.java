@@ -0,0 +1,141 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.events.DomainEventBus;
+import com.boostphysioclinic.metrics.MetricsRegistry;
+import com.boostphysioclinic.metrics.OperationTimer;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.util.IdGenerator;
+
+import java.util.List;
+
+/**
+ * A {@link PhysiotherapistService} that times every public method with an {@link OperationTimer}
+ * named {@code PhysiotherapistService.<method>}.
+ */
+final class InstrumentedPhysiotherapistService extends PhysiotherapistService {
+    private final OperationTimer addPhysiotherapistTimer;
+    private final OperationTimer addSlotToPhysiotherapistTimer;
+    private final OperationTimer getPhysiotherapistByIdTimer;
+    private final OperationTimer getSlotTimer;
+    private final OperationTimer findSlotsTimer;
+    private final OperationTimer findSlotsAfterTimer;
+    private final OperationTimer findEarliestSlotsTimer;
+    private final OperationTimer getPhysiotherapistsByNameTimer;
+    private final OperationTimer getPhysiotherapistsByExpertiseTimer;
+    private final OperationTimer getAllPhysiotherapistsTimer;
+
+    InstrumentedPhysiotherapistService(IdGenerator idGenerator, DomainEventBus eventBus, MetricsRegistry metrics) {
+        super(idGenerator, eventBus);
+        addPhysiotherapistTimer = metrics.timer("PhysiotherapistService.addPhysiotherapist");
+        addSlotToPhysiotherapistTimer = metrics.timer("PhysiotherapistService.addSlotToPhysiotherapist");
+        getPhysiotherapistByIdTimer = metrics.timer("PhysiotherapistService.getPhysiotherapistById");
+        getSlotTimer = metrics.timer("PhysiotherapistService.getSlot");
+        findSlotsTimer = metrics.timer("PhysiotherapistService.findSlots");
+        findSlotsAfterTimer = metrics.timer("PhysiotherapistService.findSlotsAfter");
+        findEarliestSlotsTimer = metrics.timer("PhysiotherapistService.findEarliestSlots");
+        getPhysiotherapistsByNameTimer = metrics.timer("PhysiotherapistService.getPhysiotherapistsByName");
+        getPhysiotherapistsByExpertiseTimer = metrics.timer("PhysiotherapistService.getPhysiotherapistsByExpertise");
+        getAllPhysiotherapistsTimer = metrics.timer("PhysiotherapistService.getAllPhysiotherapists");
+    }
+
+    @Override
+    public void addPhysiotherapist(String fullName, String address, String tel, List<String> expertise) {
+        long start = addPhysiotherapistTimer.start();
+        try {
+            super.addPhysiotherapist(fullName, address, tel, expertise);
+        } finally {
+            addPhysiotherapistTimer.stop(start);
+        }
+    }
+
+    @Override
+    public void addSlotToPhysiotherapist(Physiotherapist physio, TimetableSlot slot) {
+        long start = addSlotToPhysiotherapistTimer.start();
+        try {
+            super.addSlotToPhysiotherapist(physio, slot);
+        } finally {
+            addSlotToPhysiotherapistTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Physiotherapist getPhysiotherapistById(int id) {
+        long start = getPhysiotherapistByIdTimer.start();
+        try {
+            return super.getPhysiotherapistById(id);
+        } finally {
+            getPhysiotherapistByIdTimer.stop(start);
+        }
+    }
+
+    @Override
+    public TimetableSlot getSlot(Physiotherapist physio, int epochMinute) {
+        long start = getSlotTimer.start();
+        try {
+            return super.getSlot(physio, epochMinute);
+        } finally {
+            getSlotTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<TimetableSlot> findSlots(Physiotherapist physio, SlotQuery query, int limit) {
+        long start = findSlotsTimer.start();
+        try {
+            return super.findSlots(physio, query, limit);
+        } finally {
+            findSlotsTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<TimetableSlot> findSlotsAfter(Physiotherapist physio, SlotQuery query, TimetableSlot after, int limit) {
+        long start = findSlotsAfterTimer.start();
+        try {
+            return super.findSlotsAfter(physio, query, after, limit);
+        } finally {
+            findSlotsAfterTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<TimetableSlot> findEarliestSlots(String expertise, SlotQuery query, int count) {
+        long start = findEarliestSlotsTimer.start();
+        try {
+            return super.findEarliestSlots(expertise, query, count);
+        } finally {
+            findEarliestSlotsTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Physiotherapist> getPhysiotherapistsByName(String name) {
+        long start = getPhysiotherapistsByNameTimer.start();
+        try {
+            return super.getPhysiotherapistsByName(name);
+        } finally {
+            getPhysiotherapistsByNameTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Physiotherapist> getPhysiotherapistsByExpertise(String expertise) {
+        long start = getPhysiotherapistsByExpertiseTimer.start();
+        try {
+            return super.getPhysiotherapistsByExpertise(expertise);
+        } finally {
+            getPhysiotherapistsByExpertiseTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Physiotherapist> getAllPhysiotherapists() {
+        long start = getAllPhysiotherapistsTimer.start();
+        try {
+            return super.getAllPhysiotherapists();
+        } finally {
+            getAllPhysiotherapistsTimer.stop(start);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.archive.AppointmentArchive;
+import com.boostphysioclinic.metrics.MetricsRegistry;
+import com.boostphysioclinic.metrics.OperationTimer;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.report.AppointmentReport;
+import com.boostphysioclinic.model.report.PhysiotherapistReport;
+import com.boostphysioclinic.model.report.TreatmentReport;
+
+import java.util.List;
+
+/**
+ * A {@link ReportGenerator} that times every report with an {@link OperationTimer}
+ * named {@code ReportGenerator.<method>}. {@code getCache} only returns a field, so it is not timed.
+ */
+final class InstrumentedReportGenerator extends ReportGenerator {
+    private final OperationTimer allAppointmentReportTimer;
+    private final OperationTimer appointmentReportForPhysiotherapistTimer;
+    private final OperationTimer appointmentReportForPeriodTimer;
+    private final OperationTimer physiotherapistReportTimer;
+    private final OperationTimer treatmentReportTimer;
+
+    InstrumentedReportGenerator(PhysiotherapistService physiotherapistService, AppointmentService appointmentService,
+                                TreatmentCatalogue treatmentCatalogue, AppointmentArchive archive,
+                                ReportCache cache, MetricsRegistry metrics) {
+        super(physiotherapistService, appointmentService, treatmentCatalogue, archive, cache);
+        allAppointmentReportTimer = metrics.timer("ReportGenerator.generateAllAppointmentReport");
+        appointmentReportForPhysiotherapistTimer = metrics.timer("ReportGenerator.generateAppointmentReportForPhysiotherapist");
+        appointmentReportForPeriodTimer = metrics.timer("ReportGenerator.generateAppointmentReportForPeriod");
+        physiotherapistReportTimer = metrics.timer("ReportGenerator.generatePhysiotherapistReport");
+        treatmentReportTimer = metrics.timer("ReportGenerator.generateTreatmentReport");
+    }
+
+    @Override
+    public List<AppointmentReport> generateAllAppointmentReport() {
+        long start = allAppointmentReportTimer.start();
+        try {
+            return super.generateAllAppointmentReport();
+        } finally {
+            allAppointmentReportTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<AppointmentReport> generateAppointmentReportForPhysiotherapist(Physiotherapist physiotherapist) {
+        long start = appointmentReportForPhysiotherapistTimer.start();
+        try {
+            return super.generateAppointmentReportForPhysiotherapist(physiotherapist);
+        } finally {
+            appointmentReportForPhysiotherapistTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<AppointmentReport> generateAppointmentReportForPeriod(int fromEpochMinute, int toEpochMinute) {
+        long start = appointmentReportForPeriodTimer.start();
+        try {
+            return super.generateAppointmentReportForPeriod(fromEpochMinute, toEpochMinute);
+        } finally {
+            appointmentReportForPeriodTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<PhysiotherapistReport> generatePhysiotherapistReport() {
+        long start = physiotherapistReportTimer.start();
+        try {
+            return super.generatePhysiotherapistReport();
+        } finally {
+            physiotherapistReportTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<TreatmentReport> generateTreatmentReport() {
+        long start = treatmentReportTimer.start();
+        try {
+            return super.generateTreatmentReport();
+        } finally {
+            treatmentReportTimer.stop(start);
+        }
+    }
+}
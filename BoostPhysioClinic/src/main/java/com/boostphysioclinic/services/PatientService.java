@@ -1,22 +1,75 @@
 package com.boostphysioclinic.services;
 
+import com.boostphysioclinic.events.DomainEventBus;
+import com.boostphysioclinic.events.DomainEventType;
+import com.boostphysioclinic.jfr.ClinicEvents;
+import com.boostphysioclinic.jfr.PatientRegistrationEvent;
+import com.boostphysioclinic.model.Appointment;
 import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.storage.InMemoryPatientStore;
+import com.boostphysioclinic.storage.PatientStore;
 import com.boostphysioclinic.util.IdGenerator;
 import com.boostphysioclinic.util.Result;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Service class for managing patients.
  * Provides functionality to add, retrieve, and delete patients,
  * and validates input data during patient creation.
+ * <p>
+ * Patients are kept in a {@link PatientStore}. When the store keeps them outside the heap, the service must be
+ * registered as a listener on {@code AppointmentService} so that new bookings are recorded in the store.
+ * </p>
  */
-public class PatientService {
-    private List<Patient> patients = new ArrayList<>();
+public class PatientService implements AppointmentListener {
+    private final PatientStore patients;
 
     private Validator validator = new Validator();
 
+    private final IdGenerator idGenerator;
+    private final DomainEventBus eventBus;
+
+    /**
+     * Creates a patient service that takes patient IDs from the default {@link IdGenerator}.
+     */
+    public PatientService() {
+        this(IdGenerator.getDefault());
+    }
+
+    /**
+     * Creates a patient service that takes patient IDs from the given generator.
+     *
+     * @param idGenerator the generator for new patient IDs
+     */
+    public PatientService(IdGenerator idGenerator) {
+        this(idGenerator, null);
+    }
+
+    /**
+     * Creates a patient service that takes patient IDs from the given generator and publishes
+     * added and deleted patients on the given bus.
+     *
+     * @param idGenerator the generator for new patient IDs
+     * @param eventBus    the bus to publish changes on, or {@code null} to publish nothing
+     */
+    public PatientService(IdGenerator idGenerator, DomainEventBus eventBus) {
+        this(idGenerator, eventBus, new InMemoryPatientStore());
+    }
+
+    /**
+     * Creates a patient service that keeps its patients in the given store.
+     *
+     * @param idGenerator the generator for new patient IDs
+     * @param eventBus    the bus to publish changes on, or {@code null} to publish nothing
+     * @param store       the store to keep patients in
+     */
+    public PatientService(IdGenerator idGenerator, DomainEventBus eventBus, PatientStore store) {
+        this.idGenerator = idGenerator;
+        this.eventBus = eventBus;
+        this.patients = store;
+    }
+
     /**
      * Adds a new patient to the system after validating the input fields.
      *
@@ -27,6 +80,17 @@ public class PatientService {
      *         or an {@link Error} enum on failure
      */
     public Result<Patient, Error> addPatient(String fullName, String address, String telephone) {
+        if (!ClinicEvents.PATIENT_REGISTRATION.isEnabled()) {
+            return register(fullName, address, telephone);
+        }
+        PatientRegistrationEvent event = new PatientRegistrationEvent();
+        event.begin();
+        Result<Patient, Error> result = register(fullName, address, telephone);
+        event.commit(result.isSuccess() ? result.getData() : null, result.isError() ? result.getError() : null);
+        return result;
+    }
+
+    private Result<Patient, Error> register(String fullName, String address, String telephone) {
         if (!validator.validateName(fullName)) {
             return Result.error(Error.NAME_TOO_SHORT);
         }
@@ -40,12 +104,15 @@ public class PatientService {
             return Result.error(Error.INVALID_TELEPHONE);
         }
 
-        if (patients.stream().anyMatch(p -> p.getFullName().equals(fullName))){
+        if (patients.containsName(fullName)) {
             return Result.error(Error.PATIENT_EXISTS);
         }
 
-        Patient patient = new Patient(IdGenerator.generatePersonnelId(), fullName, address, telephone);
+        Patient patient = new Patient(idGenerator.nextPersonnelId(), fullName, address, telephone);
         patients.add(patient);
+        if (eventBus != null) {
+            eventBus.publish(DomainEventType.PATIENT_ADDED, 0, patient.getId(), 0, 0);
+        }
         return Result.success(patient);
     }
 
@@ -56,7 +123,11 @@ public class PatientService {
      * @return true if a patient with the given ID was found and deleted, false if the patient does not exist
      */
     public boolean deletePatient(int id) {
-        return patients.removeIf(p -> p.getId() == id);
+        boolean deleted = patients.delete(id);
+        if (deleted && eventBus != null) {
+            eventBus.publish(DomainEventType.PATIENT_DELETED, 0, id, 0, 0);
+        }
+        return deleted;
     }
 
     /**
@@ -66,19 +137,27 @@ public class PatientService {
      * @return the {@link Patient} object if found, or null if not found
      */
     public Patient getPatientById(int id) {
-        return patients.stream()
-                .filter(p -> p.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return patients.get(id);
     }
 
     /**
-     * Returns the list of all patients currently stored.
+     * Returns the patients currently stored, as a read-only list that later changes do not affect.
+     * With the default in-memory store, taking the list copies nothing.
      *
-     * @return a {@link List} of {@link Patient} objects
+     * @return a read-only {@link List} of {@link Patient} objects
      */
     public List<Patient> getPatientsList() {
-        return patients;
+        return patients.getAll();
+    }
+
+    /**
+     * Records a new booking in the patient store.
+     *
+     * @param appointment the booked appointment
+     */
+    @Override
+    public void onBooked(Appointment appointment) {
+        patients.appointmentBooked(appointment.getPatient(), appointment.getAppointmentId());
     }
 
     public Validator getValidator() {
@@ -1,19 +1,55 @@
 package com.boostphysioclinic.services;
 
 
+import com.boostphysioclinic.events.DomainEventBus;
+import com.boostphysioclinic.events.DomainEventType;
 import com.boostphysioclinic.model.Physiotherapist;
 import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
 import com.boostphysioclinic.util.IdGenerator;
+import com.boostphysioclinic.util.SnapshotList;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * Service class responsible for managing physiotherapists in the system.
  * Allows adding physiotherapists, assigning timetable slots, and searching by name or expertise.
  */
 public class PhysiotherapistService {
-    private final List<Physiotherapist> physiotherapists = new ArrayList<>();
+    private final SnapshotList<Physiotherapist> physiotherapists = new SnapshotList<>();
+    private final IdGenerator idGenerator;
+    private final DomainEventBus eventBus;
+
+    /**
+     * Creates a physiotherapist service that takes IDs from the default {@link IdGenerator}.
+     */
+    public PhysiotherapistService() {
+        this(IdGenerator.getDefault());
+    }
+
+    /**
+     * Creates a physiotherapist service that takes IDs from the given generator.
+     *
+     * @param idGenerator the generator for new physiotherapist IDs
+     */
+    public PhysiotherapistService(IdGenerator idGenerator) {
+        this(idGenerator, null);
+    }
+
+    /**
+     * Creates a physiotherapist service that takes physiotherapist IDs from the given generator and publishes
+     * added physiotherapists and slots on the given bus.
+     *
+     * @param idGenerator the generator for new physiotherapist IDs
+     * @param eventBus    the bus to publish changes on, or {@code null} to publish nothing
+     */
+    public PhysiotherapistService(IdGenerator idGenerator, DomainEventBus eventBus) {
+        this.idGenerator = idGenerator;
+        this.eventBus = eventBus;
+    }
 
     /**
      * Adds a new physiotherapist to the system.
@@ -25,18 +61,154 @@ public class PhysiotherapistService {
      */
     public void addPhysiotherapist(String fullName, String address, String tel, List<String> expertise) {
         Physiotherapist newPhysio = new Physiotherapist(
-                IdGenerator.generatePersonnelId(), fullName, address, tel, expertise);
+                idGenerator.nextPersonnelId(), fullName, address, tel, expertise);
         physiotherapists.add(newPhysio);
+        if (eventBus != null) {
+            eventBus.publish(DomainEventType.PHYSIOTHERAPIST_ADDED, 0, 0, newPhysio.getId(), 0);
+        }
     }
 
     /**
-     * Adds a timetable slot to the given physiotherapist's schedule.
+     * Adds a timetable slot to the given physiotherapist's schedule, keeping it in order of start time.
      *
      * @param physio the physiotherapist to whom the slot is being added
      * @param slot   the timetable slot to add
      */
     public void addSlotToPhysiotherapist(Physiotherapist physio, TimetableSlot slot) {
-        physio.getTimetable().add(slot);
+        physio.addSlot(slot);
+        if (eventBus != null) {
+            eventBus.publish(DomainEventType.SLOT_ADDED, 0, 0, physio.getId(), slot.getEpochMinute());
+        }
+    }
+
+    /**
+     * Retrieves a physiotherapist by their unique ID.
+     *
+     * @param id the ID of the physiotherapist to retrieve
+     * @return the {@link Physiotherapist} object if found, or null if not found
+     */
+    public Physiotherapist getPhysiotherapistById(int id) {
+        List<Physiotherapist> snapshot = physiotherapists.snapshot();
+        for (int i = 0; i < snapshot.size(); i++) {
+            Physiotherapist physiotherapist = snapshot.get(i);
+            if (physiotherapist.getId() == id) {
+                return physiotherapist;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the slot in a physiotherapist's timetable that starts at the given time.
+     *
+     * @param physio      the physiotherapist whose timetable to search
+     * @param epochMinute the start time of the slot in minutes since the clinic epoch
+     * @return the {@link TimetableSlot} if found, or null if the physiotherapist has no slot at that time
+     */
+    public TimetableSlot getSlot(Physiotherapist physio, int epochMinute) {
+        List<TimetableSlot> timetable = physio.getTimetable();
+        int index = physio.indexOfFirstSlotFrom(epochMinute);
+        if (index < timetable.size() && timetable.get(index).getEpochMinute() == epochMinute) {
+            return timetable.get(index);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the slots in a physiotherapist's timetable that match the query, in order of start time.
+     * Only the requested range of the timetable is visited, booked slots are skipped through the free-slot
+     * index unless the query includes them, and the search stops once {@code limit} slots are found.
+     * Results can be paged with {@link #findSlotsAfter}.
+     *
+     * @param physio the physiotherapist whose timetable to search
+     * @param query  the range, treatment and booking state of the slots to return
+     * @param limit  the maximum number of slots to return
+     * @return the matching slots, at most {@code limit} of them
+     */
+    public List<TimetableSlot> findSlots(Physiotherapist physio, SlotQuery query, int limit) {
+        return collect(new SlotCursor(physio, query, null), limit);
+    }
+
+    /**
+     * Returns the slots that match the query and follow the given slot in the physiotherapist's timetable,
+     * in order of start time. Passing the last slot of a page returns the next page; slots that start at the
+     * same time as the last slot but come after it in the timetable are not skipped.
+     *
+     * @param physio the physiotherapist whose timetable to search
+     * @param query  the range, treatment and booking state of the slots to return
+     * @param after  the slot to continue after, which must be in the physiotherapist's timetable
+     * @param limit  the maximum number of slots to return
+     * @return the matching slots after {@code after}, at most {@code limit} of them
+     */
+    public List<TimetableSlot> findSlotsAfter(Physiotherapist physio, SlotQuery query, TimetableSlot after, int limit) {
+        SlotCursor cursor = new SlotCursor(physio, query, null);
+        List<TimetableSlot> timetable = physio.getTimetable();
+        int index = physio.indexOfFirstSlotFrom(after.getEpochMinute());
+        while (index < timetable.size() && timetable.get(index).getEpochMinute() == after.getEpochMinute()) {
+            if (timetable.get(index++) == after) {
+                break;
+            }
+        }
+        cursor.nextIndex = Math.max(cursor.nextIndex, index);
+        return collect(cursor, limit);
+    }
+
+    private static List<TimetableSlot> collect(SlotCursor cursor, int limit) {
+        List<TimetableSlot> found = new ArrayList<>(Math.min(limit, 64));
+        while (found.size() < limit && cursor.advance()) {
+            found.add(cursor.slot);
+        }
+        return found;
+    }
+
+    /**
+     * Finds the earliest matching slots across every physiotherapist with the given expertise.
+     * <p>
+     * Each physiotherapist's timetable is already sorted by time and indexed by free slot, so the search is a
+     * k-way merge: a priority queue holds the next matching slot of each of the k physiotherapists, the
+     * earliest is taken and replaced by that physiotherapist's following match, and the search stops after
+     * {@code count} slots. Finding N slots costs O(k log k + N log k) rather than a scan of every timetable.
+     * </p>
+     *
+     * @param expertise the expertise to search for (case-insensitive, partial match), or {@code null} for any;
+     *                  catalogued treatments must also belong to a matching area of expertise
+     * @param query     the time range, treatment and booking state of the slots to return
+     * @param count     the maximum number of slots to return
+     * @return the matching slots in order of start time, ties broken by physiotherapist ID
+     */
+    public List<TimetableSlot> findEarliestSlots(String expertise, SlotQuery query, int count) {
+        String expertiseFilter = expertise == null ? null : expertise.toLowerCase();
+        List<Physiotherapist> snapshot = physiotherapists.snapshot();
+        PriorityQueue<SlotCursor> cursors = new PriorityQueue<>(Math.max(1, snapshot.size()), SlotCursor.ORDER);
+
+        for (Physiotherapist physiotherapist : snapshot) {
+            if (expertiseFilter != null && !hasExpertise(physiotherapist, expertiseFilter)) {
+                continue;
+            }
+            SlotCursor cursor = new SlotCursor(physiotherapist, query, expertiseFilter);
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+
+        List<TimetableSlot> found = new ArrayList<>(Math.min(count, 64));
+        while (found.size() < count && !cursors.isEmpty()) {
+            SlotCursor earliest = cursors.poll();
+            found.add(earliest.slot);
+            if (earliest.advance()) {
+                cursors.add(earliest);
+            }
+        }
+        return found;
+    }
+
+    private static boolean hasExpertise(Physiotherapist physiotherapist, String expertiseFilter) {
+        for (String e : physiotherapist.getExpertise()) {
+            if (e.toLowerCase().contains(expertiseFilter)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -48,7 +220,7 @@ public class PhysiotherapistService {
     public List<Physiotherapist> getPhysiotherapistsByName(String name) {
         List<Physiotherapist> result = new ArrayList<>();
 
-        for (Physiotherapist physiotherapist : physiotherapists) {
+        for (Physiotherapist physiotherapist : physiotherapists.snapshot()) {
             if (physiotherapist.getFullName().toLowerCase().contains(name.toLowerCase())) {
                 result.add(physiotherapist);
             }
@@ -65,7 +237,7 @@ public class PhysiotherapistService {
     public List<Physiotherapist> getPhysiotherapistsByExpertise(String expertise) {
         List<Physiotherapist> result = new ArrayList<>();
 
-        for (Physiotherapist physiotherapist : physiotherapists) {
+        for (Physiotherapist physiotherapist : physiotherapists.snapshot()) {
             for (String e : physiotherapist.getExpertise()) {
                 if (e.toLowerCase().contains(expertise.toLowerCase())) {
                     result.add(physiotherapist);
@@ -76,11 +248,100 @@ public class PhysiotherapistService {
     }
 
     /**
-     * Returns an unmodifiable list of all registered physiotherapists.
+     * Returns all registered physiotherapists, as an immutable snapshot that later changes do not affect.
+     * Taking the snapshot copies nothing.
      *
-     * @return a list of all physiotherapists
+     * @return a read-only list of all physiotherapists
      */
     public List<Physiotherapist> getAllPhysiotherapists() {
-        return List.copyOf(physiotherapists);
+        return physiotherapists.snapshot();
+    }
+
+    /**
+     * Walks one physiotherapist's timetable in time order, stopping at each slot that matches a query.
+     * Free slots are found through the physiotherapist's free-slot index, so booked slots are skipped
+     * without being visited. When the query names a treatment or an expertise, the cursor follows the free-slot
+     * indexes of just the matching treatments, so free slots of other treatments are skipped as well.
+     * Queries that include booked slots still test every slot in the range.
+     */
+    private static class SlotCursor {
+        static final Comparator<SlotCursor> ORDER = Comparator
+                .<SlotCursor>comparingInt(cursor -> cursor.slot.getEpochMinute())
+                .thenComparingInt(cursor -> cursor.physiotherapist.getId());
+
+        private final Physiotherapist physiotherapist;
+        private final List<TimetableSlot> timetable;
+        private final SlotQuery query;
+        private final String expertiseFilter;
+        // The treatments whose free-slot indexes to follow, or null to follow the index of every free slot
+        private final List<Treatment> treatments;
+        private int nextIndex;
+        private TimetableSlot slot;
+
+        SlotCursor(Physiotherapist physiotherapist, SlotQuery query, String expertiseFilter) {
+            this.physiotherapist = physiotherapist;
+            this.timetable = physiotherapist.getTimetable();
+            this.query = query;
+            this.expertiseFilter = expertiseFilter;
+            this.nextIndex = physiotherapist.indexOfFirstSlotFrom(query.fromEpochMinute());
+            this.treatments = query.includeBooked() || (query.treatment() == null && expertiseFilter == null)
+                    ? null : matchingTreatments();
+        }
+
+        private List<Treatment> matchingTreatments() {
+            List<Treatment> matching = new ArrayList<>();
+            for (Treatment treatment : physiotherapist.getTimetableTreatments()) {
+                if ((query.treatment() == null || treatment == query.treatment()) && matchesExpertise(treatment)) {
+                    matching.add(treatment);
+                }
+            }
+            return matching;
+        }
+
+        /**
+         * Moves to the next matching slot.
+         *
+         * @return {@code true} if a matching slot was found before the end of the query's range
+         */
+        boolean advance() {
+            while (true) {
+                int index = query.includeBooked() ? nextIndex : nextFreeIndex();
+                if (index < 0 || index >= timetable.size()) {
+                    return false;
+                }
+                TimetableSlot candidate = timetable.get(index);
+                if (candidate.getEpochMinute() >= query.toEpochMinute()) {
+                    return false;
+                }
+                nextIndex = index + 1;
+                if (query.matches(candidate) && matchesExpertise(candidate.getTreatment())) {
+                    slot = candidate;
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Returns the index of the next free slot of a matching treatment, the earliest across their indexes.
+         */
+        private int nextFreeIndex() {
+            if (treatments == null) {
+                return physiotherapist.nextFreeSlotIndex(nextIndex);
+            }
+            int earliest = -1;
+            for (Treatment treatment : treatments) {
+                int index = physiotherapist.nextFreeSlotIndex(nextIndex, treatment);
+                if (index >= 0 && (earliest < 0 || index < earliest)) {
+                    earliest = index;
+                }
+            }
+            return earliest;
+        }
+
+        private boolean matchesExpertise(Treatment treatment) {
+            String treatmentExpertise = treatment.getExpertise();
+            return expertiseFilter == null || treatmentExpertise == null
+                    || treatmentExpertise.toLowerCase().contains(expertiseFilter);
+        }
     }
-}
\ No newline at end of file
+}
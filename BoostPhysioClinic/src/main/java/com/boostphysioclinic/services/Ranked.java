@@ -0,0 +1,11 @@
+package com.boostphysioclinic.services;
+
+/**
+ * One place in a ranking returned by {@link RankingService}.
+ *
+ * @param item  the ranked physiotherapist, treatment or patient
+ * @param count the count the item is ranked by
+ * @param <T>   the type of the ranked item
+ */
+public record Ranked<T>(T item, int count) {
+}
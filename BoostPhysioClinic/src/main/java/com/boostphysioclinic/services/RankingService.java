@@ -0,0 +1,196 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.archive.AppointmentArchive;
+import com.boostphysioclinic.archive.TreatmentKey;
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.BookingStatus;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.util.CountRanking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.function.IntFunction;
+
+/**
+ * Service class for top-K rankings of physiotherapists, treatments and patients.
+ * <p>
+ * Each ranking is a {@link CountRanking} updated as appointments are booked and change status, so reading the
+ * top {@code k} takes O(k) time instead of counting and sorting every appointment. The service must be registered
+ * as a listener of its {@link AppointmentService}, which {@link ServiceContainer} does. Rankings count appointments
+ * since the service was created, plus the attended and treatment counts of an archive that already existed.
+ * </p>
+ * <p>
+ * The archive keys its counts by name, because IDs are assigned afresh on every start. The service copies those
+ * counts when it is created, since appointments archived later were already counted as they changed status.
+ * Physiotherapists and treatments are usually created after the service, so the copied counts are added to the
+ * rankings the first time they are read after a physiotherapist is added or a treatment is registered.
+ * </p>
+ */
+public class RankingService implements AppointmentListener {
+    private final PhysiotherapistService physiotherapistService;
+    private final PatientService patientService;
+    private final TreatmentCatalogue treatmentCatalogue;
+    // The archive's counts when the service was created, by physiotherapist full name and by treatment
+    private final Map<String, Integer> archivedAttended;
+    private final Map<TreatmentKey, Integer> archivedNotCancelled;
+
+    private final CountRanking attendedByPhysiotherapist = new CountRanking();
+    private final CountRanking bookedByPhysiotherapist = new CountRanking();
+    private final CountRanking demandByTreatment = new CountRanking();
+    private final CountRanking visitsByPatient = new CountRanking();
+    private final Map<Integer, Physiotherapist> physiotherapists = new HashMap<>();
+    private int archivedPhysiotherapists;
+    private int archivedTreatments;
+
+    /**
+     * Creates a ranking service.
+     *
+     * @param physiotherapistService the service to look up ranked physiotherapists in
+     * @param patientService         the service to look up ranked patients in
+     * @param treatmentCatalogue     the catalogue to look up ranked treatments in
+     * @param archive                an archive whose current counts to start from, or {@code null}
+     */
+    public RankingService(PhysiotherapistService physiotherapistService, PatientService patientService,
+                          TreatmentCatalogue treatmentCatalogue, AppointmentArchive archive) {
+        this.physiotherapistService = physiotherapistService;
+        this.patientService = patientService;
+        this.treatmentCatalogue = treatmentCatalogue;
+        this.archivedAttended = archive == null ? Map.of() : new HashMap<>(archive.getAttendedByPhysiotherapist());
+        this.archivedNotCancelled = archive == null ? Map.of() : new HashMap<>(archive.getNotCancelledByTreatment());
+    }
+
+    /**
+     * Returns the physiotherapists with the most attended appointments.
+     *
+     * @param k the number of physiotherapists to return
+     * @return up to {@code k} physiotherapists with their attended counts, highest first
+     */
+    public List<Ranked<Physiotherapist>> topPhysiotherapistsByAttended(int k) {
+        addArchivedCounts();
+        return top(attendedByPhysiotherapist, k, this::physiotherapist);
+    }
+
+    /**
+     * Returns the physiotherapists with the most appointments still booked.
+     *
+     * @param k the number of physiotherapists to return
+     * @return up to {@code k} physiotherapists with their booked counts, highest first
+     */
+    public List<Ranked<Physiotherapist>> topPhysiotherapistsByBooked(int k) {
+        return top(bookedByPhysiotherapist, k, this::physiotherapist);
+    }
+
+    /**
+     * Returns the catalogued treatments with the most appointments that were not cancelled.
+     *
+     * @param k the number of treatments to return
+     * @return up to {@code k} treatments with their appointment counts, highest first
+     */
+    public List<Ranked<Treatment>> topTreatmentsByDemand(int k) {
+        addArchivedCounts();
+        return top(demandByTreatment, k, treatmentCatalogue::getById);
+    }
+
+    /**
+     * Returns the patients with the most attended appointments. Deleted patients are skipped.
+     *
+     * @param k the number of patients to return
+     * @return up to {@code k} patients with their attended counts, highest first
+     */
+    public List<Ranked<Patient>> topPatientsByVisits(int k) {
+        return top(visitsByPatient, k, patientService::getPatientById);
+    }
+
+    @Override
+    public void onBooked(Appointment appointment) {
+        Physiotherapist physiotherapist = appointment.getSlot().getPhysiotherapist();
+        physiotherapists.putIfAbsent(physiotherapist.getId(), physiotherapist);
+        bookedByPhysiotherapist.increment(physiotherapist.getId());
+        int treatmentId = appointment.getSlot().getTreatment().getId();
+        if (treatmentId >= 0) {
+            demandByTreatment.increment(treatmentId);
+        }
+    }
+
+    @Override
+    public void onStatusChanged(Appointment appointment, BookingStatus previousStatus) {
+        int physiotherapistId = appointment.getSlot().getPhysiotherapist().getId();
+        int treatmentId = appointment.getSlot().getTreatment().getId();
+        BookingStatus status = appointment.getBookingStatus();
+
+        if (previousStatus == BookingStatus.Booked) {
+            bookedByPhysiotherapist.decrement(physiotherapistId);
+        }
+        switch (status) {
+            case Booked -> {
+                bookedByPhysiotherapist.increment(physiotherapistId);
+                if (treatmentId >= 0) {
+                    demandByTreatment.increment(treatmentId);
+                }
+            }
+            case Cancelled -> {
+                if (treatmentId >= 0) {
+                    demandByTreatment.decrement(treatmentId);
+                }
+            }
+            case Attended -> {
+                attendedByPhysiotherapist.increment(physiotherapistId);
+                visitsByPatient.increment(appointment.getPatient().getId());
+            }
+        }
+    }
+
+    /**
+     * Adds the archived counts of physiotherapists and treatments created since the last call. Both lists only
+     * grow, so the ones already seen are skipped by position.
+     */
+    private void addArchivedCounts() {
+        List<Physiotherapist> all = physiotherapistService.getAllPhysiotherapists();
+        for (; archivedPhysiotherapists < all.size(); archivedPhysiotherapists++) {
+            Physiotherapist physiotherapist = all.get(archivedPhysiotherapists);
+            int count = archivedAttended.getOrDefault(physiotherapist.getFullName(), 0);
+            if (count > 0) {
+                attendedByPhysiotherapist.add(physiotherapist.getId(), count);
+            }
+        }
+        for (; archivedTreatments < treatmentCatalogue.size(); archivedTreatments++) {
+            TreatmentKey key = TreatmentKey.of(treatmentCatalogue.getById(archivedTreatments));
+            int count = archivedNotCancelled.getOrDefault(key, 0);
+            if (count > 0) {
+                demandByTreatment.add(archivedTreatments, count);
+            }
+        }
+    }
+
+    private Physiotherapist physiotherapist(int id) {
+        Physiotherapist physiotherapist = physiotherapists.get(id);
+        if (physiotherapist == null) {
+            physiotherapist = physiotherapistService.getPhysiotherapistById(id);
+            if (physiotherapist != null) {
+                physiotherapists.put(id, physiotherapist);
+            }
+        }
+        return physiotherapist;
+    }
+
+    /**
+     * Reads the top of a ranking, skipping keys that no longer resolve to an item.
+     */
+    private static <T> List<Ranked<T>> top(CountRanking ranking, int k, IntFunction<T> resolve) {
+        List<Ranked<T>> top = new ArrayList<>(Math.min(Math.max(k, 0), ranking.size()));
+        PrimitiveIterator.OfInt keys = ranking.descendingKeys();
+        while (top.size() < k && keys.hasNext()) {
+            int key = keys.nextInt();
+            T item = resolve.apply(key);
+            if (item != null) {
+                top.add(new Ranked<>(item, ranking.count(key)));
+            }
+        }
+        return top;
+    }
+}
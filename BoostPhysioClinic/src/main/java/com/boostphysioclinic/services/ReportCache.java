@@ -0,0 +1,198 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.BookingStatus;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A size-bounded cache of report results for a {@link ReportGenerator}, keyed by report type and parameters.
+ * <p>
+ * When the cache is full, the least recently used report is evicted. The cache listens to its
+ * {@link AppointmentService} and invalidates only the reports that a change can affect:
+ * </p>
+ * <ul>
+ *     <li>appointment listings for all appointments, for the appointment's physiotherapist and for periods that
+ *     contain the appointment's time are invalidated by any booking or status change;</li>
+ *     <li>the physiotherapist summary is invalidated when an appointment is attended;</li>
+ *     <li>the treatment summary is invalidated when an appointment of a catalogued treatment is booked, cancelled
+ *     or rebooked.</li>
+ * </ul>
+ * <p>
+ * Changes that do not pass through the listener, such as archiving appointments, adding physiotherapists or
+ * registering treatments, are caught by a version the generator stores with each report: a report whose
+ * version no longer matches is treated as a miss.
+ * </p>
+ * <p>
+ * Cached reports are shared by every caller that asks for them, so they are returned as read-only lists.
+ * Like the services, a cache is used by one thread at a time.
+ * </p>
+ */
+public final class ReportCache implements AppointmentListener {
+    /** The number of reports kept when no capacity is configured */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final int capacity;
+    private final Map<Key, Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity the maximum number of reports to keep
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public ReportCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ReportCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the maximum number of reports the cache keeps.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the hit, miss, eviction and invalidation counts since the cache was created.
+     *
+     * @return the statistics
+     */
+    public Stats getStats() {
+        return new Stats(entries.size(), hits, misses, evictions, invalidations);
+    }
+
+    /**
+     * Removes every report from the cache. Cleared reports are counted as invalidations.
+     */
+    public void clear() {
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    /**
+     * Returns the cached report for a key, generating and caching it if it is missing or its version has changed.
+     *
+     * @param key       the report type and parameters
+     * @param version   the version of the data the report is generated from
+     * @param generator generates the report on a miss
+     * @return the report, as a read-only list
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> get(Key key, long version, Supplier<List<T>> generator) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version == version) {
+            hits++;
+            return (List<T>) entry.rows;
+        }
+        if (entry != null) {
+            entries.remove(key);
+            invalidations++;
+        }
+        misses++;
+        List<T> rows = Collections.unmodifiableList(generator.get());
+        entries.put(key, new Entry(rows, version));
+        return rows;
+    }
+
+    @Override
+    public void onBooked(Appointment appointment) {
+        int treatmentId = appointment.getSlot().getTreatment().getId();
+        invalidate(appointment, false, treatmentId >= 0);
+    }
+
+    @Override
+    public void onStatusChanged(Appointment appointment, BookingStatus previousStatus) {
+        BookingStatus status = appointment.getBookingStatus();
+        boolean attendedChanged = status == BookingStatus.Attended || previousStatus == BookingStatus.Attended;
+        boolean demandChanged = appointment.getSlot().getTreatment().getId() >= 0
+                && (status == BookingStatus.Cancelled) != (previousStatus == BookingStatus.Cancelled);
+        invalidate(appointment, attendedChanged, demandChanged);
+    }
+
+    /**
+     * Removes the reports a change to the given appointment can affect. The cache is small, so every key is checked.
+     */
+    private void invalidate(Appointment appointment, boolean attendedChanged, boolean demandChanged) {
+        int physiotherapistId = appointment.getSlot().getPhysiotherapist().getId();
+        int epochMinute = appointment.getEpochMinute();
+        entries.keySet().removeIf(key -> {
+            boolean affected = switch (key.type) {
+                case ALL_APPOINTMENTS -> true;
+                case PHYSIOTHERAPIST_APPOINTMENTS -> key.physiotherapistId == physiotherapistId;
+                case PERIOD_APPOINTMENTS -> epochMinute >= key.fromEpochMinute && epochMinute < key.toEpochMinute;
+                case PHYSIOTHERAPIST_SUMMARY -> attendedChanged;
+                case TREATMENT_SUMMARY -> demandChanged;
+            };
+            if (affected) {
+                invalidations++;
+            }
+            return affected;
+        });
+    }
+
+    /**
+     * The kinds of report a {@link ReportGenerator} can cache.
+     */
+    enum ReportType {
+        ALL_APPOINTMENTS,
+        PHYSIOTHERAPIST_APPOINTMENTS,
+        PERIOD_APPOINTMENTS,
+        PHYSIOTHERAPIST_SUMMARY,
+        TREATMENT_SUMMARY
+    }
+
+    /**
+     * Identifies a cached report by its type and parameters. Parameters a report type does not use are 0.
+     */
+    record Key(ReportType type, int physiotherapistId, int fromEpochMinute, int toEpochMinute) {
+        static Key of(ReportType type) {
+            return new Key(type, 0, 0, 0);
+        }
+
+        static Key physiotherapist(int physiotherapistId) {
+            return new Key(ReportType.PHYSIOTHERAPIST_APPOINTMENTS, physiotherapistId, 0, 0);
+        }
+
+        static Key period(int fromEpochMinute, int toEpochMinute) {
+            return new Key(ReportType.PERIOD_APPOINTMENTS, 0, fromEpochMinute, toEpochMinute);
+        }
+    }
+
+    private record Entry(List<?> rows, long version) {
+    }
+
+    /**
+     * Statistics of a {@link ReportCache}.
+     *
+     * @param size          the number of reports cached now
+     * @param hits          the number of requests answered from the cache
+     * @param misses        the number of requests that generated the report
+     * @param evictions     the number of reports removed to stay within the capacity
+     * @param invalidations the number of reports removed because the data they were generated from changed
+     */
+    public record Stats(int size, long hits, long misses, long evictions, long invalidations) {
+    }
+}
@@ -1,33 +1,97 @@
 package com.boostphysioclinic.services;
 
+import com.boostphysioclinic.archive.AppointmentArchive;
+import com.boostphysioclinic.archive.ArchiveSegment;
+import com.boostphysioclinic.archive.ArchivedAppointment;
+import com.boostphysioclinic.jfr.ReportGenerationEvent;
 import com.boostphysioclinic.model.Appointment;
-import com.boostphysioclinic.model.BookingStatus;
 import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.Treatment;
 import com.boostphysioclinic.model.report.AppointmentReport;
 import com.boostphysioclinic.model.report.PhysiotherapistReport;
+import com.boostphysioclinic.model.report.TreatmentReport;
 import com.boostphysioclinic.util.TimeFormatter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Responsible for generating various reports based on appointments and physiotherapist data.
  * Uses services to fetch information and produce structured report outputs.
+ * Every report emits a Flight Recorder event with its name and size.
+ * The count reports scan the appointment service's columnar {@link AppointmentTable} rather than the
+ * {@link Appointment} objects.
+ * <p>
+ * When appointments are archived, reports merge the live appointments with the archive: the count reports add
+ * the archive's pre-aggregated counts and the appointment listings read the archived rows, oldest first.
+ * </p>
+ * <p>
+ * A generator given a {@link ReportCache} returns cached reports until a change affects them. Cached reports are
+ * read-only and shared between callers; without a cache every call returns a new list.
+ * </p>
  */
 public class ReportGenerator {
 
     private final PhysiotherapistService physiotherapistService;
     private final AppointmentService appointmentService;
+    private final TreatmentCatalogue treatmentCatalogue;
+    private final AppointmentArchive archive;
+    private final ReportCache cache;
 
     /**
      * Constructs a {@code ReportGenerator} with the specified services.
      *
      * @param physiotherapistService the service for accessing physiotherapist data
      * @param appointmentService     the service for accessing appointment data
+     * @param treatmentCatalogue     the catalogue of treatments offered by the clinic
      */
-    public ReportGenerator(PhysiotherapistService physiotherapistService, AppointmentService appointmentService) {
+    public ReportGenerator(PhysiotherapistService physiotherapistService, AppointmentService appointmentService,
+                           TreatmentCatalogue treatmentCatalogue) {
+        this(physiotherapistService, appointmentService, treatmentCatalogue, null);
+    }
+
+    /**
+     * Constructs a {@code ReportGenerator} whose reports also cover the appointments in the given archive.
+     *
+     * @param physiotherapistService the service for accessing physiotherapist data
+     * @param appointmentService     the service for accessing appointment data
+     * @param treatmentCatalogue     the catalogue of treatments offered by the clinic
+     * @param archive                the archive of old appointments, or {@code null} if nothing is archived
+     */
+    public ReportGenerator(PhysiotherapistService physiotherapistService, AppointmentService appointmentService,
+                           TreatmentCatalogue treatmentCatalogue, AppointmentArchive archive) {
+        this(physiotherapistService, appointmentService, treatmentCatalogue, archive, null);
+    }
+
+    /**
+     * Constructs a {@code ReportGenerator} that keeps its reports in the given cache. The cache must be registered
+     * as a listener of the appointment service, or it will keep returning reports that are out of date.
+     *
+     * @param physiotherapistService the service for accessing physiotherapist data
+     * @param appointmentService     the service for accessing appointment data
+     * @param treatmentCatalogue     the catalogue of treatments offered by the clinic
+     * @param archive                the archive of old appointments, or {@code null} if nothing is archived
+     * @param cache                  the cache for generated reports, or {@code null} to generate every report
+     */
+    public ReportGenerator(PhysiotherapistService physiotherapistService, AppointmentService appointmentService,
+                           TreatmentCatalogue treatmentCatalogue, AppointmentArchive archive, ReportCache cache) {
         this.physiotherapistService = physiotherapistService;
         this.appointmentService = appointmentService;
+        this.treatmentCatalogue = treatmentCatalogue;
+        this.archive = archive;
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the cache the generator keeps its reports in.
+     *
+     * @return the {@code ReportCache}, or {@code null} if reports are not cached
+     */
+    public ReportCache getCache() {
+        return cache;
     }
 
     /**
@@ -36,7 +100,22 @@ public class ReportGenerator {
      * @return a list of {@code AppointmentReport} representing all appointments
      */
     public List<AppointmentReport> generateAllAppointmentReport() {
-        return generateAppointmentReportsForAppointments(appointmentService.getAppointments());
+        return cached(ReportCache.Key.of(ReportCache.ReportType.ALL_APPOINTMENTS), archivedVersion(),
+                this::buildAllAppointmentReport);
+    }
+
+    private List<AppointmentReport> buildAllAppointmentReport() {
+        ReportGenerationEvent event = new ReportGenerationEvent();
+        event.begin();
+        List<AppointmentReport> report = new ArrayList<>();
+        if (archive != null) {
+            for (ArchivedAppointment a : archive.readAll()) {
+                report.add(toReport(a));
+            }
+        }
+        report.addAll(generateAppointmentReportsForAppointments(appointmentService.getAppointments()));
+        event.commit("appointments", null, report.size());
+        return report;
     }
 
     /**
@@ -46,13 +125,74 @@ public class ReportGenerator {
      * @return a list of {@code AppointmentReport} for the physiotherapist
      */
     public List<AppointmentReport> generateAppointmentReportForPhysiotherapist(Physiotherapist physiotherapist) {
+        return cached(ReportCache.Key.physiotherapist(physiotherapist.getId()), archivedVersion(),
+                () -> buildAppointmentReportForPhysiotherapist(physiotherapist));
+    }
+
+    private List<AppointmentReport> buildAppointmentReportForPhysiotherapist(Physiotherapist physiotherapist) {
+        ReportGenerationEvent event = new ReportGenerationEvent();
+        event.begin();
         List<Appointment> physioAppointments = new ArrayList<>();
         for (Appointment appointment : appointmentService.getAppointments()) {
             if (appointment.getSlot().getPhysiotherapist().equals(physiotherapist)) {
                 physioAppointments.add(appointment);
             }
         }
-        return generateAppointmentReportsForAppointments(physioAppointments);
+        List<AppointmentReport> report = new ArrayList<>();
+        if (archive != null) {
+            for (ArchivedAppointment a : archive.readAll()) {
+                if (a.physiotherapistId() == physiotherapist.getId()) {
+                    report.add(toReport(a));
+                }
+            }
+        }
+        report.addAll(generateAppointmentReportsForAppointments(physioAppointments));
+        event.commit("appointments", physiotherapist, report.size());
+        return report;
+    }
+
+    /**
+     * Generates a report for the appointments that start within the given period.
+     *
+     * @param fromEpochMinute the earliest start time to include
+     * @param toEpochMinute   the start time to stop before
+     * @return a list of {@code AppointmentReport} for the period
+     * @throws UncheckedIOException if an archive segment covering the period cannot be read
+     */
+    public List<AppointmentReport> generateAppointmentReportForPeriod(int fromEpochMinute, int toEpochMinute) {
+        return cached(ReportCache.Key.period(fromEpochMinute, toEpochMinute), archivedVersion(),
+                () -> buildAppointmentReportForPeriod(fromEpochMinute, toEpochMinute));
+    }
+
+    private List<AppointmentReport> buildAppointmentReportForPeriod(int fromEpochMinute, int toEpochMinute) {
+        ReportGenerationEvent event = new ReportGenerationEvent();
+        event.begin();
+        List<AppointmentReport> report = new ArrayList<>();
+        if (archive != null) {
+            for (ArchiveSegment segment : archive.getSegments()) {
+                if (segment.getToEpochMinute() < fromEpochMinute || segment.getFromEpochMinute() >= toEpochMinute) {
+                    continue;
+                }
+                try {
+                    for (ArchivedAppointment a : segment.readRows()) {
+                        if (a.epochMinute() >= fromEpochMinute && a.epochMinute() < toEpochMinute) {
+                            report.add(toReport(a));
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read archive segment " + segment.getPath(), e);
+                }
+            }
+        }
+        List<Appointment> periodAppointments = new ArrayList<>();
+        for (Appointment appointment : appointmentService.getAppointments()) {
+            if (appointment.getEpochMinute() >= fromEpochMinute && appointment.getEpochMinute() < toEpochMinute) {
+                periodAppointments.add(appointment);
+            }
+        }
+        report.addAll(generateAppointmentReportsForAppointments(periodAppointments));
+        event.commit("appointments", null, report.size());
+        return report;
     }
 
     /**
@@ -68,13 +208,29 @@ public class ReportGenerator {
                     a.getSlot().getPhysiotherapist().getFullName(),
                     a.getSlot().getTreatment().getName(),
                     a.getPatient().getFullName(),
-                    TimeFormatter.formatTime(a.getSlot().getDateTime()),
+                    TimeFormatter.formatEpochMinute(a.getEpochMinute()),
                     a.getBookingStatus().toString()
             ));
         }
         return appointmentReports;
     }
 
+    /**
+     * Converts an archived appointment into an appointment report.
+     *
+     * @param a the archived appointment
+     * @return the {@code AppointmentReport}
+     */
+    private static AppointmentReport toReport(ArchivedAppointment a) {
+        return new AppointmentReport(
+                a.physiotherapistName(),
+                a.treatmentName(),
+                a.patientName(),
+                TimeFormatter.formatEpochMinute(a.epochMinute()),
+                a.status().toString()
+        );
+    }
+
     /**
      * Generates a summary report for each physiotherapist,
      * showing the number of attended appointments.
@@ -82,6 +238,13 @@ public class ReportGenerator {
      * @return a list of {@code PhysiotherapistReport}
      */
     public List<PhysiotherapistReport> generatePhysiotherapistReport() {
+        return cached(ReportCache.Key.of(ReportCache.ReportType.PHYSIOTHERAPIST_SUMMARY),
+                physiotherapistService.getAllPhysiotherapists().size(), this::buildPhysiotherapistReport);
+    }
+
+    private List<PhysiotherapistReport> buildPhysiotherapistReport() {
+        ReportGenerationEvent event = new ReportGenerationEvent();
+        event.begin();
         List<PhysiotherapistReport> physiotherapistReportList = new ArrayList<>();
         physiotherapistService.getAllPhysiotherapists().forEach(physiotherapist -> {
             PhysiotherapistReport r = new PhysiotherapistReport(
@@ -89,23 +252,81 @@ public class ReportGenerator {
                     getAttendedAppointmentForPhysiotherapist(physiotherapist));
             physiotherapistReportList.add(r);
         });
+        event.commit("physiotherapists", null, physiotherapistReportList.size());
         return physiotherapistReportList;
     }
 
     /**
-     * Counts the number of attended appointments for a given physiotherapist.
+     * Counts the number of attended appointments for a given physiotherapist, live and archived.
      *
      * @param physiotherapist the physiotherapist whose attended appointments are counted
      * @return the count of attended appointments
      */
     private int getAttendedAppointmentForPhysiotherapist(Physiotherapist physiotherapist) {
-        int attendedAppointment = 0;
-        for (Appointment appointment : appointmentService.getAppointments()) {
-            if (appointment.getBookingStatus() == BookingStatus.Attended &&
-                    appointment.getSlot().getPhysiotherapist().equals(physiotherapist)) {
-                attendedAppointment++;
+        int archived = archive == null ? 0 : archive.getAttendedCount(physiotherapist);
+        return archived + appointmentService.getAppointmentTable().countAttended(physiotherapist.getId());
+    }
+
+    /**
+     * Generates a summary report for each catalogued treatment,
+     * showing the number of appointments that were not cancelled.
+     *
+     * @return a list of {@code TreatmentReport} ordered by treatment id
+     */
+    public List<TreatmentReport> generateTreatmentReport() {
+        return cached(ReportCache.Key.of(ReportCache.ReportType.TREATMENT_SUMMARY), treatmentCatalogue.size(),
+                this::buildTreatmentReport);
+    }
+
+    private List<TreatmentReport> buildTreatmentReport() {
+        ReportGenerationEvent event = new ReportGenerationEvent();
+        event.begin();
+        int[] appointmentsPerTreatment = countAppointmentsByTreatment();
+
+        List<TreatmentReport> treatmentReportList = new ArrayList<>();
+        for (int id = 0; id < appointmentsPerTreatment.length; id++) {
+            Treatment treatment = treatmentCatalogue.getById(id);
+            treatmentReportList.add(new TreatmentReport(
+                    treatment.getName(), treatment.getExpertise(), appointmentsPerTreatment[id]));
+        }
+        event.commit("treatments", null, treatmentReportList.size());
+        return treatmentReportList;
+    }
+
+    /**
+     * Counts the appointments that were not cancelled for every catalogued treatment, live and archived.
+     * Appointments for treatments outside the catalogue are ignored.
+     *
+     * @return an array indexed by treatment id holding the appointment count of each treatment
+     */
+    private int[] countAppointmentsByTreatment() {
+        int[] counts = appointmentService.getAppointmentTable().countNotCancelledByTreatment(treatmentCatalogue.size());
+        if (archive != null) {
+            for (int id = 0; id < counts.length; id++) {
+                counts[id] += archive.getNotCancelledCount(treatmentCatalogue.getById(id));
             }
         }
-        return attendedAppointment;
+        return counts;
+    }
+
+    /**
+     * Returns the report from the cache, if there is one, or generates it.
+     *
+     * @param key       the report type and parameters
+     * @param version   a value that changes whenever the report can change without an appointment listener call
+     * @param generator generates the report
+     * @return the report
+     */
+    private <T> List<T> cached(ReportCache.Key key, long version, Supplier<List<T>> generator) {
+        return cache == null ? generator.get() : cache.get(key, version, generator);
+    }
+
+    /**
+     * Returns the version of the appointment listings, which changes whenever appointments are archived.
+     *
+     * @return the number of archive segments
+     */
+    private long archivedVersion() {
+        return archive == null ? 0 : archive.getSegments().size();
     }
 }
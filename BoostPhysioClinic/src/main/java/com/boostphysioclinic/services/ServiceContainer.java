@@ -0,0 +1,256 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.archive.AppointmentArchive;
+import com.boostphysioclinic.events.DomainEventBus;
+import com.boostphysioclinic.metrics.MetricsRegistry;
+import com.boostphysioclinic.storage.InMemoryPatientStore;
+import com.boostphysioclinic.storage.PatientStore;
+import com.boostphysioclinic.util.IdGenerator;
+
+/**
+ * The {@code ServiceContainer} creates and wires together one set of the core services:
+ * {@code PatientService}, {@code PhysiotherapistService}, {@code AppointmentService},
+ * {@code TreatmentCatalogue}, {@code TimeTableService}, {@code ReportGenerator}, {@code WaitlistService},
+ * {@code AbsenceService} and {@code RankingService}.
+ * <p>
+ * Every service is created once in the constructor and stored in a final field, so a container that has been
+ * constructed can be shared with other threads without any locking: they are guaranteed to see the same,
+ * fully built services. Each container is independent, which lets tests or separate clinics run side by side
+ * in one JVM without sharing state.
+ * </p>
+ * <p>
+ * A container given a {@link MetricsRegistry} creates instrumented versions of the patient, physiotherapist
+ * and appointment services and the report generator, which time every public method in that registry.
+ * </p>
+ * <p>
+ * The patient, physiotherapist and appointment services publish every change on the container's
+ * {@link DomainEventBus}, so consumers can react on their own threads without the services rescanning.
+ * </p>
+ * <p>
+ * Patients are kept on the heap unless the container is given another {@link PatientStore}.
+ * A container given an {@link AppointmentArchive} also has an {@code ArchiveService} for moving old appointments
+ * into it, and its reports cover the archived appointments too.
+ * </p>
+ * <p>
+ * Reports are cached in a {@link ReportCache} of {@link ReportCache#DEFAULT_CAPACITY} entries unless another
+ * capacity is given; the cache listens to the appointment service so it only drops the reports a change affects.
+ * </p>
+ */
+public class ServiceContainer {
+    private final PatientService patientService;
+    private final PhysiotherapistService physiotherapistService;
+    private final AppointmentService appointmentService;
+    private final TreatmentCatalogue treatmentCatalogue;
+    private final TimeTableService timeTableService;
+    private final ReportGenerator reportGenerator;
+    private final WaitlistService waitlistService;
+    private final AbsenceService absenceService;
+    private final ArchiveService archiveService;
+    private final RankingService rankingService;
+    private final MetricsRegistry metrics;
+    private final DomainEventBus eventBus;
+
+    /**
+     * Creates a container with a new, empty set of services that take IDs from the default {@link IdGenerator}.
+     */
+    public ServiceContainer() {
+        this(IdGenerator.getDefault());
+    }
+
+    /**
+     * Creates a container with a new, empty set of services that take IDs from the given generator.
+     *
+     * @param idGenerator the generator for new personnel and appointment IDs
+     */
+    public ServiceContainer(IdGenerator idGenerator) {
+        this(idGenerator, null);
+    }
+
+    /**
+     * Creates a container with a new, empty set of services whose calls are timed in the given registry.
+     *
+     * @param idGenerator the generator for new personnel and appointment IDs
+     * @param metrics     the registry to record call latencies in, or {@code null} for uninstrumented services
+     */
+    public ServiceContainer(IdGenerator idGenerator, MetricsRegistry metrics) {
+        this(idGenerator, metrics, new InMemoryPatientStore());
+    }
+
+    /**
+     * Creates a container whose patient service keeps its patients in the given store.
+     * A store that persists patients should be paired with a generator that persists its IDs,
+     * or new patients will be given the IDs of stored ones.
+     *
+     * @param idGenerator  the generator for new personnel and appointment IDs
+     * @param metrics      the registry to record call latencies in, or {@code null} for uninstrumented services
+     * @param patientStore the store to keep patients in
+     */
+    public ServiceContainer(IdGenerator idGenerator, MetricsRegistry metrics, PatientStore patientStore) {
+        this(idGenerator, metrics, patientStore, null, ArchiveService.DEFAULT_HORIZON_DAYS);
+    }
+
+    /**
+     * Creates a container whose finished appointments can be moved into the given archive.
+     *
+     * @param idGenerator        the generator for new personnel and appointment IDs
+     * @param metrics            the registry to record call latencies in, or {@code null} for uninstrumented services
+     * @param patientStore       the store to keep patients in
+     * @param archive            the archive for old appointments, or {@code null} to keep every appointment live
+     * @param archiveHorizonDays how old a finished appointment must be before it is archived, in days
+     */
+    public ServiceContainer(IdGenerator idGenerator, MetricsRegistry metrics, PatientStore patientStore,
+                            AppointmentArchive archive, int archiveHorizonDays) {
+        this(idGenerator, metrics, patientStore, archive, archiveHorizonDays, ReportCache.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a container whose report generator caches up to the given number of reports.
+     *
+     * @param idGenerator         the generator for new personnel and appointment IDs
+     * @param metrics             the registry to record call latencies in, or {@code null} for uninstrumented services
+     * @param patientStore        the store to keep patients in
+     * @param archive             the archive for old appointments, or {@code null} to keep every appointment live
+     * @param archiveHorizonDays  how old a finished appointment must be before it is archived, in days
+     * @param reportCacheCapacity the number of reports to cache, or 0 to generate every report
+     */
+    public ServiceContainer(IdGenerator idGenerator, MetricsRegistry metrics, PatientStore patientStore,
+                            AppointmentArchive archive, int archiveHorizonDays, int reportCacheCapacity) {
+        this.metrics = metrics;
+        eventBus = new DomainEventBus(DomainEventBus.DEFAULT_CAPACITY);
+        if (metrics == null) {
+            patientService = new PatientService(idGenerator, eventBus, patientStore);
+            physiotherapistService = new PhysiotherapistService(idGenerator, eventBus);
+            appointmentService = new AppointmentService(idGenerator, eventBus);
+        } else {
+            patientService = new InstrumentedPatientService(idGenerator, eventBus, patientStore, metrics);
+            physiotherapistService = new InstrumentedPhysiotherapistService(idGenerator, eventBus, metrics);
+            appointmentService = new InstrumentedAppointmentService(idGenerator, eventBus, metrics);
+        }
+        treatmentCatalogue = new TreatmentCatalogue();
+        timeTableService = new TimeTableService(patientService, physiotherapistService, treatmentCatalogue);
+        ReportCache reportCache = reportCacheCapacity > 0 ? new ReportCache(reportCacheCapacity) : null;
+        reportGenerator = metrics == null
+                ? new ReportGenerator(physiotherapistService, appointmentService, treatmentCatalogue, archive,
+                        reportCache)
+                : new InstrumentedReportGenerator(physiotherapistService, appointmentService, treatmentCatalogue,
+                        archive, reportCache, metrics);
+        waitlistService = new WaitlistService(appointmentService, patientService);
+        appointmentService.addListener(patientService);
+        appointmentService.addListener(waitlistService);
+        rankingService = new RankingService(physiotherapistService, patientService, treatmentCatalogue, archive);
+        appointmentService.addListener(rankingService);
+        if (reportCache != null) {
+            appointmentService.addListener(reportCache);
+        }
+        absenceService = new AbsenceService(physiotherapistService, appointmentService);
+        archiveService = archive == null ? null : new ArchiveService(appointmentService, archive, archiveHorizonDays);
+    }
+
+    /**
+     * Returns the container's {@code PatientService}.
+     *
+     * @return the {@code PatientService} instance
+     */
+    public PatientService getPatientService() {
+        return patientService;
+    }
+
+    /**
+     * Returns the container's {@code PhysiotherapistService}.
+     *
+     * @return the {@code PhysiotherapistService} instance
+     */
+    public PhysiotherapistService getPhysiotherapistService() {
+        return physiotherapistService;
+    }
+
+    /**
+     * Returns the container's {@code AppointmentService}.
+     *
+     * @return the {@code AppointmentService} instance
+     */
+    public AppointmentService getAppointmentService() {
+        return appointmentService;
+    }
+
+    /**
+     * Returns the container's {@code TreatmentCatalogue}.
+     *
+     * @return the {@code TreatmentCatalogue} instance
+     */
+    public TreatmentCatalogue getTreatmentCatalogue() {
+        return treatmentCatalogue;
+    }
+
+    /**
+     * Returns the container's {@code TimeTableService}.
+     *
+     * @return the {@code TimeTableService} instance
+     */
+    public TimeTableService getTimeTableService() {
+        return timeTableService;
+    }
+
+    /**
+     * Returns the container's {@code ReportGenerator}.
+     *
+     * @return the {@code ReportGenerator} instance
+     */
+    public ReportGenerator getReportGenerator() {
+        return reportGenerator;
+    }
+
+    /**
+     * Returns the container's {@code WaitlistService}.
+     *
+     * @return the {@code WaitlistService} instance
+     */
+    public WaitlistService getWaitlistService() {
+        return waitlistService;
+    }
+
+    /**
+     * Returns the container's {@code AbsenceService}.
+     *
+     * @return the {@code AbsenceService} instance
+     */
+    public AbsenceService getAbsenceService() {
+        return absenceService;
+    }
+
+    /**
+     * Returns the container's {@code ArchiveService}.
+     *
+     * @return the {@code ArchiveService} instance, or {@code null} if the container has no archive
+     */
+    public ArchiveService getArchiveService() {
+        return archiveService;
+    }
+
+    /**
+     * Returns the container's {@code RankingService}.
+     *
+     * @return the {@code RankingService} instance
+     */
+    public RankingService getRankingService() {
+        return rankingService;
+    }
+
+    /**
+     * Returns the registry the container's services record their latencies in.
+     *
+     * @return the {@code MetricsRegistry}, or {@code null} if the services are not instrumented
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the bus the container's services publish their changes on.
+     *
+     * @return the {@code DomainEventBus} instance
+     */
+    public DomainEventBus getEventBus() {
+        return eventBus;
+    }
+}
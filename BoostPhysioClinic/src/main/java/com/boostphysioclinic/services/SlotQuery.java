@@ -0,0 +1,77 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+
+/**
+ * Describes which slots of a physiotherapist's timetable to return from
+ * {@link PhysiotherapistService#findSlots(com.boostphysioclinic.model.Physiotherapist, SlotQuery, int)}.
+ *
+ * @param fromEpochMinute the earliest start time to include, in minutes since the clinic epoch
+ * @param toEpochMinute   the start time to stop before, in minutes since the clinic epoch
+ * @param treatment       the catalogued treatment to match, or {@code null} for any treatment
+ * @param includeBooked   whether booked and blocked slots are included as well as free ones
+ */
+public record SlotQuery(int fromEpochMinute, int toEpochMinute, Treatment treatment, boolean includeBooked) {
+
+    /**
+     * Returns a query for every free slot.
+     *
+     * @return a query matching all free slots
+     */
+    public static SlotQuery available() {
+        return new SlotQuery(Integer.MIN_VALUE, Integer.MAX_VALUE, null, false);
+    }
+
+    /**
+     * Returns a copy of this query limited to slots starting in the given range.
+     *
+     * @param fromEpochMinute the earliest start time to include
+     * @param toEpochMinute   the start time to stop before
+     * @return the narrowed query
+     */
+    public SlotQuery between(int fromEpochMinute, int toEpochMinute) {
+        return new SlotQuery(fromEpochMinute, toEpochMinute, treatment, includeBooked);
+    }
+
+    /**
+     * Returns a copy of this query that starts at the given time, keeping the same end.
+     * Used to fetch the page that follows the last slot already shown.
+     *
+     * @param fromEpochMinute the earliest start time to include
+     * @return the query for the next page
+     */
+    public SlotQuery startingAt(int fromEpochMinute) {
+        return new SlotQuery(fromEpochMinute, toEpochMinute, treatment, includeBooked);
+    }
+
+    /**
+     * Returns a copy of this query limited to the given treatment.
+     *
+     * @param treatment the catalogued treatment to match, or {@code null} for any treatment
+     * @return the narrowed query
+     */
+    public SlotQuery withTreatment(Treatment treatment) {
+        return new SlotQuery(fromEpochMinute, toEpochMinute, treatment, includeBooked);
+    }
+
+    /**
+     * Returns a copy of this query that does or does not include booked slots.
+     *
+     * @param includeBooked whether booked slots are included
+     * @return the changed query
+     */
+    public SlotQuery withBooked(boolean includeBooked) {
+        return new SlotQuery(fromEpochMinute, toEpochMinute, treatment, includeBooked);
+    }
+
+    /**
+     * Tests the booking state and treatment of a slot. The time range is applied by the caller.
+     *
+     * @param slot the slot to test
+     * @return {@code true} if the slot should be returned
+     */
+    boolean matches(TimetableSlot slot) {
+        return (includeBooked || slot.isAvailable()) && (treatment == null || slot.getTreatment() == treatment);
+    }
+}
@@ -4,6 +4,7 @@ import com.boostphysioclinic.model.Patient;
 import com.boostphysioclinic.model.Physiotherapist;
 import com.boostphysioclinic.model.TimetableSlot;
 import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.util.ClinicTime;
 import com.boostphysioclinic.util.Result;
 
 import java.time.LocalDate;
@@ -30,19 +31,24 @@ public class TimeTableService {
             List.of(2, 4)  // Week 3: Wednesday and Friday
     );
 
-    private PatientService patientService;
-    private PhysiotherapistService physiotherapistService;
-    private AppointmentService appointmentService;
-    private List<TimetableSlot> timetableSlots;
+    private final PatientService patientService;
+    private final PhysiotherapistService physiotherapistService;
+    private final TreatmentCatalogue treatmentCatalogue;
+    private final List<TimetableSlot> timetableSlots;
 
     /**
-     * Constructs a new {@code TimeTableService} and retrieves service instances.
+     * Constructs a new {@code TimeTableService} that populates the given services.
+     *
+     * @param patientService         the service to add sample patients to
+     * @param physiotherapistService the service to add sample physiotherapists and timetables to
+     * @param treatmentCatalogue     the catalogue to register sample treatments in
      */
-    public TimeTableService() {
-        patientService = ServiceLocator.getPatientService();
-        physiotherapistService = ServiceLocator.getPhysiotherapistService();
-        appointmentService = ServiceLocator.getAppointmentService();
-        timetableSlots = new ArrayList<>();
+    public TimeTableService(PatientService patientService, PhysiotherapistService physiotherapistService,
+                            TreatmentCatalogue treatmentCatalogue) {
+        this.patientService = patientService;
+        this.physiotherapistService = physiotherapistService;
+        this.treatmentCatalogue = treatmentCatalogue;
+        this.timetableSlots = new ArrayList<>();
     }
 
     /**
@@ -94,13 +100,28 @@ public class TimeTableService {
         patientService.addPatient("Charlotte Hall", "112 Fir St, Newcastle", "+441912233445");
     }
 
+    /**
+     * Returns the catalogued treatments offered for the given expertise,
+     * registering them in the {@link TreatmentCatalogue} the first time they are requested.
+     *
+     * @param expertise the expertise category
+     * @return a list of shared treatments associated with the expertise
+     */
+    private List<Treatment> getTreatmentsForExpertise(String expertise) {
+        List<Treatment> treatments = new ArrayList<>();
+        for (String treatmentName : getTreatmentNamesForExpertise(expertise)) {
+            treatments.add(treatmentCatalogue.register(treatmentName, expertise));
+        }
+        return treatments;
+    }
+
     /**
      * Maps physiotherapist expertise to relevant treatments.
      *
      * @param expertise the expertise category
-     * @return a list of treatments associated with the expertise
+     * @return a list of treatment names associated with the expertise
      */
-    private List<String> getTreatmentsForExpertise(String expertise) {
+    private List<String> getTreatmentNamesForExpertise(String expertise) {
         return switch (expertise) {
             case "Sports Medicine" -> List.of("Sports Injury Assessment", "Athletic Recovery Session", "Health check");
             case "Post-Op Recovery" -> List.of("Surgical Rehabilitation", "Scar Tissue Management");
@@ -135,7 +156,7 @@ public class TimeTableService {
 
                 int expertiseIndex = week % expertise.size();
                 String currentExpertise = expertise.get(expertiseIndex);
-                List<String> treatments = getTreatmentsForExpertise(currentExpertise);
+                List<Treatment> treatments = getTreatmentsForExpertise(currentExpertise);
 
                 for (int dayOffset : daysThisWeek) {
                     LocalDate weekStart = TIMETABLE_START_DATE.plusWeeks(week);
@@ -144,16 +165,14 @@ public class TimeTableService {
 
                     int treatmentIndex = 0;
                     while (treatmentIndex < treatments.size() && !timeSlots.isEmpty()) {
-                        String treatmentName = treatments.get(treatmentIndex);
+                        Treatment treatment = treatments.get(treatmentIndex);
                         LocalTime slotTime = timeSlots.remove(0);
-                        LocalDateTime dateTime = LocalDateTime.of(date, slotTime);
+                        int epochMinute = ClinicTime.toEpochMinute(LocalDateTime.of(date, slotTime));
 
-                        boolean timeOccupied = physio.getTimetable().stream()
-                                .anyMatch(slot -> slot.getDateTime().equals(dateTime));
+                        boolean timeOccupied = physiotherapistService.getSlot(physio, epochMinute) != null;
 
                         if (!timeOccupied) {
-                            Treatment treatment = new Treatment(treatmentName);
-                            TimetableSlot slot = new TimetableSlot(physio, treatment, dateTime);
+                            TimetableSlot slot = new TimetableSlot(physio, treatment, epochMinute);
                             physiotherapistService.addSlotToPhysiotherapist(physio, slot);
                             timetableSlots.add(slot);
                             treatmentIndex++;
@@ -0,0 +1,92 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.model.Treatment;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry holding a single shared {@link Treatment} instance for each treatment offered by the clinic.
+ * <p>
+ * Treatments are identified by their name and the expertise they belong to. Each registered treatment
+ * gets a small id counting up from 0, so per-treatment data can be kept in plain arrays of size
+ * {@link #size()} instead of maps keyed by name.
+ * </p>
+ */
+public class TreatmentCatalogue {
+    private final Map<String, Treatment> treatmentsByKey = new HashMap<>();
+    private volatile Treatment[] treatmentsById = new Treatment[0];
+
+    /**
+     * Returns the catalogued treatment with the given name and expertise,
+     * registering it first if it has not been seen before.
+     *
+     * @param name            the name of the treatment
+     * @param expertise       the area of expertise the treatment belongs to
+     * @param durationMinutes the length of a session, used only when the treatment is first registered
+     * @return the shared {@link Treatment} instance
+     */
+    public synchronized Treatment register(String name, String expertise, int durationMinutes) {
+        String key = key(name, expertise);
+        Treatment treatment = treatmentsByKey.get(key);
+        if (treatment != null) {
+            return treatment;
+        }
+
+        Treatment[] current = treatmentsById;
+        treatment = new Treatment(current.length, name, expertise, durationMinutes);
+        Treatment[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[treatment.getId()] = treatment;
+
+        treatmentsByKey.put(key, treatment);
+        treatmentsById = updated;
+        return treatment;
+    }
+
+    /**
+     * Returns the catalogued treatment with the given name and expertise,
+     * using the default session length if it has to be registered.
+     *
+     * @param name      the name of the treatment
+     * @param expertise the area of expertise the treatment belongs to
+     * @return the shared {@link Treatment} instance
+     */
+    public Treatment register(String name, String expertise) {
+        return register(name, expertise, Treatment.DEFAULT_DURATION_MINUTES);
+    }
+
+    /**
+     * Retrieves a treatment by its catalogue id.
+     *
+     * @param id the treatment id
+     * @return the {@link Treatment}, or null if no treatment has this id
+     */
+    public Treatment getById(int id) {
+        Treatment[] current = treatmentsById;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Returns the number of registered treatments. Valid treatment ids range from 0 to {@code size() - 1}.
+     *
+     * @return the number of registered treatments
+     */
+    public int size() {
+        return treatmentsById.length;
+    }
+
+    /**
+     * Returns all registered treatments ordered by id.
+     *
+     * @return an unmodifiable list of treatments
+     */
+    public List<Treatment> getAllTreatments() {
+        return List.of(treatmentsById);
+    }
+
+    private static String key(String name, String expertise) {
+        return expertise + '\u0000' + name;
+    }
+}
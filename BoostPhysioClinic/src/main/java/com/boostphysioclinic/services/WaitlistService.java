@@ -0,0 +1,232 @@
+package com.boostphysioclinic.services;
+
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.BookingStatus;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.WaitlistEntry;
+import com.boostphysioclinic.util.ClinicTime;
+import com.boostphysioclinic.util.Result;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Service class for the waitlist. Patients join with a time window and, optionally, a physiotherapist
+ * or area of expertise; when an appointment is cancelled, the freed slot is booked for the best waiting patient.
+ * <p>
+ * Entries are indexed by (physiotherapist, day) for every day of their window, with entries that accept any
+ * physiotherapist filed under a shared key. Each index bucket is ordered by priority and then by the order
+ * patients joined, so filling a slot only looks at two buckets and usually only at their first entries,
+ * however many patients are waiting. The service must be registered as a listener of its
+ * {@link AppointmentService}, which {@link ServiceContainer} does.
+ * </p>
+ */
+public class WaitlistService implements AppointmentListener {
+    /** The longest time window an entry can have, in days */
+    public static final int MAX_WINDOW_DAYS = 366;
+
+    private static final int ANY_PHYSIOTHERAPIST = -1;
+    private static final Comparator<WaitlistEntry> ORDER = Comparator
+            .comparingInt(WaitlistEntry::getPriority).reversed()
+            .thenComparingInt(WaitlistEntry::getId);
+
+    private final AppointmentService appointmentService;
+    private final PatientService patientService;
+    private final Map<Integer, WaitlistEntry> waiting = new LinkedHashMap<>();
+    private final Map<Long, TreeSet<WaitlistEntry>> index = new HashMap<>();
+    private int nextEntryId = 1;
+
+    /**
+     * Creates a waitlist that books freed slots through the given appointment service.
+     *
+     * @param appointmentService the service to book appointments with
+     * @param patientService     the service used to check that waiting patients are still registered
+     */
+    public WaitlistService(AppointmentService appointmentService, PatientService patientService) {
+        this.appointmentService = appointmentService;
+        this.patientService = patientService;
+    }
+
+    /**
+     * Adds a patient to the waitlist.
+     *
+     * @param patient         the waiting patient
+     * @param physiotherapist the physiotherapist the patient wants to see, or {@code null} for any
+     * @param expertise       the area of expertise the patient needs (case-insensitive, partial match),
+     *                        or {@code null} for any
+     * @param fromEpochMinute the earliest slot start time the patient accepts
+     * @param toEpochMinute   the slot start time the patient needs an appointment before
+     * @param priority        the priority of the entry; higher priorities are served first
+     * @return a {@link Result} containing the new {@link WaitlistEntry} if successful,
+     * otherwise an error result with the {@link WaitlistError} reason for failure
+     */
+    public Result<WaitlistEntry, WaitlistError> join(Patient patient, Physiotherapist physiotherapist, String expertise,
+                                                     int fromEpochMinute, int toEpochMinute, int priority) {
+        if (patient == null) {
+            return Result.error(WaitlistError.PATIENT_NOT_FOUND);
+        }
+        if (toEpochMinute <= fromEpochMinute) {
+            return Result.error(WaitlistError.INVALID_TIME_WINDOW);
+        }
+        if (lastDay(toEpochMinute) - ClinicTime.toEpochDay(fromEpochMinute) >= MAX_WINDOW_DAYS) {
+            return Result.error(WaitlistError.TIME_WINDOW_TOO_LONG);
+        }
+
+        String expertiseFilter = expertise == null || expertise.isBlank() ? null : expertise.trim();
+        WaitlistEntry entry = new WaitlistEntry(nextEntryId++, patient, physiotherapist, expertiseFilter,
+                fromEpochMinute, toEpochMinute, priority);
+        waiting.put(entry.getId(), entry);
+        for (int day = ClinicTime.toEpochDay(fromEpochMinute); day <= lastDay(toEpochMinute); day++) {
+            index.computeIfAbsent(key(entry, day), k -> new TreeSet<>(ORDER)).add(entry);
+        }
+        return Result.success(entry);
+    }
+
+    /**
+     * Removes a waiting patient from the waitlist.
+     *
+     * @param entryId the ID of the waitlist entry
+     * @return {@code true} if the entry was waiting and has been removed
+     */
+    public boolean leave(int entryId) {
+        WaitlistEntry entry = waiting.get(entryId);
+        if (entry == null) {
+            return false;
+        }
+        remove(entry);
+        return true;
+    }
+
+    /**
+     * Returns the entries still waiting for a slot, in the order they joined.
+     *
+     * @return a read-only list of waiting entries
+     */
+    public List<WaitlistEntry> getWaitingEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(waiting.values()));
+    }
+
+    /**
+     * Books the given free slot for the best waiting patient who accepts it.
+     * Patients who cannot take the slot, for example because they already have an appointment at that time,
+     * are skipped and keep their place.
+     *
+     * @param slot the free slot to fill
+     * @return the entry the slot was booked for, or {@code null} if nobody waiting could take it
+     */
+    public WaitlistEntry fillSlot(TimetableSlot slot) {
+        if (!slot.isAvailable()) {
+            return null;
+        }
+
+        int day = ClinicTime.toEpochDay(slot.getEpochMinute());
+        Iterator<WaitlistEntry> specific = bucket(key(slot.getPhysiotherapist().getId(), day));
+        Iterator<WaitlistEntry> general = bucket(key(ANY_PHYSIOTHERAPIST, day));
+        WaitlistEntry nextSpecific = nextAccepting(specific, slot);
+        WaitlistEntry nextGeneral = nextAccepting(general, slot);
+
+        List<WaitlistEntry> withdrawn = new ArrayList<>();
+        WaitlistEntry assigned = null;
+        while (nextSpecific != null || nextGeneral != null) {
+            boolean takeSpecific = nextGeneral == null
+                    || (nextSpecific != null && ORDER.compare(nextSpecific, nextGeneral) <= 0);
+            WaitlistEntry candidate = takeSpecific ? nextSpecific : nextGeneral;
+
+            if (patientService.getPatientById(candidate.getPatient().getId()) == null) {
+                withdrawn.add(candidate);
+            } else {
+                var result = appointmentService.bookAppointmentId(candidate.getPatient(), slot);
+                if (result.isSuccess()) {
+                    candidate.setAppointmentId(result.getData());
+                    assigned = candidate;
+                    break;
+                }
+                if (result.getError() == AppointmentService.BookingError.TIMETABLE_SLOT_ALREADY_BOOKED) {
+                    break;
+                }
+            }
+
+            if (takeSpecific) {
+                nextSpecific = nextAccepting(specific, slot);
+            } else {
+                nextGeneral = nextAccepting(general, slot);
+            }
+        }
+
+        // Bucket iterators must not be in use while entries are removed from the index
+        for (WaitlistEntry entry : withdrawn) {
+            remove(entry);
+        }
+        if (assigned != null) {
+            remove(assigned);
+        }
+        return assigned;
+    }
+
+    /**
+     * Offers the slot of a cancelled appointment to the waitlist.
+     */
+    @Override
+    public void onStatusChanged(Appointment appointment, BookingStatus previousStatus) {
+        if (appointment.getBookingStatus() == BookingStatus.Cancelled) {
+            fillSlot(appointment.getSlot());
+        }
+    }
+
+    private Iterator<WaitlistEntry> bucket(long key) {
+        TreeSet<WaitlistEntry> entries = index.get(key);
+        return entries == null ? Collections.emptyIterator() : entries.iterator();
+    }
+
+    private static WaitlistEntry nextAccepting(Iterator<WaitlistEntry> entries, TimetableSlot slot) {
+        while (entries.hasNext()) {
+            WaitlistEntry entry = entries.next();
+            if (entry.accepts(slot)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void remove(WaitlistEntry entry) {
+        waiting.remove(entry.getId());
+        for (int day = ClinicTime.toEpochDay(entry.getFromEpochMinute()); day <= lastDay(entry.getToEpochMinute()); day++) {
+            long key = key(entry, day);
+            TreeSet<WaitlistEntry> entries = index.get(key);
+            if (entries != null && entries.remove(entry) && entries.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static int lastDay(int toEpochMinute) {
+        return ClinicTime.toEpochDay(toEpochMinute - 1);
+    }
+
+    private static long key(WaitlistEntry entry, int day) {
+        Physiotherapist physiotherapist = entry.getPhysiotherapist();
+        return key(physiotherapist == null ? ANY_PHYSIOTHERAPIST : physiotherapist.getId(), day);
+    }
+
+    private static long key(int physiotherapistId, int day) {
+        return ((long) physiotherapistId << 32) | (day & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Enum representing possible errors when joining the waitlist.
+     */
+    public enum WaitlistError {
+        PATIENT_NOT_FOUND,
+        INVALID_TIME_WINDOW,
+        TIME_WINDOW_TOO_LONG
+    }
+}
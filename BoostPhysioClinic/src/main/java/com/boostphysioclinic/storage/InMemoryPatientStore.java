@@ -0,0 +1,49 @@
+package com.boostphysioclinic.storage;
+
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.util.SnapshotList;
+
+import java.util.List;
+
+/**
+ * A {@link PatientStore} that keeps every patient on the heap in a {@link SnapshotList},
+ * so {@link #getAll()} is an immutable snapshot that copies nothing.
+ */
+public class InMemoryPatientStore implements PatientStore {
+    private final SnapshotList<Patient> patients = new SnapshotList<>();
+
+    @Override
+    public void add(Patient patient) {
+        if (get(patient.getId()) != null) {
+            throw new IllegalStateException("Patient " + patient.getId() + " is already stored");
+        }
+        patients.add(patient);
+    }
+
+    @Override
+    public Patient get(int id) {
+        List<Patient> snapshot = patients.snapshot();
+        for (int i = 0; i < snapshot.size(); i++) {
+            Patient patient = snapshot.get(i);
+            if (patient.getId() == id) {
+                return patient;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        return patients.removeIf(p -> p.getId() == id);
+    }
+
+    @Override
+    public boolean containsName(String fullName) {
+        return patients.snapshot().stream().anyMatch(p -> p.getFullName().equals(fullName));
+    }
+
+    @Override
+    public List<Patient> getAll() {
+        return patients.snapshot();
+    }
+}
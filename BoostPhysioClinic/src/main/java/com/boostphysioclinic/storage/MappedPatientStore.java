@@ -0,0 +1,489 @@
+package com.boostphysioclinic.storage;
+
+import com.boostphysioclinic.model.Patient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link PatientStore} that keeps patients in a memory-mapped file, so they survive restarts and a large
+ * registry does not need every patient on the heap.
+ * <p>
+ * The file starts with a 16-byte header (magic number, format version and the offset where the next record goes)
+ * followed by variable-length records that are only ever appended:
+ * </p>
+ * <ul>
+ *     <li>a patient record: type, deleted flag, patient ID, the offset of the patient's newest appointment node,
+ *     then the full name, address and telephone as length-prefixed UTF-8;</li>
+ *     <li>an appointment node: type, appointment ID and the offset of the next older node, or 0 at the end.</li>
+ * </ul>
+ * <p>
+ * Deleting a patient and booking an appointment each change a few bytes of an existing patient record in place;
+ * nothing else is ever rewritten, and space held by deleted patients is not reclaimed.
+ * An {@link OffHeapIntLongMap} maps each live patient ID to the offset of its record, and a second one maps a hash
+ * of each live patient's name to the same offset, so checking for a duplicate name reads one or two records instead
+ * of the whole file. Both are rebuilt by scanning the file when the store is opened.
+ * </p>
+ * <p>
+ * A record is written in full before the end offset in the header is moved past it, so a process that stops
+ * part-way through an append leaves at most unused bytes beyond the end, never a partial record inside it.
+ * </p>
+ * <p>
+ * The most recently used patients are kept as {@link Patient} objects in an LRU cache. A patient read back from the
+ * file after being evicted is a new object, so callers must not rely on two lookups returning the same instance.
+ * Appointment removals are not recorded, because {@code AppointmentService} never removes an appointment ID from
+ * a patient.
+ * </p>
+ * <p>
+ * Writes reach the operating system's page cache as soon as they are made, so they survive the process stopping;
+ * call {@link #flush()} or {@link #close()} to also force them to disk. Every method is synchronized.
+ * </p>
+ */
+public class MappedPatientStore implements PatientStore, Closeable {
+    /**
+     * The number of patients cached as objects when no other size is given.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private static final int MAGIC = 0x42504331; // "BPC1"
+    private static final int VERSION = 1;
+    private static final int VERSION_OFFSET = 4;
+    private static final int END_OFFSET = 8;
+    private static final int HEADER_BYTES = 16;
+    private static final int INITIAL_FILE_BYTES = 1 << 20;
+
+    private static final byte PATIENT_RECORD = 1;
+    private static final byte APPOINTMENT_NODE = 2;
+
+    private static final int DELETED_OFFSET = 1;
+    private static final int ID_OFFSET = 2;
+    private static final int HEAD_OFFSET = 6;
+    private static final int STRINGS_OFFSET = 14;
+
+    private static final int NODE_APPOINTMENT_OFFSET = 1;
+    private static final int NODE_NEXT_OFFSET = 5;
+    private static final int NODE_BYTES = 13;
+    private static final long NO_NODE = 0;
+
+    private final FileChannel channel;
+    private final OffHeapIntLongMap index = new OffHeapIntLongMap(1024);
+    private final OffHeapIntLongMap names = new OffHeapIntLongMap(1024);
+    private final Map<Integer, Patient> cache;
+    private MappedByteBuffer file;
+    private long end;
+
+    private MappedPatientStore(FileChannel channel, int cacheSize) {
+        this.channel = channel;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Patient> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Opens the store in the given file, creating the file if it does not exist,
+     * and caches up to {@link #DEFAULT_CACHE_SIZE} patients.
+     *
+     * @param path the store file
+     * @return the open store
+     * @throws IOException if the file cannot be opened or is not a patient store
+     */
+    public static MappedPatientStore open(Path path) throws IOException {
+        return open(path, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Opens the store in the given file, creating the file if it does not exist.
+     *
+     * @param path      the store file
+     * @param cacheSize the number of patients to keep cached as objects
+     * @return the open store
+     * @throws IOException if the file cannot be opened or is not a patient store
+     */
+    public static MappedPatientStore open(Path path, int cacheSize) throws IOException {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + cacheSize);
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedPatientStore store = new MappedPatientStore(channel, cacheSize);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            file = channel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_FILE_BYTES);
+            file.putInt(0, MAGIC);
+            file.putInt(VERSION_OFFSET, VERSION);
+            setEnd(HEADER_BYTES);
+            return;
+        }
+
+        if (size < HEADER_BYTES) {
+            throw new IOException("Not a patient store: file is too short");
+        }
+        file = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (file.getInt(0) != MAGIC) {
+            throw new IOException("Not a patient store: bad magic number");
+        }
+        if (file.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException("Unsupported patient store version " + file.getInt(VERSION_OFFSET));
+        }
+        end = file.getLong(END_OFFSET);
+        if (end < HEADER_BYTES || end > size) {
+            throw new IOException("Corrupt patient store: end offset " + end + " outside file of " + size + " bytes");
+        }
+
+        long offset = HEADER_BYTES;
+        while (offset < end) {
+            byte type = file.get(position(offset));
+            if (type == PATIENT_RECORD) {
+                if (file.get(position(offset + DELETED_OFFSET)) == 0) {
+                    index.put(file.getInt(position(offset + ID_OFFSET)), offset);
+                    addName(offset, nameBytes(offset));
+                }
+                offset = patientRecordEnd(offset);
+            } else if (type == APPOINTMENT_NODE) {
+                offset += NODE_BYTES;
+            } else {
+                throw new IOException("Corrupt patient store: unknown record type " + type + " at offset " + offset);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void add(Patient patient) {
+        if (index.get(patient.getId()) != OffHeapIntLongMap.MISSING) {
+            throw new IllegalStateException("Patient " + patient.getId() + " is already stored");
+        }
+
+        byte[] name = encode(patient.getFullName());
+        byte[] address = encode(patient.getAddress());
+        byte[] tel = encode(patient.getTel());
+        long head = NO_NODE;
+        for (int appointmentId : patient.getAppointments()) {
+            head = appendNode(appointmentId, head);
+        }
+
+        long offset = end;
+        int bytes = STRINGS_OFFSET + 6 + name.length + address.length + tel.length;
+        ensureCapacity(bytes);
+        file.put(position(offset), PATIENT_RECORD);
+        file.put(position(offset + DELETED_OFFSET), (byte) 0);
+        file.putInt(position(offset + ID_OFFSET), patient.getId());
+        file.putLong(position(offset + HEAD_OFFSET), head);
+        long stringOffset = putString(offset + STRINGS_OFFSET, name);
+        stringOffset = putString(stringOffset, address);
+        putString(stringOffset, tel);
+        setEnd(offset + bytes);
+
+        index.put(patient.getId(), offset);
+        addName(offset, name);
+        cache.put(patient.getId(), patient);
+    }
+
+    @Override
+    public synchronized Patient get(int id) {
+        Patient cached = cache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long offset = index.get(id);
+        if (offset == OffHeapIntLongMap.MISSING) {
+            return null;
+        }
+        Patient patient = read(offset);
+        cache.put(id, patient);
+        return patient;
+    }
+
+    @Override
+    public synchronized boolean delete(int id) {
+        long offset = index.get(id);
+        if (offset == OffHeapIntLongMap.MISSING) {
+            return false;
+        }
+        file.put(position(offset + DELETED_OFFSET), (byte) 1);
+        index.remove(id);
+        removeName(offset);
+        cache.remove(id);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This looks the name's hash up in the name index and compares the encoded names of the records it finds,
+     * without creating any {@link Patient} objects.
+     * </p>
+     */
+    @Override
+    public synchronized boolean containsName(String fullName) {
+        byte[] wanted = encode(fullName);
+        for (int key = nameKey(wanted); ; key = nextNameKey(key)) {
+            long offset = names.get(key);
+            if (offset == OffHeapIntLongMap.MISSING) {
+                return false;
+            }
+            if (nameEquals(offset, wanted)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This reads every live patient, reusing cached objects where it can, without adding the others to the cache.
+     * It is meant for listing patients, not for looking one up.
+     * </p>
+     */
+    @Override
+    public synchronized List<Patient> getAll() {
+        List<Patient> patients = new ArrayList<>(index.size());
+        long offset = HEADER_BYTES;
+        while (offset < end) {
+            if (file.get(position(offset)) == APPOINTMENT_NODE) {
+                offset += NODE_BYTES;
+                continue;
+            }
+            if (file.get(position(offset + DELETED_OFFSET)) == 0) {
+                Patient cached = cache.get(file.getInt(position(offset + ID_OFFSET)));
+                patients.add(cached != null ? cached : read(offset));
+            }
+            offset = patientRecordEnd(offset);
+        }
+        return Collections.unmodifiableList(patients);
+    }
+
+    @Override
+    public synchronized void appointmentBooked(Patient patient, int appointmentId) {
+        long offset = index.get(patient.getId());
+        if (offset == OffHeapIntLongMap.MISSING) {
+            return;
+        }
+        long head = appendNode(appointmentId, file.getLong(position(offset + HEAD_OFFSET)));
+        file.putLong(position(offset + HEAD_OFFSET), head);
+
+        // The booking may have used an instance that has since been evicted and read back
+        Patient cached = cache.get(patient.getId());
+        if (cached != null && cached != patient) {
+            cached.addAppointment(appointmentId);
+        }
+    }
+
+    /**
+     * Returns the number of live patients in the store.
+     *
+     * @return the number of patients
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of patients currently cached as objects.
+     *
+     * @return the number of cached patients
+     */
+    public synchronized int cachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * Forces every write made so far to disk.
+     */
+    public synchronized void flush() {
+        file.force();
+    }
+
+    /**
+     * Forces every write to disk and closes the file. The store must not be used afterwards.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        file.force();
+        cache.clear();
+        channel.close();
+    }
+
+    private Patient read(long offset) {
+        long stringOffset = offset + STRINGS_OFFSET;
+        String name = getString(stringOffset);
+        stringOffset = skipString(stringOffset);
+        String address = getString(stringOffset);
+        stringOffset = skipString(stringOffset);
+        String tel = getString(stringOffset);
+
+        Patient patient = new Patient(file.getInt(position(offset + ID_OFFSET)), name, address, tel);
+        List<Integer> newestFirst = new ArrayList<>();
+        for (long node = file.getLong(position(offset + HEAD_OFFSET)); node != NO_NODE;
+             node = file.getLong(position(node + NODE_NEXT_OFFSET))) {
+            newestFirst.add(file.getInt(position(node + NODE_APPOINTMENT_OFFSET)));
+        }
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            patient.addAppointment(newestFirst.get(i));
+        }
+        return patient;
+    }
+
+    private long appendNode(int appointmentId, long next) {
+        long offset = end;
+        ensureCapacity(NODE_BYTES);
+        file.put(position(offset), APPOINTMENT_NODE);
+        file.putInt(position(offset + NODE_APPOINTMENT_OFFSET), appointmentId);
+        file.putLong(position(offset + NODE_NEXT_OFFSET), next);
+        setEnd(offset + NODE_BYTES);
+        return offset;
+    }
+
+    /**
+     * Indexes a live record under the hash of its name. Names with the same hash, or the same name stored twice,
+     * take the following keys, the way colliding entries take the following slots of a hash table.
+     */
+    private void addName(long offset, byte[] name) {
+        int key = nameKey(name);
+        while (names.get(key) != OffHeapIntLongMap.MISSING) {
+            key = nextNameKey(key);
+        }
+        names.put(key, offset);
+    }
+
+    /**
+     * Removes a record from the name index, then indexes again every record after it in the same run of keys
+     * so none of them becomes unreachable from its own hash.
+     */
+    private void removeName(long offset) {
+        int key = nameKey(nameBytes(offset));
+        for (long found = names.get(key); found != offset; found = names.get(key)) {
+            if (found == OffHeapIntLongMap.MISSING) {
+                return;
+            }
+            key = nextNameKey(key);
+        }
+        names.remove(key);
+        for (int next = nextNameKey(key); ; next = nextNameKey(next)) {
+            long moved = names.get(next);
+            if (moved == OffHeapIntLongMap.MISSING) {
+                return;
+            }
+            names.remove(next);
+            addName(moved, nameBytes(moved));
+        }
+    }
+
+    private byte[] nameBytes(long offset) {
+        byte[] bytes = new byte[file.getShort(position(offset + STRINGS_OFFSET)) & 0xFFFF];
+        file.get(position(offset + STRINGS_OFFSET + 2), bytes);
+        return bytes;
+    }
+
+    /**
+     * Returns the name index key for an encoded name. The hash is scrambled so similar names, whose plain hashes
+     * differ by little, do not land on neighbouring keys and share runs.
+     */
+    private static int nameKey(byte[] name) {
+        int key = (Arrays.hashCode(name) * 0x9E3779B9) & Integer.MAX_VALUE;
+        return key == 0 ? 1 : key;
+    }
+
+    private static int nextNameKey(int key) {
+        return key == Integer.MAX_VALUE ? 1 : key + 1;
+    }
+
+    /**
+     * Makes sure a record of the given size fits at the end of the file, growing the mapping if it does not.
+     * The end offset is only moved once the record has been written.
+     */
+    private void ensureCapacity(int bytes) {
+        long newEnd = end + bytes;
+        if (newEnd > file.capacity()) {
+            long newSize = Math.max(newEnd, (long) file.capacity() * 2);
+            if (newSize > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Patient store is full");
+            }
+            try {
+                file = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot grow patient store", e);
+            }
+        }
+    }
+
+    private void setEnd(long newEnd) {
+        end = newEnd;
+        file.putLong(END_OFFSET, newEnd);
+    }
+
+    private long patientRecordEnd(long offset) {
+        long stringOffset = offset + STRINGS_OFFSET;
+        for (int i = 0; i < 3; i++) {
+            stringOffset = skipString(stringOffset);
+        }
+        return stringOffset;
+    }
+
+    private boolean nameEquals(long offset, byte[] wanted) {
+        int start = position(offset + STRINGS_OFFSET);
+        if ((file.getShort(start) & 0xFFFF) != wanted.length) {
+            return false;
+        }
+        for (int i = 0; i < wanted.length; i++) {
+            if (file.get(start + 2 + i) != wanted[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long putString(long offset, byte[] bytes) {
+        file.putShort(position(offset), (short) bytes.length);
+        file.put(position(offset + 2), bytes);
+        return offset + 2 + bytes.length;
+    }
+
+    private String getString(long offset) {
+        byte[] bytes = new byte[file.getShort(position(offset)) & 0xFFFF];
+        file.get(position(offset + 2), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long skipString(long offset) {
+        return offset + 2 + (file.getShort(position(offset)) & 0xFFFF);
+    }
+
+    private static byte[] encode(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Patient field is longer than 65535 bytes");
+        }
+        return bytes;
+    }
+
+    private static int position(long offset) {
+        return (int) offset;
+    }
+}
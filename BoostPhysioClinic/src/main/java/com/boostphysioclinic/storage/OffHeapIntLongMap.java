@@ -0,0 +1,164 @@
+package com.boostphysioclinic.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A map from positive {@code int} keys to {@code long} values held outside the Java heap, in a direct
+ * {@link ByteBuffer}. It uses open addressing with linear probing, so a lookup reads one or two adjacent entries
+ * and the garbage collector never sees the table however many keys it holds.
+ * <p>
+ * Each entry takes 16 bytes: the key, 4 bytes of padding to keep the value aligned, and the value.
+ * Key 0 marks an empty entry. The table doubles when it is half full, and removal shifts the following entries
+ * back instead of leaving tombstones, so lookups never slow down as keys come and go.
+ * </p>
+ */
+final class OffHeapIntLongMap {
+    static final long MISSING = -1;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int VALUE_OFFSET = 8;
+    private static final int EMPTY = 0;
+
+    private ByteBuffer table;
+    private int capacity;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates a map with room for about half the given number of keys before it has to grow.
+     *
+     * @param initialCapacity the initial number of entries; rounded up to a power of two
+     */
+    OffHeapIntLongMap(int initialCapacity) {
+        allocate(Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1));
+    }
+
+    /**
+     * Returns the value for a key.
+     *
+     * @param key the key, which must be positive
+     * @return the value, or {@link #MISSING}
+     */
+    long get(int key) {
+        for (int index = indexFor(key); ; index = (index + 1) & mask) {
+            int found = table.getInt(index * ENTRY_BYTES);
+            if (found == key) {
+                return table.getLong(index * ENTRY_BYTES + VALUE_OFFSET);
+            }
+            if (found == EMPTY) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * Sets the value for a key, replacing any previous value.
+     *
+     * @param key   the key, which must be positive
+     * @param value the value
+     * @throws IllegalArgumentException if the key is not positive
+     */
+    void put(int key, long value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        if ((size + 1) * 2 > capacity) {
+            resize(capacity * 2);
+        }
+
+        int index = indexFor(key);
+        while (true) {
+            int found = table.getInt(index * ENTRY_BYTES);
+            if (found == key) {
+                table.putLong(index * ENTRY_BYTES + VALUE_OFFSET, value);
+                return;
+            }
+            if (found == EMPTY) {
+                table.putInt(index * ENTRY_BYTES, key);
+                table.putLong(index * ENTRY_BYTES + VALUE_OFFSET, value);
+                size++;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return {@code true} if the key was present
+     */
+    boolean remove(int key) {
+        int index = indexFor(key);
+        while (true) {
+            int found = table.getInt(index * ENTRY_BYTES);
+            if (found == EMPTY) {
+                return false;
+            }
+            if (found == key) {
+                break;
+            }
+            index = (index + 1) & mask;
+        }
+
+        // Shift back every following entry that would no longer be reachable across the gap
+        int gap = index;
+        for (int next = (gap + 1) & mask; ; next = (next + 1) & mask) {
+            int nextKey = table.getInt(next * ENTRY_BYTES);
+            if (nextKey == EMPTY) {
+                break;
+            }
+            int home = indexFor(nextKey);
+            boolean reachable = gap <= next ? (home > gap && home <= next) : (home > gap || home <= next);
+            if (!reachable) {
+                table.putInt(gap * ENTRY_BYTES, nextKey);
+                table.putLong(gap * ENTRY_BYTES + VALUE_OFFSET, table.getLong(next * ENTRY_BYTES + VALUE_OFFSET));
+                gap = next;
+            }
+        }
+        table.putInt(gap * ENTRY_BYTES, EMPTY);
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the number of keys in the map.
+     *
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+
+    private int indexFor(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void resize(int newCapacity) {
+        ByteBuffer old = table;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            int key = old.getInt(i * ENTRY_BYTES);
+            if (key != EMPTY) {
+                int index = indexFor(key);
+                while (table.getInt(index * ENTRY_BYTES) != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                table.putInt(index * ENTRY_BYTES, key);
+                table.putLong(index * ENTRY_BYTES + VALUE_OFFSET, old.getLong(i * ENTRY_BYTES + VALUE_OFFSET));
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        table = ByteBuffer.allocateDirect(newCapacity * ENTRY_BYTES).order(ByteOrder.nativeOrder());
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        size = 0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.boostphysioclinic.storage;
+
+import com.boostphysioclinic.model.Patient;
+
+import java.util.List;
+
+/**
+ * Where {@code PatientService} keeps its patients.
+ * <p>
+ * {@link InMemoryPatientStore} keeps every patient on the heap for the life of the process.
+ * {@link MappedPatientStore} keeps them in a memory-mapped file, so they survive restarts and only recently
+ * used patients are held as objects.
+ * </p>
+ */
+public interface PatientStore {
+
+    /**
+     * Stores a new patient.
+     *
+     * @param patient the patient to store
+     * @throws IllegalStateException if a patient with the same ID is already stored
+     */
+    void add(Patient patient);
+
+    /**
+     * Retrieves a patient by ID.
+     *
+     * @param id the patient ID
+     * @return the patient, or {@code null} if no patient with the ID is stored
+     */
+    Patient get(int id);
+
+    /**
+     * Deletes a patient.
+     *
+     * @param id the patient ID
+     * @return {@code true} if the patient was stored and has been deleted
+     */
+    boolean delete(int id);
+
+    /**
+     * Tests whether a patient with exactly the given full name is stored.
+     *
+     * @param fullName the full name to look for
+     * @return {@code true} if such a patient is stored
+     */
+    boolean containsName(String fullName);
+
+    /**
+     * Returns every stored patient, in the order they were added.
+     *
+     * @return a read-only list of patients
+     */
+    List<Patient> getAll();
+
+    /**
+     * Records that an appointment was booked for a patient, after it has been added to the {@link Patient} object.
+     * Stores that keep every patient on the heap have nothing more to do.
+     *
+     * @param patient       the patient the appointment was booked for
+     * @param appointmentId the ID of the new appointment
+     */
+    default void appointmentBooked(Patient patient, int appointmentId) {
+    }
+}
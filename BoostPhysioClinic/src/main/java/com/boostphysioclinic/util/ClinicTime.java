@@ -0,0 +1,54 @@
+package com.boostphysioclinic.util;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Utility class for the compact time representation used throughout the clinic.
+ * <p>
+ * Times are stored as an {@code int} number of minutes since the clinic epoch
+ * (midnight on 1 January 2025, clinic local time). This makes time comparisons plain integer
+ * comparisons and allows time-sorted data to be kept in primitive arrays. An {@code int} covers
+ * roughly 4000 years either side of the epoch. {@link LocalDateTime} should only be used when
+ * talking to users or other systems.
+ * </p>
+ */
+public class ClinicTime {
+
+    /** The local date and time represented by epoch minute 0 */
+    public static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    /** Number of minutes in a day */
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * Converts a {@link LocalDateTime} into minutes since the clinic epoch.
+     * Seconds and smaller units are truncated.
+     *
+     * @param dateTime the date and time to convert
+     * @return the number of whole minutes between the clinic epoch and the given time
+     */
+    public static int toEpochMinute(LocalDateTime dateTime) {
+        return Math.toIntExact(ChronoUnit.MINUTES.between(EPOCH, dateTime.truncatedTo(ChronoUnit.MINUTES)));
+    }
+
+    /**
+     * Converts minutes since the clinic epoch back into a {@link LocalDateTime}.
+     *
+     * @param epochMinute the number of minutes since the clinic epoch
+     * @return the corresponding local date and time
+     */
+    public static LocalDateTime toLocalDateTime(int epochMinute) {
+        return EPOCH.plusMinutes(epochMinute);
+    }
+
+    /**
+     * Returns the number of days since the clinic epoch for the given epoch minute.
+     *
+     * @param epochMinute the number of minutes since the clinic epoch
+     * @return the day number, rounding towards negative infinity for times before the epoch
+     */
+    public static int toEpochDay(int epochMinute) {
+        return Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+    }
+}
@@ -0,0 +1,235 @@
+package com.boostphysioclinic.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Counts per {@code int} key, kept in order of count so the highest counts can be read without sorting.
+ * <p>
+ * Keys with the same count share a bucket, and the non-empty buckets form a list ordered by count. Incrementing or
+ * decrementing a key moves it to the neighbouring bucket, creating that bucket if it does not exist yet, so both
+ * take constant time. Reading the top {@code k} keys walks down from the highest bucket and takes O(k) time however
+ * many keys there are. Keys with the same count come out in the order they reached that count.
+ * Keys whose count drops to zero are removed.
+ * </p>
+ * <p>
+ * Only one thread may use a ranking at a time.
+ * </p>
+ */
+public final class CountRanking {
+    private final Map<Integer, Node> nodes = new HashMap<>();
+    private Bucket lowest;
+    private Bucket highest;
+
+    /**
+     * Adds one to a key's count.
+     *
+     * @param key the key
+     */
+    public void increment(int key) {
+        add(key, 1);
+    }
+
+    /**
+     * Adds a positive amount to a key's count.
+     * The time taken grows with the number of distinct counts the key passes, so prefer {@link #increment}
+     * for single steps.
+     *
+     * @param key    the key
+     * @param amount the amount to add
+     * @throws IllegalArgumentException if the amount is not positive
+     */
+    public void add(int key, int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + amount);
+        }
+        Node node = nodes.get(key);
+        if (node == null) {
+            node = new Node(key);
+            nodes.put(key, node);
+            moveTo(node, bucketAtOrAbove(null, amount));
+        } else {
+            Bucket from = node.bucket;
+            moveTo(node, bucketAtOrAbove(from, from.count + amount));
+        }
+    }
+
+    /**
+     * Subtracts one from a key's count, removing the key when its count reaches zero.
+     * Keys that are not counted are ignored.
+     *
+     * @param key the key
+     */
+    public void decrement(int key) {
+        Node node = nodes.get(key);
+        if (node == null) {
+            return;
+        }
+        Bucket from = node.bucket;
+        if (from.count == 1) {
+            unlink(node);
+            nodes.remove(key);
+            return;
+        }
+
+        Bucket target = from.lower;
+        if (target == null || target.count != from.count - 1) {
+            target = insertBucket(from.count - 1, target, from);
+        }
+        moveTo(node, target);
+    }
+
+    /**
+     * Returns a key's count.
+     *
+     * @param key the key
+     * @return the count, or 0 if the key is not counted
+     */
+    public int count(int key) {
+        Node node = nodes.get(key);
+        return node == null ? 0 : node.bucket.count;
+    }
+
+    /**
+     * Returns the number of keys with a count above zero.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the keys from the highest count down. The iterator must not be used after the ranking changes.
+     *
+     * @return an iterator over the keys in descending order of count
+     */
+    public PrimitiveIterator.OfInt descendingKeys() {
+        return new PrimitiveIterator.OfInt() {
+            private Node next = highest == null ? null : highest.head;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Node current = next;
+                if (current.next != null) {
+                    next = current.next;
+                } else {
+                    next = current.bucket.lower == null ? null : current.bucket.lower.head;
+                }
+                return current.key;
+            }
+        };
+    }
+
+    /**
+     * Returns the bucket with the given count, creating it if needed, searching upwards from {@code from}
+     * or from the lowest bucket when {@code from} is {@code null}.
+     */
+    private Bucket bucketAtOrAbove(Bucket from, int count) {
+        Bucket below = from;
+        Bucket candidate = from == null ? lowest : from.higher;
+        while (candidate != null && candidate.count < count) {
+            below = candidate;
+            candidate = candidate.higher;
+        }
+        if (candidate != null && candidate.count == count) {
+            return candidate;
+        }
+        return insertBucket(count, below, candidate);
+    }
+
+    private Bucket insertBucket(int count, Bucket lower, Bucket higher) {
+        Bucket bucket = new Bucket(count);
+        bucket.lower = lower;
+        bucket.higher = higher;
+        if (lower == null) {
+            lowest = bucket;
+        } else {
+            lower.higher = bucket;
+        }
+        if (higher == null) {
+            highest = bucket;
+        } else {
+            higher.lower = bucket;
+        }
+        return bucket;
+    }
+
+    private void moveTo(Node node, Bucket target) {
+        if (node.bucket != null) {
+            unlink(node);
+        }
+        node.bucket = target;
+        node.prev = target.tail;
+        node.next = null;
+        if (target.tail == null) {
+            target.head = node;
+        } else {
+            target.tail.next = node;
+        }
+        target.tail = node;
+    }
+
+    private void unlink(Node node) {
+        Bucket bucket = node.bucket;
+        if (node.prev == null) {
+            bucket.head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            bucket.tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.bucket = null;
+        node.prev = null;
+        node.next = null;
+
+        if (bucket.head == null) {
+            if (bucket.lower == null) {
+                lowest = bucket.higher;
+            } else {
+                bucket.lower.higher = bucket.higher;
+            }
+            if (bucket.higher == null) {
+                highest = bucket.lower;
+            } else {
+                bucket.higher.lower = bucket.lower;
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private final int count;
+        private Bucket lower;
+        private Bucket higher;
+        private Node head;
+        private Node tail;
+
+        private Bucket(int count) {
+            this.count = count;
+        }
+    }
+
+    private static final class Node {
+        private final int key;
+        private Bucket bucket;
+        private Node prev;
+        private Node next;
+
+        private Node(int key) {
+            this.key = key;
+        }
+    }
+}
@@ -1,34 +1,157 @@
 package com.boostphysioclinic.util;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.nio.file.Path;
 
 /**
- * Generates thread-safe, incrementing 5-digit numeric IDs for patients and appointments.
+ * Generates thread-safe, incrementing numeric IDs for personnel and appointments.
  * <p>
- * IDs start at 10000 and increment by 1 for each call. The counters are independent for patients
- * and appointments. Note that IDs will eventually exceed 5 digits (e.g., 100000) after 90,000
- * generations.
+ * Each ID is made of a node component and a sequence number: {@code nodeId * NODE_ID_STRIDE + sequence}.
+ * Sequence numbers start at 10000, so node 0 hands out the familiar 5-digit IDs (10000, 10001, ...) while
+ * other nodes get IDs such as 300010000 for node 3. The counters are independent for personnel and appointments.
+ * </p>
+ * <p>
+ * By default IDs are only tracked in memory and start again from 10000 when the application restarts.
+ * After {@link #configure(int, Path)} the generator leases blocks of sequence numbers from a local lease file
+ * instead, so a restarted node never hands out an ID it has used before. Allocation inside a lease is a single
+ * atomic increment; the file is only touched when a block runs out.
+ * </p>
+ * <p>
+ * The static methods use one application-wide default generator. Independent generators, for example one per
+ * clinic, can be created with {@link #inMemory()} or {@link #leased(int, Path, int)} and passed to the services.
  * </p>
  */
 public class IdGenerator {
-    private static final AtomicInteger personnelIdCounter = new AtomicInteger(9999);
-    private static final AtomicInteger appointmentIdCounter = new AtomicInteger(9999);
+    /** Distance between the IDs of two neighbouring nodes. Also the number of sequence numbers per node. */
+    public static final int NODE_ID_STRIDE = 100_000_000;
+
+    /** The highest supported node id, limited by the range of {@code int} */
+    public static final int MAX_NODE_ID = Integer.MAX_VALUE / NODE_ID_STRIDE - 1;
+
+    /** Number of sequence numbers leased from the lease file at a time */
+    public static final int DEFAULT_LEASE_BLOCK_SIZE = 10_000;
+
+    /** The first sequence number handed out on every node */
+    static final int FIRST_SEQUENCE = 10_000;
+
+    private static volatile IdGenerator defaultGenerator = inMemory();
+
+    private final IdSequence personnelIdCounter;
+    private final IdSequence appointmentIdCounter;
+
+    private IdGenerator(IdSequence personnelIdCounter, IdSequence appointmentIdCounter) {
+        this.personnelIdCounter = personnelIdCounter;
+        this.appointmentIdCounter = appointmentIdCounter;
+    }
+
+    /**
+     * Creates a generator that only tracks IDs in memory for node 0. Both counters start at 10000.
+     *
+     * @return a new, independent generator
+     */
+    public static IdGenerator inMemory() {
+        return new IdGenerator(IdSequence.inMemory(0), IdSequence.inMemory(0));
+    }
 
     /**
-     * Generates a new patient ID.
+     * Creates a generator that leases blocks of IDs for the given node from a lease file.
      *
-     * @return the next 5-digit patient ID (starting at 10000)
+     * @param nodeId         the id of this node, from 0 to {@link #MAX_NODE_ID}
+     * @param leaseFile      the local file recording which IDs this node has already leased
+     * @param leaseBlockSize the number of IDs to lease from the file at a time
+     * @return a new generator holding a freshly leased block for each counter
+     * @throws IllegalArgumentException if the node id or block size is out of range
+     * @throws IllegalStateException    if the lease file belongs to another node or cannot be used
+     */
+    public static IdGenerator leased(int nodeId, Path leaseFile, int leaseBlockSize) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        if (leaseBlockSize <= 0) {
+            throw new IllegalArgumentException("Lease block size must be positive");
+        }
+
+        IdLeaseStore store = new IdLeaseStore(leaseFile, nodeId);
+        return new IdGenerator(
+                IdSequence.leased(nodeId, store, "personnel", leaseBlockSize),
+                IdSequence.leased(nodeId, store, "appointment", leaseBlockSize));
+    }
+
+    /**
+     * Returns the application-wide generator used by the static methods and by services
+     * that were not given a generator of their own.
+     *
+     * @return the default generator
+     */
+    public static IdGenerator getDefault() {
+        return defaultGenerator;
+    }
+
+    /**
+     * Generates a new personnel ID from this generator.
+     *
+     * @return the next personnel ID
+     */
+    public int nextPersonnelId() {
+        return personnelIdCounter.next();
+    }
+
+    /**
+     * Generates a new appointment ID from this generator.
+     *
+     * @return the next appointment ID
+     */
+    public int nextAppointmentId() {
+        return appointmentIdCounter.next();
+    }
+
+    /**
+     * Generates a new personnel ID from the default generator.
+     *
+     * @return the next personnel ID (starting at 10000 on node 0)
      */
     public static int generatePersonnelId() {
-        return personnelIdCounter.incrementAndGet();
+        return defaultGenerator.nextPersonnelId();
     }
 
     /**
-     * Generates a new appointment ID.
+     * Generates a new appointment ID from the default generator.
      *
-     * @return the next 5-digit appointment ID (starting at 10000)
+     * @return the next appointment ID (starting at 10000 on node 0)
      */
     public static int generateAppointmentId() {
-        return appointmentIdCounter.incrementAndGet();
+        return defaultGenerator.nextAppointmentId();
+    }
+
+    /**
+     * Switches the default generator to in-memory ID generation for node 0. Both counters start again at 10000.
+     */
+    public static void configureInMemory() {
+        defaultGenerator = inMemory();
+    }
+
+    /**
+     * Switches the default generator to leased ID generation for the given node,
+     * using blocks of {@link #DEFAULT_LEASE_BLOCK_SIZE} IDs.
+     *
+     * @param nodeId    the id of this node, from 0 to {@link #MAX_NODE_ID}
+     * @param leaseFile the local file recording which IDs this node has already leased
+     * @throws IllegalArgumentException if the node id is out of range
+     * @throws IllegalStateException    if the lease file belongs to another node or cannot be used
+     */
+    public static void configure(int nodeId, Path leaseFile) {
+        configure(nodeId, leaseFile, DEFAULT_LEASE_BLOCK_SIZE);
+    }
+
+    /**
+     * Switches the default generator to leased ID generation for the given node.
+     *
+     * @param nodeId         the id of this node, from 0 to {@link #MAX_NODE_ID}
+     * @param leaseFile      the local file recording which IDs this node has already leased
+     * @param leaseBlockSize the number of IDs to lease from the file at a time
+     * @throws IllegalArgumentException if the node id or block size is out of range
+     * @throws IllegalStateException    if the lease file belongs to another node or cannot be used
+     */
+    public static void configure(int nodeId, Path leaseFile, int leaseBlockSize) {
+        defaultGenerator = leased(nodeId, leaseFile, leaseBlockSize);
     }
-}
\ No newline at end of file
+}
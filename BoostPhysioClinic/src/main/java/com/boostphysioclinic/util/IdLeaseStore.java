@@ -0,0 +1,119 @@
+package com.boostphysioclinic.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Records the blocks of ID sequence numbers a node has leased in a local properties file.
+ * <p>
+ * For every sequence the file stores the first sequence number that has not been leased yet. Leasing a block
+ * moves that mark forward and writes the file back before the block is used, so a node that crashes or restarts
+ * skips the rest of its last block rather than reusing it. Updates replace the file atomically and hold an
+ * exclusive lock on a companion {@code .lock} file, so two processes sharing the file never lease the same block.
+ * </p>
+ */
+final class IdLeaseStore {
+    private static final String NODE_ID_KEY = "nodeId";
+
+    private final Path leaseFile;
+    private final Path lockFile;
+    private final int nodeId;
+
+    /**
+     * Creates a lease store for the given node.
+     *
+     * @param leaseFile the file recording leased blocks
+     * @param nodeId    the id of the node that owns the file
+     * @throws IllegalStateException if the file already belongs to a different node
+     */
+    IdLeaseStore(Path leaseFile, int nodeId) {
+        this.leaseFile = leaseFile.toAbsolutePath();
+        this.lockFile = this.leaseFile.resolveSibling(this.leaseFile.getFileName() + ".lock");
+        this.nodeId = nodeId;
+
+        String recordedNodeId = withLock(() -> load().getProperty(NODE_ID_KEY));
+        if (recordedNodeId != null && Integer.parseInt(recordedNodeId) != nodeId) {
+            throw new IllegalStateException("Lease file " + leaseFile + " belongs to node " + recordedNodeId);
+        }
+    }
+
+    /**
+     * Leases the next block of sequence numbers.
+     *
+     * @param sequenceName the name of the sequence to lease from
+     * @param blockSize    the number of sequence numbers to lease
+     * @return the first sequence number of the leased block
+     * @throws IllegalStateException if the node has run out of sequence numbers
+     * @throws UncheckedIOException  if the lease file cannot be read or written
+     */
+    synchronized int lease(String sequenceName, int blockSize) {
+        return withLock(() -> {
+            Properties properties = load();
+            String key = sequenceName + ".next";
+            int start = Integer.parseInt(properties.getProperty(key, String.valueOf(IdGenerator.FIRST_SEQUENCE)));
+
+            if ((long) start + blockSize > IdGenerator.NODE_ID_STRIDE) {
+                throw new IllegalStateException("No " + sequenceName + " IDs left for node " + nodeId);
+            }
+
+            properties.setProperty(NODE_ID_KEY, String.valueOf(nodeId));
+            properties.setProperty(key, String.valueOf(start + blockSize));
+            store(properties);
+            return start;
+        });
+    }
+
+    private Properties load() {
+        Properties properties = new Properties();
+        if (Files.exists(leaseFile)) {
+            try (InputStream in = Files.newInputStream(leaseFile)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read lease file " + leaseFile, e);
+            }
+        }
+        return properties;
+    }
+
+    private void store(Properties properties) {
+        Path tempFile = leaseFile.resolveSibling(leaseFile.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 OutputStream out = Channels.newOutputStream(channel)) {
+                properties.store(out, "Leased ID blocks for node " + nodeId);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tempFile, leaseFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write lease file " + leaseFile, e);
+        }
+    }
+
+    private <T> T withLock(Supplier<T> action) {
+        try {
+            Path parent = leaseFile.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                return action.get();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not lock lease file " + leaseFile, e);
+        }
+    }
+}
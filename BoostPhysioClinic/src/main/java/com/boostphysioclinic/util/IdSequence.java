@@ -0,0 +1,90 @@
+package com.boostphysioclinic.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A counter handing out the IDs of one kind (personnel or appointments) on one node.
+ * <p>
+ * The counter works through a lease: a range of sequence numbers it may hand out. Each lease has its own
+ * atomic counter, so a thread that races past the end of a lease can never hand out a number from the next one.
+ * In-memory sequences get a single lease covering every sequence number of the node.
+ * </p>
+ */
+final class IdSequence {
+    private final int nodeBase;
+    private final IdLeaseStore store;
+    private final String name;
+    private final int leaseBlockSize;
+    private volatile Lease lease;
+
+    private IdSequence(int nodeId, IdLeaseStore store, String name, int leaseBlockSize, Lease lease) {
+        this.nodeBase = nodeId * IdGenerator.NODE_ID_STRIDE;
+        this.store = store;
+        this.name = name;
+        this.leaseBlockSize = leaseBlockSize;
+        this.lease = lease;
+    }
+
+    /**
+     * Creates a sequence that is only tracked in memory.
+     *
+     * @param nodeId the id of the node the sequence belongs to
+     * @return a sequence starting at the first sequence number of the node
+     */
+    static IdSequence inMemory(int nodeId) {
+        return new IdSequence(nodeId, null, null, 0,
+                new Lease(IdGenerator.FIRST_SEQUENCE, IdGenerator.NODE_ID_STRIDE - 1));
+    }
+
+    /**
+     * Creates a sequence that leases blocks of sequence numbers from a lease store.
+     *
+     * @param nodeId         the id of the node the sequence belongs to
+     * @param store          the store recording leased blocks
+     * @param name           the name of the sequence in the store
+     * @param leaseBlockSize the number of sequence numbers to lease at a time
+     * @return a sequence holding a freshly leased block
+     */
+    static IdSequence leased(int nodeId, IdLeaseStore store, String name, int leaseBlockSize) {
+        int start = store.lease(name, leaseBlockSize);
+        return new IdSequence(nodeId, store, name, leaseBlockSize, new Lease(start, start + leaseBlockSize - 1));
+    }
+
+    /**
+     * Returns the next ID of this sequence.
+     *
+     * @return the next ID, including the node component
+     * @throws IllegalStateException if the node has run out of sequence numbers
+     */
+    int next() {
+        while (true) {
+            Lease current = lease;
+            int sequence = current.next.incrementAndGet();
+            if (sequence <= current.end && sequence > 0) {
+                return nodeBase + sequence;
+            }
+            renew(current);
+        }
+    }
+
+    private synchronized void renew(Lease exhausted) {
+        if (lease != exhausted) {
+            return; // another thread already renewed it
+        }
+        if (store == null) {
+            throw new IllegalStateException("No IDs left for this node");
+        }
+        int start = store.lease(name, leaseBlockSize);
+        lease = new Lease(start, start + leaseBlockSize - 1);
+    }
+
+    private static final class Lease {
+        private final AtomicInteger next;
+        private final int end;
+
+        private Lease(int start, int end) {
+            this.next = new AtomicInteger(start - 1);
+            this.end = end;
+        }
+    }
+}
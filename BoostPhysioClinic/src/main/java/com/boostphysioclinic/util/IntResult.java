@@ -0,0 +1,124 @@
+package com.boostphysioclinic.util;
+
+/**
+ * A variant of {@link Result} for operations that return a single {@code int}, such as a new id.
+ * <p>
+ * The value is stored as a primitive, so a success never boxes it. Errors are enum constants and
+ * their results are pre-allocated and shared, so a failed operation creates no objects at all.
+ * </p>
+ *
+ * @param <E> the enum type of error returned on failure
+ */
+public final class IntResult<E extends Enum<E>> {
+    private final int data;
+    private final E error;
+
+    /** Shared error results for every constant of each enum used as an error type, indexed by ordinal */
+    private static final ClassValue<IntResult<?>[]> ENUM_ERRORS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected IntResult<?>[] computeValue(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            IntResult<?>[] results = new IntResult<?>[constants.length];
+            for (int i = 0; i < constants.length; i++) {
+                results[i] = new IntResult(0, (Enum) constants[i]);
+            }
+            return results;
+        }
+    };
+
+    private IntResult(int data, E error) {
+        this.data = data;
+        this.error = error;
+    }
+
+    /**
+     * Creates a success result with the given value.
+     *
+     * @param data the value of the successful operation
+     * @param <E>  the type of error
+     * @return an IntResult instance representing success
+     */
+    public static <E extends Enum<E>> IntResult<E> success(int data) {
+        return new IntResult<>(data, null);
+    }
+
+    /**
+     * Returns the shared error result for the given error.
+     *
+     * @param error the error of the failed operation
+     * @param <E>   the type of error
+     * @return an IntResult instance representing an error
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> IntResult<E> error(E error) {
+        return (IntResult<E>) ENUM_ERRORS.get(error.getDeclaringClass())[error.ordinal()];
+    }
+
+    /**
+     * Returns true if the result is a success.
+     *
+     * @return true if the result is a success, false otherwise
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Returns true if the result is an error.
+     *
+     * @return true if the result is an error, false otherwise
+     */
+    public boolean isError() {
+        return error != null;
+    }
+
+    /**
+     * Retrieves the value if the result is a success.
+     *
+     * @return the value if the result is a success
+     * @throws IllegalStateException if the result is an error
+     */
+    public int getData() {
+        if (error != null) {
+            throw new IllegalStateException("Result is an error");
+        }
+        return data;
+    }
+
+    /**
+     * Retrieves the error if the result is an error.
+     *
+     * @return the error if the result is an error
+     * @throws IllegalStateException if the result is a success
+     */
+    public E getError() {
+        if (error == null) {
+            throw new IllegalStateException("Result is a success");
+        }
+        return error;
+    }
+
+    /**
+     * Converts this result into an equivalent {@link Result}, boxing the value on success.
+     *
+     * @return a Result holding the same value or error
+     */
+    public Result<Integer, E> toResult() {
+        return error == null ? Result.success(data) : Result.error(error);
+    }
+
+    /**
+     * Returns the string representation of the result, including data, error, and success status.
+     *
+     * @return a string representing the result
+     */
+    @Override
+    public String toString() {
+        return "IntResult{" +
+                "data=" + data +
+                ", error=" + error +
+                ", isSuccess=" + isSuccess() +
+                '}';
+    }
+}
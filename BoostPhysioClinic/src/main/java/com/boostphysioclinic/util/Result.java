@@ -3,6 +3,10 @@ package com.boostphysioclinic.util;
 /**
  * A generic class that encapsulates the result of an operation.
  * It can either represent a success with associated data or an error with an error message.
+ * <p>
+ * Results are immutable. Errors that are enum constants and successes without a value are
+ * pre-allocated and shared, so returning them never creates a new object.
+ * </p>
  *
  * @param <T> the type of data returned on success
  * @param <E> the type of error returned on failure
@@ -12,7 +16,23 @@ public class Result<T, E> {
     private final E error;
     private final boolean isSuccess;
 
-    public static Object NO_VALUE = new Object();
+    /** Placeholder data for successful operations that have nothing to return */
+    public static final Object NO_VALUE = new Object();
+
+    private static final Result<Object, Object> SUCCESS_NO_VALUE = new Result<>(NO_VALUE, null, true);
+
+    /** Shared error results for every constant of each enum used as an error type, indexed by ordinal */
+    private static final ClassValue<Result<?, ?>[]> ENUM_ERRORS = new ClassValue<>() {
+        @Override
+        protected Result<?, ?>[] computeValue(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            Result<?, ?>[] results = new Result<?, ?>[constants.length];
+            for (int i = 0; i < constants.length; i++) {
+                results[i] = new Result<>(null, constants[i], false);
+            }
+            return results;
+        }
+    };
 
     /**
      * Private constructor for creating a result with data, error, and success status.
@@ -36,18 +56,37 @@ public class Result<T, E> {
      * @return a Result instance representing success
      */
     public static <T, E> Result<T, E> success(T data) {
+        if (data == NO_VALUE) {
+            return success();
+        }
         return new Result<>(data, null, true);
     }
 
+    /**
+     * Returns the shared success result carrying {@link #NO_VALUE}.
+     *
+     * @param <T> the type of data
+     * @param <E> the type of error
+     * @return a Result instance representing success with no data
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, E> Result<T, E> success() {
+        return (Result<T, E>) SUCCESS_NO_VALUE;
+    }
+
     /**
      * Creates an error result with the given error message.
      *
      * @param error the error of the failed operation
      * @param <T>   the type of data
      * @param <E>   the type of error
-     * @return a Result instance representing an error
+     * @return a Result instance representing an error, shared when the error is an enum constant
      */
+    @SuppressWarnings("unchecked")
     public static <T, E> Result<T, E> error(E error) {
+        if (error instanceof Enum<?> constant) {
+            return (Result<T, E>) ENUM_ERRORS.get(constant.getDeclaringClass())[constant.ordinal()];
+        }
         return new Result<>(null, error, false);
     }
 
@@ -0,0 +1,123 @@
+package com.boostphysioclinic.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * A list that one writer changes and any number of readers see through immutable, versioned snapshots.
+ * <p>
+ * Elements are kept in an array that is only ever appended to in place: a snapshot holds the array and the
+ * size at the time it was taken, and the writer never changes the first {@code size} elements of an array that
+ * has been published. Appending therefore copies nothing except when the array has to grow, and removing, which
+ * is rare, copies the remaining elements into a new array. Each change publishes a new snapshot with a volatile
+ * write, so {@link #snapshot()} is a single read, never blocks the writer and never copies.
+ * </p>
+ * <p>
+ * Only one thread may change the list at a time; any thread may take snapshots.
+ * </p>
+ *
+ * @param <T> the type of elements
+ */
+public final class SnapshotList<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] elements = new Object[INITIAL_CAPACITY];
+    private int size;
+    private long version;
+    private volatile Snapshot<T> current = new Snapshot<>(elements, 0, 0);
+
+    /**
+     * Returns the list as it is now. The snapshot never changes, however the list changes afterwards.
+     *
+     * @return an immutable view of the current elements
+     */
+    public Snapshot<T> snapshot() {
+        return current;
+    }
+
+    /**
+     * Appends an element.
+     *
+     * @param element the element to add
+     */
+    public void add(T element) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = element;
+        publish();
+    }
+
+    /**
+     * Removes every element that matches the predicate.
+     *
+     * @param filter the predicate selecting the elements to remove
+     * @return {@code true} if any element was removed
+     */
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super T> filter) {
+        Object[] kept = new Object[elements.length];
+        int keptSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (!filter.test((T) elements[i])) {
+                kept[keptSize++] = elements[i];
+            }
+        }
+        if (keptSize == size) {
+            return false;
+        }
+
+        // Published arrays are never changed, so removal must not compact the current one in place
+        elements = kept;
+        size = keptSize;
+        publish();
+        return true;
+    }
+
+    private void publish() {
+        current = new Snapshot<>(elements, size, ++version);
+    }
+
+    /**
+     * An immutable view of a {@link SnapshotList} at one point in time.
+     *
+     * @param <T> the type of elements
+     */
+    public static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[] elements;
+        private final int size;
+        private final long version;
+
+        private Snapshot(Object[] elements, int size, long version) {
+            this.elements = elements;
+            this.size = size;
+            this.version = version;
+        }
+
+        /**
+         * Returns the version of the list this snapshot was taken at. Every change to the list increments it,
+         * so two snapshots with the same version hold the same elements.
+         *
+         * @return the version
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return (T) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
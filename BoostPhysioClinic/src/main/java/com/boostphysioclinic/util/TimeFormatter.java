@@ -6,6 +6,12 @@ import java.time.format.DateTimeFormatter;
 /**
  * Utility class for formatting {@link LocalDateTime} objects into
  * a readable string format.
+ * <p>
+ * Slot times repeat a lot (every report row for the same slot shows the same text), so formatted
+ * values are kept in a small fixed-size cache keyed by clinic epoch minute. Each time maps to one
+ * cache entry; a newer time that lands on an occupied entry simply replaces it, which keeps memory
+ * bounded no matter how many distinct times are formatted.
+ * </p>
  */
 public class TimeFormatter {
 
@@ -13,6 +19,11 @@ public class TimeFormatter {
     private static final DateTimeFormatter formatter =
             DateTimeFormatter.ofPattern("EEEE, dd MMMM yyyy - h:mm a");
 
+    /** Number of bits used to index the cache, giving 4096 cached formatted times */
+    private static final int CACHE_BITS = 12;
+
+    private static final CachedTime[] cache = new CachedTime[1 << CACHE_BITS];
+
     /**
      * Formats the given {@link LocalDateTime} into a string representation.
      *
@@ -20,6 +31,52 @@ public class TimeFormatter {
      * @return a formatted string of the date and time
      */
     public static String formatTime(LocalDateTime time) {
-        return time.format(formatter);
+        return formatEpochMinute(ClinicTime.toEpochMinute(time));
+    }
+
+    /**
+     * Formats a time given in minutes since the clinic epoch into a string representation.
+     *
+     * @param epochMinute the number of minutes since the clinic epoch
+     * @return a formatted string of the date and time
+     */
+    public static String formatEpochMinute(int epochMinute) {
+        int index = mix(epochMinute) & ((1 << CACHE_BITS) - 1);
+        CachedTime cached = cache[index];
+        if (cached != null && cached.epochMinute == epochMinute) {
+            return cached.text;
+        }
+
+        String text = ClinicTime.toLocalDateTime(epochMinute).format(formatter);
+        cache[index] = new CachedTime(epochMinute, text);
+        return text;
+    }
+
+    /**
+     * Scrambles the bits of an epoch minute. Slot times are usually whole hours, which would otherwise
+     * only ever land on a fraction of the cache entries.
+     */
+    private static int mix(int epochMinute) {
+        int h = epochMinute;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * An immutable cache entry. All fields are final so entries can be safely shared between threads
+     * without locking; a thread that misses another thread's write just formats the time again.
+     */
+    private static final class CachedTime {
+        private final int epochMinute;
+        private final String text;
+
+        private CachedTime(int epochMinute, String text) {
+            this.epochMinute = epochMinute;
+            this.text = text;
+        }
     }
 }
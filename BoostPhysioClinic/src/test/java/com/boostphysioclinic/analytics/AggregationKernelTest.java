@@ -0,0 +1,50 @@
+package com.boostphysioclinic.analytics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class AggregationKernelTest {
+
+    @Test
+    void best_usesTheVectorKernelWhenTheModuleIsPresent() {
+        boolean vectorAvailable = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                && VectorAggregationKernel.isSupported();
+        assertEquals(vectorAvailable, AggregationKernels.best().getName().startsWith("vector"));
+    }
+
+    @Test
+    void best_matchesTheScalarKernel_forEverySizeAndTail() {
+        AggregationKernel best = AggregationKernels.best();
+        AggregationKernel scalar = AggregationKernels.scalar();
+        Random random = new Random(11);
+        int[] physiotherapistIds = new int[1_000];
+        byte[] statuses = new byte[1_000];
+        for (int i = 0; i < physiotherapistIds.length; i++) {
+            physiotherapistIds[i] = 10_000 + random.nextInt(4);
+            statuses[i] = (byte) random.nextInt(3);
+        }
+
+        for (int size = 0; size <= 200; size++) {
+            for (byte status = 0; status < 3; status++) {
+                assertEquals(scalar.countMatching(physiotherapistIds, statuses, size, 10_002, status),
+                        best.countMatching(physiotherapistIds, statuses, size, 10_002, status));
+            }
+            assertArrayEquals(scalar.countByStatus(statuses, size, 3), best.countByStatus(statuses, size, 3));
+        }
+        assertEquals(scalar.countMatching(physiotherapistIds, statuses, 1_000, 10_001, (byte) 2),
+                best.countMatching(physiotherapistIds, statuses, 1_000, 10_001, (byte) 2));
+    }
+
+    @Test
+    void scalar_countsMatchingRows() {
+        int[] physiotherapistIds = {1, 2, 1, 1, 2};
+        byte[] statuses = {2, 2, 0, 2, 1};
+
+        assertEquals(2, AggregationKernels.scalar().countMatching(physiotherapistIds, statuses, 5, 1, (byte) 2));
+        assertEquals(1, AggregationKernels.scalar().countMatching(physiotherapistIds, statuses, 3, 1, (byte) 2));
+        assertArrayEquals(new int[]{1, 1, 3}, AggregationKernels.scalar().countByStatus(statuses, 5, 3));
+    }
+}
@@ -0,0 +1,144 @@
+package com.boostphysioclinic.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.services.ClinicRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class ClinicHttpServerTest {
+    private ClinicRouter router;
+    private ClinicHttpServer server;
+    private HttpClient client;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        router = new ClinicRouter();
+        router.addClinic("main");
+        router.route("main", services -> {
+            services.getTimeTableService().generateSampleData();
+            return null;
+        }).join();
+
+        server = new ClinicHttpServer(router, new InetSocketAddress("localhost", 0));
+        server.start();
+        client = HttpClient.newHttpClient();
+        baseUrl = "http://localhost:" + server.getPort() + "/clinics";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        router.close();
+    }
+
+    @Test
+    void getClinics_listsClinicIds() throws Exception {
+        HttpResponse<String> response = get("");
+        assertEquals(200, response.statusCode());
+        assertEquals("[\"main\"]", response.body());
+    }
+
+    @Test
+    void unknownClinic_returnsNotFound() throws Exception {
+        HttpResponse<String> response = get("/paris/patients/10000");
+        assertEquals(404, response.statusCode());
+        assertEquals("{\"error\":\"CLINIC_NOT_FOUND\"}", response.body());
+    }
+
+    @Test
+    void registerPatient_invalidTelephone_returnsServiceError() throws Exception {
+        HttpResponse<String> response = post("/main/patients",
+                "fullName=Test+Patient&address=1+High+Street&telephone=abc");
+        assertEquals(400, response.statusCode());
+        assertEquals("{\"error\":\"INVALID_TELEPHONE\"}", response.body());
+    }
+
+    @Test
+    void bookCancelRebookAttend_fullLifecycle() throws Exception {
+        HttpResponse<String> patient = post("/main/patients",
+                "fullName=Test+Patient&address=1+High+Street&telephone=%2B441234567890");
+        assertEquals(201, patient.statusCode());
+        int patientId = extractInt(patient.body(), "id");
+
+        HttpResponse<String> physios = get("/main/physiotherapists?name=Alice");
+        int physioId = extractInt(physios.body(), "id");
+
+        HttpResponse<String> availability = get("/main/physiotherapists/" + physioId + "/availability");
+        assertEquals(200, availability.statusCode());
+        String time = extractString(availability.body(), "time");
+
+        HttpResponse<String> booked = post("/main/appointments",
+                "patientId=" + patientId + "&physiotherapistId=" + physioId + "&time=" + time);
+        assertEquals(201, booked.statusCode());
+        int appointmentId = extractInt(booked.body(), "id");
+        assertTrue(booked.body().contains("\"status\":\"Booked\""));
+
+        HttpResponse<String> doubleBooked = post("/main/appointments",
+                "patientId=" + patientId + "&physiotherapistId=" + physioId + "&time=" + time);
+        assertEquals(409, doubleBooked.statusCode());
+        assertTrue(doubleBooked.body().contains("TIMETABLE_SLOT_ALREADY_BOOKED"));
+
+        assertTrue(post("/main/appointments/" + appointmentId + "/cancel", "").body().contains("Cancelled"));
+        assertTrue(post("/main/appointments/" + appointmentId + "/rebook", "").body().contains("Booked"));
+        assertTrue(post("/main/appointments/" + appointmentId + "/attend", "").body().contains("Attended"));
+
+        HttpResponse<String> report = get("/main/reports/physiotherapists");
+        assertTrue(report.body().contains("\"attendedAppointments\":1"));
+    }
+
+    @Test
+    void concurrentRequests_allSucceed() throws Exception {
+        int requests = 2000;
+        List<Future<Integer>> statuses = new ArrayList<>(requests);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                String path = i % 2 == 0 ? "/main/physiotherapists" : "/main/reports/treatments";
+                statuses.add(clients.submit(() -> get(path).statusCode()));
+            }
+            for (Future<Integer> status : statuses) {
+                assertEquals(200, status.get());
+            }
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String form) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int extractInt(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\":(\\d+)").matcher(json);
+        assertTrue(matcher.find(), "No " + name + " in " + json);
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private static String extractString(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\":\"([^\"]+)\"").matcher(json);
+        assertTrue(matcher.find(), "No " + name + " in " + json);
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,213 @@
+package com.boostphysioclinic.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.services.AppointmentService;
+import com.boostphysioclinic.services.ServiceContainer;
+import com.boostphysioclinic.util.IdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+class DomainEventBusTest {
+
+    @Test
+    void capacity_mustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new DomainEventBus(0));
+        assertThrows(IllegalArgumentException.class, () -> new DomainEventBus(12));
+    }
+
+    @Test
+    void publishWithoutConsumers_neverWaits() {
+        DomainEventBus bus = new DomainEventBus(8);
+
+        for (int i = 0; i < 1000; i++) {
+            bus.publish(DomainEventType.PATIENT_ADDED, 0, i, 0, 0);
+        }
+
+        assertEquals(999, bus.getCursor());
+    }
+
+    @Test
+    void everyConsumerSeesEveryEventInOrder_acrossManyWraps() throws Exception {
+        DomainEventBus bus = new DomainEventBus(16);
+        int events = 200_000;
+        long[] sums = new long[2];
+        boolean[] ordered = {true, true};
+        for (int c = 0; c < 2; c++) {
+            int consumer = c;
+            long[] expected = {0};
+            bus.addConsumer("test-" + c, (event, sequence, endOfBatch) -> {
+                if (sequence != expected[0]++ || event.getPatientId() != (int) sequence) {
+                    ordered[consumer] = false;
+                }
+                sums[consumer] += event.getPatientId();
+            });
+        }
+
+        for (int i = 0; i < events; i++) {
+            bus.publish(DomainEventType.PATIENT_ADDED, 0, i, 0, 0);
+        }
+        bus.close();
+
+        long expectedSum = (long) events * (events - 1) / 2;
+        assertTrue(ordered[0] && ordered[1]);
+        assertEquals(expectedSum, sums[0]);
+        assertEquals(expectedSum, sums[1]);
+    }
+
+    @Test
+    void slowConsumer_holdsThePublisherBackInsteadOfLosingEvents() throws Exception {
+        DomainEventBus bus = new DomainEventBus(4);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        bus.addConsumer("slow", (event, sequence, endOfBatch) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            seen.add(event.getPatientId());
+        });
+
+        Thread publisher = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                bus.publish(DomainEventType.PATIENT_ADDED, 0, i, 0, 0);
+            }
+        });
+        publisher.start();
+        publisher.join(200);
+
+        assertTrue(publisher.isAlive(), "publisher should wait for a full buffer");
+        assertTrue(bus.getCursor() < 8);
+
+        release.countDown();
+        publisher.join();
+        bus.close();
+        assertEquals(20, seen.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, seen.get(i));
+        }
+    }
+
+    @Test
+    void failingHandler_keepsConsuming() throws Exception {
+        DomainEventBus bus = new DomainEventBus(8);
+        AtomicLong handled = new AtomicLong();
+        bus.addConsumer("failing", (event, sequence, endOfBatch) -> {
+            handled.incrementAndGet();
+            if (sequence == 3) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        for (int i = 0; i < 50; i++) {
+            bus.publish(DomainEventType.PATIENT_ADDED, 0, i, 0, 0);
+        }
+        bus.close();
+
+        assertEquals(50, handled.get());
+        assertThrows(IllegalStateException.class, () -> bus.addConsumer("late", (e, s, b) -> { }));
+    }
+
+    @Test
+    void publishAfterClose_neverWaits() throws Exception {
+        DomainEventBus bus = new DomainEventBus(8);
+        AtomicLong handled = new AtomicLong();
+        bus.addConsumer("closed", (event, sequence, endOfBatch) -> handled.incrementAndGet());
+        bus.publish(DomainEventType.PATIENT_ADDED, 0, 0, 0, 0);
+        bus.close();
+
+        for (int i = 1; i <= 100; i++) {
+            bus.publish(DomainEventType.PATIENT_ADDED, 0, i, 0, 0);
+        }
+
+        assertEquals(100, bus.getCursor());
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void consumerKilledByAnError_isDroppedInsteadOfBlockingThePublisher() throws Exception {
+        DomainEventBus bus = new DomainEventBus(8);
+        bus.addConsumer("dying", (event, sequence, endOfBatch) -> {
+            throw new AssertionError("consumer dies");
+        });
+
+        Thread publisher = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                bus.publish(DomainEventType.PATIENT_ADDED, 0, i, 0, 0);
+            }
+        });
+        publisher.start();
+        publisher.join(5_000);
+
+        assertFalse(publisher.isAlive(), "publisher should not wait for a dead consumer");
+        assertEquals(99, bus.getCursor());
+        bus.close();
+    }
+
+    @Test
+    void eventLog_writesEveryEventOnItsOwnLine(@TempDir Path tempDir) throws Exception {
+        DomainEventBus bus = new DomainEventBus(8);
+        Path file = tempDir.resolve("events.log");
+        DomainEventLog log = DomainEventLog.start(bus, file);
+
+        for (int i = 0; i < 20; i++) {
+            bus.publish(DomainEventType.APPOINTMENT_BOOKED, 100 + i, i, 7, 540);
+        }
+        log.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(20, lines.size());
+        assertEquals("0\tAPPOINTMENT_BOOKED\t100\t0\t7\t540", lines.get(0));
+        assertEquals("19\tAPPOINTMENT_BOOKED\t119\t19\t7\t540", lines.get(19));
+    }
+
+    @Test
+    void services_publishBookingTransitionsAndPersonnelChanges() throws Exception {
+        ServiceContainer services = new ServiceContainer(IdGenerator.inMemory());
+        DomainEventBus bus = services.getEventBus();
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        bus.addConsumer("recorder", (event, sequence, endOfBatch) -> seen.add(event.getType()
+                + ":" + event.getAppointmentId() + ":" + event.getPatientId()
+                + ":" + event.getPhysiotherapistId() + ":" + event.getEpochMinute()));
+
+        Patient patient = services.getPatientService().addPatient("John Doe", "1 Main St", "+441234567890").getData();
+        services.getPhysiotherapistService().addPhysiotherapist("Alice Smith", "1 Main St", "123-456-7890", List.of("Sports"));
+        Physiotherapist physio = services.getPhysiotherapistService().getAllPhysiotherapists().get(0);
+        TimetableSlot slot = new TimetableSlot(physio, new Treatment("Massage"), 540);
+        services.getPhysiotherapistService().addSlotToPhysiotherapist(physio, slot);
+
+        AppointmentService appointments = services.getAppointmentService();
+        int id = appointments.bookAppointmentId(patient, slot).getData();
+        appointments.bookAppointmentId(patient, slot);
+        appointments.cancelAppointment(id);
+        appointments.rebookAppointment(id);
+        appointments.attendAppointment(id);
+        services.getPatientService().deletePatient(patient.getId());
+        bus.close();
+
+        int p = patient.getId();
+        int t = physio.getId();
+        assertEquals(List.of(
+                "PATIENT_ADDED:0:" + p + ":0:0",
+                "PHYSIOTHERAPIST_ADDED:0:0:" + t + ":0",
+                "SLOT_ADDED:0:0:" + t + ":540",
+                "APPOINTMENT_BOOKED:" + id + ":" + p + ":" + t + ":540",
+                "APPOINTMENT_CANCELLED:" + id + ":" + p + ":" + t + ":540",
+                "APPOINTMENT_REBOOKED:" + id + ":" + p + ":" + t + ":540",
+                "APPOINTMENT_ATTENDED:" + id + ":" + p + ":" + t + ":540",
+                "PATIENT_DELETED:0:" + p + ":0:0"), seen);
+    }
+}
@@ -0,0 +1,109 @@
+package com.boostphysioclinic.jfr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.services.AppointmentService;
+import com.boostphysioclinic.services.ServiceContainer;
+import com.boostphysioclinic.util.IdGenerator;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class ClinicEventsTest {
+
+    @Test
+    void register_makesEveryEventTypeKnownToTheRecorder() {
+        ClinicEvents.register();
+
+        Set<String> registered = FlightRecorder.getFlightRecorder().getEventTypes().stream()
+                .map(EventType::getName)
+                .collect(Collectors.toSet());
+        assertTrue(registered.containsAll(List.of(
+                "com.boostphysioclinic.Booking",
+                "com.boostphysioclinic.Cancellation",
+                "com.boostphysioclinic.Rebooking",
+                "com.boostphysioclinic.Attendance",
+                "com.boostphysioclinic.PatientRegistration",
+                "com.boostphysioclinic.ReportGeneration")));
+    }
+
+    @Test
+    void serviceCalls_emitEventsWithIdsAndOutcome() throws Exception {
+        ServiceContainer services = new ServiceContainer(IdGenerator.inMemory());
+        AppointmentService appointments = services.getAppointmentService();
+        List<RecordedEvent> events;
+
+        try (Recording recording = new Recording()) {
+            for (Class<? extends jdk.jfr.Event> type : ClinicEvents.TYPES) {
+                recording.enable(type).withThreshold(java.time.Duration.ZERO);
+            }
+            recording.start();
+
+            Patient patient = services.getPatientService().addPatient("John Doe", "1 Main St", "+441234567890").getData();
+            services.getPatientService().addPatient("J", "1 Main St", "+441234567890");
+            services.getPhysiotherapistService().addPhysiotherapist("Alice Smith", "1 Main St", "123-456-7890", List.of("Sports"));
+            Physiotherapist physio = services.getPhysiotherapistService().getAllPhysiotherapists().get(0);
+            TimetableSlot slot = new TimetableSlot(physio, new Treatment("Massage"), 540);
+            services.getPhysiotherapistService().addSlotToPhysiotherapist(physio, slot);
+
+            int appointmentId = appointments.bookAppointmentId(patient, slot).getData();
+            appointments.bookAppointmentId(patient, slot);
+            appointments.cancelAppointment(appointmentId);
+            appointments.rebookAppointment(appointmentId);
+            appointments.attendAppointment(appointmentId);
+            appointments.attendAppointment(-5);
+            services.getReportGenerator().generateTreatmentReport();
+
+            recording.stop();
+            Path file = Files.createTempFile("clinic", ".jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+            Files.delete(file);
+        }
+
+        List<RecordedEvent> bookings = ofType(events, "com.boostphysioclinic.Booking");
+        assertEquals(2, bookings.size());
+        RecordedEvent booked = bookings.get(0);
+        assertEquals("OK", booked.getString("outcome"));
+        assertTrue(booked.getInt("appointmentId") > 0);
+        assertTrue(booked.getInt("patientId") > 0);
+        assertTrue(booked.getInt("physiotherapistId") > 0);
+        assertFalse(booked.getDuration().isNegative());
+        assertEquals("TIMETABLE_SLOT_ALREADY_BOOKED", bookings.get(1).getString("outcome"));
+
+        assertEquals("OK", ofType(events, "com.boostphysioclinic.Cancellation").get(0).getString("outcome"));
+        assertEquals("OK", ofType(events, "com.boostphysioclinic.Rebooking").get(0).getString("outcome"));
+
+        List<RecordedEvent> attendances = ofType(events, "com.boostphysioclinic.Attendance");
+        assertEquals(List.of("OK", "APPOINTMENT_NOT_FOUND"),
+                attendances.stream().map(e -> e.getString("outcome")).toList());
+        assertEquals(-5, attendances.get(1).getInt("appointmentId"));
+
+        List<RecordedEvent> registrations = ofType(events, "com.boostphysioclinic.PatientRegistration");
+        assertEquals(List.of("OK", "NAME_TOO_SHORT"),
+                registrations.stream().map(e -> e.getString("outcome")).toList());
+
+        RecordedEvent report = ofType(events, "com.boostphysioclinic.ReportGeneration").get(0);
+        assertEquals("treatments", report.getString("report"));
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .toList();
+    }
+}
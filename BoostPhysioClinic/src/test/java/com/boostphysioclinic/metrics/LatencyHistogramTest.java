@@ -0,0 +1,87 @@
+package com.boostphysioclinic.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketIndex_coversEveryValueWithBoundsThatContainIt() {
+        long[] values = {0, 1, 7, 8, 9, 15, 16, 17, 100, 1_000, 12_345, 1_000_000, 1L << 40, Long.MAX_VALUE};
+        int previous = -1;
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index >= previous, "buckets must be ordered");
+            assertTrue(index < LatencyHistogram.BUCKETS);
+            assertTrue(LatencyHistogram.bucketLowerBound(index) <= value);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= value);
+            previous = index;
+        }
+    }
+
+    @Test
+    void bucketBounds_areWithinOneEighthOfTheValue() {
+        for (long value = 8; value < 1_000_000; value = value * 3 / 2 + 1) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long width = LatencyHistogram.bucketUpperBound(index) - LatencyHistogram.bucketLowerBound(index);
+            assertTrue(width <= value / LatencyHistogram.SUB_BUCKETS, "bucket too wide for " + value);
+        }
+    }
+
+    @Test
+    void snapshot_reportsCountMeanMaxAndPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500_500.0, snapshot.getMeanNanos(), 0.001);
+        assertEquals(1_000_000, snapshot.getMaxNanos());
+        assertEquals(500_000, snapshot.getPercentileNanos(50), 500_000 / 8.0);
+        assertEquals(990_000, snapshot.getPercentileNanos(99), 990_000 / 8.0);
+        assertEquals(1_000_000, snapshot.getPercentileNanos(100));
+    }
+
+    @Test
+    void emptyHistogram_reportsZeroes() {
+        LatencySnapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0.0, snapshot.getMeanNanos());
+        assertEquals(0, snapshot.getPercentileNanos(99));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getPercentileNanos(101));
+    }
+
+    @Test
+    void concurrentRecording_losesNoValues() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 100_000;
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals((long) threads * perThread, snapshot.getCount());
+        assertEquals(perThread - 1, snapshot.getMaxNanos());
+        assertEquals((long) threads * perThread * (perThread - 1) / 2, snapshot.getTotalNanos());
+    }
+}
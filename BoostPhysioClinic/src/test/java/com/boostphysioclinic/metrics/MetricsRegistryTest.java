@@ -0,0 +1,112 @@
+package com.boostphysioclinic.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.services.ServiceContainer;
+import com.boostphysioclinic.util.IdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+class MetricsRegistryTest {
+
+    @Test
+    void timer_isCreatedOncePerName() {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        assertSame(registry.timer("a"), registry.timer("a"));
+        assertNotSame(registry.timer("a"), registry.timer("b"));
+    }
+
+    @Test
+    void disabledRegistry_recordsNothing() {
+        MetricsRegistry registry = new MetricsRegistry();
+        OperationTimer timer = registry.timer("op");
+
+        registry.setEnabled(false);
+        timer.stop(timer.start());
+        registry.setEnabled(true);
+        timer.stop(timer.start());
+
+        assertEquals(1, registry.snapshot().get("op").getCount());
+    }
+
+    @Test
+    void instrumentedContainer_timesServiceCalls() {
+        MetricsRegistry registry = new MetricsRegistry();
+        ServiceContainer services = new ServiceContainer(IdGenerator.inMemory(), registry);
+
+        services.getTimeTableService().generateSampleData();
+        services.getPatientService().getPatientById(1);
+        services.getReportGenerator().generateTreatmentReport();
+        services.getAppointmentService().cancelAppointment(-1);
+
+        Map<String, LatencySnapshot> snapshot = registry.snapshot();
+        assertSame(registry, services.getMetrics());
+        assertEquals(1, snapshot.get("PatientService.getPatientById").getCount());
+        assertEquals(1, snapshot.get("ReportGenerator.generateTreatmentReport").getCount());
+        assertEquals(1, snapshot.get("AppointmentService.cancelAppointment").getCount());
+        assertTrue(snapshot.get("PhysiotherapistService.addSlotToPhysiotherapist").getCount() > 0);
+        assertNull(new ServiceContainer(IdGenerator.inMemory()).getMetrics());
+    }
+
+    @Test
+    void writeTo_listsOperationsThatWereCalled() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        OperationTimer timer = registry.timer("AppointmentService.bookAppointment");
+        registry.timer("AppointmentService.neverCalled");
+        timer.stop(timer.start());
+
+        StringBuilder out = new StringBuilder();
+        registry.writeTo(out);
+
+        List<String> lines = out.toString().lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("operation"));
+        assertTrue(lines.get(1).startsWith("AppointmentService.bookAppointment"));
+    }
+
+    @Test
+    void dumper_writesFileOnScheduleAndOnClose() throws Exception {
+        Path dir = Files.createTempDirectory("metrics");
+        Path file = dir.resolve("metrics.txt");
+        MetricsRegistry registry = new MetricsRegistry();
+        OperationTimer timer = registry.timer("PatientService.addPatient");
+        timer.stop(timer.start());
+
+        try (MetricsFileDumper dumper = registry.startDumping(file, Duration.ofMillis(20))) {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!Files.exists(file) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(Files.exists(file));
+        }
+
+        assertTrue(Files.readString(file).contains("PatientService.addPatient"));
+        assertFalse(Files.exists(dir.resolve("metrics.txt.tmp")));
+    }
+
+    @Test
+    void enabledTimer_addsLittleOverheadPerCall() {
+        MetricsRegistry registry = new MetricsRegistry();
+        OperationTimer timer = registry.timer("op");
+        int calls = 2_000_000;
+
+        for (int i = 0; i < calls; i++) {
+            timer.stop(timer.start());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            timer.stop(timer.start());
+        }
+        double nanosPerCall = (double) (System.nanoTime() - start) / calls;
+
+        // The target is under 50ns; the bound is loose so a busy build machine does not fail the test
+        assertTrue(nanosPerCall < 500, "timer overhead " + nanosPerCall + "ns per call");
+        assertEquals(2L * calls, registry.snapshot().get("op").getCount());
+    }
+}
@@ -0,0 +1,132 @@
+package com.boostphysioclinic.presentation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.archive.AppointmentArchive;
+import com.boostphysioclinic.archive.ArchiveSegment;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.services.ServiceContainer;
+import com.boostphysioclinic.storage.InMemoryPatientStore;
+import com.boostphysioclinic.util.ClinicTime;
+import com.boostphysioclinic.util.IdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class BatchCommandRunnerTest {
+    private ServiceContainer services;
+    private StringWriter out;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        services = new ServiceContainer(IdGenerator.inMemory());
+        out = new StringWriter();
+        run("sample-data\n");
+        out.getBuffer().setLength(0);
+    }
+
+    @Test
+    void run_bookCancelRebookAttend_updatesServicesAndReportsEachResult() throws IOException {
+        Patient patient = services.getPatientService().getPatientsList().get(0);
+        Physiotherapist physio = services.getPhysiotherapistService().getAllPhysiotherapists().get(0);
+        TimetableSlot slot = physio.getTimetable().get(0);
+        String time = ClinicTime.toLocalDateTime(slot.getEpochMinute()).toString();
+
+        BatchStats stats = run("""
+                # replayed traffic
+                book|%1$d|%2$d|%3$s
+                book|%1$d|%2$d|%3$s
+
+                cancel|%4$d
+                rebook|%4$d
+                attend|%4$d
+                report|physiotherapists
+                """.formatted(patient.getId(), physio.getId(), time, expectedFirstAppointmentId()));
+
+        String output = out.toString();
+        assertTrue(output.startsWith("OK book " + expectedFirstAppointmentId() + "\n"
+                + "ERR book TIMETABLE_SLOT_ALREADY_BOOKED\n"), output);
+        assertTrue(output.contains("OK attend " + expectedFirstAppointmentId() + "\n"), output);
+        assertTrue(output.contains("# total 6 commands, 1 failed"), output);
+
+        assertEquals(6, stats.getCommands());
+        assertEquals(1, stats.getFailures());
+        assertEquals(2, stats.getCount(BatchCommandRunner.Command.BOOK));
+        assertEquals(1, stats.getFailures(BatchCommandRunner.Command.BOOK));
+        assertTrue(slot.isBooked());
+    }
+
+    @Test
+    void run_addAndDeletePatient() throws IOException {
+        int before = services.getPatientService().getPatientsList().size();
+
+        run("add-patient|John Batch|10 Downing Street|+441234567899\n");
+        Patient added = services.getPatientService().getPatientsList().get(before);
+        assertTrue(out.toString().startsWith("OK add-patient " + added.getId() + "\n"));
+
+        run("delete-patient|" + added.getId() + "\ndelete-patient|" + added.getId() + "\n");
+        assertTrue(out.toString().contains("ERR delete-patient PATIENT_NOT_FOUND\n"));
+        assertEquals(before, services.getPatientService().getPatientsList().size());
+    }
+
+    @Test
+    void run_malformedLines_areReportedAndCountedAsFailures() throws IOException {
+        BatchStats stats = run("""
+                teleport|1
+                cancel
+                cancel|abc
+                book|1|2|not-a-time
+                report|everything
+                """);
+
+        String output = out.toString();
+        assertTrue(output.contains("ERR unknown-command teleport\n"));
+        assertTrue(output.contains("ERR cancel WRONG_NUMBER_OF_ARGUMENTS\n"));
+        assertTrue(output.contains("ERR cancel INVALID_ID\n"));
+        assertTrue(output.contains("ERR book INVALID_TIME\n"));
+        assertTrue(output.contains("ERR report UNKNOWN_REPORT\n"));
+        assertEquals(5, stats.getCommands());
+        assertEquals(5, stats.getFailures());
+    }
+
+    @Test
+    void run_commandThatThrows_isReportedAndTheRunCarriesOn(@TempDir Path tempDir) throws IOException {
+        services = new ServiceContainer(IdGenerator.inMemory(), null, new InMemoryPatientStore(),
+                AppointmentArchive.open(tempDir), 30);
+        run("sample-data\n");
+        Patient patient = services.getPatientService().getPatientsList().get(0);
+        Physiotherapist physio = services.getPhysiotherapistService().getAllPhysiotherapists().get(0);
+        String time = ClinicTime.toLocalDateTime(physio.getTimetable().get(0).getEpochMinute()).toString();
+        run("book|%d|%d|%s\nattend|%d\narchive|2100-01-01T00:00\n".formatted(
+                patient.getId(), physio.getId(), time, expectedFirstAppointmentId()));
+        // A segment that disappears from under the archive makes the appointment report throw
+        for (ArchiveSegment segment : services.getArchiveService().getArchive().getSegments()) {
+            Files.delete(segment.getPath());
+        }
+        out.getBuffer().setLength(0);
+
+        BatchStats stats = run("report|appointments\nreport|treatments\n");
+
+        String output = out.toString();
+        assertTrue(output.startsWith("ERR report INTERNAL_ERROR\nOK report treatments "), output);
+        assertEquals(2, stats.getCommands());
+        assertEquals(1, stats.getFailures());
+    }
+
+    private int expectedFirstAppointmentId() {
+        return IdGenerator.inMemory().nextAppointmentId();
+    }
+
+    private BatchStats run(String commands) throws IOException {
+        return new BatchCommandRunner(services, out).run(new BufferedReader(new StringReader(commands)));
+    }
+}
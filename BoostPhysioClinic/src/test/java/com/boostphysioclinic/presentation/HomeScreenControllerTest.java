@@ -0,0 +1,170 @@
+package com.boostphysioclinic.presentation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.services.ServiceContainer;
+import com.boostphysioclinic.util.IdGenerator;
+import com.boostphysioclinic.util.Result;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The soak tests drive a million menu interactions and 200,000 invalid entries, enough to overflow the stack
+ * of a menu loop or prompt that recurses. They take a while, so they only run with {@code -Dboostphysio.soak=true};
+ * the default run repeats them with a few thousand iterations.
+ */
+class HomeScreenControllerTest {
+    private static final int SOAK_INTERACTIONS = 1_000_000;
+    private static final int SOAK_INVALID_ENTRIES = 200_000;
+    private static final int QUICK_ITERATIONS = 5_000;
+
+    @Test
+    void run_exitsWhenExitIsChosenFromTheMainMenu() {
+        ScriptedConsoleView view = new ScriptedConsoleView(new String[]{"0"}, 1);
+
+        new HomeScreenController(new ServiceContainer(IdGenerator.inMemory()), view).run();
+
+        assertEquals(1, view.menusShown);
+    }
+
+    @Test
+    void run_manyMenuInteractions_keepStackFlat() {
+        runMenuInteractions(QUICK_ITERATIONS);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "boostphysio.soak", matches = "true")
+    void run_millionMenuInteractions_keepStackAndHeapFlat() {
+        ScriptedConsoleView view = runMenuInteractions(SOAK_INTERACTIONS);
+
+        assertTrue(view.heapGrowthBytes < 16 * 1024 * 1024, "heap grew by " + view.heapGrowthBytes + " bytes");
+    }
+
+    @Test
+    void basicConsoleView_repeatedInvalidInput_isRejectedUntilAValidChoice() {
+        readMenuChoiceAfterInvalidEntries(QUICK_ITERATIONS);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "boostphysio.soak", matches = "true")
+    void basicConsoleView_repeatedInvalidInput_doesNotRecurse() {
+        readMenuChoiceAfterInvalidEntries(SOAK_INVALID_ENTRIES);
+    }
+
+    private static ScriptedConsoleView runMenuInteractions(int interactions) {
+        // Main menu -> "Print Physiotherapists report" -> "Return to Main Menu", with an invalid entry first
+        ScriptedConsoleView view = new ScriptedConsoleView(new String[]{"x", "7", "1"}, interactions);
+        HomeScreenController controller = new HomeScreenController(new ServiceContainer(IdGenerator.inMemory()), view);
+
+        controller.run();
+
+        assertEquals(interactions + 1, view.menusShown);
+        assertEquals(view.minStackDepth, view.maxStackDepth, "stack depth changed between menu interactions");
+        return view;
+    }
+
+    private static void readMenuChoiceAfterInvalidEntries(int invalidEntries) {
+        String script = "x\n".repeat(invalidEntries) + "1\n";
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        try {
+            System.setIn(new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)));
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            BasicConsoleView view = new BasicConsoleView();
+
+            assertEquals(0, view.showMenu(List.of("Only option"), "Menu", false));
+        } finally {
+            System.setIn(in);
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * Replays a fixed script of inputs in a cycle for a number of menu interactions, then chooses exit.
+     * Samples the stack depth at every menu and the used heap once the run has warmed up.
+     */
+    private static class ScriptedConsoleView implements ConsoleView {
+        private static final StackWalker WALKER = StackWalker.getInstance();
+
+        private final String[] script;
+        private final int interactions;
+        private int position;
+        private int menusShown;
+        private long minStackDepth = Long.MAX_VALUE;
+        private long maxStackDepth;
+        private long warmHeapBytes;
+        private long heapGrowthBytes;
+
+        ScriptedConsoleView(String[] script, int interactions) {
+            this.script = script;
+            this.interactions = interactions;
+        }
+
+        @Override
+        public void showMessage(String message, MessageType messageType) {
+        }
+
+        @Override
+        public <T> T promptInput(String message, Function<String, Result<T, String>> validator) {
+            while (true) {
+                var result = validator.apply(next());
+                if (result.isSuccess()) {
+                    return result.getData();
+                }
+            }
+        }
+
+        @Override
+        public int showMenu(List<String> menuItems, String title, boolean includeExit) {
+            menusShown++;
+            sample();
+
+            return promptInput(title, input -> {
+                try {
+                    int index = Integer.parseInt(input.trim());
+                    if (index >= (includeExit ? 0 : 1) && index <= menuItems.size()) {
+                        return Result.success(index - 1);
+                    }
+                    return Result.error("Invalid selection");
+                } catch (NumberFormatException e) {
+                    return Result.error("Invalid number");
+                }
+            });
+        }
+
+        private String next() {
+            if (menusShown > interactions) {
+                return "0";
+            }
+            String input = script[position];
+            position = (position + 1) % script.length;
+            return input;
+        }
+
+        private void sample() {
+            long depth = WALKER.walk(frames -> frames.count());
+            minStackDepth = Math.min(minStackDepth, depth);
+            maxStackDepth = Math.max(maxStackDepth, depth);
+
+            if (menusShown == interactions / 10) {
+                warmHeapBytes = usedHeapAfterGc();
+            } else if (menusShown == interactions) {
+                heapGrowthBytes = usedHeapAfterGc() - warmHeapBytes;
+            }
+        }
+
+        private static long usedHeapAfterGc() {
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.boostphysioclinic.presentation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.services.PhysiotherapistService;
+import com.boostphysioclinic.util.ClinicTime;
+import com.boostphysioclinic.util.IdGenerator;
+import com.boostphysioclinic.util.Result;
+import com.boostphysioclinic.util.TimeFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Function;
+
+class SlotPickerTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 6, 9, 0);
+
+    private PhysiotherapistService service;
+    private Physiotherapist physio;
+    private Treatment massage;
+    private Treatment stretching;
+
+    @BeforeEach
+    void setUp() {
+        service = new PhysiotherapistService(IdGenerator.inMemory());
+        service.addPhysiotherapist("Alice Smith", "1 Main St", "123-456-7890", List.of("Sports"));
+        physio = service.getAllPhysiotherapists().get(0);
+        massage = new Treatment("Massage");
+        stretching = new Treatment("Stretching");
+
+        // One slot a day for a year, alternating treatments
+        for (int day = 0; day < 365; day++) {
+            Treatment treatment = day % 2 == 0 ? massage : stretching;
+            service.addSlotToPhysiotherapist(physio,
+                    new TimetableSlot(physio, treatment, ClinicTime.toEpochMinute(START.plusDays(day))));
+        }
+    }
+
+    @Test
+    void pick_showsOnlyOnePageOfFreeSlots() {
+        service.getSlot(physio, ClinicTime.toEpochMinute(START)).setBooked(true);
+        QueueConsoleView view = new QueueConsoleView("1");
+
+        TimetableSlot picked = new SlotPicker(view, service).pick(physio);
+
+        assertEquals(ClinicTime.toEpochMinute(START.plusDays(1)), picked.getEpochMinute());
+        List<String> firstMenu = view.menus.get(0);
+        assertEquals(SlotPicker.PAGE_SIZE + 5, firstMenu.size());
+        assertEquals("Next page", firstMenu.get(SlotPicker.PAGE_SIZE));
+    }
+
+    @Test
+    void pick_nextAndPreviousPage() {
+        // Next page, then previous page, then the first slot
+        QueueConsoleView view = new QueueConsoleView("11", "12", "1");
+
+        TimetableSlot picked = new SlotPicker(view, service).pick(physio);
+
+        assertSame(physio.getTimetable().get(0), picked);
+        String tenthDay = TimeFormatter.formatEpochMinute(ClinicTime.toEpochMinute(START.plusDays(SlotPicker.PAGE_SIZE)));
+        assertTrue(view.menus.get(1).get(0).contains(tenthDay), view.menus.get(1).get(0));
+        assertEquals("Previous page", view.menus.get(1).get(SlotPicker.PAGE_SIZE + 1));
+    }
+
+    @Test
+    void pick_nextPageKeepsSlotsAtTheSameTimeAsTheLastSlotShown() {
+        // A second slot at the time of the last slot on the first page
+        TimetableSlot lastOnFirstPage = physio.getTimetable().get(SlotPicker.PAGE_SIZE - 1);
+        TimetableSlot sameTime = new TimetableSlot(physio, stretching, lastOnFirstPage.getEpochMinute());
+        service.addSlotToPhysiotherapist(physio, sameTime);
+        // Next page, then the first slot on it
+        QueueConsoleView view = new QueueConsoleView("11", "1");
+
+        TimetableSlot picked = new SlotPicker(view, service).pick(physio);
+
+        assertSame(lastOnFirstPage, physio.getTimetable().get(SlotPicker.PAGE_SIZE - 1));
+        assertSame(sameTime, picked);
+    }
+
+    @Test
+    void pick_filtersByDateRangeAndTreatment() {
+        // Filter by date range (five slots, so "Filter by treatment" is option 7), choose Stretching, pick the first slot
+        QueueConsoleView view = new QueueConsoleView("12", "2025-03-01", "2025-03-05", "7", "2", "1");
+
+        TimetableSlot picked = new SlotPicker(view, service).pick(physio);
+
+        assertSame(stretching, picked.getTreatment());
+        assertEquals(LocalDateTime.of(2025, 3, 2, 9, 0), picked.getDateTime());
+        // Two stretching days between the 1st and 5th of March, plus the four filter options
+        assertEquals(2 + 4, view.menus.get(view.menus.size() - 1).size());
+    }
+
+    @Test
+    void pick_listsTheTimetablesTreatmentsByName() {
+        Treatment acupuncture = new Treatment("Acupuncture");
+        TimetableSlot last = new TimetableSlot(physio, acupuncture, ClinicTime.toEpochMinute(START.plusDays(400)));
+        service.addSlotToPhysiotherapist(physio, last);
+        // Filter by treatment, choose Acupuncture, pick its slot
+        QueueConsoleView view = new QueueConsoleView("13", "1", "1");
+
+        TimetableSlot picked = new SlotPicker(view, service).pick(physio);
+
+        assertEquals(List.of("Acupuncture", "Massage", "Stretching", "Any treatment"), view.menus.get(1));
+        assertSame(last, picked);
+    }
+
+    @Test
+    void pick_exitReturnsNull() {
+        assertNull(new SlotPicker(new QueueConsoleView("0"), service).pick(physio));
+    }
+
+    /**
+     * Answers prompts and menus from a fixed queue of inputs and remembers every menu shown.
+     */
+    private static class QueueConsoleView implements ConsoleView {
+        private final Deque<String> inputs;
+        private final List<List<String>> menus = new ArrayList<>();
+
+        QueueConsoleView(String... inputs) {
+            this.inputs = new ArrayDeque<>(List.of(inputs));
+        }
+
+        @Override
+        public void showMessage(String message, MessageType messageType) {
+        }
+
+        @Override
+        public <T> T promptInput(String message, Function<String, Result<T, String>> validator) {
+            var result = validator.apply(inputs.pop());
+            assertTrue(result.isSuccess(), "rejected input for " + message);
+            return result.getData();
+        }
+
+        @Override
+        public int showMenu(List<String> menuItems, String title, boolean includeExit) {
+            menus.add(List.copyOf(menuItems));
+            return Integer.parseInt(inputs.pop()) - 1;
+        }
+    }
+}
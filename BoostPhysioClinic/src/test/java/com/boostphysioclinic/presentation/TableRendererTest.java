@@ -0,0 +1,64 @@
+package com.boostphysioclinic.presentation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+class TableRendererTest {
+
+    private record Row(String name, int count) {
+    }
+
+    private final TableRenderer<Row> table = new TableRenderer<Row>()
+            .column("Name", 8, Row::name)
+            .intColumn("Count", 6, Row::count);
+
+    @Test
+    void render_padsCellsAndDrawsBorders() {
+        String expected = """
+                +----------+--------+
+                | Name     | Count  |
+                +----------+--------+
+                | Alice    | 42     |
+                | Bob      | -7     |
+                +----------+--------+
+                """;
+
+        assertEquals(expected, table.render(List.of(new Row("Alice", 42), new Row("Bob", -7))));
+    }
+
+    @Test
+    void render_truncatesLongValuesToTheColumnWidth() {
+        String rendered = table.render(List.of(new Row("Bartholomew", Integer.MIN_VALUE)));
+
+        assertTrue(rendered.contains("| Barth... | -2147483648 |"), rendered);
+    }
+
+    @Test
+    void render_emptyRows_printsHeaderAndBordersOnly() {
+        assertEquals(4, table.render(List.of()).lines().count());
+    }
+
+    @Test
+    void basicConsoleView_buffersOutputUntilPrompt() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, false, StandardCharsets.UTF_8);
+        BasicConsoleView view = new BasicConsoleView(
+                new ByteArrayInputStream("1\n".getBytes(StandardCharsets.UTF_8)), out);
+
+        view.showTable(table, List.of(new Row("Alice", 42)));
+        view.showMessage("done", ConsoleView.MessageType.INFO);
+        assertEquals(0, bytes.size());
+
+        assertEquals(0, view.showMenu(List.of("Only option"), "Menu", false));
+        String written = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(written.contains("| Alice    | 42     |"), written);
+        assertTrue(written.contains("1. Only option"), written);
+    }
+}
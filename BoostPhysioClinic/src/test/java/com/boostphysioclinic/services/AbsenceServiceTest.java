@@ -0,0 +1,162 @@
+package com.boostphysioclinic.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.BookingStatus;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.util.ClinicTime;
+import com.boostphysioclinic.util.IdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class AbsenceServiceTest {
+    private static final int DAY = ClinicTime.MINUTES_PER_DAY;
+
+    private ServiceContainer services;
+    private AbsenceService absences;
+    private AppointmentService appointments;
+    private PhysiotherapistService physiotherapists;
+    private Physiotherapist absent;
+    private Physiotherapist colleague;
+    private Physiotherapist neuro;
+    private Treatment massage;
+    private Treatment rehab;
+    private Treatment acupuncture;
+
+    @BeforeEach
+    void setUp() {
+        services = new ServiceContainer(IdGenerator.inMemory());
+        absences = services.getAbsenceService();
+        appointments = services.getAppointmentService();
+        physiotherapists = services.getPhysiotherapistService();
+
+        physiotherapists.addPhysiotherapist("Alice Smith", "1 Main St", "123-456-7890", List.of("Sports Medicine"));
+        physiotherapists.addPhysiotherapist("Bob Jones", "2 Oak Ave", "987-654-3210", List.of("Sports Medicine"));
+        physiotherapists.addPhysiotherapist("Charlie Brown", "3 Pine Rd", "555-123-4567", List.of("Neurological Disorders"));
+        absent = physiotherapists.getAllPhysiotherapists().get(0);
+        colleague = physiotherapists.getAllPhysiotherapists().get(1);
+        neuro = physiotherapists.getAllPhysiotherapists().get(2);
+
+        TreatmentCatalogue catalogue = services.getTreatmentCatalogue();
+        massage = catalogue.register("Massage", "Sports Medicine");
+        rehab = catalogue.register("Rehabilitation", "Sports Medicine");
+        acupuncture = catalogue.register("Acupuncture", "Neurological Disorders");
+    }
+
+    @Test
+    void recordAbsence_movesPatientToSameTreatmentElsewhere() {
+        Appointment original = book(addPatient("Moved Patient"), addSlot(absent, massage, 10 * DAY + 540));
+        TimetableSlot alternative = addSlot(colleague, massage, 11 * DAY + 540);
+        addSlot(colleague, rehab, 10 * DAY + 600);
+
+        AbsenceSummary summary = absences.recordAbsence(absent, 10 * DAY, 11 * DAY).getData();
+
+        assertEquals(1, summary.blockedSlots());
+        assertEquals(BookingStatus.Cancelled, original.getBookingStatus());
+        assertEquals(1, summary.moved().size());
+        AbsenceSummary.Move move = summary.moved().get(0);
+        assertSame(original, move.cancelled());
+        assertSame(alternative, move.rebooked().getSlot());
+        assertSame(original.getPatient(), move.rebooked().getPatient());
+        assertTrue(summary.unplaced().isEmpty());
+    }
+
+    @Test
+    void recordAbsence_fallsBackToTreatmentWithSameExpertise() {
+        book(addPatient("Moved Patient"), addSlot(absent, massage, 10 * DAY + 540));
+        addSlot(neuro, acupuncture, 10 * DAY + 600);
+        TimetableSlot related = addSlot(colleague, rehab, 12 * DAY + 540);
+
+        AbsenceSummary summary = absences.recordAbsence(absent, 10 * DAY, 11 * DAY).getData();
+
+        assertEquals(1, summary.moved().size());
+        assertSame(related, summary.moved().get(0).rebooked().getSlot());
+    }
+
+    @Test
+    void recordAbsence_blocksSlotsSoTheWaitlistCannotRefillThem() {
+        TimetableSlot slot = addSlot(absent, massage, 10 * DAY + 540);
+        book(addPatient("Booked Patient"), slot);
+        services.getWaitlistService().join(addPatient("Waiting Patient"), absent, null, 10 * DAY, 11 * DAY, 9);
+
+        absences.recordAbsence(absent, 10 * DAY, 11 * DAY);
+
+        assertTrue(slot.isBlocked());
+        assertFalse(slot.isBooked());
+        assertEquals(1, services.getWaitlistService().getWaitingEntries().size());
+        assertEquals(AppointmentService.BookingError.TIMETABLE_SLOT_UNAVAILABLE,
+                appointments.bookAppointmentId(addPatient("Late Patient"), slot).getError());
+        assertTrue(physiotherapists.findSlots(absent, SlotQuery.available(), 10).isEmpty());
+    }
+
+    @Test
+    void recordAbsence_reportsPatientsWithNoAlternative() {
+        Appointment original = book(addPatient("Unplaced Patient"), addSlot(absent, massage, 10 * DAY + 540));
+        addSlot(colleague, massage, 10 * DAY + 540 + (AbsenceService.SEARCH_HORIZON_DAYS + 1) * DAY);
+        addSlot(neuro, acupuncture, 10 * DAY + 600);
+
+        AbsenceSummary summary = absences.recordAbsence(absent, 10 * DAY, 11 * DAY).getData();
+
+        assertTrue(summary.moved().isEmpty());
+        assertEquals(List.of(original), summary.unplaced());
+    }
+
+    @Test
+    void recordAbsence_rejectsInvalidInput() {
+        assertEquals(AbsenceService.AbsenceError.PHYSIOTHERAPIST_NOT_FOUND,
+                absences.recordAbsence(null, 0, DAY).getError());
+        assertEquals(AbsenceService.AbsenceError.INVALID_TIME_WINDOW,
+                absences.recordAbsence(absent, DAY, DAY).getError());
+    }
+
+    @Test
+    void recordAbsence_competingPatientsNeverShareASlot() {
+        int patients = 300;
+        for (int i = 0; i < patients; i++) {
+            book(addPatient("Patient " + i), addSlot(absent, massage, 10 * DAY + i * 30));
+        }
+        // Fewer alternatives than patients, all near the same time, so most searches find the same candidates
+        int alternatives = 200;
+        for (int i = 0; i < alternatives; i++) {
+            addSlot(i % 2 == 0 ? colleague : neuro, i % 2 == 0 ? massage : acupuncture, 10 * DAY + i * 30);
+        }
+        for (int i = 0; i < alternatives / 2; i++) {
+            addSlot(colleague, rehab, 20 * DAY + i * 30);
+        }
+
+        AbsenceSummary summary = absences.recordAbsence(absent, 0, 17 * DAY).getData();
+
+        assertEquals(patients, summary.moved().size() + summary.unplaced().size());
+        assertEquals(alternatives, summary.moved().size());
+        Set<TimetableSlot> used = new HashSet<>();
+        for (AbsenceSummary.Move move : summary.moved()) {
+            TimetableSlot slot = move.rebooked().getSlot();
+            assertTrue(used.add(slot), "slot booked twice");
+            assertNotSame(neuro, slot.getPhysiotherapist());
+            assertTrue(slot.getEpochMinute() >= move.cancelled().getEpochMinute());
+        }
+    }
+
+    private Patient addPatient(String name) {
+        return services.getPatientService().addPatient(name, "1 Test St", "555-000-0000").getData();
+    }
+
+    private TimetableSlot addSlot(Physiotherapist physiotherapist, Treatment treatment, int epochMinute) {
+        TimetableSlot slot = new TimetableSlot(physiotherapist, treatment, epochMinute);
+        physiotherapists.addSlotToPhysiotherapist(physiotherapist, slot);
+        return slot;
+    }
+
+    private Appointment book(Patient patient, TimetableSlot slot) {
+        int id = appointments.bookAppointmentId(patient, slot).getData();
+        return appointments.getAppointmentById(id).getData();
+    }
+}
@@ -8,6 +8,7 @@ import com.boostphysioclinic.services.AppointmentService;
 import com.boostphysioclinic.util.Result;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -365,4 +366,40 @@ class AppointmentServiceTest {
                 service.bookAppointment(testPatient, availableSlot);
         assertEquals(AppointmentService.BookingError.TIMETABLE_SLOT_ALREADY_BOOKED, thirdBook.getError());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAppointments_returnsReadOnlySnapshot() {
+        List<Appointment> before = service.getAppointments();
+        int size = before.size();
+
+        service.bookAppointmentId(testPatient, availableSlot);
+
+        assertEquals(size, before.size());
+        assertEquals(size + 1, service.getAppointments().size());
+        assertThrows(UnsupportedOperationException.class, () -> service.getAppointments().clear());
+    }
+
+    @Test
+    void failedOperations_allocateNoResults() {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        int iterations = 100_000;
+
+        // Warm up so class loading and one-off initialisation are not measured
+        for (int i = 0; i < iterations; i++) {
+            service.bookAppointmentId(testPatient, bookedSlot);
+            service.cancelAppointment(999);
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            service.bookAppointmentId(testPatient, bookedSlot);
+            service.cancelAppointment(999);
+            service.attendAppointment(999);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // A single result object per call would be several megabytes
+        assertTrue(allocated < 64 * 1024, "Allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,112 @@
+package com.boostphysioclinic.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.BookingStatus;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.util.IdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+class AppointmentTableTest {
+
+    private AppointmentService service;
+    private AppointmentTable table;
+    private Physiotherapist alice;
+    private Physiotherapist bob;
+    private Treatment massage;
+    private Treatment rehab;
+
+    @BeforeEach
+    void setUp() {
+        service = new AppointmentService(IdGenerator.inMemory());
+        table = service.getAppointmentTable();
+        alice = new Physiotherapist(1, "Alice Smith", "1 Main St", "123-456-7890", List.of("Sports Medicine"));
+        bob = new Physiotherapist(2, "Bob Jones", "2 Oak Ave", "987-654-3210", List.of("Sports Medicine"));
+        massage = new Treatment(0, "Massage", "Sports Medicine", 60);
+        rehab = new Treatment(1, "Rehabilitation", "Sports Medicine", 60);
+    }
+
+    @Test
+    void rows_followBookingsAndStatusChanges() {
+        Patient patient = new Patient(7, "John Doe", "123 Main St", "555-1234");
+        int first = book(patient, alice, massage, 600);
+        int second = book(patient, bob, rehab, 720);
+        service.attendAppointment(first);
+        service.cancelAppointment(second);
+
+        AppointmentTable.Columns columns = table.columns();
+        assertEquals(2, columns.size());
+        assertEquals(first, columns.appointmentIds()[0]);
+        assertEquals(1, columns.physiotherapistIds()[0]);
+        assertEquals(7, columns.patientIds()[0]);
+        assertEquals(1, columns.treatmentIds()[1]);
+        assertEquals(720, columns.epochMinutes()[1]);
+        assertEquals(AppointmentTable.ATTENDED, columns.statuses()[0]);
+        assertEquals(AppointmentTable.CANCELLED, columns.statuses()[1]);
+
+        service.rebookAppointment(second);
+        assertEquals(AppointmentTable.BOOKED, table.columns().statuses()[1]);
+    }
+
+    @Test
+    void columns_areUnaffectedByLaterAppendsAndRemovals() {
+        Patient patient = new Patient(7, "John Doe", "123 Main St", "555-1234");
+        int first = book(patient, alice, massage, 600);
+        service.attendAppointment(first);
+        AppointmentTable.Columns before = table.columns();
+
+        book(patient, alice, massage, 700);
+        service.removeAppointments(appointment -> appointment.getAppointmentId() == first);
+
+        assertEquals(1, before.size());
+        assertEquals(first, before.appointmentIds()[0]);
+        assertEquals(1, table.columns().size());
+        assertNotEquals(first, table.columns().appointmentIds()[0]);
+        assertEquals(0, table.countAttended(alice.getId()));
+    }
+
+    @Test
+    void scans_matchTheAppointmentObjects() {
+        Random random = new Random(7);
+        for (int i = 0; i < 5_000; i++) {
+            Patient patient = new Patient(100 + i, "Patient " + i, "1 High Street", "555-0000");
+            int id = book(patient, random.nextBoolean() ? alice : bob, random.nextBoolean() ? massage : rehab, i * 60);
+            switch (random.nextInt(3)) {
+                case 0 -> service.attendAppointment(id);
+                case 1 -> service.cancelAppointment(id);
+                default -> {
+                }
+            }
+        }
+
+        int aliceAttended = 0;
+        int[] notCancelled = new int[2];
+        int[] byStatus = new int[BookingStatus.values().length];
+        for (Appointment appointment : service.getAppointments()) {
+            BookingStatus status = appointment.getBookingStatus();
+            byStatus[status.ordinal()]++;
+            if (status == BookingStatus.Attended && appointment.getSlot().getPhysiotherapist() == alice) {
+                aliceAttended++;
+            }
+            if (status != BookingStatus.Cancelled) {
+                notCancelled[appointment.getSlot().getTreatment().getId()]++;
+            }
+        }
+
+        assertEquals(aliceAttended, table.countAttended(alice.getId()));
+        assertArrayEquals(notCancelled, table.countNotCancelledByTreatment(2));
+        assertArrayEquals(byStatus, table.countByStatus());
+    }
+
+    private int book(Patient patient, Physiotherapist physio, Treatment treatment, int epochMinute) {
+        return service.bookAppointmentId(patient, new TimetableSlot(physio, treatment, epochMinute)).getData();
+    }
+}
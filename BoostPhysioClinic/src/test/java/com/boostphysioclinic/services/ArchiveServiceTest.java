@@ -0,0 +1,215 @@
+package com.boostphysioclinic.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.archive.AppointmentArchive;
+import com.boostphysioclinic.archive.ArchiveSegment;
+import com.boostphysioclinic.archive.ArchivedAppointment;
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.BookingStatus;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.model.report.AppointmentReport;
+import com.boostphysioclinic.model.report.PhysiotherapistReport;
+import com.boostphysioclinic.model.report.TreatmentReport;
+import com.boostphysioclinic.storage.InMemoryPatientStore;
+import com.boostphysioclinic.util.IdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class ArchiveServiceTest {
+    private static final int DAY = 24 * 60;
+    private static final int HORIZON_DAYS = 30;
+
+    @TempDir
+    Path tempDir;
+
+    private ServiceContainer services;
+    private AppointmentService appointments;
+    private PhysiotherapistService physiotherapists;
+    private Physiotherapist physio;
+    private Treatment massage;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        services = new ServiceContainer(IdGenerator.inMemory(), null, new InMemoryPatientStore(),
+                AppointmentArchive.open(tempDir.resolve("archive")), HORIZON_DAYS);
+        appointments = services.getAppointmentService();
+        physiotherapists = services.getPhysiotherapistService();
+        physiotherapists.addPhysiotherapist("Alice Smith", "1 Main St", "123-456-7890", List.of("Sports Medicine"));
+        physio = physiotherapists.getAllPhysiotherapists().get(0);
+        massage = services.getTreatmentCatalogue().register("Massage", "Sports Medicine");
+        patient = services.getPatientService().addPatient("Ada Lovelace", "12 St James's Square", "07700900001").getData();
+    }
+
+    @Test
+    void archive_movesOnlyOldFinishedAppointments() {
+        Appointment oldAttended = book(DAY);
+        appointments.attendAppointment(oldAttended.getAppointmentId());
+        Appointment oldCancelled = book(2 * DAY);
+        appointments.cancelAppointment(oldCancelled.getAppointmentId());
+        Appointment oldBooked = book(3 * DAY);
+        Appointment recentAttended = book(90 * DAY);
+        appointments.attendAppointment(recentAttended.getAppointmentId());
+
+        ArchiveSegment segment = services.getArchiveService().archive(100 * DAY).getData();
+
+        assertEquals(2, segment.getRowCount());
+        assertEquals(List.of(oldBooked, recentAttended), appointments.getAppointments());
+        assertTrue(appointments.getAppointmentById(oldAttended.getAppointmentId()).isError());
+        assertEquals(ArchiveService.ArchiveError.NOTHING_TO_ARCHIVE,
+                services.getArchiveService().archive(100 * DAY).getError());
+    }
+
+    @Test
+    void archivedRows_roundTripThroughTheSegmentFile() throws IOException {
+        for (int day = 1; day <= 50; day++) {
+            Appointment appointment = book(day * DAY + 540);
+            if (day % 5 == 0) {
+                appointments.cancelAppointment(appointment.getAppointmentId());
+            } else {
+                appointments.attendAppointment(appointment.getAppointmentId());
+            }
+        }
+
+        services.getArchiveService().archive(200 * DAY);
+        List<ArchivedAppointment> rows = services.getArchiveService().getArchive().readAll();
+
+        assertEquals(50, rows.size());
+        ArchivedAppointment fifth = rows.get(4);
+        assertEquals(5 * DAY + 540, fifth.epochMinute());
+        assertEquals(BookingStatus.Cancelled, fifth.status());
+        assertEquals(physio.getId(), fifth.physiotherapistId());
+        assertEquals("Alice Smith", fifth.physiotherapistName());
+        assertEquals(massage.getId(), fifth.treatmentId());
+        assertEquals("Massage", fifth.treatmentName());
+        assertEquals(patient.getId(), fifth.patientId());
+        assertEquals("Ada Lovelace", fifth.patientName());
+    }
+
+    @Test
+    void reports_areTheSameBeforeAndAfterArchiving() {
+        for (int day = 1; day <= 20; day++) {
+            Appointment appointment = book(day * DAY + 540);
+            if (day % 4 == 0) {
+                appointments.cancelAppointment(appointment.getAppointmentId());
+            } else if (day < 15) {
+                appointments.attendAppointment(appointment.getAppointmentId());
+            }
+        }
+        ReportGenerator reports = services.getReportGenerator();
+        List<String> before = describe(reports);
+
+        services.getArchiveService().archive(45 * DAY);
+
+        assertTrue(services.getArchiveService().getArchive().getArchivedCount() > 0);
+        assertEquals(before, describe(reports));
+    }
+
+    @Test
+    void open_picksUpExistingSegmentsAndTheirCounts() throws IOException {
+        Appointment attended = book(DAY);
+        appointments.attendAppointment(attended.getAppointmentId());
+        services.getArchiveService().archive(100 * DAY);
+        Appointment later = book(2 * DAY);
+        appointments.cancelAppointment(later.getAppointmentId());
+        services.getArchiveService().archive(100 * DAY);
+
+        AppointmentArchive reopened = AppointmentArchive.open(tempDir.resolve("archive"));
+
+        assertEquals(2, reopened.getSegments().size());
+        assertEquals(2, reopened.getArchivedCount());
+        assertEquals(1, reopened.getAttendedCount(physio));
+        assertEquals(1, reopened.getNotCancelledCount(massage));
+        assertEquals(2, reopened.readAll().size());
+        try (var files = Files.list(tempDir.resolve("archive"))) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void archivedCounts_followNamesWhenAFreshContainerAssignsNewIds() throws IOException {
+        for (int day = 1; day <= 3; day++) {
+            appointments.attendAppointment(book(day * DAY).getAppointmentId());
+        }
+        appointments.cancelAppointment(book(4 * DAY).getAppointmentId());
+        services.getArchiveService().archive(100 * DAY);
+
+        // Another physiotherapist and treatment are created first this time, taking Alice's ID and Massage's id
+        ServiceContainer restarted = new ServiceContainer(IdGenerator.inMemory(), null, new InMemoryPatientStore(),
+                AppointmentArchive.open(tempDir.resolve("archive")), HORIZON_DAYS);
+        PhysiotherapistService restartedPhysiotherapists = restarted.getPhysiotherapistService();
+        restartedPhysiotherapists.addPhysiotherapist("Bob Jones", "2 Main St", "123-456-7891", List.of("Neurology"));
+        restartedPhysiotherapists.addPhysiotherapist("Alice Smith", "1 Main St", "123-456-7890",
+                List.of("Sports Medicine"));
+        Physiotherapist bob = restartedPhysiotherapists.getAllPhysiotherapists().get(0);
+        Physiotherapist alice = restartedPhysiotherapists.getAllPhysiotherapists().get(1);
+        Treatment acupuncture = restarted.getTreatmentCatalogue().register("Acupuncture", "Neurology");
+        Treatment restartedMassage = restarted.getTreatmentCatalogue().register("Massage", "Sports Medicine");
+        assertEquals(physio.getId(), bob.getId());
+        assertEquals(massage.getId(), acupuncture.getId());
+
+        List<String> physiotherapistReport = new ArrayList<>();
+        for (PhysiotherapistReport r : restarted.getReportGenerator().generatePhysiotherapistReport()) {
+            physiotherapistReport.add(r.getPhysiotherapistName() + "=" + r.getAttendedAppointments());
+        }
+        assertEquals(List.of("Bob Jones=0", "Alice Smith=3"), physiotherapistReport);
+        List<String> treatmentReport = new ArrayList<>();
+        for (TreatmentReport r : restarted.getReportGenerator().generateTreatmentReport()) {
+            treatmentReport.add(r.getTreatmentName() + "=" + r.getAppointments());
+        }
+        assertTrue(treatmentReport.contains("Massage=3"));
+        assertTrue(treatmentReport.contains("Acupuncture=0"));
+
+        RankingService rankings = restarted.getRankingService();
+        assertEquals(List.of(new Ranked<>(alice, 3)), rankings.topPhysiotherapistsByAttended(5));
+        assertEquals(List.of(new Ranked<>(restartedMassage, 3)), rankings.topTreatmentsByDemand(5));
+    }
+
+    @Test
+    void rankings_doNotCountAppointmentsArchivedInTheSameSessionTwice() {
+        for (int day = 1; day <= 3; day++) {
+            appointments.attendAppointment(book(day * DAY).getAppointmentId());
+        }
+        appointments.cancelAppointment(book(4 * DAY).getAppointmentId());
+        services.getArchiveService().archive(100 * DAY);
+
+        RankingService rankings = services.getRankingService();
+        assertEquals(List.of(new Ranked<>(physio, 3)), rankings.topPhysiotherapistsByAttended(5));
+        assertEquals(List.of(new Ranked<>(massage, 3)), rankings.topTreatmentsByDemand(5));
+        assertEquals(3, services.getReportGenerator().generatePhysiotherapistReport().get(0).getAttendedAppointments());
+    }
+
+    private List<String> describe(ReportGenerator reports) {
+        List<String> lines = new ArrayList<>();
+        for (AppointmentReport r : reports.generateAllAppointmentReport()) {
+            lines.add(r.getPhysiotherapistName() + "|" + r.getTreatmentName() + "|" + r.getPatientName()
+                    + "|" + r.getTime() + "|" + r.getAppointmentStatus());
+        }
+        lines.add("physio:" + reports.generateAppointmentReportForPhysiotherapist(physio).size());
+        for (PhysiotherapistReport r : reports.generatePhysiotherapistReport()) {
+            lines.add(r.getPhysiotherapistName() + "=" + r.getAttendedAppointments());
+        }
+        for (TreatmentReport r : reports.generateTreatmentReport()) {
+            lines.add(r.getTreatmentName() + "=" + r.getAppointments());
+        }
+        return lines;
+    }
+
+    private Appointment book(int epochMinute) {
+        TimetableSlot slot = new TimetableSlot(physio, massage, epochMinute);
+        physiotherapists.addSlotToPhysiotherapist(physio, slot);
+        int id = appointments.bookAppointmentId(patient, slot).getData();
+        return appointments.getAppointmentById(id).getData();
+    }
+}
@@ -0,0 +1,97 @@
+package com.boostphysioclinic.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.report.TreatmentReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class ClinicRouterTest {
+    private ClinicRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new ClinicRouter();
+        router.addClinic("london");
+        router.addClinic("leeds");
+    }
+
+    @AfterEach
+    void tearDown() {
+        router.close();
+    }
+
+    @Test
+    void addClinic_duplicateId_throws() {
+        assertThrows(IllegalArgumentException.class, () -> router.addClinic("london"));
+    }
+
+    @Test
+    void route_unknownClinic_throws() {
+        assertThrows(IllegalArgumentException.class, () -> router.route("paris", services -> null));
+    }
+
+    @Test
+    void route_eachClinicHasItsOwnPatientsAndIdSpace() {
+        Patient londonPatient = router.route("london", services ->
+                services.getPatientService().addPatient("John Doe", "10 Baker St", "+441234567890").getData()).join();
+        Patient leedsPatient = router.route("leeds", services ->
+                services.getPatientService().addPatient("Jane Smith", "22 Oxford Rd", "+441612345678").getData()).join();
+
+        assertEquals(10000, londonPatient.getId());
+        assertEquals(10000, leedsPatient.getId());
+        String leedsName = router.route("leeds", services ->
+                services.getPatientService().getPatientById(10000).getFullName()).join();
+        assertEquals("Jane Smith", leedsName);
+    }
+
+    @Test
+    void route_busyClinicDoesNotBlockOtherClinics() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocked = router.route("london", services -> {
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        int leedsPatients = router.route("leeds", services -> services.getPatientService().getPatientsList().size())
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, leedsPatients);
+        assertFalse(blocked.isDone());
+        release.countDown();
+        assertTrue(blocked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void generateTreatmentReport_mergesCountsFromAllClinics() {
+        router.routeToAll(services -> {
+            services.getTimeTableService().generateSampleData();
+            var patient = services.getPatientService().getPatientsList().get(0);
+            var slot = services.getPhysiotherapistService().getAllPhysiotherapists().get(0).getTimetable().get(0);
+            return services.getAppointmentService().bookAppointment(patient, slot).isSuccess();
+        }).join();
+
+        List<TreatmentReport> report = router.generateTreatmentReport().join();
+        int totalAppointments = report.stream().mapToInt(TreatmentReport::getAppointments).sum();
+
+        assertEquals(2, totalAppointments);
+        assertEquals(1, report.stream().filter(r -> r.getAppointments() == 2).count());
+    }
+
+    @Test
+    void generatePhysiotherapistReports_returnsReportPerClinic() {
+        Map<String, ?> reports = router.generatePhysiotherapistReports().join();
+        assertEquals(router.getClinicIds(), reports.keySet());
+    }
+}
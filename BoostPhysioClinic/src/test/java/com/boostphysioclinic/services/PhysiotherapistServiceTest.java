@@ -133,4 +133,131 @@ class PhysiotherapistServiceTest {
                 result.add(new Physiotherapist(999, "Test", "Addr", "Phone", List.of()))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void addSlotToPhysiotherapist_keepsTimetableInStartTimeOrder() {
+        TimetableSlot late = new TimetableSlot(physio, new Treatment("A"), 600);
+        TimetableSlot early = new TimetableSlot(physio, new Treatment("B"), 60);
+        TimetableSlot middle = new TimetableSlot(physio, new Treatment("C"), 300);
+
+        service.addSlotToPhysiotherapist(physio, late);
+        service.addSlotToPhysiotherapist(physio, early);
+        service.addSlotToPhysiotherapist(physio, middle);
+
+        assertEquals(List.of(early, middle, late), physio.getTimetable());
+        assertSame(middle, service.getSlot(physio, 300));
+        assertNull(service.getSlot(physio, 301));
+    }
+
+    @Test
+    void findSlots_returnsFreeSlotsInRangeUpToLimit() {
+        for (int minute = 0; minute < 1000; minute += 60) {
+            service.addSlotToPhysiotherapist(physio, new TimetableSlot(physio, new Treatment("A"), minute));
+        }
+        service.getSlot(physio, 180).setBooked(true);
+
+        List<TimetableSlot> found = service.findSlots(physio, SlotQuery.available().between(120, 420), 3);
+
+        assertEquals(List.of(120, 240, 300), found.stream().map(TimetableSlot::getEpochMinute).toList());
+        assertEquals(4, service.findSlots(physio, SlotQuery.available().between(120, 420), 10).size());
+        assertEquals(5, service.findSlots(physio, SlotQuery.available().between(120, 420).withBooked(true), 10).size());
+    }
+
+    @Test
+    void findSlots_filtersByTreatmentInstance() {
+        Treatment massage = new Treatment("Massage");
+        service.addSlotToPhysiotherapist(physio, new TimetableSlot(physio, massage, 60));
+        service.addSlotToPhysiotherapist(physio, new TimetableSlot(physio, new Treatment("Massage"), 120));
+
+        List<TimetableSlot> found = service.findSlots(physio, SlotQuery.available().withTreatment(massage), 10);
+
+        assertEquals(1, found.size());
+        assertSame(massage, found.get(0).getTreatment());
+    }
+
+    @Test
+    void findSlots_byTreatment_matchesAFullScanAfterSlotsAreInsertedOutOfOrder() {
+        Treatment massage = new Treatment("Massage");
+        Treatment rehab = new Treatment("Rehab");
+        for (int minute = 6000; minute >= 0; minute -= 30) {
+            Treatment treatment = minute % 90 == 0 ? massage : rehab;
+            service.addSlotToPhysiotherapist(physio, new TimetableSlot(physio, treatment, minute));
+            if (minute % 150 == 0) {
+                service.addSlotToPhysiotherapist(physio, new TimetableSlot(physio, massage, minute));
+            }
+        }
+        for (int minute = 0; minute <= 6000; minute += 270) {
+            service.getSlot(physio, minute).setBooked(true);
+        }
+
+        for (Treatment treatment : List.of(massage, rehab)) {
+            List<TimetableSlot> expected = physio.getTimetable().stream()
+                    .filter(slot -> slot.getTreatment() == treatment && slot.isAvailable()
+                            && slot.getEpochMinute() >= 600 && slot.getEpochMinute() < 4800)
+                    .toList();
+            SlotQuery query = SlotQuery.available().between(600, 4800).withTreatment(treatment);
+            assertEquals(expected, service.findSlots(physio, query, Integer.MAX_VALUE));
+        }
+        assertTrue(service.findSlots(physio, SlotQuery.available().withTreatment(new Treatment("Massage")), 10)
+                .isEmpty());
+    }
+
+    @Test
+    void findSlotsAfter_pagesWithoutSkippingSlotsAtTheSameTime() {
+        for (int minute = 0; minute < 600; minute += 60) {
+            service.addSlotToPhysiotherapist(physio, new TimetableSlot(physio, new Treatment("A"), minute));
+            service.addSlotToPhysiotherapist(physio, new TimetableSlot(physio, new Treatment("B"), minute));
+        }
+
+        SlotQuery query = SlotQuery.available();
+        List<TimetableSlot> first = service.findSlots(physio, query, 3);
+        List<TimetableSlot> second = service.findSlotsAfter(physio, query, first.get(first.size() - 1), 3);
+
+        assertEquals(List.of(0, 0, 60), first.stream().map(TimetableSlot::getEpochMinute).toList());
+        assertEquals(List.of(60, 120, 120), second.stream().map(TimetableSlot::getEpochMinute).toList());
+        assertSame(physio.getTimetable().get(3), second.get(0));
+    }
+
+    @Test
+    void findEarliestSlots_mergesTimetablesInTimeOrder() {
+        Physiotherapist other = service.getAllPhysiotherapists().get(1);
+        for (int minute = 0; minute < 600; minute += 120) {
+            service.addSlotToPhysiotherapist(physio, new TimetableSlot(physio, new Treatment("A"), minute));
+            service.addSlotToPhysiotherapist(other, new TimetableSlot(other, new Treatment("B"), minute + 60));
+        }
+        service.getSlot(physio, 120).setBooked(true);
+
+        List<TimetableSlot> found = service.findEarliestSlots(null, SlotQuery.available().startingAt(60), 4);
+
+        assertEquals(List.of(60, 180, 240, 300), found.stream().map(TimetableSlot::getEpochMinute).toList());
+        assertSame(other, found.get(0).getPhysiotherapist());
+        assertSame(physio, found.get(2).getPhysiotherapist());
+    }
+
+    @Test
+    void findEarliestSlots_filtersByExpertise() {
+        Physiotherapist other = service.getAllPhysiotherapists().get(1);
+        Treatment sports = new Treatment(0, "Sports Massage", "Sports", 60);
+        Treatment rehab = new Treatment(1, "Rehab Session", "Rehab", 60);
+        service.addSlotToPhysiotherapist(physio, new TimetableSlot(physio, rehab, 60));
+        service.addSlotToPhysiotherapist(physio, new TimetableSlot(physio, sports, 120));
+        service.addSlotToPhysiotherapist(other, new TimetableSlot(other, new Treatment("Pediatric Check"), 30));
+
+        List<TimetableSlot> found = service.findEarliestSlots("sports", SlotQuery.available(), 10);
+
+        assertEquals(1, found.size());
+        assertSame(sports, found.get(0).getTreatment());
+    }
+
+    @Test
+    void findEarliestSlots_seesSlotsReleasedAfterBooking() {
+        TimetableSlot slot = new TimetableSlot(physio, new Treatment("A"), 60);
+        service.addSlotToPhysiotherapist(physio, slot);
+
+        slot.setBooked(true);
+        assertTrue(service.findEarliestSlots(null, SlotQuery.available(), 10).isEmpty());
+
+        slot.setBooked(false);
+        assertEquals(List.of(slot), service.findEarliestSlots(null, SlotQuery.available(), 10));
+    }
+}
@@ -0,0 +1,109 @@
+package com.boostphysioclinic.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.util.IdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class RankingServiceTest {
+
+    private AppointmentService appointments;
+    private PhysiotherapistService physiotherapists;
+    private PatientService patients;
+    private RankingService rankings;
+    private Physiotherapist alice;
+    private Physiotherapist bob;
+    private Treatment massage;
+    private Treatment rehab;
+    private Patient john;
+    private Patient jane;
+    private int nextMinute = 600;
+
+    @BeforeEach
+    void setUp() {
+        ServiceContainer services = new ServiceContainer(IdGenerator.inMemory());
+        appointments = services.getAppointmentService();
+        physiotherapists = services.getPhysiotherapistService();
+        patients = services.getPatientService();
+        rankings = services.getRankingService();
+        physiotherapists.addPhysiotherapist("Alice Smith", "1 Main St", "123-456-7890", List.of("Sports Medicine"));
+        physiotherapists.addPhysiotherapist("Bob Jones", "2 Oak Ave", "987-654-3210", List.of("Sports Medicine"));
+        alice = physiotherapists.getAllPhysiotherapists().get(0);
+        bob = physiotherapists.getAllPhysiotherapists().get(1);
+        massage = services.getTreatmentCatalogue().register("Massage", "Sports Medicine");
+        rehab = services.getTreatmentCatalogue().register("Rehabilitation", "Sports Medicine");
+        john = patients.addPatient("John Doe", "123 Main St", "07700900001").getData();
+        jane = patients.addPatient("Jane Doe", "124 Main St", "07700900002").getData();
+    }
+
+    @Test
+    void topPhysiotherapistsByAttended_ordersByAttendedCount() {
+        appointments.attendAppointment(book(john, alice, massage));
+        appointments.attendAppointment(book(john, bob, massage));
+        appointments.attendAppointment(book(jane, bob, massage));
+        book(jane, alice, massage);
+
+        List<Ranked<Physiotherapist>> top = rankings.topPhysiotherapistsByAttended(10);
+
+        assertEquals(2, top.size());
+        assertEquals(new Ranked<>(bob, 2), top.get(0));
+        assertEquals(new Ranked<>(alice, 1), top.get(1));
+        assertEquals(List.of(new Ranked<>(bob, 2)), rankings.topPhysiotherapistsByAttended(1));
+    }
+
+    @Test
+    void topPhysiotherapistsByBooked_countsOnlyAppointmentsStillBooked() {
+        int first = book(john, alice, massage);
+        book(jane, alice, massage);
+        book(john, bob, massage);
+        appointments.cancelAppointment(first);
+
+        assertEquals(List.of(new Ranked<>(bob, 1), new Ranked<>(alice, 1)), rankings.topPhysiotherapistsByBooked(5));
+
+        appointments.rebookAppointment(first);
+        assertEquals(new Ranked<>(alice, 2), rankings.topPhysiotherapistsByBooked(1).get(0));
+
+        appointments.attendAppointment(first);
+        assertEquals(List.of(new Ranked<>(bob, 1), new Ranked<>(alice, 1)), rankings.topPhysiotherapistsByBooked(2));
+    }
+
+    @Test
+    void topTreatmentsByDemand_leavesOutCancelledAppointments() {
+        int cancelled = book(john, alice, massage);
+        book(jane, alice, massage);
+        book(john, bob, rehab);
+        book(jane, bob, rehab);
+        appointments.cancelAppointment(cancelled);
+
+        assertEquals(List.of(new Ranked<>(rehab, 2), new Ranked<>(massage, 1)), rankings.topTreatmentsByDemand(2));
+
+        appointments.rebookAppointment(cancelled);
+        assertEquals(2, rankings.topTreatmentsByDemand(2).get(1).count());
+    }
+
+    @Test
+    void topPatientsByVisits_skipsDeletedPatients() {
+        appointments.attendAppointment(book(john, alice, massage));
+        appointments.attendAppointment(book(john, bob, massage));
+        appointments.attendAppointment(book(jane, bob, massage));
+
+        assertEquals(List.of(new Ranked<>(john, 2), new Ranked<>(jane, 1)), rankings.topPatientsByVisits(2));
+
+        patients.deletePatient(john.getId());
+        assertEquals(List.of(new Ranked<>(jane, 1)), rankings.topPatientsByVisits(1));
+    }
+
+    private int book(Patient patient, Physiotherapist physio, Treatment treatment) {
+        TimetableSlot slot = new TimetableSlot(physio, treatment, nextMinute);
+        nextMinute += 60;
+        physiotherapists.addSlotToPhysiotherapist(physio, slot);
+        return appointments.bookAppointmentId(patient, slot).getData();
+    }
+}
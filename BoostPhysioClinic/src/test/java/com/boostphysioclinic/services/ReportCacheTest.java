@@ -0,0 +1,146 @@
+package com.boostphysioclinic.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.archive.AppointmentArchive;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.model.report.AppointmentReport;
+import com.boostphysioclinic.model.report.PhysiotherapistReport;
+import com.boostphysioclinic.model.report.TreatmentReport;
+import com.boostphysioclinic.storage.InMemoryPatientStore;
+import com.boostphysioclinic.util.IdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+class ReportCacheTest {
+    private static final int DAY = 24 * 60;
+
+    @TempDir
+    Path tempDir;
+
+    private ServiceContainer services;
+    private AppointmentService appointments;
+    private PhysiotherapistService physiotherapists;
+    private ReportGenerator reports;
+    private ReportCache cache;
+    private Physiotherapist alice;
+    private Physiotherapist bob;
+    private Treatment massage;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        services = new ServiceContainer(IdGenerator.inMemory(), null, new InMemoryPatientStore(),
+                AppointmentArchive.open(tempDir.resolve("archive")), 30, 3);
+        appointments = services.getAppointmentService();
+        physiotherapists = services.getPhysiotherapistService();
+        reports = services.getReportGenerator();
+        cache = reports.getCache();
+        physiotherapists.addPhysiotherapist("Alice Smith", "1 Main St", "123-456-7890", List.of("Sports Medicine"));
+        physiotherapists.addPhysiotherapist("Bob Jones", "2 Oak Ave", "987-654-3210", List.of("Sports Medicine"));
+        alice = physiotherapists.getAllPhysiotherapists().get(0);
+        bob = physiotherapists.getAllPhysiotherapists().get(1);
+        massage = services.getTreatmentCatalogue().register("Massage", "Sports Medicine");
+        patient = services.getPatientService().addPatient("Ada Lovelace", "12 St James's Square", "07700900001").getData();
+    }
+
+    @Test
+    void repeatedReport_isServedFromTheCache() {
+        book(alice, DAY);
+
+        List<AppointmentReport> first = reports.generateAllAppointmentReport();
+        List<AppointmentReport> second = reports.generateAllAppointmentReport();
+
+        assertSame(first, second);
+        assertEquals(new ReportCache.Stats(1, 1, 1, 0, 0), cache.getStats());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(null));
+    }
+
+    @Test
+    void bookingChange_invalidatesOnlyReportsItAffects() {
+        int aliceAppointment = book(alice, DAY);
+        book(bob, 5 * DAY);
+        List<AppointmentReport> bobReport = reports.generateAppointmentReportForPhysiotherapist(bob);
+        List<AppointmentReport> laterPeriod = reports.generateAppointmentReportForPeriod(4 * DAY, 6 * DAY);
+        List<AppointmentReport> earlierPeriod = reports.generateAppointmentReportForPeriod(0, 2 * DAY);
+
+        appointments.cancelAppointment(aliceAppointment);
+
+        assertSame(bobReport, reports.generateAppointmentReportForPhysiotherapist(bob));
+        assertSame(laterPeriod, reports.generateAppointmentReportForPeriod(4 * DAY, 6 * DAY));
+        List<AppointmentReport> refreshed = reports.generateAppointmentReportForPeriod(0, 2 * DAY);
+        assertNotSame(earlierPeriod, refreshed);
+        assertEquals("Cancelled", refreshed.get(0).getAppointmentStatus());
+        assertEquals(1, cache.getStats().invalidations());
+    }
+
+    @Test
+    void summaries_areInvalidatedOnlyByChangesToTheirCounts() {
+        int appointment = book(alice, DAY);
+        List<PhysiotherapistReport> physiotherapistReport = reports.generatePhysiotherapistReport();
+        List<TreatmentReport> treatmentReport = reports.generateTreatmentReport();
+
+        book(bob, 2 * DAY);
+        assertSame(physiotherapistReport, reports.generatePhysiotherapistReport());
+        treatmentReport = assertRefreshed(treatmentReport, reports.generateTreatmentReport());
+        assertEquals(2, treatmentReport.get(0).getAppointments());
+
+        appointments.attendAppointment(appointment);
+        assertSame(treatmentReport, reports.generateTreatmentReport());
+        physiotherapistReport = assertRefreshed(physiotherapistReport, reports.generatePhysiotherapistReport());
+        assertEquals(1, physiotherapistReport.get(0).getAttendedAppointments());
+
+        services.getTreatmentCatalogue().register("Rehabilitation", "Sports Medicine");
+        assertEquals(2, reports.generateTreatmentReport().size());
+    }
+
+    @Test
+    void archiveRun_refreshesAppointmentListings() {
+        int old = book(alice, DAY);
+        appointments.attendAppointment(old);
+        book(alice, 60 * DAY);
+        assertEquals(2, reports.generateAllAppointmentReport().size());
+
+        assertTrue(services.getArchiveService().archive(60 * DAY).isSuccess());
+
+        List<AppointmentReport> report = reports.generateAllAppointmentReport();
+        assertEquals(2, report.size());
+        assertEquals(0, cache.getStats().hits());
+        assertEquals(1, reports.generatePhysiotherapistReport().get(0).getAttendedAppointments());
+    }
+
+    @Test
+    void leastRecentlyUsedReport_isEvictedWhenFull() {
+        List<AppointmentReport> all = reports.generateAllAppointmentReport();
+        reports.generateAppointmentReportForPhysiotherapist(alice);
+        reports.generateAppointmentReportForPhysiotherapist(bob);
+        reports.generateAllAppointmentReport();
+
+        reports.generateTreatmentReport();
+
+        ReportCache.Stats stats = cache.getStats();
+        assertEquals(3, stats.size());
+        assertEquals(1, stats.evictions());
+        assertSame(all, reports.generateAllAppointmentReport());
+        assertEquals(4, cache.getStats().misses());
+    }
+
+    private static <T> List<T> assertRefreshed(List<T> before, List<T> after) {
+        assertNotSame(before, after);
+        return after;
+    }
+
+    private int book(Physiotherapist physio, int epochMinute) {
+        TimetableSlot slot = new TimetableSlot(physio, massage, epochMinute);
+        physiotherapists.addSlotToPhysiotherapist(physio, slot);
+        return appointments.bookAppointmentId(patient, slot).getData();
+    }
+}
@@ -0,0 +1,56 @@
+package com.boostphysioclinic.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class ServiceContainerTest {
+
+    @Test
+    void getters_returnSameInstanceEveryTime() {
+        ServiceContainer container = new ServiceContainer();
+
+        assertSame(container.getPatientService(), container.getPatientService());
+        assertSame(container.getAppointmentService(), container.getAppointmentService());
+        assertSame(container.getPhysiotherapistService(), container.getPhysiotherapistService());
+        assertSame(container.getReportGenerator(), container.getReportGenerator());
+    }
+
+    @Test
+    void separateContainers_doNotShareState() {
+        ServiceContainer first = new ServiceContainer();
+        ServiceContainer second = new ServiceContainer();
+
+        first.getPatientService().addPatient("John Doe", "123 Main Street", "+441234567890");
+        first.getPhysiotherapistService().addPhysiotherapist("Alice Smith", "1 Main St", "123-456-7890", List.of("Sports"));
+
+        assertEquals(1, first.getPatientService().getPatientsList().size());
+        assertTrue(second.getPatientService().getPatientsList().isEmpty());
+        assertTrue(second.getPhysiotherapistService().getAllPhysiotherapists().isEmpty());
+    }
+
+    @Test
+    void generateSampleData_populatesOnlyItsOwnContainer() {
+        ServiceContainer populated = new ServiceContainer();
+        ServiceContainer empty = new ServiceContainer();
+
+        populated.getTimeTableService().generateSampleData();
+
+        assertFalse(populated.getPhysiotherapistService().getAllPhysiotherapists().isEmpty());
+        assertTrue(populated.getTreatmentCatalogue().size() > 0);
+        assertEquals(0, empty.getTreatmentCatalogue().size());
+    }
+
+    @Test
+    void containerBuiltOnAnotherThread_isFullyVisible() throws Exception {
+        ServiceContainer[] holder = new ServiceContainer[1];
+        Thread builder = new Thread(() -> holder[0] = new ServiceContainer());
+        builder.start();
+        builder.join();
+
+        assertNotNull(holder[0].getAppointmentService());
+        assertNotNull(holder[0].getReportGenerator());
+    }
+}
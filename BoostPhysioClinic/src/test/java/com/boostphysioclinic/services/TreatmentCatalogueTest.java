@@ -0,0 +1,66 @@
+package com.boostphysioclinic.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.model.Treatment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TreatmentCatalogueTest {
+    private TreatmentCatalogue catalogue;
+
+    @BeforeEach
+    void setUp() {
+        catalogue = new TreatmentCatalogue();
+    }
+
+    @Test
+    void register_sameNameAndExpertise_returnsSharedInstance() {
+        Treatment first = catalogue.register("Massage", "Sports Medicine");
+        Treatment second = catalogue.register("Massage", "Sports Medicine");
+
+        assertSame(first, second);
+        assertEquals(1, catalogue.size());
+    }
+
+    @Test
+    void register_sameNameDifferentExpertise_createsSeparateTreatments() {
+        Treatment first = catalogue.register("Developmental Delay Therapy", "Pediatric Development");
+        Treatment second = catalogue.register("Developmental Delay Therapy", "Pediatric Physiotherapy");
+
+        assertNotSame(first, second);
+        assertEquals("Pediatric Physiotherapy", second.getExpertise());
+    }
+
+    @Test
+    void register_assignsSequentialIdsFromZero() {
+        assertEquals(0, catalogue.register("A", "Sports").getId());
+        assertEquals(1, catalogue.register("B", "Sports").getId());
+        assertEquals(2, catalogue.register("C", "Rehab").getId());
+    }
+
+    @Test
+    void register_keepsDurationOfFirstRegistration() {
+        catalogue.register("Hydrotherapy Session", "Aquatic Therapy", 45);
+        Treatment treatment = catalogue.register("Hydrotherapy Session", "Aquatic Therapy", 90);
+
+        assertEquals(45, treatment.getDurationMinutes());
+    }
+
+    @Test
+    void getById_returnsRegisteredTreatment() {
+        Treatment treatment = catalogue.register("Massage", "Sports Medicine");
+        assertSame(treatment, catalogue.getById(treatment.getId()));
+    }
+
+    @Test
+    void getById_unknownId_returnsNull() {
+        assertNull(catalogue.getById(5));
+        assertNull(catalogue.getById(Treatment.UNREGISTERED_ID));
+    }
+
+    @Test
+    void newTreatment_outsideCatalogue_isUnregistered() {
+        assertEquals(Treatment.UNREGISTERED_ID, new Treatment("Massage").getId());
+    }
+}
@@ -0,0 +1,200 @@
+package com.boostphysioclinic.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.model.Appointment;
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.model.WaitlistEntry;
+import com.boostphysioclinic.util.ClinicTime;
+import com.boostphysioclinic.util.IdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class WaitlistServiceTest {
+    private static final int DAY = ClinicTime.MINUTES_PER_DAY;
+
+    private ServiceContainer services;
+    private WaitlistService waitlist;
+    private AppointmentService appointments;
+    private Physiotherapist sports;
+    private Physiotherapist neuro;
+    private TimetableSlot slot;
+    private int bookedAppointmentId;
+
+    @BeforeEach
+    void setUp() {
+        services = new ServiceContainer(IdGenerator.inMemory());
+        waitlist = services.getWaitlistService();
+        appointments = services.getAppointmentService();
+
+        PhysiotherapistService physiotherapists = services.getPhysiotherapistService();
+        physiotherapists.addPhysiotherapist("Alice Smith", "1 Main St", "123-456-7890", List.of("Sports Medicine"));
+        physiotherapists.addPhysiotherapist("Charlie Brown", "2 Pine Rd", "555-123-4567", List.of("Neurological Disorders"));
+        sports = physiotherapists.getAllPhysiotherapists().get(0);
+        neuro = physiotherapists.getAllPhysiotherapists().get(1);
+
+        slot = new TimetableSlot(sports, new Treatment("Massage"), 10 * DAY + 540);
+        physiotherapists.addSlotToPhysiotherapist(sports, slot);
+        bookedAppointmentId = appointments.bookAppointmentId(addPatient("Booked Patient"), slot).getData();
+    }
+
+    @Test
+    void cancellation_booksHighestPriorityWaitingPatient() {
+        WaitlistEntry low = join(addPatient("Low Priority"), null, null, 1);
+        WaitlistEntry high = join(addPatient("High Priority"), sports, null, 5);
+
+        appointments.cancelAppointment(bookedAppointmentId);
+
+        assertTrue(slot.isBooked());
+        assertTrue(high.isAssigned());
+        assertFalse(low.isAssigned());
+        Appointment appointment = appointments.getAppointmentById(high.getAppointmentId()).getData();
+        assertSame(high.getPatient(), appointment.getPatient());
+        assertEquals(List.of(low), waitlist.getWaitingEntries());
+    }
+
+    @Test
+    void equalPriority_servesFirstToJoin() {
+        WaitlistEntry first = join(addPatient("First Patient"), null, null, 0);
+        WaitlistEntry second = join(addPatient("Second Patient"), sports, null, 0);
+
+        appointments.cancelAppointment(bookedAppointmentId);
+
+        assertTrue(first.isAssigned());
+        assertFalse(second.isAssigned());
+    }
+
+    @Test
+    void entriesThatDoNotAcceptTheSlot_areSkipped() {
+        WaitlistEntry otherPhysio = join(addPatient("Wants Neuro"), neuro, null, 9);
+        WaitlistEntry otherExpertise = join(addPatient("Needs Neuro"), null, "neuro", 9);
+        WaitlistEntry tooLate = waitlist.join(addPatient("Wants Afternoon"), null, null,
+                10 * DAY + 720, 11 * DAY, 9).getData();
+
+        appointments.cancelAppointment(bookedAppointmentId);
+
+        assertFalse(slot.isBooked());
+        assertFalse(otherPhysio.isAssigned() || otherExpertise.isAssigned() || tooLate.isAssigned());
+        assertEquals(3, waitlist.getWaitingEntries().size());
+    }
+
+    @Test
+    void expertise_isMatchedAgainstTheFreedSlotsTreatment() {
+        PhysiotherapistService physiotherapists = services.getPhysiotherapistService();
+        physiotherapists.addPhysiotherapist("Dana White", "3 Elm St", "555-987-6543", List.of("Massage", "Rehabilitation"));
+        Physiotherapist both = physiotherapists.getAllPhysiotherapists().get(2);
+        TreatmentCatalogue catalogue = services.getTreatmentCatalogue();
+        TimetableSlot rehabSlot = new TimetableSlot(both, catalogue.register("Knee Rehab", "Rehabilitation"), 10 * DAY + 600);
+        physiotherapists.addSlotToPhysiotherapist(both, rehabSlot);
+        int rehabAppointmentId = appointments.bookAppointmentId(addPatient("Rehab Patient"), rehabSlot).getData();
+
+        WaitlistEntry wantsMassage = join(addPatient("Wants Massage"), null, "massage", 9);
+        WaitlistEntry wantsRehab = join(addPatient("Wants Rehab"), null, "rehab", 1);
+
+        appointments.cancelAppointment(rehabAppointmentId);
+
+        assertFalse(wantsMassage.isAssigned());
+        assertTrue(wantsRehab.isAssigned());
+        assertEquals(rehabSlot, appointments.getAppointmentById(wantsRehab.getAppointmentId()).getData().getSlot());
+    }
+
+    @Test
+    void patientAlreadyBookedAtThatTime_keepsPlaceAndNextPatientIsBooked() {
+        Patient busy = addPatient("Busy Patient");
+        TimetableSlot sameTime = new TimetableSlot(neuro, new Treatment("Balance"), slot.getEpochMinute());
+        services.getPhysiotherapistService().addSlotToPhysiotherapist(neuro, sameTime);
+        appointments.bookAppointmentId(busy, sameTime);
+
+        WaitlistEntry busyEntry = join(busy, null, null, 9);
+        WaitlistEntry next = join(addPatient("Free Patient"), null, null, 1);
+
+        appointments.cancelAppointment(bookedAppointmentId);
+
+        assertTrue(next.isAssigned());
+        assertFalse(busyEntry.isAssigned());
+        assertEquals(List.of(busyEntry), waitlist.getWaitingEntries());
+    }
+
+    @Test
+    void deletedPatient_isWithdrawnInsteadOfBooked() {
+        Patient deleted = addPatient("Deleted Patient");
+        join(deleted, null, null, 9);
+        WaitlistEntry next = join(addPatient("Next Patient"), null, null, 1);
+        services.getPatientService().deletePatient(deleted.getId());
+
+        appointments.cancelAppointment(bookedAppointmentId);
+
+        assertTrue(next.isAssigned());
+        assertTrue(waitlist.getWaitingEntries().isEmpty());
+    }
+
+    @Test
+    void leave_removesEntry() {
+        WaitlistEntry entry = join(addPatient("Leaving Patient"), null, null, 0);
+
+        assertTrue(waitlist.leave(entry.getId()));
+        assertFalse(waitlist.leave(entry.getId()));
+
+        appointments.cancelAppointment(bookedAppointmentId);
+        assertFalse(entry.isAssigned());
+    }
+
+    @Test
+    void join_rejectsInvalidRequests() {
+        Patient patient = addPatient("Some Patient");
+
+        assertEquals(WaitlistService.WaitlistError.PATIENT_NOT_FOUND,
+                waitlist.join(null, null, null, 0, DAY, 0).getError());
+        assertEquals(WaitlistService.WaitlistError.INVALID_TIME_WINDOW,
+                waitlist.join(patient, null, null, DAY, DAY, 0).getError());
+        assertEquals(WaitlistService.WaitlistError.TIME_WINDOW_TOO_LONG,
+                waitlist.join(patient, null, null, 0, 400 * DAY, 0).getError());
+    }
+
+    @Test
+    void cancellationStorm_fillsEverySlotQuickly() {
+        int slots = 2_000;
+        PhysiotherapistService physiotherapists = services.getPhysiotherapistService();
+        List<Integer> booked = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            TimetableSlot stormSlot = new TimetableSlot(neuro, new Treatment("Session"), 20 * DAY + i * 60);
+            physiotherapists.addSlotToPhysiotherapist(neuro, stormSlot);
+            booked.add(appointments.bookAppointmentId(addPatient("Booked " + i), stormSlot).getData());
+        }
+        // Thousands of waiters for other days, and one waiter per storm slot
+        for (int i = 0; i < 5_000; i++) {
+            join(addPatient("Elsewhere " + i), sports, null, i % 7);
+        }
+        List<WaitlistEntry> stormWaiters = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            stormWaiters.add(waitlist.join(addPatient("Storm " + i), neuro, null,
+                    20 * DAY + i * 60, 20 * DAY + i * 60 + 60, 0).getData());
+        }
+
+        long start = System.nanoTime();
+        for (int appointmentId : booked) {
+            appointments.cancelAppointment(appointmentId);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        for (WaitlistEntry entry : stormWaiters) {
+            assertTrue(entry.isAssigned());
+        }
+        assertEquals(5_000, waitlist.getWaitingEntries().size());
+        assertTrue(elapsedMillis < 2_000, "storm took " + elapsedMillis + " ms");
+    }
+
+    private WaitlistEntry join(Patient patient, Physiotherapist physiotherapist, String expertise, int priority) {
+        return waitlist.join(patient, physiotherapist, expertise, 10 * DAY, 11 * DAY, priority).getData();
+    }
+
+    private Patient addPatient(String name) {
+        return services.getPatientService().addPatient(name, "10 Baker Street", "+441234567890").getData();
+    }
+}
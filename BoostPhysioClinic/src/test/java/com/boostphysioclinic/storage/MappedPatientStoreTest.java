@@ -0,0 +1,202 @@
+package com.boostphysioclinic.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.boostphysioclinic.model.Patient;
+import com.boostphysioclinic.model.Physiotherapist;
+import com.boostphysioclinic.model.TimetableSlot;
+import com.boostphysioclinic.model.Treatment;
+import com.boostphysioclinic.services.PatientService;
+import com.boostphysioclinic.services.PhysiotherapistService;
+import com.boostphysioclinic.services.ServiceContainer;
+import com.boostphysioclinic.util.IdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+class MappedPatientStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void patients_surviveReopening() throws IOException {
+        Path file = tempDir.resolve("patients.bpc");
+        try (MappedPatientStore store = MappedPatientStore.open(file)) {
+            store.add(new Patient(10_001, "Ada Lovelace", "12 St James's Square", "+447700900001"));
+            Patient grace = new Patient(10_002, "Grace Hopper", "Arlington, Virginia", "+15550100002");
+            store.add(grace);
+            store.appointmentBooked(grace, 20_001);
+            grace.addAppointment(20_002);
+            store.appointmentBooked(grace, 20_002);
+        }
+
+        try (MappedPatientStore store = MappedPatientStore.open(file)) {
+            assertEquals(2, store.size());
+            assertEquals(0, store.cachedCount());
+            Patient grace = store.get(10_002);
+            assertEquals("Grace Hopper", grace.getFullName());
+            assertEquals("Arlington, Virginia", grace.getAddress());
+            assertEquals("+15550100002", grace.getTel());
+            assertEquals(List.of(20_001, 20_002), grace.getAppointments());
+            assertEquals(List.of("Ada Lovelace", "Grace Hopper"),
+                    store.getAll().stream().map(Patient::getFullName).toList());
+        }
+    }
+
+    @Test
+    void deletedPatients_stayDeletedAfterReopening() throws IOException {
+        Path file = tempDir.resolve("patients.bpc");
+        try (MappedPatientStore store = MappedPatientStore.open(file)) {
+            store.add(new Patient(10_001, "Ada Lovelace", "12 St James's Square", "+447700900001"));
+            store.add(new Patient(10_002, "Grace Hopper", "Arlington, Virginia", "+15550100002"));
+            assertTrue(store.delete(10_001));
+            assertFalse(store.delete(10_001));
+            assertFalse(store.containsName("Ada Lovelace"));
+        }
+
+        try (MappedPatientStore store = MappedPatientStore.open(file)) {
+            assertNull(store.get(10_001));
+            assertTrue(store.containsName("Grace Hopper"));
+            assertEquals(1, store.getAll().size());
+        }
+    }
+
+    @Test
+    void add_rejectsDuplicateIds() throws IOException {
+        try (MappedPatientStore store = MappedPatientStore.open(tempDir.resolve("patients.bpc"))) {
+            store.add(new Patient(10_001, "Ada Lovelace", "12 St James's Square", "+447700900001"));
+            assertThrows(IllegalStateException.class,
+                    () -> store.add(new Patient(10_001, "Someone Else", "Elsewhere", "+447700900002")));
+        }
+    }
+
+    @Test
+    void cache_keepsOnlyTheMostRecentlyUsedPatients() throws IOException {
+        try (MappedPatientStore store = MappedPatientStore.open(tempDir.resolve("patients.bpc"), 2)) {
+            Patient first = new Patient(10_001, "Patient One", "1 High Street", "+447700900001");
+            store.add(first);
+            store.add(new Patient(10_002, "Patient Two", "2 High Street", "+447700900002"));
+            assertSame(first, store.get(10_001));
+
+            store.add(new Patient(10_003, "Patient Three", "3 High Street", "+447700900003"));
+            assertEquals(2, store.cachedCount());
+            assertSame(first, store.get(10_001));
+
+            store.add(new Patient(10_004, "Patient Four", "4 High Street", "+447700900004"));
+            store.add(new Patient(10_005, "Patient Five", "5 High Street", "+447700900005"));
+            Patient reread = store.get(10_001);
+            assertNotSame(first, reread);
+            assertEquals("Patient One", reread.getFullName());
+        }
+    }
+
+    @Test
+    void file_growsToHoldManyPatients() throws IOException {
+        Path file = tempDir.resolve("patients.bpc");
+        int patients = 30_000;
+        try (MappedPatientStore store = MappedPatientStore.open(file, 100)) {
+            for (int i = 1; i <= patients; i++) {
+                store.add(new Patient(i, "Patient " + i, i + " Long Road", "+4477009" + i));
+            }
+            assertEquals(100, store.cachedCount());
+        }
+        assertTrue(Files.size(file) > 1 << 20);
+
+        try (MappedPatientStore store = MappedPatientStore.open(file, 100)) {
+            assertEquals(patients, store.size());
+            assertEquals("Patient 12345", store.get(12_345).getFullName());
+            assertEquals(patients + " Long Road", store.get(patients).getAddress());
+        }
+    }
+
+    @Test
+    void containsName_findsNamesWhoseHashesCollide() throws IOException {
+        Path file = tempDir.resolve("patients.bpc");
+        try (MappedPatientStore store = MappedPatientStore.open(file)) {
+            // "Aa" and "BB" have the same hash, as do "AaAa", "AaBB" and "BBBB"
+            String[] names = {"Aa", "BB", "AaAa", "AaBB", "BBBB"};
+            for (int i = 0; i < names.length; i++) {
+                store.add(new Patient(10_001 + i, names[i], "1 High Street", "+447700900001"));
+            }
+            assertTrue(store.delete(10_001));
+            assertTrue(store.delete(10_004));
+
+            assertFalse(store.containsName("Aa"));
+            assertTrue(store.containsName("BB"));
+            assertTrue(store.containsName("AaAa"));
+            assertFalse(store.containsName("AaBB"));
+            assertTrue(store.containsName("BBBB"));
+        }
+
+        try (MappedPatientStore store = MappedPatientStore.open(file)) {
+            assertFalse(store.containsName("Aa"));
+            assertTrue(store.containsName("BB"));
+            assertTrue(store.containsName("BBBB"));
+        }
+    }
+
+    @Test
+    void bytesWrittenPastTheEnd_areIgnoredWhenReopening() throws IOException {
+        Path file = tempDir.resolve("patients.bpc");
+        try (MappedPatientStore store = MappedPatientStore.open(file)) {
+            store.add(new Patient(10_001, "Ada Lovelace", "12 St James's Square", "+447700900001"));
+        }
+        // A process that stopped while appending leaves a partial record after the end offset
+        long end;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            channel.read(header, 8);
+            end = header.flip().getLong();
+            channel.write(ByteBuffer.wrap(new byte[]{1, 0, 0, 0, 0x27}), end);
+        }
+
+        try (MappedPatientStore store = MappedPatientStore.open(file)) {
+            assertEquals(1, store.size());
+            store.add(new Patient(10_002, "Grace Hopper", "Arlington, Virginia", "+15550100002"));
+        }
+        try (MappedPatientStore store = MappedPatientStore.open(file)) {
+            assertEquals("Grace Hopper", store.get(10_002).getFullName());
+        }
+    }
+
+    @Test
+    void open_rejectsFilesThatAreNotPatientStores() throws IOException {
+        Path file = tempDir.resolve("not-a-store.txt");
+        Files.writeString(file, "this is not a patient store at all");
+        assertThrows(IOException.class, () -> MappedPatientStore.open(file));
+    }
+
+    @Test
+    void patientService_recordsBookingsInTheStore() throws IOException {
+        Path file = tempDir.resolve("patients.bpc");
+        int patientId;
+        try (MappedPatientStore store = MappedPatientStore.open(file)) {
+            ServiceContainer services = new ServiceContainer(IdGenerator.inMemory(), null, store);
+            PatientService patientService = services.getPatientService();
+            Patient patient = patientService.addPatient("Ada Lovelace", "12 St James's Square", "07700900001").getData();
+            patientId = patient.getId();
+            PhysiotherapistService physiotherapists = services.getPhysiotherapistService();
+            physiotherapists.addPhysiotherapist("Alice Smith", "1 Main St", "123-456-7890", List.of("Sports Medicine"));
+            Physiotherapist physio = physiotherapists.getAllPhysiotherapists().get(0);
+            Treatment massage = services.getTreatmentCatalogue().register("Massage", "Sports Medicine");
+            TimetableSlot slot = new TimetableSlot(physio, massage, 600);
+            physiotherapists.addSlotToPhysiotherapist(physio, slot);
+            int appointmentId = services.getAppointmentService().bookAppointmentId(patient, slot).getData();
+
+            assertEquals(List.of(appointmentId), patient.getAppointments());
+            assertTrue(patientService.getPatientsList().contains(patient));
+        }
+
+        try (MappedPatientStore store = MappedPatientStore.open(file)) {
+            assertEquals(1, store.get(patientId).getAppointments().size());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.boostphysioclinic.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class OffHeapIntLongMapTest {
+
+    @Test
+    void putGetRemove_behaveLikeAMap() {
+        OffHeapIntLongMap map = new OffHeapIntLongMap(16);
+        map.put(7, 700);
+        map.put(7, 701);
+        map.put(8, 800);
+
+        assertEquals(701, map.get(7));
+        assertEquals(800, map.get(8));
+        assertEquals(OffHeapIntLongMap.MISSING, map.get(9));
+        assertEquals(2, map.size());
+        assertTrue(map.remove(7));
+        assertFalse(map.remove(7));
+        assertEquals(OffHeapIntLongMap.MISSING, map.get(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void put_rejectsKeysThatAreNotPositive() {
+        OffHeapIntLongMap map = new OffHeapIntLongMap(16);
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, 1));
+    }
+
+    @Test
+    void randomOperations_matchHashMap_acrossResizes() {
+        OffHeapIntLongMap map = new OffHeapIntLongMap(16);
+        Map<Integer, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                long value = random.nextLong() & Long.MAX_VALUE;
+                expected.put(key, value);
+                map.put(key, value);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = 1; key <= 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, OffHeapIntLongMap.MISSING).longValue(), map.get(key));
+        }
+    }
+}
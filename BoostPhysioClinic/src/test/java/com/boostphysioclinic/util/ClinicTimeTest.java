@@ -0,0 +1,38 @@
+package com.boostphysioclinic.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+
+class ClinicTimeTest {
+
+    @Test
+    void testEpochIsMinuteZero() {
+        assertEquals(0, ClinicTime.toEpochMinute(ClinicTime.EPOCH));
+    }
+
+    @Test
+    void testRoundTripPreservesMinutePrecision() {
+        LocalDateTime time = LocalDateTime.of(2025, 3, 17, 14, 30);
+        assertEquals(time, ClinicTime.toLocalDateTime(ClinicTime.toEpochMinute(time)));
+    }
+
+    @Test
+    void testSecondsAreTruncated() {
+        LocalDateTime time = LocalDateTime.of(2025, 1, 1, 9, 0, 59, 999);
+        assertEquals(9 * 60, ClinicTime.toEpochMinute(time));
+    }
+
+    @Test
+    void testTimesBeforeEpochAreNegative() {
+        assertEquals(-60, ClinicTime.toEpochMinute(LocalDateTime.of(2024, 12, 31, 23, 0)));
+        assertEquals(-1, ClinicTime.toEpochDay(-60));
+    }
+
+    @Test
+    void testOrderingMatchesLocalDateTime() {
+        LocalDateTime earlier = LocalDateTime.of(2025, 1, 6, 9, 0);
+        LocalDateTime later = LocalDateTime.of(2025, 1, 6, 10, 0);
+        assertTrue(ClinicTime.toEpochMinute(earlier) < ClinicTime.toEpochMinute(later));
+    }
+}
@@ -0,0 +1,95 @@
+package com.boostphysioclinic.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+class CountRankingTest {
+
+    @Test
+    void descendingKeys_followCountsThenArrivalOrder() {
+        CountRanking ranking = new CountRanking();
+        ranking.increment(1);
+        ranking.increment(2);
+        ranking.increment(2);
+        ranking.increment(3);
+        ranking.add(4, 5);
+
+        assertEquals(List.of(4, 2, 1, 3), keys(ranking));
+        assertEquals(5, ranking.count(4));
+        assertEquals(0, ranking.count(9));
+    }
+
+    @Test
+    void decrement_removesKeysAtZero() {
+        CountRanking ranking = new CountRanking();
+        ranking.increment(1);
+        ranking.increment(2);
+        ranking.increment(2);
+
+        ranking.decrement(1);
+        ranking.decrement(2);
+        ranking.decrement(7);
+
+        assertEquals(1, ranking.size());
+        assertEquals(0, ranking.count(1));
+        assertEquals(1, ranking.count(2));
+        assertEquals(List.of(2), keys(ranking));
+    }
+
+    @Test
+    void add_rejectsAmountsThatAreNotPositive() {
+        CountRanking ranking = new CountRanking();
+
+        assertThrows(IllegalArgumentException.class, () -> ranking.add(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> ranking.add(1, -3));
+    }
+
+    @Test
+    void descendingKeys_matchSortingTheCounts() {
+        Random random = new Random(11);
+        CountRanking ranking = new CountRanking();
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(200);
+            int operation = random.nextInt(5);
+            if (operation == 0) {
+                ranking.decrement(key);
+                counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+            } else if (operation == 1) {
+                int amount = 1 + random.nextInt(4);
+                ranking.add(key, amount);
+                counts.merge(key, amount, Integer::sum);
+            } else {
+                ranking.increment(key);
+                counts.merge(key, 1, Integer::sum);
+            }
+        }
+
+        List<Integer> keys = keys(ranking);
+        assertEquals(counts.size(), ranking.size());
+        assertEquals(counts.size(), keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(counts.get(keys.get(i)).intValue(), ranking.count(keys.get(i)));
+            if (i > 0) {
+                assertTrue(ranking.count(keys.get(i - 1)) >= ranking.count(keys.get(i)));
+            }
+        }
+    }
+
+    private static List<Integer> keys(CountRanking ranking) {
+        List<Integer> keys = new ArrayList<>();
+        PrimitiveIterator.OfInt iterator = ranking.descendingKeys();
+        while (iterator.hasNext()) {
+            keys.add(iterator.nextInt());
+        }
+        return keys;
+    }
+}
@@ -1,28 +1,33 @@
 package com.boostphysioclinic.util;
 
 import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import java.lang.reflect.Field;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 class IdGeneratorTest {
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
-    void resetCounters() throws Exception {
-        // Reset patient counter to 9999 using reflection
-        Field patientCounterField = IdGenerator.class.getDeclaredField("personnelIdCounter");
-        patientCounterField.setAccessible(true);
-        AtomicInteger patientCounter = (AtomicInteger) patientCounterField.get(null);
-        patientCounter.set(9999);
+    void resetCounters() {
+        // Start both counters again from 10000
+        IdGenerator.configureInMemory();
+    }
 
-        // Reset appointment counter to 9999
-        Field appointmentCounterField = IdGenerator.class.getDeclaredField("appointmentIdCounter");
-        appointmentCounterField.setAccessible(true);
-        AtomicInteger appointmentCounter = (AtomicInteger) appointmentCounterField.get(null);
-        appointmentCounter.set(9999);
+    @AfterEach
+    void restoreInMemoryCounters() {
+        IdGenerator.configureInMemory();
     }
 
     @Test
@@ -74,4 +79,76 @@ class IdGeneratorTest {
         assertTrue(IdGenerator.generatePersonnelId() >= 10000);
         assertTrue(IdGenerator.generateAppointmentId() >= 10000);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLeasedIdsStartAt10000OnNodeZero() {
+        IdGenerator.configure(0, tempDir.resolve("ids.properties"));
+        assertEquals(10000, IdGenerator.generatePersonnelId());
+        assertEquals(10000, IdGenerator.generateAppointmentId());
+    }
+
+    @Test
+    void testLeasedIdsEncodeNodeId() {
+        IdGenerator.configure(3, tempDir.resolve("ids.properties"));
+        int id = IdGenerator.generateAppointmentId();
+        assertEquals(3, id / IdGenerator.NODE_ID_STRIDE);
+        assertEquals(300010000, id);
+    }
+
+    @Test
+    void testRestartNeverReusesLeasedIds() {
+        Path leaseFile = tempDir.resolve("ids.properties");
+        IdGenerator.configure(1, leaseFile, 100);
+        int beforeRestart = IdGenerator.generatePersonnelId();
+
+        // Simulate a restart by configuring again from the same file
+        IdGenerator.configure(1, leaseFile, 100);
+        int afterRestart = IdGenerator.generatePersonnelId();
+
+        assertTrue(afterRestart > beforeRestart);
+        assertEquals(beforeRestart + 100, afterRestart);
+    }
+
+    @Test
+    void testLeasesNewBlockWhenExhausted() {
+        IdGenerator.configure(0, tempDir.resolve("ids.properties"), 5);
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < 23; i++) {
+            assertTrue(ids.add(IdGenerator.generateAppointmentId()));
+        }
+        assertEquals(10023, IdGenerator.generateAppointmentId());
+    }
+
+    @Test
+    void testLeaseFileOfAnotherNodeIsRejected() {
+        Path leaseFile = tempDir.resolve("ids.properties");
+        IdGenerator.configure(1, leaseFile);
+        assertTrue(Files.exists(leaseFile));
+        assertThrows(IllegalStateException.class, () -> IdGenerator.configure(2, leaseFile));
+    }
+
+    @Test
+    void testInvalidNodeIdIsRejected() {
+        Path leaseFile = tempDir.resolve("ids.properties");
+        assertThrows(IllegalArgumentException.class, () -> IdGenerator.configure(-1, leaseFile));
+        assertThrows(IllegalArgumentException.class,
+                () -> IdGenerator.configure(IdGenerator.MAX_NODE_ID + 1, leaseFile));
+    }
+
+    @Test
+    void testConcurrentLeasedIdsAreUnique() throws Exception {
+        IdGenerator.configure(2, tempDir.resolve("ids.properties"), 50);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    assertTrue(ids.add(IdGenerator.generatePersonnelId()));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(16000, ids.size());
+    }
+}
@@ -0,0 +1,51 @@
+package com.boostphysioclinic.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class ResultTest {
+
+    private enum TestError {
+        FIRST, SECOND
+    }
+
+    @Test
+    void testEnumErrorsAreShared() {
+        Result<Integer, TestError> first = Result.error(TestError.FIRST);
+        assertSame(first, Result.error(TestError.FIRST));
+        assertEquals(TestError.FIRST, first.getError());
+    }
+
+    @Test
+    void testDifferentEnumConstantsHaveDifferentResults() {
+        assertNotSame(Result.error(TestError.FIRST), Result.error(TestError.SECOND));
+        assertEquals(TestError.SECOND, Result.error(TestError.SECOND).getError());
+    }
+
+    @Test
+    void testNonEnumErrorsAreNotShared() {
+        Result<Integer, String> result = Result.error("Invalid input");
+        assertTrue(result.isError());
+        assertEquals("Invalid input", result.getError());
+    }
+
+    @Test
+    void testNoValueSuccessIsShared() {
+        assertSame(Result.success(), Result.success(Result.NO_VALUE));
+        assertSame(Result.NO_VALUE, Result.success().getData());
+    }
+
+    @Test
+    void testIntResultErrorsAreShared() {
+        assertSame(IntResult.error(TestError.FIRST), IntResult.error(TestError.FIRST));
+        assertThrows(IllegalStateException.class, () -> IntResult.error(TestError.FIRST).getData());
+    }
+
+    @Test
+    void testIntResultSuccessConvertsToResult() {
+        IntResult<TestError> result = IntResult.success(10001);
+        assertEquals(10001, result.getData());
+        assertEquals(10001, result.toResult().getData());
+        assertSame(Result.error(TestError.SECOND), IntResult.<TestError>error(TestError.SECOND).toResult());
+    }
+}
@@ -0,0 +1,80 @@
+package com.boostphysioclinic.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+class SnapshotListTest {
+
+    @Test
+    void snapshot_isUnaffectedByLaterChanges() {
+        SnapshotList<String> list = new SnapshotList<>();
+        list.add("a");
+        list.add("b");
+        SnapshotList.Snapshot<String> before = list.snapshot();
+
+        list.add("c");
+        list.removeIf("a"::equals);
+
+        assertEquals(List.of("a", "b"), before);
+        assertEquals(List.of("b", "c"), list.snapshot());
+    }
+
+    @Test
+    void snapshot_isReadOnly() {
+        SnapshotList<String> list = new SnapshotList<>();
+        list.add("a");
+
+        assertThrows(UnsupportedOperationException.class, () -> list.snapshot().add("b"));
+        assertThrows(UnsupportedOperationException.class, () -> list.snapshot().remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.snapshot().get(1));
+    }
+
+    @Test
+    void snapshot_isSharedUntilTheNextChange() {
+        SnapshotList<String> list = new SnapshotList<>();
+        list.add("a");
+        SnapshotList.Snapshot<String> first = list.snapshot();
+
+        assertSame(first, list.snapshot());
+        assertFalse(list.removeIf("z"::equals));
+        assertSame(first, list.snapshot());
+
+        list.add("b");
+        assertTrue(list.snapshot().getVersion() > first.getVersion());
+    }
+
+    @Test
+    void readers_alwaysSeeAConsistentPrefix_whileTheWriterAppends() throws Exception {
+        SnapshotList<Integer> list = new SnapshotList<>();
+        int elements = 200_000;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get() && failure.get() == null) {
+                List<Integer> snapshot = list.snapshot();
+                for (int i = 0; i < snapshot.size(); i++) {
+                    if (snapshot.get(i) != i) {
+                        failure.set("index " + i + " held " + snapshot.get(i));
+                        return;
+                    }
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < elements; i++) {
+            list.add(i);
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(elements, list.snapshot().size());
+    }
+}
@@ -0,0 +1,37 @@
+package com.boostphysioclinic.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+
+class TimeFormatterTest {
+
+    @Test
+    void testFormatTimeUsesFriendlyPattern() {
+        assertEquals("Monday, 06 January 2025 - 2:00 PM",
+                TimeFormatter.formatTime(LocalDateTime.of(2025, 1, 6, 14, 0)));
+    }
+
+    @Test
+    void testFormatEpochMinuteMatchesFormatTime() {
+        LocalDateTime time = LocalDateTime.of(2025, 2, 12, 9, 30);
+        assertEquals(TimeFormatter.formatTime(time),
+                TimeFormatter.formatEpochMinute(ClinicTime.toEpochMinute(time)));
+    }
+
+    @Test
+    void testRepeatedFormattingReturnsCachedString() {
+        int epochMinute = ClinicTime.toEpochMinute(LocalDateTime.of(2025, 1, 8, 10, 0));
+        assertSame(TimeFormatter.formatEpochMinute(epochMinute), TimeFormatter.formatEpochMinute(epochMinute));
+    }
+
+    @Test
+    void testManyDistinctTimesAreFormattedCorrectly() {
+        // Far more distinct times than cache entries, so entries get replaced along the way
+        for (int epochMinute = 0; epochMinute < 20_000; epochMinute += 7) {
+            assertEquals(ClinicTime.toLocalDateTime(epochMinute).format(
+                            java.time.format.DateTimeFormatter.ofPattern("EEEE, dd MMMM yyyy - h:mm a")),
+                    TimeFormatter.formatEpochMinute(epochMinute));
+        }
+    }
+}